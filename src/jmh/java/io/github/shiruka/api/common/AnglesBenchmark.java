@@ -0,0 +1,139 @@
+package io.github.shiruka.api.common;
+
+import io.github.shiruka.api.common.vectors.MutableVector3d;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * a class that compares {@link Angles} with {@link StrictMath} and {@link Math}.
+ * <p>
+ * the setup fails if the table is less accurate than its documented error, so a benchmark run also proves the
+ * accuracy on the measured angles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnglesBenchmark {
+
+  /**
+   * the max error that the table may have.
+   */
+  private static final double MAX_ERROR = 3.0E-7d;
+
+  /**
+   * the angle count.
+   */
+  private static final int SIZE = 1024;
+
+  /**
+   * the output.
+   */
+  private final MutableVector3d output = new MutableVector3d();
+
+  /**
+   * the pitches.
+   */
+  private final float[] pitches = new float[AnglesBenchmark.SIZE];
+
+  /**
+   * the yaws.
+   */
+  private final float[] yaws = new float[AnglesBenchmark.SIZE];
+
+  /**
+   * calculates the directions with {@link Angles}.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void directionLookup(final Blackhole blackhole) {
+    for (var index = 0; index < AnglesBenchmark.SIZE; index++) {
+      blackhole.consume(Angles.direction(this.yaws[index], this.pitches[index], this.output));
+    }
+  }
+
+  /**
+   * calculates the directions with {@link Math}.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void directionMath(final Blackhole blackhole) {
+    for (var index = 0; index < AnglesBenchmark.SIZE; index++) {
+      final var yaw = Math.toRadians(this.yaws[index]);
+      final var pitch = Math.toRadians(this.pitches[index]);
+      final var horizontal = Math.cos(pitch);
+      blackhole.consume(this.output.set(-Math.sin(yaw) * horizontal, -Math.sin(pitch), Math.cos(yaw) * horizontal));
+    }
+  }
+
+  /**
+   * creates the angles and checks the accuracy of the table.
+   */
+  @Setup
+  public void setup() {
+    final var random = new Random(0L);
+    for (var index = 0; index < AnglesBenchmark.SIZE; index++) {
+      this.yaws[index] = random.nextFloat() * 720.0f - 360.0f;
+      this.pitches[index] = random.nextFloat() * 180.0f - 90.0f;
+    }
+    for (final var yaw : this.yaws) {
+      final var radians = Math.toRadians(yaw);
+      final var error = Math.max(Math.abs(Angles.sin(yaw) - StrictMath.sin(radians)),
+        Math.abs(Angles.cos(yaw) - StrictMath.cos(radians)));
+      if (error > AnglesBenchmark.MAX_ERROR) {
+        throw new IllegalStateException(String.format("The error at %s degrees is %s!", yaw, error));
+      }
+    }
+  }
+
+  /**
+   * calculates the sines with {@link Angles}.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void sinLookup(final Blackhole blackhole) {
+    for (final var yaw : this.yaws) {
+      blackhole.consume(Angles.sin(yaw));
+    }
+  }
+
+  /**
+   * calculates the sines with {@link Math}.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void sinMath(final Blackhole blackhole) {
+    for (final var yaw : this.yaws) {
+      blackhole.consume(Math.sin(Math.toRadians(yaw)));
+    }
+  }
+
+  /**
+   * calculates the sines with {@link StrictMath}.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void sinStrictMath(final Blackhole blackhole) {
+    for (final var yaw : this.yaws) {
+      blackhole.consume(StrictMath.sin(StrictMath.toRadians(yaw)));
+    }
+  }
+}
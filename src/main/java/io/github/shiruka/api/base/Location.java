@@ -1,6 +1,8 @@
 package io.github.shiruka.api.base;
 
 import io.github.shiruka.api.block.Block;
+import io.github.shiruka.api.common.Angles;
+import io.github.shiruka.api.common.vectors.MutableVector3d;
 import io.github.shiruka.api.common.vectors.Vector3d;
 import io.github.shiruka.api.world.World;
 import org.jetbrains.annotations.NotNull;
@@ -46,6 +48,49 @@ public record Location(
     return this.world.block(this.position);
   }
 
+  /**
+   * calculates the unit vector that {@code this} location faces with its yaw and pitch.
+   *
+   * @return a newly created direction.
+   *
+   * @see Angles#direction(double, double, MutableVector3d)
+   */
+  @NotNull
+  public Vector3d direction() {
+    return Vector3d.of(Angles.directionX(this.yaw, this.pitch), Angles.directionY(this.pitch),
+      Angles.directionZ(this.yaw, this.pitch));
+  }
+
+  /**
+   * calculates the unit vector that {@code this} location faces with its yaw and pitch without allocating.
+   *
+   * @param output the output to write the direction.
+   *
+   * @return the output.
+   */
+  @NotNull
+  public MutableVector3d direction(@NotNull final MutableVector3d output) {
+    return Angles.direction(this.yaw, this.pitch, output);
+  }
+
+  /**
+   * rotates {@code this} location to face the target.
+   * <p>
+   * the yaw is kept if the target is right above or below the position.
+   *
+   * @param target the target to face.
+   *
+   * @return a newly created location with the new yaw and pitch values.
+   */
+  @NotNull
+  public Location lookAt(@NotNull final Vector3d target) {
+    final var x = target.x() - this.position.x();
+    final var y = target.y() - this.position.y();
+    final var z = target.z() - this.position.z();
+    final var yaw = x == 0.0d && z == 0.0d ? this.yaw : Angles.yaw(x, z);
+    return Location.of(this.world, this.position, yaw, Angles.pitch(x, y, z));
+  }
+
   /**
    * sets the pitch.
    *
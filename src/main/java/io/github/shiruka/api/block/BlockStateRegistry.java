@@ -0,0 +1,218 @@
+package io.github.shiruka.api.block;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.Int2ObjectBiMap;
+import it.unimi.dsi.fastutil.HashCommon;
+import java.util.function.ObjIntConsumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents global palettes which map block states to dense runtime ids.
+ * <p>
+ * the states are registered on startup and get the runtime ids in registration order starting from {@code 0}. after
+ * {@link #freeze()}, the registry is immutable, the runtime id to state lookup is a plain array access and the state
+ * to runtime id lookup is a precomputed open addressing table, both of them are lock-free and do not allocate. the
+ * lookups are only available after the registry is frozen.
+ *
+ * @param <T> type of the block states.
+ */
+public final class BlockStateRegistry<T> {
+
+  /**
+   * the runtime ids by the states, used until the registry is frozen.
+   */
+  @NotNull
+  private final Int2ObjectBiMap<T> registered = new Int2ObjectBiMap<>(256);
+
+  /**
+   * the frozen lookup tables, {@code null} until the registry is frozen.
+   */
+  @Nullable
+  private volatile Table frozen;
+
+  /**
+   * obtains the bits that are needed to store any runtime id, which is the bits of the direct palette mode.
+   *
+   * @return bits per runtime id, at least {@code 1}.
+   */
+  public int bits() {
+    return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(this.table().states.length - 1));
+  }
+
+  /**
+   * runs the consumer for each state in runtime id order.
+   *
+   * @param consumer the consumer to run.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(@NotNull final ObjIntConsumer<T> consumer) {
+    final var states = this.table().states;
+    for (var id = 0; id < states.length; id++) {
+      consumer.accept((T) states[id], id);
+    }
+  }
+
+  /**
+   * freezes the registry and builds the lookup tables, the registry is immutable afterwards.
+   */
+  public synchronized void freeze() {
+    Preconditions.checkState(this.frozen == null, "The registry is already frozen!");
+    final var size = this.registered.size();
+    final var states = new Object[size];
+    final var capacity = HashCommon.arraySize(Math.max(1, size), 0.5F);
+    final var keys = new Object[capacity];
+    final var ids = new int[capacity];
+    final var mask = capacity - 1;
+    this.registered.forEach((state, id) -> {
+      states[id] = state;
+      var slot = HashCommon.mix(state.hashCode()) & mask;
+      while (keys[slot] != null) {
+        slot = slot + 1 & mask;
+      }
+      keys[slot] = state;
+      ids[slot] = id;
+    });
+    this.frozen = new Table(states, keys, ids, mask);
+  }
+
+  /**
+   * checks if the registry is frozen.
+   *
+   * @return {@code true} if the registry is frozen.
+   */
+  public boolean frozen() {
+    return this.frozen != null;
+  }
+
+  /**
+   * gets the runtime id of the state.
+   *
+   * @param state the state to get.
+   *
+   * @return runtime id of the state, {@code -1} if the state is not registered.
+   *
+   * @throws IllegalStateException if the registry is not frozen.
+   */
+  public int id(@NotNull final T state) {
+    final var table = this.table();
+    final var keys = table.keys;
+    var slot = HashCommon.mix(state.hashCode()) & table.mask;
+    Object key;
+    while ((key = keys[slot]) != null) {
+      if (key == state || key.equals(state)) {
+        return table.ids[slot];
+      }
+      slot = slot + 1 & table.mask;
+    }
+    return -1;
+  }
+
+  /**
+   * registers the state, must be called before the registry is frozen.
+   *
+   * @param state the state to register.
+   *
+   * @return runtime id of the state, the existing one if the state is already registered.
+   *
+   * @throws IllegalStateException if the registry is frozen.
+   */
+  public synchronized int register(@NotNull final T state) {
+    Preconditions.checkState(this.frozen == null, "The registry is frozen!");
+    final var existing = this.registered.get(state);
+    if (existing != -1) {
+      return existing;
+    }
+    final var id = this.registered.size();
+    this.registered.put(id, state);
+    return id;
+  }
+
+  /**
+   * obtains the count of the registered states.
+   *
+   * @return size.
+   */
+  public int size() {
+    final var table = this.frozen;
+    if (table != null) {
+      return table.states.length;
+    }
+    synchronized (this) {
+      return this.registered.size();
+    }
+  }
+
+  /**
+   * gets the state of the runtime id.
+   *
+   * @param id the id to get.
+   *
+   * @return state of the runtime id, {@code null} if the id is not registered.
+   *
+   * @throws IllegalStateException if the registry is not frozen.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public T state(final int id) {
+    final var states = this.table().states;
+    return id >= 0 && id < states.length ? (T) states[id] : null;
+  }
+
+  /**
+   * obtains the frozen lookup tables.
+   *
+   * @return frozen tables.
+   *
+   * @throws IllegalStateException if the registry is not frozen.
+   */
+  @NotNull
+  private Table table() {
+    final var table = this.frozen;
+    Preconditions.checkState(table != null, "The registry is not frozen yet!");
+    return table;
+  }
+
+  /**
+   * a class that represents frozen lookup tables.
+   */
+  private static final class Table {
+
+    /**
+     * the runtime ids by the slots of {@link #keys}.
+     */
+    private final int @NotNull [] ids;
+
+    /**
+     * the open addressing table of the states.
+     */
+    @Nullable
+    private final Object @NotNull [] keys;
+
+    /**
+     * the mask of the slots.
+     */
+    private final int mask;
+
+    /**
+     * the states by the runtime ids.
+     */
+    private final Object @NotNull [] states;
+
+    /**
+     * ctor.
+     *
+     * @param states the states.
+     * @param keys the keys.
+     * @param ids the ids.
+     * @param mask the mask.
+     */
+    private Table(final Object @NotNull [] states, @Nullable final Object @NotNull [] keys,
+                  final int @NotNull [] ids, final int mask) {
+      this.states = states;
+      this.keys = keys;
+      this.ids = ids;
+      this.mask = mask;
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package io.github.shiruka.api.common;
+
+import io.github.shiruka.api.common.vectors.MutableVector3d;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods for angles in degrees, such as the yaw and the pitch of locations.
+ * <p>
+ * the sine and the cosine are read from a table of {@value #SIZE} samples per turn and interpolated linearly, the
+ * error is below {@code 3.0E-7} against {@link StrictMath}, which is finer than the precision of {@code float}
+ * rotations, while it avoids the argument reduction of {@link Math#sin(double)}.
+ */
+public final class Angles {
+
+  /**
+   * the sample count of the table per turn.
+   */
+  private static final int SIZE = 4096;
+
+  /**
+   * the index count per degree.
+   */
+  private static final double INDEX_PER_DEGREE = Angles.SIZE / 360.0d;
+
+  /**
+   * the mask to wrap the indexes.
+   */
+  private static final int MASK = Angles.SIZE - 1;
+
+  /**
+   * the index count per quarter turn.
+   */
+  private static final int QUARTER = Angles.SIZE / 4;
+
+  /**
+   * the sine table, the last sample repeats the first one to interpolate without wrapping.
+   */
+  private static final double @NotNull [] SIN = Angles.table();
+
+  /**
+   * ctor.
+   */
+  private Angles() {
+  }
+
+  /**
+   * calculates the cosine of the angle.
+   *
+   * @param degrees the angle in degrees.
+   *
+   * @return cosine of the angle.
+   */
+  public static double cos(final double degrees) {
+    return Angles.lookup(degrees * Angles.INDEX_PER_DEGREE, Angles.QUARTER);
+  }
+
+  /**
+   * calculates the unit direction vector of the rotation.
+   * <p>
+   * a yaw of {@code 0} faces positive z and {@code 90} faces negative x, a positive pitch faces down.
+   *
+   * @param yaw the yaw in degrees.
+   * @param pitch the pitch in degrees.
+   * @param output the output to write the direction.
+   *
+   * @return the output.
+   */
+  @NotNull
+  public static MutableVector3d direction(final double yaw, final double pitch,
+                                          @NotNull final MutableVector3d output) {
+    return output.set(Angles.directionX(yaw, pitch), Angles.directionY(pitch), Angles.directionZ(yaw, pitch));
+  }
+
+  /**
+   * calculates the x of the unit direction vector of the rotation.
+   *
+   * @param yaw the yaw in degrees.
+   * @param pitch the pitch in degrees.
+   *
+   * @return x of the direction.
+   *
+   * @see #direction(double, double, MutableVector3d)
+   */
+  public static double directionX(final double yaw, final double pitch) {
+    return -Angles.sin(yaw) * Angles.cos(pitch);
+  }
+
+  /**
+   * calculates the y of the unit direction vector of the rotation.
+   *
+   * @param pitch the pitch in degrees.
+   *
+   * @return y of the direction.
+   *
+   * @see #direction(double, double, MutableVector3d)
+   */
+  public static double directionY(final double pitch) {
+    return -Angles.sin(pitch);
+  }
+
+  /**
+   * calculates the z of the unit direction vector of the rotation.
+   *
+   * @param yaw the yaw in degrees.
+   * @param pitch the pitch in degrees.
+   *
+   * @return z of the direction.
+   *
+   * @see #direction(double, double, MutableVector3d)
+   */
+  public static double directionZ(final double yaw, final double pitch) {
+    return Angles.cos(yaw) * Angles.cos(pitch);
+  }
+
+  /**
+   * calculates the pitch that faces the direction.
+   *
+   * @param x the x of the direction.
+   * @param y the y of the direction.
+   * @param z the z of the direction.
+   *
+   * @return pitch in degrees between {@code -90} and {@code 90}.
+   */
+  public static float pitch(final double x, final double y, final double z) {
+    return (float) -Math.toDegrees(Math.atan2(y, Math.sqrt(x * x + z * z)));
+  }
+
+  /**
+   * calculates the sine of the angle.
+   *
+   * @param degrees the angle in degrees.
+   *
+   * @return sine of the angle.
+   */
+  public static double sin(final double degrees) {
+    return Angles.lookup(degrees * Angles.INDEX_PER_DEGREE, 0);
+  }
+
+  /**
+   * wraps the angle into the range between {@code -180}, inclusive, and {@code 180}, exclusive.
+   *
+   * @param degrees the angle to wrap.
+   *
+   * @return wrapped angle.
+   */
+  public static float wrap(final float degrees) {
+    final var wrapped = degrees % 360.0f;
+    if (wrapped >= 180.0f) {
+      return wrapped - 360.0f;
+    }
+    if (wrapped < -180.0f) {
+      return wrapped + 360.0f;
+    }
+    return wrapped;
+  }
+
+  /**
+   * calculates the yaw that faces the horizontal direction.
+   *
+   * @param x the x of the direction.
+   * @param z the z of the direction.
+   *
+   * @return yaw in degrees between {@code -180} and {@code 180}.
+   */
+  public static float yaw(final double x, final double z) {
+    return (float) Math.toDegrees(Math.atan2(-x, z));
+  }
+
+  /**
+   * reads the table with linear interpolation.
+   *
+   * @param index the index to read, may be fractional and out of the table.
+   * @param shift the index count to shift the read.
+   *
+   * @return interpolated sample.
+   */
+  private static double lookup(final double index, final int shift) {
+    final var floor = Floors.floor64(index);
+    final var sample = (int) (floor + shift & Angles.MASK);
+    final var low = Angles.SIN[sample];
+    return low + (Angles.SIN[sample + 1] - low) * (index - floor);
+  }
+
+  /**
+   * creates the sine table.
+   *
+   * @return sine table.
+   */
+  private static double @NotNull [] table() {
+    final var table = new double[Angles.SIZE + 1];
+    for (var index = 0; index < Angles.SIZE; index++) {
+      table[index] = StrictMath.sin(index * 2.0d * StrictMath.PI / Angles.SIZE);
+    }
+    table[Angles.QUARTER] = 1.0d;
+    table[Angles.QUARTER * 2] = 0.0d;
+    table[Angles.QUARTER * 3] = -1.0d;
+    table[Angles.SIZE] = table[0];
+    return table;
+  }
+}
@@ -219,8 +219,17 @@ public final class Int2ObjectBiMap<T> {
     if (!this.forwards.containsKey(oldValue)) {
       return false;
     }
-    this.backwards.removeInt(oldValue);
+    this.backwards.removeInt(value);
     this.forwards.remove(oldValue);
     return true;
   }
+
+  /**
+   * obtains the count of the values.
+   *
+   * @return size.
+   */
+  public int size() {
+    return this.forwards.size();
+  }
 }
@@ -0,0 +1,301 @@
+package io.github.shiruka.api.common.collision;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.vectors.Vector3d;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents immutable axis-aligned bounding boxes.
+ * <p>
+ * the faces of the box are inclusive for {@link #contains(double, double, double)}, while two boxes that only touch
+ * each other do not intersect.
+ *
+ * @param minX the min x.
+ * @param minY the min y.
+ * @param minZ the min z.
+ * @param maxX the max x.
+ * @param maxY the max y.
+ * @param maxZ the max z.
+ *
+ * @see MutableAABB
+ */
+public final record AABB(
+  double minX,
+  double minY,
+  double minZ,
+  double maxX,
+  double maxY,
+  double maxZ
+) {
+
+  /**
+   * ctor.
+   */
+  public AABB {
+    Preconditions.checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ,
+      "Min cannot be greater than max!");
+  }
+
+  /**
+   * creates a box.
+   *
+   * @param minX the min x to create.
+   * @param minY the min y to create.
+   * @param minZ the min z to create.
+   * @param maxX the max x to create.
+   * @param maxY the max y to create.
+   * @param maxZ the max z to create.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public static AABB of(final double minX, final double minY, final double minZ, final double maxX,
+                        final double maxY, final double maxZ) {
+    return new AABB(minX, minY, minZ, maxX, maxY, maxZ);
+  }
+
+  /**
+   * creates a box between the given corners.
+   *
+   * @param first the first corner to create.
+   * @param second the second corner to create.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public static AABB of(@NotNull final Vector3d first, @NotNull final Vector3d second) {
+    return AABB.of(Math.min(first.x(), second.x()), Math.min(first.y(), second.y()),
+      Math.min(first.z(), second.z()), Math.max(first.x(), second.x()), Math.max(first.y(), second.y()),
+      Math.max(first.z(), second.z()));
+  }
+
+  /**
+   * creates a box that stands on the given position, like the boxes of entities.
+   *
+   * @param x the x of the center of the bottom face.
+   * @param y the y of the bottom face.
+   * @param z the z of the center of the bottom face.
+   * @param width the width of the box on x and z.
+   * @param height the height of the box.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public static AABB ofFeet(final double x, final double y, final double z, final double width,
+                            final double height) {
+    final var half = width / 2.0d;
+    return AABB.of(x - half, y, z - half, x + half, y + height, z + half);
+  }
+
+  /**
+   * creates a mutable copy of {@code this}.
+   *
+   * @return a newly created mutable box.
+   */
+  @NotNull
+  public MutableAABB asMutable() {
+    return new MutableAABB(this);
+  }
+
+  /**
+   * calculates the center of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector3d center() {
+    return Vector3d.of((this.minX + this.maxX) / 2.0d, (this.minY + this.maxY) / 2.0d,
+      (this.minZ + this.maxZ) / 2.0d);
+  }
+
+  /**
+   * checks if {@code this} contains the position.
+   *
+   * @param x the x to check.
+   * @param y the y to check.
+   * @param z the z to check.
+   *
+   * @return {@code true} if the position is inside or on a face of {@code this}.
+   */
+  public boolean contains(final double x, final double y, final double z) {
+    return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+  }
+
+  /**
+   * checks if {@code this} contains the position.
+   *
+   * @param vector the vector to check.
+   *
+   * @return {@code true} if the position is inside or on a face of {@code this}.
+   */
+  public boolean contains(@NotNull final Vector3d vector) {
+    return this.contains(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * checks if {@code this} contains the box entirely.
+   *
+   * @param box the box to check.
+   *
+   * @return {@code true} if the box is inside {@code this}.
+   */
+  public boolean contains(@NotNull final AABB box) {
+    return box.minX >= this.minX && box.maxX <= this.maxX && box.minY >= this.minY && box.maxY <= this.maxY &&
+      box.minZ >= this.minZ && box.maxZ <= this.maxZ;
+  }
+
+  /**
+   * obtains the size on z.
+   *
+   * @return depth.
+   */
+  public double depth() {
+    return this.maxZ - this.minZ;
+  }
+
+  /**
+   * grows {@code this} by the given amounts on both sides of each axis, negative amounts shrink it.
+   *
+   * @param x the x to grow.
+   * @param y the y to grow.
+   * @param z the z to grow.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB expand(final double x, final double y, final double z) {
+    return AABB.of(this.minX - x, this.minY - y, this.minZ - z, this.maxX + x, this.maxY + y, this.maxZ + z);
+  }
+
+  /**
+   * grows {@code this} by the given amount on all sides.
+   *
+   * @param amount the amount to grow.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB expand(final double amount) {
+    return this.expand(amount, amount, amount);
+  }
+
+  /**
+   * stretches {@code this} towards the movement, so the result covers the box at every point of the movement.
+   *
+   * @param x the x of the movement.
+   * @param y the y of the movement.
+   * @param z the z of the movement.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB expandTowards(final double x, final double y, final double z) {
+    return AABB.of(x < 0.0d ? this.minX + x : this.minX, y < 0.0d ? this.minY + y : this.minY,
+      z < 0.0d ? this.minZ + z : this.minZ, x > 0.0d ? this.maxX + x : this.maxX, y > 0.0d ? this.maxY + y : this.maxY,
+      z > 0.0d ? this.maxZ + z : this.maxZ);
+  }
+
+  /**
+   * obtains the size on y.
+   *
+   * @return height.
+   */
+  public double height() {
+    return this.maxY - this.minY;
+  }
+
+  /**
+   * checks if {@code this} intersects the box.
+   *
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   *
+   * @return {@code true} if the boxes overlap, touching faces do not count.
+   */
+  public boolean intersects(final double minX, final double minY, final double minZ, final double maxX,
+                            final double maxY, final double maxZ) {
+    return this.minX < maxX && this.maxX > minX && this.minY < maxY && this.maxY > minY && this.minZ < maxZ &&
+      this.maxZ > minZ;
+  }
+
+  /**
+   * checks if {@code this} intersects the box.
+   *
+   * @param box the box to check.
+   *
+   * @return {@code true} if the boxes overlap, touching faces do not count.
+   */
+  public boolean intersects(@NotNull final AABB box) {
+    return this.intersects(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+  }
+
+  /**
+   * moves {@code this}.
+   *
+   * @param x the x to move.
+   * @param y the y to move.
+   * @param z the z to move.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB offset(final double x, final double y, final double z) {
+    return AABB.of(this.minX + x, this.minY + y, this.minZ + z, this.maxX + x, this.maxY + y, this.maxZ + z);
+  }
+
+  /**
+   * moves {@code this}.
+   *
+   * @param vector the vector to move.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB offset(@NotNull final Vector3d vector) {
+    return this.offset(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * calculates the time of impact of {@code this} moving against the static box.
+   *
+   * @param box the static box to sweep against.
+   * @param x the x of the movement.
+   * @param y the y of the movement.
+   * @param z the z of the movement.
+   *
+   * @return the fraction of the movement before the boxes touch, {@code 1} if they do not collide.
+   *
+   * @see Collisions#sweep(double, double, double, double, double, double, double, double, double, double, double,
+   *   double, double, double, double)
+   */
+  public double sweep(@NotNull final AABB box, final double x, final double y, final double z) {
+    return Collisions.sweep(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ, x, y, z, box.minX,
+      box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+  }
+
+  /**
+   * creates the smallest box that contains both {@code this} and the box.
+   *
+   * @param box the box to union.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB union(@NotNull final AABB box) {
+    return AABB.of(Math.min(this.minX, box.minX), Math.min(this.minY, box.minY), Math.min(this.minZ, box.minZ),
+      Math.max(this.maxX, box.maxX), Math.max(this.maxY, box.maxY), Math.max(this.maxZ, box.maxZ));
+  }
+
+  /**
+   * obtains the size on x.
+   *
+   * @return width.
+   */
+  public double width() {
+    return this.maxX - this.minX;
+  }
+}
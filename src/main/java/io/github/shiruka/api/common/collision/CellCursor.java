@@ -0,0 +1,200 @@
+package io.github.shiruka.api.common.collision;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents reusable, mutable cursors which enumerate the block cells that a box overlaps without
+ * allocating.
+ * <p>
+ * the cursor is the broad phase of the collision checks, reset it with the movement of a box to visit every cell
+ * that the box may touch on its way, then test only the solid cells of them. the cursor is not thread-safe.
+ * <pre>
+ *   final var cursor = new CellCursor();
+ *   cursor.reset(box, dx, dy, dz);
+ *   while (cursor.next()) {
+ *     final var id = world.block(cursor.x(), cursor.y(), cursor.z());
+ *     ...
+ *   }
+ * </pre>
+ */
+public final class CellCursor {
+
+  /**
+   * the max x, inclusive.
+   */
+  private int maxX;
+
+  /**
+   * the max y, inclusive.
+   */
+  private int maxY;
+
+  /**
+   * the max z, inclusive.
+   */
+  private int maxZ;
+
+  /**
+   * the min x, inclusive.
+   */
+  private int minX;
+
+  /**
+   * the min z, inclusive.
+   */
+  private int minZ;
+
+  /**
+   * whether the cursor points to a cell.
+   */
+  private boolean valid;
+
+  /**
+   * the current x.
+   */
+  private int x;
+
+  /**
+   * the current y.
+   */
+  private int y;
+
+  /**
+   * the current z.
+   */
+  private int z;
+
+  /**
+   * moves the cursor to the next cell, x changes first, then z, then y.
+   *
+   * @return {@code true} if the cursor points to a cell, {@code false} if the cells are completed.
+   */
+  public boolean next() {
+    if (!this.valid) {
+      return false;
+    }
+    if (this.x < this.maxX) {
+      this.x++;
+      return true;
+    }
+    this.x = this.minX;
+    if (this.z < this.maxZ) {
+      this.z++;
+      return true;
+    }
+    this.z = this.minZ;
+    if (this.y < this.maxY) {
+      this.y++;
+      return true;
+    }
+    this.valid = false;
+    return false;
+  }
+
+  /**
+   * resets the cursor to enumerate the cells that the box overlaps, the cursor points to the first cell after
+   * {@link #next()}.
+   *
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public CellCursor reset(final double minX, final double minY, final double minZ, final double maxX,
+                          final double maxY, final double maxZ) {
+    this.minX = Collisions.firstCell(minX);
+    this.minZ = Collisions.firstCell(minZ);
+    this.maxX = Collisions.lastCell(minX, maxX);
+    this.maxY = Collisions.lastCell(minY, maxY);
+    this.maxZ = Collisions.lastCell(minZ, maxZ);
+    this.x = this.minX - 1;
+    this.y = Collisions.firstCell(minY);
+    this.z = this.minZ;
+    this.valid = true;
+    return this;
+  }
+
+  /**
+   * resets the cursor to enumerate the cells that the box overlaps at any point of the movement.
+   *
+   * @param box the box to reset.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public CellCursor reset(@NotNull final AABB box, final double dx, final double dy, final double dz) {
+    return this.reset(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ(), dx, dy, dz);
+  }
+
+  /**
+   * resets the cursor to enumerate the cells that the box overlaps at any point of the movement.
+   *
+   * @param box the box to reset.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public CellCursor reset(@NotNull final MutableAABB box, final double dx, final double dy, final double dz) {
+    return this.reset(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ(), dx, dy, dz);
+  }
+
+  /**
+   * obtains the current x.
+   *
+   * @return current x.
+   */
+  public int x() {
+    return this.x;
+  }
+
+  /**
+   * obtains the current y.
+   *
+   * @return current y.
+   */
+  public int y() {
+    return this.y;
+  }
+
+  /**
+   * obtains the current z.
+   *
+   * @return current z.
+   */
+  public int z() {
+    return this.z;
+  }
+
+  /**
+   * resets the cursor to enumerate the cells that the box overlaps at any point of the movement.
+   *
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  private CellCursor reset(final double minX, final double minY, final double minZ, final double maxX,
+                           final double maxY, final double maxZ, final double dx, final double dy, final double dz) {
+    return this.reset(Math.min(minX, minX + dx), Math.min(minY, minY + dy), Math.min(minZ, minZ + dz),
+      Math.max(maxX, maxX + dx), Math.max(maxY, maxY + dy), Math.max(maxZ, maxZ + dz));
+  }
+}
@@ -0,0 +1,105 @@
+package io.github.shiruka.api.common.collision;
+
+import io.github.shiruka.api.common.Floors;
+
+/**
+ * a class that contains utility methods for box collisions.
+ */
+public final class Collisions {
+
+  /**
+   * the tolerance to treat a box as touching a face, so rounding errors of the previous movement do not let a box
+   * pass through the face that it stands on.
+   */
+  public static final double EPSILON = 1.0E-7d;
+
+  /**
+   * ctor.
+   */
+  private Collisions() {
+  }
+
+  /**
+   * obtains the first block cell that the range of a box overlaps on an axis.
+   *
+   * @param min the min of the box on the axis.
+   *
+   * @return first cell, inclusive.
+   */
+  public static int firstCell(final double min) {
+    return Floors.floor(min);
+  }
+
+  /**
+   * obtains the last block cell that the range of a box overlaps on an axis, a face which lies on a cell border does
+   * not overlap the next cell.
+   *
+   * @param min the min of the box on the axis.
+   * @param max the max of the box on the axis.
+   *
+   * @return last cell, inclusive.
+   */
+  public static int lastCell(final double min, final double max) {
+    return Math.max(Floors.floor(min), Floors.ceil(max) - 1);
+  }
+
+  /**
+   * calculates the time of impact of a moving box against a static box.
+   * <p>
+   * the boxes are tested with the slab method on the minkowski difference, a box that already intersects the static
+   * box collides at {@code 0}, touching faces collide only when the box moves towards the static box.
+   *
+   * @param minX the min x of the moving box.
+   * @param minY the min y of the moving box.
+   * @param minZ the min z of the moving box.
+   * @param maxX the max x of the moving box.
+   * @param maxY the max y of the moving box.
+   * @param maxZ the max z of the moving box.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param otherMinX the min x of the static box.
+   * @param otherMinY the min y of the static box.
+   * @param otherMinZ the min z of the static box.
+   * @param otherMaxX the max x of the static box.
+   * @param otherMaxY the max y of the static box.
+   * @param otherMaxZ the max z of the static box.
+   *
+   * @return the fraction of the movement before the boxes touch, {@code 1} if they do not collide.
+   */
+  public static double sweep(final double minX, final double minY, final double minZ, final double maxX,
+                             final double maxY, final double maxZ, final double dx, final double dy, final double dz,
+                             final double otherMinX, final double otherMinY, final double otherMinZ,
+                             final double otherMaxX, final double otherMaxY, final double otherMaxZ) {
+    var entry = Double.NEGATIVE_INFINITY;
+    var exit = Double.POSITIVE_INFINITY;
+    if (dx == 0.0d) {
+      if (maxX <= otherMinX || minX >= otherMaxX) {
+        return 1.0d;
+      }
+    } else {
+      entry = Math.max(entry, (dx > 0.0d ? otherMinX - maxX : otherMaxX - minX) / dx);
+      exit = Math.min(exit, (dx > 0.0d ? otherMaxX - minX : otherMinX - maxX) / dx);
+    }
+    if (dy == 0.0d) {
+      if (maxY <= otherMinY || minY >= otherMaxY) {
+        return 1.0d;
+      }
+    } else {
+      entry = Math.max(entry, (dy > 0.0d ? otherMinY - maxY : otherMaxY - minY) / dy);
+      exit = Math.min(exit, (dy > 0.0d ? otherMaxY - minY : otherMinY - maxY) / dy);
+    }
+    if (dz == 0.0d) {
+      if (maxZ <= otherMinZ || minZ >= otherMaxZ) {
+        return 1.0d;
+      }
+    } else {
+      entry = Math.max(entry, (dz > 0.0d ? otherMinZ - maxZ : otherMaxZ - minZ) / dz);
+      exit = Math.min(exit, (dz > 0.0d ? otherMaxZ - minZ : otherMinZ - maxZ) / dz);
+    }
+    if (entry >= exit || entry >= 1.0d || exit <= 0.0d) {
+      return 1.0d;
+    }
+    return Math.max(entry, 0.0d);
+  }
+}
@@ -0,0 +1,393 @@
+package io.github.shiruka.api.common.collision;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.vectors.MutableVector3d;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable axis-aligned bounding boxes.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so movement checks can reuse one instance per player
+ * instead of creating an {@link AABB} per packet. the box is not thread-safe.
+ */
+@ToString
+public final class MutableAABB {
+
+  /**
+   * the max x.
+   */
+  private double maxX;
+
+  /**
+   * the max y.
+   */
+  private double maxY;
+
+  /**
+   * the max z.
+   */
+  private double maxZ;
+
+  /**
+   * the min x.
+   */
+  private double minX;
+
+  /**
+   * the min y.
+   */
+  private double minY;
+
+  /**
+   * the min z.
+   */
+  private double minZ;
+
+  /**
+   * ctor.
+   */
+  public MutableAABB() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param minX the min x.
+   * @param minY the min y.
+   * @param minZ the min z.
+   * @param maxX the max x.
+   * @param maxY the max y.
+   * @param maxZ the max z.
+   */
+  public MutableAABB(final double minX, final double minY, final double minZ, final double maxX, final double maxY,
+                     final double maxZ) {
+    this.set(minX, minY, minZ, maxX, maxY, maxZ);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param box the box to copy.
+   */
+  public MutableAABB(@NotNull final AABB box) {
+    this(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created box.
+   */
+  @NotNull
+  public AABB asAABB() {
+    return AABB.of(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ);
+  }
+
+  /**
+   * calculates the center of {@code this}.
+   *
+   * @param output the output to write the center.
+   *
+   * @return the output.
+   */
+  @NotNull
+  public MutableVector3d center(@NotNull final MutableVector3d output) {
+    return output.set((this.minX + this.maxX) / 2.0d, (this.minY + this.maxY) / 2.0d,
+      (this.minZ + this.maxZ) / 2.0d);
+  }
+
+  /**
+   * checks if {@code this} contains the position.
+   *
+   * @param x the x to check.
+   * @param y the y to check.
+   * @param z the z to check.
+   *
+   * @return {@code true} if the position is inside or on a face of {@code this}.
+   */
+  public boolean contains(final double x, final double y, final double z) {
+    return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+  }
+
+  /**
+   * checks if {@code this} contains the box entirely.
+   *
+   * @param box the box to check.
+   *
+   * @return {@code true} if the box is inside {@code this}.
+   */
+  public boolean contains(@NotNull final AABB box) {
+    return box.minX() >= this.minX && box.maxX() <= this.maxX && box.minY() >= this.minY &&
+      box.maxY() <= this.maxY && box.minZ() >= this.minZ && box.maxZ() <= this.maxZ;
+  }
+
+  /**
+   * obtains the size on z.
+   *
+   * @return depth.
+   */
+  public double depth() {
+    return this.maxZ - this.minZ;
+  }
+
+  /**
+   * grows {@code this} by the given amounts on both sides of each axis, negative amounts shrink it.
+   *
+   * @param x the x to grow.
+   * @param y the y to grow.
+   * @param z the z to grow.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB expand(final double x, final double y, final double z) {
+    return this.set(this.minX - x, this.minY - y, this.minZ - z, this.maxX + x, this.maxY + y, this.maxZ + z);
+  }
+
+  /**
+   * grows {@code this} by the given amount on all sides.
+   *
+   * @param amount the amount to grow.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB expand(final double amount) {
+    return this.expand(amount, amount, amount);
+  }
+
+  /**
+   * stretches {@code this} towards the movement, so it covers the box at every point of the movement.
+   *
+   * @param x the x of the movement.
+   * @param y the y of the movement.
+   * @param z the z of the movement.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB expandTowards(final double x, final double y, final double z) {
+    if (x < 0.0d) {
+      this.minX += x;
+    } else {
+      this.maxX += x;
+    }
+    if (y < 0.0d) {
+      this.minY += y;
+    } else {
+      this.maxY += y;
+    }
+    if (z < 0.0d) {
+      this.minZ += z;
+    } else {
+      this.maxZ += z;
+    }
+    return this;
+  }
+
+  /**
+   * obtains the size on y.
+   *
+   * @return height.
+   */
+  public double height() {
+    return this.maxY - this.minY;
+  }
+
+  /**
+   * checks if {@code this} intersects the box.
+   *
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   *
+   * @return {@code true} if the boxes overlap, touching faces do not count.
+   */
+  public boolean intersects(final double minX, final double minY, final double minZ, final double maxX,
+                            final double maxY, final double maxZ) {
+    return this.minX < maxX && this.maxX > minX && this.minY < maxY && this.maxY > minY && this.minZ < maxZ &&
+      this.maxZ > minZ;
+  }
+
+  /**
+   * checks if {@code this} intersects the box.
+   *
+   * @param box the box to check.
+   *
+   * @return {@code true} if the boxes overlap, touching faces do not count.
+   */
+  public boolean intersects(@NotNull final AABB box) {
+    return this.intersects(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+  }
+
+  /**
+   * checks if {@code this} intersects the box.
+   *
+   * @param box the box to check.
+   *
+   * @return {@code true} if the boxes overlap, touching faces do not count.
+   */
+  public boolean intersects(@NotNull final MutableAABB box) {
+    return this.intersects(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+  }
+
+  /**
+   * obtains the max x.
+   *
+   * @return max x.
+   */
+  public double maxX() {
+    return this.maxX;
+  }
+
+  /**
+   * obtains the max y.
+   *
+   * @return max y.
+   */
+  public double maxY() {
+    return this.maxY;
+  }
+
+  /**
+   * obtains the max z.
+   *
+   * @return max z.
+   */
+  public double maxZ() {
+    return this.maxZ;
+  }
+
+  /**
+   * obtains the min x.
+   *
+   * @return min x.
+   */
+  public double minX() {
+    return this.minX;
+  }
+
+  /**
+   * obtains the min y.
+   *
+   * @return min y.
+   */
+  public double minY() {
+    return this.minY;
+  }
+
+  /**
+   * obtains the min z.
+   *
+   * @return min z.
+   */
+  public double minZ() {
+    return this.minZ;
+  }
+
+  /**
+   * moves {@code this}.
+   *
+   * @param x the x to move.
+   * @param y the y to move.
+   * @param z the z to move.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB offset(final double x, final double y, final double z) {
+    this.minX += x;
+    this.minY += y;
+    this.minZ += z;
+    this.maxX += x;
+    this.maxY += y;
+    this.maxZ += z;
+    return this;
+  }
+
+  /**
+   * sets the bounds of {@code this}.
+   *
+   * @param minX the min x to set.
+   * @param minY the min y to set.
+   * @param minZ the min z to set.
+   * @param maxX the max x to set.
+   * @param maxY the max y to set.
+   * @param maxZ the max z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB set(final double minX, final double minY, final double minZ, final double maxX,
+                         final double maxY, final double maxZ) {
+    Preconditions.checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ, "Min cannot be greater than max!");
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+    return this;
+  }
+
+  /**
+   * sets the bounds of {@code this} to the bounds of the box.
+   *
+   * @param box the box to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB set(@NotNull final AABB box) {
+    return this.set(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+  }
+
+  /**
+   * sets the bounds of {@code this} to a box that stands on the given position, like the boxes of entities.
+   *
+   * @param x the x of the center of the bottom face.
+   * @param y the y of the bottom face.
+   * @param z the z of the center of the bottom face.
+   * @param width the width of the box on x and z.
+   * @param height the height of the box.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableAABB setFeet(final double x, final double y, final double z, final double width,
+                             final double height) {
+    final var half = width / 2.0d;
+    return this.set(x - half, y, z - half, x + half, y + height, z + half);
+  }
+
+  /**
+   * calculates the time of impact of {@code this} moving against the static box.
+   *
+   * @param box the static box to sweep against.
+   * @param x the x of the movement.
+   * @param y the y of the movement.
+   * @param z the z of the movement.
+   *
+   * @return the fraction of the movement before the boxes touch, {@code 1} if they do not collide.
+   *
+   * @see Collisions#sweep(double, double, double, double, double, double, double, double, double, double, double,
+   *   double, double, double, double)
+   */
+  public double sweep(@NotNull final AABB box, final double x, final double y, final double z) {
+    return Collisions.sweep(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ, x, y, z, box.minX(),
+      box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+  }
+
+  /**
+   * obtains the size on x.
+   *
+   * @return width.
+   */
+  public double width() {
+    return this.maxX - this.minX;
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * the package that contains axis-aligned bounding boxes and collision helpers.
+ */
+package io.github.shiruka.api.common.collision;
@@ -0,0 +1,256 @@
+package io.github.shiruka.api.common.vectors;
+
+import io.github.shiruka.api.common.Floors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods for block positions that are packed into a {@code long}.
+ * <p>
+ * the packed position stores x in the highest 26 bits, z in the next 26 bits and y in the lowest 12 bits, each with
+ * a bias that makes it unsigned, so x and z must be in [-33554432, 33554432) and y must be in [-2048, 2048). since
+ * the fields are biased, a packed position is a plain mixed radix number and moving it is a single addition of
+ * {@link #offset(int, int, int)}, for example {@code packed + BlockPositions.UP}. the packed positions are meant to
+ * key fastutil long collections instead of {@link Vector3i} records.
+ */
+public final class BlockPositions {
+
+  /**
+   * the offset to the block below.
+   */
+  public static final long DOWN = BlockPositions.offset(0, -1, 0);
+
+  /**
+   * the offset to the block in the east, towards positive x.
+   */
+  public static final long EAST = BlockPositions.offset(1, 0, 0);
+
+  /**
+   * the offset to the block in the north, towards negative z.
+   */
+  public static final long NORTH = BlockPositions.offset(0, 0, -1);
+
+  /**
+   * the offset to the block in the south, towards positive z.
+   */
+  public static final long SOUTH = BlockPositions.offset(0, 0, 1);
+
+  /**
+   * the offset to the block above.
+   */
+  public static final long UP = BlockPositions.offset(0, 1, 0);
+
+  /**
+   * the offset to the block in the west, towards negative x.
+   */
+  public static final long WEST = BlockPositions.offset(-1, 0, 0);
+
+  /**
+   * the offsets of the neighbours in the order of down, up, north, south, west and east.
+   */
+  private static final long @NotNull [] NEIGHBOURS = {
+    BlockPositions.DOWN, BlockPositions.UP, BlockPositions.NORTH, BlockPositions.SOUTH, BlockPositions.WEST,
+    BlockPositions.EAST};
+
+  /**
+   * the bits of x.
+   */
+  private static final int X_BITS = 26;
+
+  /**
+   * the bias of x.
+   */
+  private static final int X_BIAS = 1 << BlockPositions.X_BITS - 1;
+
+  /**
+   * the bits of y.
+   */
+  private static final int Y_BITS = 12;
+
+  /**
+   * the bias of y.
+   */
+  private static final int Y_BIAS = 1 << BlockPositions.Y_BITS - 1;
+
+  /**
+   * the mask of y.
+   */
+  private static final long Y_MASK = (1L << BlockPositions.Y_BITS) - 1L;
+
+  /**
+   * the bits of z.
+   */
+  private static final int Z_BITS = 26;
+
+  /**
+   * the bias of z.
+   */
+  private static final int Z_BIAS = 1 << BlockPositions.Z_BITS - 1;
+
+  /**
+   * the mask of z.
+   */
+  private static final long Z_MASK = (1L << BlockPositions.Z_BITS) - 1L;
+
+  /**
+   * the shift of z.
+   */
+  private static final int Z_SHIFT = BlockPositions.Y_BITS;
+
+  /**
+   * the shift of x.
+   */
+  private static final int X_SHIFT = BlockPositions.Z_SHIFT + BlockPositions.Z_BITS;
+
+  /**
+   * ctor.
+   */
+  private BlockPositions() {
+  }
+
+  /**
+   * moves the packed position.
+   *
+   * @param packed the packed position to move.
+   * @param x the x to move.
+   * @param y the y to move.
+   * @param z the z to move.
+   *
+   * @return moved packed position.
+   */
+  public static long add(final long packed, final int x, final int y, final int z) {
+    return packed + BlockPositions.offset(x, y, z);
+  }
+
+  /**
+   * obtains the neighbour of the packed position.
+   *
+   * @param packed the packed position to obtain.
+   * @param direction the direction to obtain, in the order of down, up, north, south, west and east.
+   *
+   * @return packed position of the neighbour.
+   */
+  public static long neighbour(final long packed, final int direction) {
+    return packed + BlockPositions.NEIGHBOURS[direction];
+  }
+
+  /**
+   * creates the offset that moves packed positions by adding it.
+   *
+   * @param x the x to move.
+   * @param y the y to move.
+   * @param z the z to move.
+   *
+   * @return offset of the movement.
+   */
+  public static long offset(final int x, final int y, final int z) {
+    return ((long) x << BlockPositions.X_SHIFT) + ((long) z << BlockPositions.Z_SHIFT) + y;
+  }
+
+  /**
+   * packs the position.
+   *
+   * @param x the x to pack.
+   * @param y the y to pack.
+   * @param z the z to pack.
+   *
+   * @return packed position.
+   */
+  public static long pack(final int x, final int y, final int z) {
+    return (long) (x + BlockPositions.X_BIAS) << BlockPositions.X_SHIFT |
+      ((long) (z + BlockPositions.Z_BIAS) & BlockPositions.Z_MASK) << BlockPositions.Z_SHIFT |
+      (long) (y + BlockPositions.Y_BIAS) & BlockPositions.Y_MASK;
+  }
+
+  /**
+   * packs the position.
+   *
+   * @param position the position to pack.
+   *
+   * @return packed position.
+   */
+  public static long pack(@NotNull final Vector3i position) {
+    return BlockPositions.pack(position.x(), position.y(), position.z());
+  }
+
+  /**
+   * packs the block position that contains the position.
+   *
+   * @param position the position to pack.
+   *
+   * @return packed position of the block.
+   */
+  public static long pack(@NotNull final Vector3d position) {
+    return BlockPositions.packFloored(position.x(), position.y(), position.z());
+  }
+
+  /**
+   * packs the block position that contains the position.
+   *
+   * @param x the x to pack.
+   * @param y the y to pack.
+   * @param z the z to pack.
+   *
+   * @return packed position of the block.
+   */
+  public static long packFloored(final double x, final double y, final double z) {
+    return BlockPositions.pack(Floors.floor(x), Floors.floor(y), Floors.floor(z));
+  }
+
+  /**
+   * unpacks the position.
+   *
+   * @param packed the packed position to unpack.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public static Vector3i unpack(final long packed) {
+    return Vector3i.of(BlockPositions.x(packed), BlockPositions.y(packed), BlockPositions.z(packed));
+  }
+
+  /**
+   * unpacks the position into the vector.
+   *
+   * @param packed the packed position to unpack.
+   * @param output the output to unpack into.
+   *
+   * @return the output.
+   */
+  @NotNull
+  public static MutableVector3i unpack(final long packed, @NotNull final MutableVector3i output) {
+    return output.set(BlockPositions.x(packed), BlockPositions.y(packed), BlockPositions.z(packed));
+  }
+
+  /**
+   * unpacks the x.
+   *
+   * @param packed the packed position to unpack.
+   *
+   * @return x.
+   */
+  public static int x(final long packed) {
+    return (int) (packed >>> BlockPositions.X_SHIFT) - BlockPositions.X_BIAS;
+  }
+
+  /**
+   * unpacks the y.
+   *
+   * @param packed the packed position to unpack.
+   *
+   * @return y.
+   */
+  public static int y(final long packed) {
+    return (int) (packed & BlockPositions.Y_MASK) - BlockPositions.Y_BIAS;
+  }
+
+  /**
+   * unpacks the z.
+   *
+   * @param packed the packed position to unpack.
+   *
+   * @return z.
+   */
+  public static int z(final long packed) {
+    return (int) (packed >>> BlockPositions.Z_SHIFT & BlockPositions.Z_MASK) - BlockPositions.Z_BIAS;
+  }
+}
@@ -0,0 +1,105 @@
+package io.github.shiruka.api.common.vectors;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine kernels of the bulk operations of {@link VectorMath}.
+ * <p>
+ * all implementations must return the same results bit by bit, so the operations round the same way on every
+ * platform.
+ */
+interface BulkKernels {
+
+  /**
+   * adds the source multiplied by the scale to the target.
+   *
+   * @param target the target to add into.
+   * @param source the source to add.
+   * @param scale the scale to multiply the source.
+   * @param length the length to add.
+   */
+  void addScaled(double @NotNull [] target, double @NotNull [] source, double scale, int length);
+
+  /**
+   * calculates the dot products of the vectors element by element.
+   *
+   * @param xs the x values of the first vectors.
+   * @param ys the y values of the first vectors.
+   * @param zs the z values of the first vectors.
+   * @param otherXs the x values of the second vectors.
+   * @param otherYs the y values of the second vectors.
+   * @param otherZs the z values of the second vectors.
+   * @param output the output to write the dot products.
+   * @param length the length to calculate.
+   */
+  void dot(double @NotNull [] xs, double @NotNull [] ys, double @NotNull [] zs, double @NotNull [] otherXs,
+           double @NotNull [] otherYs, double @NotNull [] otherZs, double @NotNull [] output, int length);
+
+  /**
+   * finds the indexes of the positions inside the box.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param length the length to find.
+   * @param minX the min x of the box, inclusive.
+   * @param minY the min y of the box, inclusive.
+   * @param minZ the min z of the box, inclusive.
+   * @param maxX the max x of the box, inclusive.
+   * @param maxY the max y of the box, inclusive.
+   * @param maxZ the max z of the box, inclusive.
+   * @param output the output to write the indexes in ascending order.
+   *
+   * @return count of the written indexes.
+   */
+  int indexesInBox(double @NotNull [] xs, double @NotNull [] ys, double @NotNull [] zs, int length, double minX,
+                   double minY, double minZ, double maxX, double maxY, double maxZ, int @NotNull [] output);
+
+  /**
+   * finds the indexes of the positions whose squared distance to the center is at most the max.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param length the length to find.
+   * @param x the x of the center.
+   * @param y the y of the center.
+   * @param z the z of the center.
+   * @param maxDistanceSquared the max squared distance, inclusive.
+   * @param output the output to write the indexes in ascending order.
+   *
+   * @return count of the written indexes.
+   */
+  int indexesInRange(double @NotNull [] xs, double @NotNull [] ys, double @NotNull [] zs, int length, double x,
+                     double y, double z, double maxDistanceSquared, int @NotNull [] output);
+
+  /**
+   * calculates the lengths of the vectors.
+   *
+   * @param xs the x values.
+   * @param ys the y values.
+   * @param zs the z values.
+   * @param output the output to write the lengths.
+   * @param length the length to calculate.
+   */
+  void lengths(double @NotNull [] xs, double @NotNull [] ys, double @NotNull [] zs, double @NotNull [] output,
+               int length);
+
+  /**
+   * multiplies the values by the scalar.
+   *
+   * @param values the values to multiply.
+   * @param scalar the scalar to multiply.
+   * @param length the length to multiply.
+   */
+  void multiply(double @NotNull [] values, double scalar, int length);
+
+  /**
+   * adds the offset to the values.
+   *
+   * @param values the values to add into.
+   * @param offset the offset to add.
+   * @param length the length to add.
+   */
+  void translate(double @NotNull [] values, double offset, int length);
+}
@@ -0,0 +1,406 @@
+package io.github.shiruka.api.common.vectors;
+
+import io.github.shiruka.api.common.Floors;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable two dimensional vectors.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so hot loops can reuse one instance instead of
+ * creating a {@link Vector2d} per operation. the vector is not thread-safe.
+ */
+@ToString
+public final class MutableVector2d {
+
+  /**
+   * the x.
+   */
+  private double x;
+
+  /**
+   * the y.
+   */
+  private double y;
+
+  /**
+   * ctor.
+   */
+  public MutableVector2d() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param y the y.
+   */
+  public MutableVector2d(final double x, final double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param vector the vector to copy.
+   */
+  public MutableVector2d(@NotNull final Vector2d vector) {
+    this(vector.x(), vector.y());
+  }
+
+  /**
+   * adds the given x and y to {@code this}.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d add(final double x, final double y) {
+    this.x += x;
+    this.y += y;
+    return this;
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d add(@NotNull final Vector2d vector) {
+    return this.add(vector.x(), vector.y());
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d add(@NotNull final MutableVector2d vector) {
+    return this.add(vector.x, vector.y);
+  }
+
+  /**
+   * adds the given vector multiplied by the scale to {@code this}.
+   *
+   * @param vector the vector to add.
+   * @param scale the scale to multiply the vector.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d addScaled(@NotNull final MutableVector2d vector, final double scale) {
+    this.x += vector.x * scale;
+    this.y += vector.y * scale;
+    return this;
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector2d asVector2d() {
+    return Vector2d.of(this.x, this.y);
+  }
+
+  /**
+   * calculates the squared distance between {@code this} and the given position.
+   *
+   * @param x the x to calculate.
+   * @param y the y to calculate.
+   *
+   * @return squared distance.
+   */
+  public double distanceSquared(final double x, final double y) {
+    final var dx = this.x - x;
+    final var dy = this.y - y;
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * divides the given x and y with {@code this}.
+   *
+   * @param x the x to divide.
+   * @param y the y to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d divide(final double x, final double y) {
+    this.x /= x;
+    this.y /= y;
+    return this;
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d divide(@NotNull final Vector2d vector) {
+    return this.divide(vector.x(), vector.y());
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d divide(@NotNull final MutableVector2d vector) {
+    return this.divide(vector.x, vector.y);
+  }
+
+  /**
+   * calculates the dot product of {@code this} and the given vector.
+   *
+   * @param vector the vector to calculate.
+   *
+   * @return dot product.
+   */
+  public double dot(@NotNull final MutableVector2d vector) {
+    return this.x * vector.x + this.y * vector.y;
+  }
+
+  /**
+   * floors the x.
+   *
+   * @return floored x.
+   */
+  public int floorX() {
+    return Floors.floor(this.x);
+  }
+
+  /**
+   * floors the y.
+   *
+   * @return floored y.
+   */
+  public int floorY() {
+    return Floors.floor(this.y);
+  }
+
+  /**
+   * calculates the length.
+   *
+   * @return length.
+   */
+  public double length() {
+    return Math.sqrt(this.lengthSquared());
+  }
+
+  /**
+   * calculates the squared length.
+   *
+   * @return squared length.
+   */
+  public double lengthSquared() {
+    return this.x * this.x + this.y * this.y;
+  }
+
+  /**
+   * multiplies the given x and y to {@code this}.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d multiply(final double x, final double y) {
+    this.x *= x;
+    this.y *= y;
+    return this;
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d multiply(@NotNull final Vector2d vector) {
+    return this.multiply(vector.x(), vector.y());
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d multiply(@NotNull final MutableVector2d vector) {
+    return this.multiply(vector.x, vector.y);
+  }
+
+  /**
+   * multiplies the given scalar to {@code this}.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d multiply(final double scalar) {
+    this.x *= scalar;
+    this.y *= scalar;
+    return this;
+  }
+
+  /**
+   * normalizes {@code this} to the length of {@code 1}, zero vectors are not changed.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d normalize() {
+    final var length = this.length();
+    if (length == 0.0d) {
+      return this;
+    }
+    this.x /= length;
+    this.y /= length;
+    return this;
+  }
+
+  /**
+   * sets the x and y.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d set(final double x, final double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d set(@NotNull final Vector2d vector) {
+    return this.set(vector.x(), vector.y());
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d set(@NotNull final MutableVector2d vector) {
+    return this.set(vector.x, vector.y);
+  }
+
+  /**
+   * subtracts the given x and y from {@code this}.
+   *
+   * @param x the x to subtract.
+   * @param y the y to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d subtract(final double x, final double y) {
+    this.x -= x;
+    this.y -= y;
+    return this;
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d subtract(@NotNull final Vector2d vector) {
+    return this.subtract(vector.x(), vector.y());
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d subtract(@NotNull final MutableVector2d vector) {
+    return this.subtract(vector.x, vector.y);
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public double x() {
+    return this.x;
+  }
+
+  /**
+   * sets the x.
+   *
+   * @param x the x to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d x(final double x) {
+    this.x = x;
+    return this;
+  }
+
+  /**
+   * obtains the y.
+   *
+   * @return y.
+   */
+  public double y() {
+    return this.y;
+  }
+
+  /**
+   * sets the y.
+   *
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2d y(final double y) {
+    this.y = y;
+    return this;
+  }
+}
@@ -0,0 +1,328 @@
+package io.github.shiruka.api.common.vectors;
+
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable two dimensional vectors.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so hot loops can reuse one instance instead of
+ * creating a {@link Vector2i} per operation. the vector is not thread-safe.
+ */
+@ToString
+public final class MutableVector2i {
+
+  /**
+   * the x.
+   */
+  private int x;
+
+  /**
+   * the y.
+   */
+  private int y;
+
+  /**
+   * ctor.
+   */
+  public MutableVector2i() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param y the y.
+   */
+  public MutableVector2i(final int x, final int y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param vector the vector to copy.
+   */
+  public MutableVector2i(@NotNull final Vector2i vector) {
+    this(vector.x(), vector.y());
+  }
+
+  /**
+   * adds the given x and y to {@code this}.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i add(final int x, final int y) {
+    this.x += x;
+    this.y += y;
+    return this;
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i add(@NotNull final Vector2i vector) {
+    return this.add(vector.x(), vector.y());
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i add(@NotNull final MutableVector2i vector) {
+    return this.add(vector.x, vector.y);
+  }
+
+  /**
+   * adds the given vector multiplied by the scale to {@code this}.
+   *
+   * @param vector the vector to add.
+   * @param scale the scale to multiply the vector.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i addScaled(@NotNull final MutableVector2i vector, final int scale) {
+    this.x += vector.x * scale;
+    this.y += vector.y * scale;
+    return this;
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector2i asVector2i() {
+    return Vector2i.of(this.x, this.y);
+  }
+
+  /**
+   * divides the given x and y with {@code this}.
+   *
+   * @param x the x to divide.
+   * @param y the y to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i divide(final int x, final int y) {
+    this.x /= x;
+    this.y /= y;
+    return this;
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i divide(@NotNull final Vector2i vector) {
+    return this.divide(vector.x(), vector.y());
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i divide(@NotNull final MutableVector2i vector) {
+    return this.divide(vector.x, vector.y);
+  }
+
+  /**
+   * multiplies the given x and y to {@code this}.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i multiply(final int x, final int y) {
+    this.x *= x;
+    this.y *= y;
+    return this;
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i multiply(@NotNull final Vector2i vector) {
+    return this.multiply(vector.x(), vector.y());
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i multiply(@NotNull final MutableVector2i vector) {
+    return this.multiply(vector.x, vector.y);
+  }
+
+  /**
+   * multiplies the given scalar to {@code this}.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i multiply(final int scalar) {
+    this.x *= scalar;
+    this.y *= scalar;
+    return this;
+  }
+
+  /**
+   * sets the x and y.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i set(final int x, final int y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i set(@NotNull final Vector2i vector) {
+    return this.set(vector.x(), vector.y());
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i set(@NotNull final MutableVector2i vector) {
+    return this.set(vector.x, vector.y);
+  }
+
+  /**
+   * subtracts the given x and y from {@code this}.
+   *
+   * @param x the x to subtract.
+   * @param y the y to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i subtract(final int x, final int y) {
+    this.x -= x;
+    this.y -= y;
+    return this;
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i subtract(@NotNull final Vector2i vector) {
+    return this.subtract(vector.x(), vector.y());
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i subtract(@NotNull final MutableVector2i vector) {
+    return this.subtract(vector.x, vector.y);
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public int x() {
+    return this.x;
+  }
+
+  /**
+   * sets the x.
+   *
+   * @param x the x to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i x(final int x) {
+    this.x = x;
+    return this;
+  }
+
+  /**
+   * obtains the y.
+   *
+   * @return y.
+   */
+  public int y() {
+    return this.y;
+  }
+
+  /**
+   * sets the y.
+   *
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector2i y(final int y) {
+    this.y = y;
+    return this;
+  }
+}
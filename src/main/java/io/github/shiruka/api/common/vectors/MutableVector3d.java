@@ -0,0 +1,459 @@
+package io.github.shiruka.api.common.vectors;
+
+import io.github.shiruka.api.common.Floors;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable three dimensional vectors.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so hot loops can reuse one instance instead of
+ * creating a {@link Vector3d} per operation. the vector is not thread-safe.
+ */
+@ToString
+public final class MutableVector3d {
+
+  /**
+   * the x.
+   */
+  private double x;
+
+  /**
+   * the y.
+   */
+  private double y;
+
+  /**
+   * the z.
+   */
+  private double z;
+
+  /**
+   * ctor.
+   */
+  public MutableVector3d() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param y the y.
+   * @param z the z.
+   */
+  public MutableVector3d(final double x, final double y, final double z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param vector the vector to copy.
+   */
+  public MutableVector3d(@NotNull final Vector3d vector) {
+    this(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given x, y and z to {@code this}.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   * @param z the z to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d add(final double x, final double y, final double z) {
+    this.x += x;
+    this.y += y;
+    this.z += z;
+    return this;
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d add(@NotNull final Vector3d vector) {
+    return this.add(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d add(@NotNull final MutableVector3d vector) {
+    return this.add(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * adds the given vector multiplied by the scale to {@code this}.
+   *
+   * @param vector the vector to add.
+   * @param scale the scale to multiply the vector.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d addScaled(@NotNull final MutableVector3d vector, final double scale) {
+    this.x += vector.x * scale;
+    this.y += vector.y * scale;
+    this.z += vector.z * scale;
+    return this;
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector3d asVector3d() {
+    return Vector3d.of(this.x, this.y, this.z);
+  }
+
+  /**
+   * calculates the squared distance between {@code this} and the given position.
+   *
+   * @param x the x to calculate.
+   * @param y the y to calculate.
+   * @param z the z to calculate.
+   *
+   * @return squared distance.
+   */
+  public double distanceSquared(final double x, final double y, final double z) {
+    final var dx = this.x - x;
+    final var dy = this.y - y;
+    final var dz = this.z - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * divides the given x, y and z with {@code this}.
+   *
+   * @param x the x to divide.
+   * @param y the y to divide.
+   * @param z the z to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d divide(final double x, final double y, final double z) {
+    this.x /= x;
+    this.y /= y;
+    this.z /= z;
+    return this;
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d divide(@NotNull final Vector3d vector) {
+    return this.divide(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d divide(@NotNull final MutableVector3d vector) {
+    return this.divide(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * calculates the dot product of {@code this} and the given vector.
+   *
+   * @param vector the vector to calculate.
+   *
+   * @return dot product.
+   */
+  public double dot(@NotNull final MutableVector3d vector) {
+    return this.x * vector.x + this.y * vector.y + this.z * vector.z;
+  }
+
+  /**
+   * floors the x.
+   *
+   * @return floored x.
+   */
+  public int floorX() {
+    return Floors.floor(this.x);
+  }
+
+  /**
+   * floors the y.
+   *
+   * @return floored y.
+   */
+  public int floorY() {
+    return Floors.floor(this.y);
+  }
+
+  /**
+   * floors the z.
+   *
+   * @return floored z.
+   */
+  public int floorZ() {
+    return Floors.floor(this.z);
+  }
+
+  /**
+   * calculates the length.
+   *
+   * @return length.
+   */
+  public double length() {
+    return Math.sqrt(this.lengthSquared());
+  }
+
+  /**
+   * calculates the squared length.
+   *
+   * @return squared length.
+   */
+  public double lengthSquared() {
+    return this.x * this.x + this.y * this.y + this.z * this.z;
+  }
+
+  /**
+   * multiplies the given x, y and z to {@code this}.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   * @param z the z to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d multiply(final double x, final double y, final double z) {
+    this.x *= x;
+    this.y *= y;
+    this.z *= z;
+    return this;
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d multiply(@NotNull final Vector3d vector) {
+    return this.multiply(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d multiply(@NotNull final MutableVector3d vector) {
+    return this.multiply(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * multiplies the given scalar to {@code this}.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d multiply(final double scalar) {
+    this.x *= scalar;
+    this.y *= scalar;
+    this.z *= scalar;
+    return this;
+  }
+
+  /**
+   * normalizes {@code this} to the length of {@code 1}, zero vectors are not changed.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d normalize() {
+    final var length = this.length();
+    if (length == 0.0d) {
+      return this;
+    }
+    this.x /= length;
+    this.y /= length;
+    this.z /= length;
+    return this;
+  }
+
+  /**
+   * sets the x, y and z.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d set(final double x, final double y, final double z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    return this;
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d set(@NotNull final Vector3d vector) {
+    return this.set(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d set(@NotNull final MutableVector3d vector) {
+    return this.set(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * subtracts the given x, y and z from {@code this}.
+   *
+   * @param x the x to subtract.
+   * @param y the y to subtract.
+   * @param z the z to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d subtract(final double x, final double y, final double z) {
+    this.x -= x;
+    this.y -= y;
+    this.z -= z;
+    return this;
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d subtract(@NotNull final Vector3d vector) {
+    return this.subtract(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d subtract(@NotNull final MutableVector3d vector) {
+    return this.subtract(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public double x() {
+    return this.x;
+  }
+
+  /**
+   * sets the x.
+   *
+   * @param x the x to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d x(final double x) {
+    this.x = x;
+    return this;
+  }
+
+  /**
+   * obtains the y.
+   *
+   * @return y.
+   */
+  public double y() {
+    return this.y;
+  }
+
+  /**
+   * sets the y.
+   *
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d y(final double y) {
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  public double z() {
+    return this.z;
+  }
+
+  /**
+   * sets the z.
+   *
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3d z(final double z) {
+    this.z = z;
+    return this;
+  }
+}
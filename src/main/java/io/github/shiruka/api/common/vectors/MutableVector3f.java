@@ -0,0 +1,459 @@
+package io.github.shiruka.api.common.vectors;
+
+import io.github.shiruka.api.common.Floors;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable three dimensional vectors.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so hot loops can reuse one instance instead of
+ * creating a {@link Vector3f} per operation. the vector is not thread-safe.
+ */
+@ToString
+public final class MutableVector3f {
+
+  /**
+   * the x.
+   */
+  private float x;
+
+  /**
+   * the y.
+   */
+  private float y;
+
+  /**
+   * the z.
+   */
+  private float z;
+
+  /**
+   * ctor.
+   */
+  public MutableVector3f() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param y the y.
+   * @param z the z.
+   */
+  public MutableVector3f(final float x, final float y, final float z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param vector the vector to copy.
+   */
+  public MutableVector3f(@NotNull final Vector3f vector) {
+    this(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given x, y and z to {@code this}.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   * @param z the z to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f add(final float x, final float y, final float z) {
+    this.x += x;
+    this.y += y;
+    this.z += z;
+    return this;
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f add(@NotNull final Vector3f vector) {
+    return this.add(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f add(@NotNull final MutableVector3f vector) {
+    return this.add(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * adds the given vector multiplied by the scale to {@code this}.
+   *
+   * @param vector the vector to add.
+   * @param scale the scale to multiply the vector.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f addScaled(@NotNull final MutableVector3f vector, final float scale) {
+    this.x += vector.x * scale;
+    this.y += vector.y * scale;
+    this.z += vector.z * scale;
+    return this;
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector3f asVector3f() {
+    return Vector3f.of(this.x, this.y, this.z);
+  }
+
+  /**
+   * calculates the squared distance between {@code this} and the given position.
+   *
+   * @param x the x to calculate.
+   * @param y the y to calculate.
+   * @param z the z to calculate.
+   *
+   * @return squared distance.
+   */
+  public float distanceSquared(final float x, final float y, final float z) {
+    final var dx = this.x - x;
+    final var dy = this.y - y;
+    final var dz = this.z - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * divides the given x, y and z with {@code this}.
+   *
+   * @param x the x to divide.
+   * @param y the y to divide.
+   * @param z the z to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f divide(final float x, final float y, final float z) {
+    this.x /= x;
+    this.y /= y;
+    this.z /= z;
+    return this;
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f divide(@NotNull final Vector3f vector) {
+    return this.divide(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f divide(@NotNull final MutableVector3f vector) {
+    return this.divide(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * calculates the dot product of {@code this} and the given vector.
+   *
+   * @param vector the vector to calculate.
+   *
+   * @return dot product.
+   */
+  public float dot(@NotNull final MutableVector3f vector) {
+    return this.x * vector.x + this.y * vector.y + this.z * vector.z;
+  }
+
+  /**
+   * floors the x.
+   *
+   * @return floored x.
+   */
+  public int floorX() {
+    return Floors.floor(this.x);
+  }
+
+  /**
+   * floors the y.
+   *
+   * @return floored y.
+   */
+  public int floorY() {
+    return Floors.floor(this.y);
+  }
+
+  /**
+   * floors the z.
+   *
+   * @return floored z.
+   */
+  public int floorZ() {
+    return Floors.floor(this.z);
+  }
+
+  /**
+   * calculates the length.
+   *
+   * @return length.
+   */
+  public float length() {
+    return (float) Math.sqrt(this.lengthSquared());
+  }
+
+  /**
+   * calculates the squared length.
+   *
+   * @return squared length.
+   */
+  public float lengthSquared() {
+    return this.x * this.x + this.y * this.y + this.z * this.z;
+  }
+
+  /**
+   * multiplies the given x, y and z to {@code this}.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   * @param z the z to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f multiply(final float x, final float y, final float z) {
+    this.x *= x;
+    this.y *= y;
+    this.z *= z;
+    return this;
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f multiply(@NotNull final Vector3f vector) {
+    return this.multiply(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f multiply(@NotNull final MutableVector3f vector) {
+    return this.multiply(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * multiplies the given scalar to {@code this}.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f multiply(final float scalar) {
+    this.x *= scalar;
+    this.y *= scalar;
+    this.z *= scalar;
+    return this;
+  }
+
+  /**
+   * normalizes {@code this} to the length of {@code 1}, zero vectors are not changed.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f normalize() {
+    final var length = this.length();
+    if (length == 0.0f) {
+      return this;
+    }
+    this.x /= length;
+    this.y /= length;
+    this.z /= length;
+    return this;
+  }
+
+  /**
+   * sets the x, y and z.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f set(final float x, final float y, final float z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    return this;
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f set(@NotNull final Vector3f vector) {
+    return this.set(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f set(@NotNull final MutableVector3f vector) {
+    return this.set(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * subtracts the given x, y and z from {@code this}.
+   *
+   * @param x the x to subtract.
+   * @param y the y to subtract.
+   * @param z the z to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f subtract(final float x, final float y, final float z) {
+    this.x -= x;
+    this.y -= y;
+    this.z -= z;
+    return this;
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f subtract(@NotNull final Vector3f vector) {
+    return this.subtract(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f subtract(@NotNull final MutableVector3f vector) {
+    return this.subtract(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public float x() {
+    return this.x;
+  }
+
+  /**
+   * sets the x.
+   *
+   * @param x the x to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f x(final float x) {
+    this.x = x;
+    return this;
+  }
+
+  /**
+   * obtains the y.
+   *
+   * @return y.
+   */
+  public float y() {
+    return this.y;
+  }
+
+  /**
+   * sets the y.
+   *
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f y(final float y) {
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  public float z() {
+    return this.z;
+  }
+
+  /**
+   * sets the z.
+   *
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3f z(final float z) {
+    this.z = z;
+    return this;
+  }
+}
@@ -0,0 +1,369 @@
+package io.github.shiruka.api.common.vectors;
+
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents mutable three dimensional vectors.
+ * <p>
+ * the operations modify {@code this} and return it for chain, so hot loops can reuse one instance instead of
+ * creating a {@link Vector3i} per operation. the vector is not thread-safe.
+ */
+@ToString
+public final class MutableVector3i {
+
+  /**
+   * the x.
+   */
+  private int x;
+
+  /**
+   * the y.
+   */
+  private int y;
+
+  /**
+   * the z.
+   */
+  private int z;
+
+  /**
+   * ctor.
+   */
+  public MutableVector3i() {
+  }
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param y the y.
+   * @param z the z.
+   */
+  public MutableVector3i(final int x, final int y, final int z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param vector the vector to copy.
+   */
+  public MutableVector3i(@NotNull final Vector3i vector) {
+    this(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given x, y and z to {@code this}.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   * @param z the z to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i add(final int x, final int y, final int z) {
+    this.x += x;
+    this.y += y;
+    this.z += z;
+    return this;
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i add(@NotNull final Vector3i vector) {
+    return this.add(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * adds the given vector to {@code this}.
+   *
+   * @param vector the vector to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i add(@NotNull final MutableVector3i vector) {
+    return this.add(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * adds the given vector multiplied by the scale to {@code this}.
+   *
+   * @param vector the vector to add.
+   * @param scale the scale to multiply the vector.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i addScaled(@NotNull final MutableVector3i vector, final int scale) {
+    this.x += vector.x * scale;
+    this.y += vector.y * scale;
+    this.z += vector.z * scale;
+    return this;
+  }
+
+  /**
+   * creates an immutable copy of {@code this}.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector3i asVector3i() {
+    return Vector3i.of(this.x, this.y, this.z);
+  }
+
+  /**
+   * divides the given x, y and z with {@code this}.
+   *
+   * @param x the x to divide.
+   * @param y the y to divide.
+   * @param z the z to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i divide(final int x, final int y, final int z) {
+    this.x /= x;
+    this.y /= y;
+    this.z /= z;
+    return this;
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i divide(@NotNull final Vector3i vector) {
+    return this.divide(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * divides the given vector with {@code this}.
+   *
+   * @param vector the vector to divide.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i divide(@NotNull final MutableVector3i vector) {
+    return this.divide(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * multiplies the given x, y and z to {@code this}.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   * @param z the z to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i multiply(final int x, final int y, final int z) {
+    this.x *= x;
+    this.y *= y;
+    this.z *= z;
+    return this;
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i multiply(@NotNull final Vector3i vector) {
+    return this.multiply(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * multiplies the given vector to {@code this}.
+   *
+   * @param vector the vector to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i multiply(@NotNull final MutableVector3i vector) {
+    return this.multiply(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * multiplies the given scalar to {@code this}.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i multiply(final int scalar) {
+    this.x *= scalar;
+    this.y *= scalar;
+    this.z *= scalar;
+    return this;
+  }
+
+  /**
+   * sets the x, y and z.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i set(final int x, final int y, final int z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    return this;
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i set(@NotNull final Vector3i vector) {
+    return this.set(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * sets the values of the given vector.
+   *
+   * @param vector the vector to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i set(@NotNull final MutableVector3i vector) {
+    return this.set(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * subtracts the given x, y and z from {@code this}.
+   *
+   * @param x the x to subtract.
+   * @param y the y to subtract.
+   * @param z the z to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i subtract(final int x, final int y, final int z) {
+    this.x -= x;
+    this.y -= y;
+    this.z -= z;
+    return this;
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i subtract(@NotNull final Vector3i vector) {
+    return this.subtract(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * subtracts the given vector from {@code this}.
+   *
+   * @param vector the vector to subtract.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i subtract(@NotNull final MutableVector3i vector) {
+    return this.subtract(vector.x, vector.y, vector.z);
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public int x() {
+    return this.x;
+  }
+
+  /**
+   * sets the x.
+   *
+   * @param x the x to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i x(final int x) {
+    this.x = x;
+    return this;
+  }
+
+  /**
+   * obtains the y.
+   *
+   * @return y.
+   */
+  public int y() {
+    return this.y;
+  }
+
+  /**
+   * sets the y.
+   *
+   * @param y the y to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i y(final int y) {
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  public int z() {
+    return this.z;
+  }
+
+  /**
+   * sets the z.
+   *
+   * @param z the z to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public MutableVector3i z(final int z) {
+    this.z = z;
+    return this;
+  }
+}
@@ -0,0 +1,129 @@
+package io.github.shiruka.api.common.vectors;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents bulk kernels with plain loops, used when the vector api is not available.
+ */
+final class ScalarKernels implements BulkKernels {
+
+  @Override
+  public void addScaled(final double @NotNull [] target, final double @NotNull [] source, final double scale,
+                        final int length) {
+    for (var index = 0; index < length; index++) {
+      target[index] += source[index] * scale;
+    }
+  }
+
+  @Override
+  public void dot(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                  final double @NotNull [] otherXs, final double @NotNull [] otherYs,
+                  final double @NotNull [] otherZs, final double @NotNull [] output, final int length) {
+    for (var index = 0; index < length; index++) {
+      output[index] = xs[index] * otherXs[index] + ys[index] * otherYs[index] + zs[index] * otherZs[index];
+    }
+  }
+
+  @Override
+  public int indexesInBox(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                          final int length, final double minX, final double minY, final double minZ,
+                          final double maxX, final double maxY, final double maxZ, final int @NotNull [] output) {
+    return ScalarKernels.indexesInBox(xs, ys, zs, 0, length, minX, minY, minZ, maxX, maxY, maxZ, output, 0);
+  }
+
+  @Override
+  public int indexesInRange(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                            final int length, final double x, final double y, final double z,
+                            final double maxDistanceSquared, final int @NotNull [] output) {
+    return ScalarKernels.indexesInRange(xs, ys, zs, 0, length, x, y, z, maxDistanceSquared, output, 0);
+  }
+
+  @Override
+  public void lengths(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                      final double @NotNull [] output, final int length) {
+    for (var index = 0; index < length; index++) {
+      output[index] = Math.sqrt(xs[index] * xs[index] + ys[index] * ys[index] + zs[index] * zs[index]);
+    }
+  }
+
+  @Override
+  public void multiply(final double @NotNull [] values, final double scalar, final int length) {
+    for (var index = 0; index < length; index++) {
+      values[index] *= scalar;
+    }
+  }
+
+  @Override
+  public void translate(final double @NotNull [] values, final double offset, final int length) {
+    for (var index = 0; index < length; index++) {
+      values[index] += offset;
+    }
+  }
+
+  /**
+   * finds the indexes of the positions inside the box in the range of indexes.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param from the first index to find, inclusive.
+   * @param to the last index to find, exclusive.
+   * @param minX the min x of the box, inclusive.
+   * @param minY the min y of the box, inclusive.
+   * @param minZ the min z of the box, inclusive.
+   * @param maxX the max x of the box, inclusive.
+   * @param maxY the max y of the box, inclusive.
+   * @param maxZ the max z of the box, inclusive.
+   * @param output the output to write the indexes.
+   * @param count the count of the indexes that are already written.
+   *
+   * @return count of the written indexes.
+   */
+  static int indexesInBox(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                          final int from, final int to, final double minX, final double minY, final double minZ,
+                          final double maxX, final double maxY, final double maxZ, final int @NotNull [] output,
+                          final int count) {
+    var written = count;
+    for (var index = from; index < to; index++) {
+      final var x = xs[index];
+      final var y = ys[index];
+      final var z = zs[index];
+      if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+        output[written++] = index;
+      }
+    }
+    return written;
+  }
+
+  /**
+   * finds the indexes of the positions in range of the center in the range of indexes.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param from the first index to find, inclusive.
+   * @param to the last index to find, exclusive.
+   * @param x the x of the center.
+   * @param y the y of the center.
+   * @param z the z of the center.
+   * @param maxDistanceSquared the max squared distance, inclusive.
+   * @param output the output to write the indexes.
+   * @param count the count of the indexes that are already written.
+   *
+   * @return count of the written indexes.
+   */
+  static int indexesInRange(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                            final int from, final int to, final double x, final double y, final double z,
+                            final double maxDistanceSquared, final int @NotNull [] output, final int count) {
+    var written = count;
+    for (var index = from; index < to; index++) {
+      final var dx = xs[index] - x;
+      final var dy = ys[index] - y;
+      final var dz = zs[index] - z;
+      if (dx * dx + dy * dy + dz * dz <= maxDistanceSquared) {
+        output[written++] = index;
+      }
+    }
+    return written;
+  }
+}
@@ -0,0 +1,183 @@
+package io.github.shiruka.api.common.vectors;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods for chunk section positions that are packed into a {@code long}.
+ * <p>
+ * the packed position stores the section x in the highest 22 bits, the section z in the next 22 bits and the section
+ * y in the lowest 20 bits, each with a bias that makes it unsigned, so the sections of every position that
+ * {@link BlockPositions} can pack fit. like block positions, a packed section position is moved by adding an
+ * {@link #offset(int, int, int)}.
+ */
+public final class SectionPositions {
+
+  /**
+   * the bits of x.
+   */
+  private static final int X_BITS = 22;
+
+  /**
+   * the bias of x.
+   */
+  private static final int X_BIAS = 1 << SectionPositions.X_BITS - 1;
+
+  /**
+   * the bits of y.
+   */
+  private static final int Y_BITS = 20;
+
+  /**
+   * the bias of y.
+   */
+  private static final int Y_BIAS = 1 << SectionPositions.Y_BITS - 1;
+
+  /**
+   * the mask of y.
+   */
+  private static final long Y_MASK = (1L << SectionPositions.Y_BITS) - 1L;
+
+  /**
+   * the bits of z.
+   */
+  private static final int Z_BITS = 22;
+
+  /**
+   * the bias of z.
+   */
+  private static final int Z_BIAS = 1 << SectionPositions.Z_BITS - 1;
+
+  /**
+   * the mask of z.
+   */
+  private static final long Z_MASK = (1L << SectionPositions.Z_BITS) - 1L;
+
+  /**
+   * the shift of z.
+   */
+  private static final int Z_SHIFT = SectionPositions.Y_BITS;
+
+  /**
+   * the shift of x.
+   */
+  private static final int X_SHIFT = SectionPositions.Z_SHIFT + SectionPositions.Z_BITS;
+
+  /**
+   * ctor.
+   */
+  private SectionPositions() {
+  }
+
+  /**
+   * moves the packed section position.
+   *
+   * @param packed the packed section position to move.
+   * @param x the section x to move.
+   * @param y the section y to move.
+   * @param z the section z to move.
+   *
+   * @return moved packed section position.
+   */
+  public static long add(final long packed, final int x, final int y, final int z) {
+    return packed + SectionPositions.offset(x, y, z);
+  }
+
+  /**
+   * packs the section position that contains the block position.
+   *
+   * @param x the block x to pack.
+   * @param y the block y to pack.
+   * @param z the block z to pack.
+   *
+   * @return packed section position.
+   */
+  public static long ofBlock(final int x, final int y, final int z) {
+    return SectionPositions.pack(x >> 4, y >> 4, z >> 4);
+  }
+
+  /**
+   * packs the section position that contains the packed block position.
+   *
+   * @param packed the packed block position to pack.
+   *
+   * @return packed section position.
+   *
+   * @see BlockPositions
+   */
+  public static long ofBlock(final long packed) {
+    return SectionPositions.ofBlock(BlockPositions.x(packed), BlockPositions.y(packed), BlockPositions.z(packed));
+  }
+
+  /**
+   * creates the offset that moves packed section positions by adding it.
+   *
+   * @param x the section x to move.
+   * @param y the section y to move.
+   * @param z the section z to move.
+   *
+   * @return offset of the movement.
+   */
+  public static long offset(final int x, final int y, final int z) {
+    return ((long) x << SectionPositions.X_SHIFT) + ((long) z << SectionPositions.Z_SHIFT) + y;
+  }
+
+  /**
+   * packs the section position.
+   *
+   * @param x the section x to pack.
+   * @param y the section y to pack.
+   * @param z the section z to pack.
+   *
+   * @return packed section position.
+   */
+  public static long pack(final int x, final int y, final int z) {
+    return (long) (x + SectionPositions.X_BIAS) << SectionPositions.X_SHIFT |
+      ((long) (z + SectionPositions.Z_BIAS) & SectionPositions.Z_MASK) << SectionPositions.Z_SHIFT |
+      (long) (y + SectionPositions.Y_BIAS) & SectionPositions.Y_MASK;
+  }
+
+  /**
+   * unpacks the section position.
+   *
+   * @param packed the packed section position to unpack.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public static Vector3i unpack(final long packed) {
+    return Vector3i.of(SectionPositions.x(packed), SectionPositions.y(packed), SectionPositions.z(packed));
+  }
+
+  /**
+   * unpacks the section x.
+   *
+   * @param packed the packed section position to unpack.
+   *
+   * @return section x.
+   */
+  public static int x(final long packed) {
+    return (int) (packed >>> SectionPositions.X_SHIFT) - SectionPositions.X_BIAS;
+  }
+
+  /**
+   * unpacks the section y.
+   *
+   * @param packed the packed section position to unpack.
+   *
+   * @return section y.
+   */
+  public static int y(final long packed) {
+    return (int) (packed & SectionPositions.Y_MASK) - SectionPositions.Y_BIAS;
+  }
+
+  /**
+   * unpacks the section z.
+   *
+   * @param packed the packed section position to unpack.
+   *
+   * @return section z.
+   */
+  public static int z(final long packed) {
+    return (int) (packed >>> SectionPositions.Z_SHIFT & SectionPositions.Z_MASK) - SectionPositions.Z_BIAS;
+  }
+}
@@ -0,0 +1,170 @@
+package io.github.shiruka.api.common.vectors;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents bulk kernels with the lanes of the preferred species of {@code jdk.incubator.vector}.
+ * <p>
+ * the kernels use the same operations in the same order as {@link ScalarKernels}, fused multiply adds are avoided
+ * on purpose, and process the tails that do not fill a vector with the scalar loops.
+ */
+final class SimdKernels implements BulkKernels {
+
+  /**
+   * the species.
+   */
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  /**
+   * writes the indexes of the set lanes of the mask.
+   *
+   * @param mask the mask to write.
+   * @param base the index of the first lane.
+   * @param output the output to write.
+   * @param count the count of the indexes that are already written.
+   *
+   * @return count of the written indexes.
+   */
+  private static int write(@NotNull final VectorMask<Double> mask, final int base, final int @NotNull [] output,
+                           final int count) {
+    if (!mask.anyTrue()) {
+      return count;
+    }
+    var written = count;
+    var bits = mask.toLong();
+    while (bits != 0L) {
+      output[written++] = base + Long.numberOfTrailingZeros(bits);
+      bits &= bits - 1L;
+    }
+    return written;
+  }
+
+  @Override
+  public void addScaled(final double @NotNull [] target, final double @NotNull [] source, final double scale,
+                        final int length) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      DoubleVector.fromArray(SimdKernels.SPECIES, source, index)
+        .mul(scale)
+        .add(DoubleVector.fromArray(SimdKernels.SPECIES, target, index))
+        .intoArray(target, index);
+    }
+    for (; index < length; index++) {
+      target[index] += source[index] * scale;
+    }
+  }
+
+  @Override
+  public void dot(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                  final double @NotNull [] otherXs, final double @NotNull [] otherYs,
+                  final double @NotNull [] otherZs, final double @NotNull [] output, final int length) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      final var x = DoubleVector.fromArray(SimdKernels.SPECIES, xs, index)
+        .mul(DoubleVector.fromArray(SimdKernels.SPECIES, otherXs, index));
+      final var y = DoubleVector.fromArray(SimdKernels.SPECIES, ys, index)
+        .mul(DoubleVector.fromArray(SimdKernels.SPECIES, otherYs, index));
+      final var z = DoubleVector.fromArray(SimdKernels.SPECIES, zs, index)
+        .mul(DoubleVector.fromArray(SimdKernels.SPECIES, otherZs, index));
+      x.add(y).add(z).intoArray(output, index);
+    }
+    for (; index < length; index++) {
+      output[index] = xs[index] * otherXs[index] + ys[index] * otherYs[index] + zs[index] * otherZs[index];
+    }
+  }
+
+  @Override
+  public int indexesInBox(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                          final int length, final double minX, final double minY, final double minZ,
+                          final double maxX, final double maxY, final double maxZ, final int @NotNull [] output) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    final var lowX = DoubleVector.broadcast(SimdKernels.SPECIES, minX);
+    final var lowY = DoubleVector.broadcast(SimdKernels.SPECIES, minY);
+    final var lowZ = DoubleVector.broadcast(SimdKernels.SPECIES, minZ);
+    final var highX = DoubleVector.broadcast(SimdKernels.SPECIES, maxX);
+    final var highY = DoubleVector.broadcast(SimdKernels.SPECIES, maxY);
+    final var highZ = DoubleVector.broadcast(SimdKernels.SPECIES, maxZ);
+    var count = 0;
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      final var x = DoubleVector.fromArray(SimdKernels.SPECIES, xs, index);
+      final var y = DoubleVector.fromArray(SimdKernels.SPECIES, ys, index);
+      final var z = DoubleVector.fromArray(SimdKernels.SPECIES, zs, index);
+      final var mask = x.compare(VectorOperators.GE, lowX)
+        .and(x.compare(VectorOperators.LE, highX))
+        .and(y.compare(VectorOperators.GE, lowY))
+        .and(y.compare(VectorOperators.LE, highY))
+        .and(z.compare(VectorOperators.GE, lowZ))
+        .and(z.compare(VectorOperators.LE, highZ));
+      count = SimdKernels.write(mask, index, output, count);
+    }
+    return ScalarKernels.indexesInBox(xs, ys, zs, index, length, minX, minY, minZ, maxX, maxY, maxZ, output, count);
+  }
+
+  @Override
+  public int indexesInRange(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                            final int length, final double x, final double y, final double z,
+                            final double maxDistanceSquared, final int @NotNull [] output) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    final var centerX = DoubleVector.broadcast(SimdKernels.SPECIES, x);
+    final var centerY = DoubleVector.broadcast(SimdKernels.SPECIES, y);
+    final var centerZ = DoubleVector.broadcast(SimdKernels.SPECIES, z);
+    final var max = DoubleVector.broadcast(SimdKernels.SPECIES, maxDistanceSquared);
+    var count = 0;
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      final var dx = DoubleVector.fromArray(SimdKernels.SPECIES, xs, index).sub(centerX);
+      final var dy = DoubleVector.fromArray(SimdKernels.SPECIES, ys, index).sub(centerY);
+      final var dz = DoubleVector.fromArray(SimdKernels.SPECIES, zs, index).sub(centerZ);
+      final var distance = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+      count = SimdKernels.write(distance.compare(VectorOperators.LE, max), index, output, count);
+    }
+    return ScalarKernels.indexesInRange(xs, ys, zs, index, length, x, y, z, maxDistanceSquared, output, count);
+  }
+
+  @Override
+  public void lengths(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                      final double @NotNull [] output, final int length) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      final var x = DoubleVector.fromArray(SimdKernels.SPECIES, xs, index);
+      final var y = DoubleVector.fromArray(SimdKernels.SPECIES, ys, index);
+      final var z = DoubleVector.fromArray(SimdKernels.SPECIES, zs, index);
+      x.mul(x).add(y.mul(y)).add(z.mul(z)).sqrt().intoArray(output, index);
+    }
+    for (; index < length; index++) {
+      output[index] = Math.sqrt(xs[index] * xs[index] + ys[index] * ys[index] + zs[index] * zs[index]);
+    }
+  }
+
+  @Override
+  public void multiply(final double @NotNull [] values, final double scalar, final int length) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      DoubleVector.fromArray(SimdKernels.SPECIES, values, index).mul(scalar).intoArray(values, index);
+    }
+    for (; index < length; index++) {
+      values[index] *= scalar;
+    }
+  }
+
+  @Override
+  public void translate(final double @NotNull [] values, final double offset, final int length) {
+    final var bound = SimdKernels.SPECIES.loopBound(length);
+    var index = 0;
+    for (; index < bound; index += SimdKernels.SPECIES.length()) {
+      DoubleVector.fromArray(SimdKernels.SPECIES, values, index).add(offset).intoArray(values, index);
+    }
+    for (; index < length; index++) {
+      values[index] += offset;
+    }
+  }
+}
@@ -0,0 +1,383 @@
+package io.github.shiruka.api.common.vectors;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents growable buffers of three dimensional vectors in struct of arrays layout.
+ * <p>
+ * the components are stored in three parallel {@code double} arrays, so the bulk operations run over contiguous
+ * memory through {@link VectorMath} without creating a vector per element. the arrays that {@link #xs()},
+ * {@link #ys()} and {@link #zs()} return are replaced when the buffer grows, only the first {@link #size()} elements
+ * of them are valid. the buffer is not thread-safe.
+ */
+public final class Vector3dBuffer {
+
+  /**
+   * the x values.
+   */
+  private double @NotNull [] xs;
+
+  /**
+   * the y values.
+   */
+  private double @NotNull [] ys;
+
+  /**
+   * the z values.
+   */
+  private double @NotNull [] zs;
+
+  /**
+   * the size.
+   */
+  private int size;
+
+  /**
+   * ctor.
+   *
+   * @param capacity the initial capacity.
+   */
+  public Vector3dBuffer(final int capacity) {
+    Preconditions.checkArgument(capacity >= 0, "Capacity cannot be negative!");
+    this.xs = new double[capacity];
+    this.ys = new double[capacity];
+    this.zs = new double[capacity];
+  }
+
+  /**
+   * ctor.
+   */
+  public Vector3dBuffer() {
+    this(16);
+  }
+
+  /**
+   * adds the vectors of the given buffer to the vectors of {@code this} element by element.
+   *
+   * @param buffer the buffer to add, must have the same size.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer add(@NotNull final Vector3dBuffer buffer) {
+    return this.addScaled(buffer, 1.0d);
+  }
+
+  /**
+   * adds the vectors of the given buffer multiplied by the scale to the vectors of {@code this} element by element,
+   * for example to move positions by velocities.
+   *
+   * @param buffer the buffer to add, must have the same size.
+   * @param scale the scale to multiply the vectors of the buffer.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer addScaled(@NotNull final Vector3dBuffer buffer, final double scale) {
+    this.checkSize(buffer);
+    VectorMath.addScaled(this.xs, buffer.xs, scale, this.size);
+    VectorMath.addScaled(this.ys, buffer.ys, scale, this.size);
+    VectorMath.addScaled(this.zs, buffer.zs, scale, this.size);
+    return this;
+  }
+
+  /**
+   * appends the vector.
+   *
+   * @param x the x to append.
+   * @param y the y to append.
+   * @param z the z to append.
+   *
+   * @return index of the appended vector.
+   */
+  public int append(final double x, final double y, final double z) {
+    final var index = this.size;
+    if (index == this.xs.length) {
+      this.grow(index + 1);
+    }
+    this.xs[index] = x;
+    this.ys[index] = y;
+    this.zs[index] = z;
+    this.size++;
+    return index;
+  }
+
+  /**
+   * appends the vector.
+   *
+   * @param vector the vector to append.
+   *
+   * @return index of the appended vector.
+   */
+  public int append(@NotNull final Vector3d vector) {
+    return this.append(vector.x(), vector.y(), vector.z());
+  }
+
+  /**
+   * removes all vectors, the capacity is kept.
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * calculates the squared distance between the vector at the index and the given position.
+   *
+   * @param index the index to calculate.
+   * @param x the x to calculate.
+   * @param y the y to calculate.
+   * @param z the z to calculate.
+   *
+   * @return squared distance.
+   */
+  public double distanceSquared(final int index, final double x, final double y, final double z) {
+    Preconditions.checkElementIndex(index, this.size);
+    final var dx = this.xs[index] - x;
+    final var dy = this.ys[index] - y;
+    final var dz = this.zs[index] - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * calculates the dot products of the vectors of {@code this} and the given buffer element by element.
+   *
+   * @param buffer the buffer to calculate, must have the same size.
+   * @param output the output to write the dot products, at least {@link #size()} long.
+   */
+  public void dot(@NotNull final Vector3dBuffer buffer, final double @NotNull [] output) {
+    this.checkSize(buffer);
+    VectorMath.dot(this.xs, this.ys, this.zs, buffer.xs, buffer.ys, buffer.zs, output, this.size);
+  }
+
+  /**
+   * grows the capacity to at least the given capacity.
+   *
+   * @param capacity the capacity to ensure.
+   */
+  public void ensureCapacity(final int capacity) {
+    if (capacity > this.xs.length) {
+      this.grow(capacity);
+    }
+  }
+
+  /**
+   * copies the vector at the index into the given vector.
+   *
+   * @param index the index to get.
+   * @param output the output to copy into.
+   *
+   * @return the output.
+   */
+  @NotNull
+  public MutableVector3d get(final int index, @NotNull final MutableVector3d output) {
+    Preconditions.checkElementIndex(index, this.size);
+    return output.set(this.xs[index], this.ys[index], this.zs[index]);
+  }
+
+  /**
+   * creates an immutable copy of the vector at the index.
+   *
+   * @param index the index to get.
+   *
+   * @return a newly created vector.
+   */
+  @NotNull
+  public Vector3d get(final int index) {
+    Preconditions.checkElementIndex(index, this.size);
+    return Vector3d.of(this.xs[index], this.ys[index], this.zs[index]);
+  }
+
+  /**
+   * finds the indexes of the vectors inside the box.
+   *
+   * @param minX the min x of the box, inclusive.
+   * @param minY the min y of the box, inclusive.
+   * @param minZ the min z of the box, inclusive.
+   * @param maxX the max x of the box, inclusive.
+   * @param maxY the max y of the box, inclusive.
+   * @param maxZ the max z of the box, inclusive.
+   * @param output the output to write the indexes in ascending order, at least {@link #size()} long.
+   *
+   * @return count of the written indexes.
+   */
+  public int indexesInBox(final double minX, final double minY, final double minZ, final double maxX,
+                          final double maxY, final double maxZ, final int @NotNull [] output) {
+    return VectorMath.indexesInBox(this.xs, this.ys, this.zs, this.size, minX, minY, minZ, maxX, maxY, maxZ, output);
+  }
+
+  /**
+   * finds the indexes of the vectors within the radius of the position.
+   *
+   * @param x the x of the position.
+   * @param y the y of the position.
+   * @param z the z of the position.
+   * @param radius the radius, inclusive.
+   * @param output the output to write the indexes in ascending order, at least {@link #size()} long.
+   *
+   * @return count of the written indexes.
+   */
+  public int indexesInRange(final double x, final double y, final double z, final double radius,
+                            final int @NotNull [] output) {
+    return VectorMath.indexesInRange(this.xs, this.ys, this.zs, this.size, x, y, z, radius, output);
+  }
+
+  /**
+   * calculates the lengths of the vectors.
+   *
+   * @param output the output to write the lengths, at least {@link #size()} long.
+   */
+  public void lengths(final double @NotNull [] output) {
+    VectorMath.lengths(this.xs, this.ys, this.zs, output, this.size);
+  }
+
+  /**
+   * multiplies the vectors by the given x, y and z.
+   *
+   * @param x the x to multiply.
+   * @param y the y to multiply.
+   * @param z the z to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer multiply(final double x, final double y, final double z) {
+    VectorMath.multiply(this.xs, x, this.size);
+    VectorMath.multiply(this.ys, y, this.size);
+    VectorMath.multiply(this.zs, z, this.size);
+    return this;
+  }
+
+  /**
+   * multiplies the vectors by the given scalar.
+   *
+   * @param scalar the scalar to multiply.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer multiply(final double scalar) {
+    return this.multiply(scalar, scalar, scalar);
+  }
+
+  /**
+   * removes the vector at the index by moving the last vector into its place.
+   *
+   * @param index the index to remove.
+   *
+   * @return the index of the vector that is moved into the index, {@code -1} if the removed vector was the last one.
+   */
+  public int removeSwap(final int index) {
+    Preconditions.checkElementIndex(index, this.size);
+    final var last = --this.size;
+    if (index == last) {
+      return -1;
+    }
+    this.xs[index] = this.xs[last];
+    this.ys[index] = this.ys[last];
+    this.zs[index] = this.zs[last];
+    return last;
+  }
+
+  /**
+   * sets the vector at the index.
+   *
+   * @param index the index to set.
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   */
+  public void set(final int index, final double x, final double y, final double z) {
+    Preconditions.checkElementIndex(index, this.size);
+    this.xs[index] = x;
+    this.ys[index] = y;
+    this.zs[index] = z;
+  }
+
+  /**
+   * obtains the count of the vectors.
+   *
+   * @return size.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * subtracts the vectors of the given buffer from the vectors of {@code this} element by element.
+   *
+   * @param buffer the buffer to subtract, must have the same size.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer subtract(@NotNull final Vector3dBuffer buffer) {
+    return this.addScaled(buffer, -1.0d);
+  }
+
+  /**
+   * adds the given x, y and z to all vectors.
+   *
+   * @param x the x to add.
+   * @param y the y to add.
+   * @param z the z to add.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public Vector3dBuffer translate(final double x, final double y, final double z) {
+    VectorMath.translate(this.xs, x, this.size);
+    VectorMath.translate(this.ys, y, this.size);
+    VectorMath.translate(this.zs, z, this.size);
+    return this;
+  }
+
+  /**
+   * obtains the backing array of the x values.
+   *
+   * @return x values, only the first {@link #size()} values are valid.
+   */
+  public double @NotNull [] xs() {
+    return this.xs;
+  }
+
+  /**
+   * obtains the backing array of the y values.
+   *
+   * @return y values, only the first {@link #size()} values are valid.
+   */
+  public double @NotNull [] ys() {
+    return this.ys;
+  }
+
+  /**
+   * obtains the backing array of the z values.
+   *
+   * @return z values, only the first {@link #size()} values are valid.
+   */
+  public double @NotNull [] zs() {
+    return this.zs;
+  }
+
+  /**
+   * checks that the given buffer has the same size.
+   *
+   * @param buffer the buffer to check.
+   */
+  private void checkSize(@NotNull final Vector3dBuffer buffer) {
+    Preconditions.checkArgument(buffer.size == this.size, "Buffer sizes differ, %s and %s!", this.size, buffer.size);
+  }
+
+  /**
+   * grows the arrays.
+   *
+   * @param capacity the min capacity to grow.
+   */
+  private void grow(final int capacity) {
+    final var length = Math.max(capacity, Math.max(16, this.xs.length + (this.xs.length >> 1)));
+    this.xs = Arrays.copyOf(this.xs, length);
+    this.ys = Arrays.copyOf(this.ys, length);
+    this.zs = Arrays.copyOf(this.zs, length);
+  }
+}
@@ -0,0 +1,199 @@
+package io.github.shiruka.api.common.vectors;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains bulk vector operations over {@code double} arrays in struct of arrays layout.
+ * <p>
+ * the operations use the lanes of {@code jdk.incubator.vector} when the module is resolved, for example with
+ * {@code --add-modules jdk.incubator.vector}, and fall back to plain loops otherwise or when the
+ * {@value #SIMD_PROPERTY} system property is {@code false}. both implementations return the same results bit by bit.
+ *
+ * @see Vector3dBuffer
+ */
+public final class VectorMath {
+
+  /**
+   * the system property to disable the vector api.
+   */
+  public static final String SIMD_PROPERTY = "shiruka.vector.simd";
+
+  /**
+   * the kernels.
+   */
+  private static final BulkKernels KERNELS = VectorMath.kernels();
+
+  /**
+   * ctor.
+   */
+  private VectorMath() {
+  }
+
+  /**
+   * adds the source multiplied by the scale to the target element by element.
+   *
+   * @param target the target to add into.
+   * @param source the source to add.
+   * @param scale the scale to multiply the source.
+   * @param length the length to add.
+   */
+  public static void addScaled(final double @NotNull [] target, final double @NotNull [] source, final double scale,
+                               final int length) {
+    VectorMath.checkLength(length, Math.min(target.length, source.length));
+    VectorMath.KERNELS.addScaled(target, source, scale, length);
+  }
+
+  /**
+   * calculates the dot products of the vectors element by element.
+   *
+   * @param xs the x values of the first vectors.
+   * @param ys the y values of the first vectors.
+   * @param zs the z values of the first vectors.
+   * @param otherXs the x values of the second vectors.
+   * @param otherYs the y values of the second vectors.
+   * @param otherZs the z values of the second vectors.
+   * @param output the output to write the dot products.
+   * @param length the length to calculate.
+   */
+  public static void dot(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                         final double @NotNull [] otherXs, final double @NotNull [] otherYs,
+                         final double @NotNull [] otherZs, final double @NotNull [] output, final int length) {
+    final var capacity = Math.min(VectorMath.min(xs, ys, zs), VectorMath.min(otherXs, otherYs, otherZs));
+    VectorMath.checkLength(length, Math.min(capacity, output.length));
+    VectorMath.KERNELS.dot(xs, ys, zs, otherXs, otherYs, otherZs, output, length);
+  }
+
+  /**
+   * finds the indexes of the positions inside the box.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param length the length to find.
+   * @param minX the min x of the box, inclusive.
+   * @param minY the min y of the box, inclusive.
+   * @param minZ the min z of the box, inclusive.
+   * @param maxX the max x of the box, inclusive.
+   * @param maxY the max y of the box, inclusive.
+   * @param maxZ the max z of the box, inclusive.
+   * @param output the output to write the indexes in ascending order, at least {@code length} long.
+   *
+   * @return count of the written indexes.
+   */
+  public static int indexesInBox(final double @NotNull [] xs, final double @NotNull [] ys,
+                                 final double @NotNull [] zs, final int length, final double minX, final double minY,
+                                 final double minZ, final double maxX, final double maxY, final double maxZ,
+                                 final int @NotNull [] output) {
+    VectorMath.checkLength(length, Math.min(VectorMath.min(xs, ys, zs), output.length));
+    return VectorMath.KERNELS.indexesInBox(xs, ys, zs, length, minX, minY, minZ, maxX, maxY, maxZ, output);
+  }
+
+  /**
+   * finds the indexes of the positions within the radius of the center.
+   *
+   * @param xs the x values to find.
+   * @param ys the y values to find.
+   * @param zs the z values to find.
+   * @param length the length to find.
+   * @param x the x of the center.
+   * @param y the y of the center.
+   * @param z the z of the center.
+   * @param radius the radius, inclusive.
+   * @param output the output to write the indexes in ascending order, at least {@code length} long.
+   *
+   * @return count of the written indexes.
+   */
+  public static int indexesInRange(final double @NotNull [] xs, final double @NotNull [] ys,
+                                   final double @NotNull [] zs, final int length, final double x, final double y,
+                                   final double z, final double radius, final int @NotNull [] output) {
+    VectorMath.checkLength(length, Math.min(VectorMath.min(xs, ys, zs), output.length));
+    return VectorMath.KERNELS.indexesInRange(xs, ys, zs, length, x, y, z, radius * radius, output);
+  }
+
+  /**
+   * calculates the lengths of the vectors.
+   *
+   * @param xs the x values.
+   * @param ys the y values.
+   * @param zs the z values.
+   * @param output the output to write the lengths.
+   * @param length the length to calculate.
+   */
+  public static void lengths(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs,
+                             final double @NotNull [] output, final int length) {
+    VectorMath.checkLength(length, Math.min(VectorMath.min(xs, ys, zs), output.length));
+    VectorMath.KERNELS.lengths(xs, ys, zs, output, length);
+  }
+
+  /**
+   * multiplies the values by the scalar.
+   *
+   * @param values the values to multiply.
+   * @param scalar the scalar to multiply.
+   * @param length the length to multiply.
+   */
+  public static void multiply(final double @NotNull [] values, final double scalar, final int length) {
+    VectorMath.checkLength(length, values.length);
+    VectorMath.KERNELS.multiply(values, scalar, length);
+  }
+
+  /**
+   * checks if the operations use the vector api.
+   *
+   * @return {@code true} if the operations use the vector api.
+   */
+  public static boolean simd() {
+    return VectorMath.KERNELS instanceof SimdKernels;
+  }
+
+  /**
+   * adds the offset to the values.
+   *
+   * @param values the values to add into.
+   * @param offset the offset to add.
+   * @param length the length to add.
+   */
+  public static void translate(final double @NotNull [] values, final double offset, final int length) {
+    VectorMath.checkLength(length, values.length);
+    VectorMath.KERNELS.translate(values, offset, length);
+  }
+
+  /**
+   * checks that the length fits in the arrays.
+   *
+   * @param length the length to check.
+   * @param capacity the length of the shortest array.
+   */
+  private static void checkLength(final int length, final int capacity) {
+    Preconditions.checkArgument(length >= 0 && length <= capacity, "Length %s does not fit in %s!", length,
+      capacity);
+  }
+
+  /**
+   * obtains the length of the shortest array.
+   *
+   * @param xs the x values.
+   * @param ys the y values.
+   * @param zs the z values.
+   *
+   * @return length of the shortest array.
+   */
+  private static int min(final double @NotNull [] xs, final double @NotNull [] ys, final double @NotNull [] zs) {
+    return Math.min(xs.length, Math.min(ys.length, zs.length));
+  }
+
+  /**
+   * selects the kernels.
+   *
+   * @return the vector api kernels if the module is resolved and not disabled, the scalar kernels otherwise.
+   */
+  @NotNull
+  private static BulkKernels kernels() {
+    final var enabled = Boolean.parseBoolean(System.getProperty(VectorMath.SIMD_PROPERTY, "true"));
+    if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      return new SimdKernels();
+    }
+    return new ScalarKernels();
+  }
+}
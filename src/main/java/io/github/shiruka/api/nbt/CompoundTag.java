@@ -1,6 +1,9 @@
 package io.github.shiruka.api.nbt;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -32,6 +35,11 @@ public interface CompoundTag extends Tag, StoredTag<String> {
   @NotNull
   Map<String, Tag> all();
 
+  @Override
+  default <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitCompound(this);
+  }
+
   @NotNull
   @Override
   default CompoundTag asCompound() {
@@ -44,6 +52,30 @@ public interface CompoundTag extends Tag, StoredTag<String> {
     return TagTypes.COMPOUND;
   }
 
+  /**
+   * computes a new tag for the key from its current tag, which is {@code null} if the key does not exist.
+   * <p>
+   * the key is removed if the function returns {@code null}. the default implementation is not atomic, thread-safe
+   * implementations override this to apply the function atomically.
+   *
+   * @param key the key to compute.
+   * @param function the function to compute.
+   *
+   * @return the new tag at the key.
+   */
+  @NotNull
+  default Optional<Tag> compute(@NotNull final String key,
+                                @NotNull final BiFunction<String, ? super Tag, ? extends Tag> function) {
+    final var old = this.get(key).orElse(null);
+    final Tag value = function.apply(key, old);
+    if (value != null) {
+      this.set(key, value);
+    } else if (old != null) {
+      this.remove(key);
+    }
+    return Optional.ofNullable(value);
+  }
+
   @Override
   default boolean isCompound() {
     return true;
@@ -66,4 +98,23 @@ public interface CompoundTag extends Tag, StoredTag<String> {
   default boolean isEmpty() {
     return this.all().isEmpty();
   }
+
+  /**
+   * sets the tag at the key if the key does not exist, otherwise merges the current tag and the given tag.
+   * <p>
+   * the key is removed if the function returns {@code null}.
+   *
+   * @param key the key to merge.
+   * @param tag the tag to merge.
+   * @param function the function to merge the current and the given tag.
+   *
+   * @return the new tag at the key.
+   *
+   * @see #compute(String, BiFunction)
+   */
+  @NotNull
+  default Optional<Tag> merge(@NotNull final String key, @NotNull final Tag tag,
+                              @NotNull final BinaryOperator<Tag> function) {
+    return this.compute(key, (k, old) -> old == null ? tag : function.apply(old, tag));
+  }
 }
@@ -24,6 +24,11 @@ public interface ListTag extends Tag, IntStoredTag, Iterable<Tag> {
   @NotNull
   List<Tag> all();
 
+  @Override
+  default <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitList(this);
+  }
+
   @NotNull
   @Override
   default ListTag asList() {
@@ -460,6 +460,37 @@ public interface Tag {
     return new NBTOutputStream(new LittleEndianByteBufOutputStream(buffer));
   }
 
+  /**
+   * accepts the visitor by calling its method that matches the type of {@code this}.
+   * <p>
+   * implementations override this to call their visit method directly, the default implementation dispatches on the
+   * id of {@link #getType()}.
+   *
+   * @param visitor the visitor to accept.
+   * @param <R> type of the result.
+   *
+   * @return the result of the visitor.
+   *
+   * @throws IllegalArgumentException if the type of {@code this} is unknown.
+   */
+  default <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return switch (this.getType()) {
+      case BYTE -> visitor.visitByte(this.asByte());
+      case SHORT -> visitor.visitShort(this.asShort());
+      case INT -> visitor.visitInt(this.asInt());
+      case LONG -> visitor.visitLong(this.asLong());
+      case FLOAT -> visitor.visitFloat(this.asFloat());
+      case DOUBLE -> visitor.visitDouble(this.asDouble());
+      case BYTE_ARRAY -> visitor.visitByteArray(this.asByteArray());
+      case STRING -> visitor.visitString(this.asString());
+      case LIST -> visitor.visitList(this.asList());
+      case COMPOUND -> visitor.visitCompound(this.asCompound());
+      case INT_ARRAY -> visitor.visitIntArray(this.asIntArray());
+      case LONG_ARRAY -> visitor.visitLongArray(this.asLongArray());
+      default -> throw new IllegalArgumentException(String.format("Unknown type %s", this.getType()));
+    };
+  }
+
   /**
    * an instance of {@code this} as a {@link ArrayTag}.
    *
@@ -0,0 +1,182 @@
+package io.github.shiruka.api.nbt;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.nbt.array.ByteArrayTag;
+import io.github.shiruka.api.nbt.array.IntArrayTag;
+import io.github.shiruka.api.nbt.array.LongArrayTag;
+import io.github.shiruka.api.nbt.compound.ConcurrentCompoundTag;
+import io.github.shiruka.api.nbt.compound.PersistentCompoundTag;
+import io.github.shiruka.api.nbt.list.ColumnarListTag;
+import io.github.shiruka.api.nbt.list.ConcurrentListTag;
+import io.github.shiruka.api.nbt.list.PersistentListTag;
+import io.github.shiruka.api.nbt.primitive.ByteTag;
+import io.github.shiruka.api.nbt.primitive.DoubleTag;
+import io.github.shiruka.api.nbt.primitive.FloatTag;
+import io.github.shiruka.api.nbt.primitive.IntTag;
+import io.github.shiruka.api.nbt.primitive.LongTag;
+import io.github.shiruka.api.nbt.primitive.ShortTag;
+import io.github.shiruka.api.nbt.primitive.StringTag;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine visitors that transform trees into new trees.
+ * <p>
+ * every method returns the given tag by default, containers are copied only if one of their children is transformed
+ * into a different instance, so untouched subtrees are shared with the source tree. a copied container keeps the
+ * implementation of its source, persistent and concurrent containers stay persistent and concurrent, columnar lists
+ * stay columnar while their rows share the same keys and types, other containers become the basic implementations.
+ * the elements of a transformed list must still have one type.
+ */
+public interface TagTransformer extends TagVisitor<Tag> {
+
+  /**
+   * transforms the given tag.
+   *
+   * @param tag the tag to transform.
+   *
+   * @return transformed tag.
+   */
+  @NotNull
+  default Tag transform(@NotNull final Tag tag) {
+    return tag.accept(this);
+  }
+
+  @Override
+  default Tag visitByte(@NotNull final ByteTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitByteArray(@NotNull final ByteArrayTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitCompound(@NotNull final CompoundTag tag) {
+    final var original = tag.all();
+    Map<String, Tag> transformed = null;
+    for (final var entry : original.entrySet()) {
+      final var value = entry.getValue();
+      final var newValue = this.transform(value);
+      if (newValue != value) {
+        if (transformed == null) {
+          transformed = new Object2ObjectOpenHashMap<>(original);
+        }
+        transformed.put(entry.getKey(), newValue);
+      }
+    }
+    return transformed == null ? tag : TagTransformer.rebuild(tag, transformed);
+  }
+
+  @Override
+  default Tag visitDouble(@NotNull final DoubleTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitFloat(@NotNull final FloatTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitInt(@NotNull final IntTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitIntArray(@NotNull final IntArrayTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitList(@NotNull final ListTag tag) {
+    final var original = tag.all();
+    List<Tag> transformed = null;
+    for (var index = 0; index < original.size(); index++) {
+      final var value = original.get(index);
+      final var newValue = this.transform(value);
+      if (newValue != value) {
+        if (transformed == null) {
+          transformed = new ObjectArrayList<>(original);
+        }
+        transformed.set(index, newValue);
+      }
+    }
+    return transformed == null ? tag : TagTransformer.rebuild(tag, transformed);
+  }
+
+  @Override
+  default Tag visitLong(@NotNull final LongTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitLongArray(@NotNull final LongArrayTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitShort(@NotNull final ShortTag tag) {
+    return tag;
+  }
+
+  @Override
+  default Tag visitString(@NotNull final StringTag tag) {
+    return tag;
+  }
+
+  /**
+   * creates a compound with the entries in the implementation of the source.
+   *
+   * @param source the source compound.
+   * @param entries the entries to create.
+   *
+   * @return a newly created compound.
+   */
+  @NotNull
+  private static CompoundTag rebuild(@NotNull final CompoundTag source, @NotNull final Map<String, Tag> entries) {
+    if (source instanceof PersistentCompoundTag) {
+      return PersistentCompoundTag.copyOf(Tag.createCompound(entries));
+    }
+    if (source instanceof ConcurrentCompoundTag) {
+      return new ConcurrentCompoundTag(PersistentCompoundTag.copyOf(Tag.createCompound(entries)));
+    }
+    return Tag.createCompound(entries);
+  }
+
+  /**
+   * creates a list with the elements in the implementation of the source.
+   *
+   * @param source the source list.
+   * @param elements the elements to create.
+   *
+   * @return a newly created list.
+   *
+   * @throws IllegalArgumentException if the elements have different types.
+   */
+  @NotNull
+  private static ListTag rebuild(@NotNull final ListTag source, @NotNull final List<Tag> elements) {
+    final var type = elements.get(0).getType();
+    for (final var element : elements) {
+      Preconditions.checkArgument(element.getType() == type,
+        "Transformed list has elements of both %s and %s!", type, element.getType());
+    }
+    if (source instanceof PersistentListTag) {
+      return PersistentListTag.copyOf(Tag.createList(elements));
+    }
+    if (source instanceof ConcurrentListTag) {
+      return new ConcurrentListTag(PersistentListTag.copyOf(Tag.createList(elements)));
+    }
+    if (source instanceof ColumnarListTag) {
+      final var columnar = ColumnarListTag.of(elements);
+      if (columnar.isPresent()) {
+        return columnar.get();
+      }
+    }
+    return Tag.createList(elements);
+  }
+}
@@ -0,0 +1,147 @@
+package io.github.shiruka.api.nbt;
+
+import io.github.shiruka.api.nbt.array.ByteArrayTag;
+import io.github.shiruka.api.nbt.array.IntArrayTag;
+import io.github.shiruka.api.nbt.array.LongArrayTag;
+import io.github.shiruka.api.nbt.primitive.ByteTag;
+import io.github.shiruka.api.nbt.primitive.DoubleTag;
+import io.github.shiruka.api.nbt.primitive.EndTag;
+import io.github.shiruka.api.nbt.primitive.FloatTag;
+import io.github.shiruka.api.nbt.primitive.IntTag;
+import io.github.shiruka.api.nbt.primitive.LongTag;
+import io.github.shiruka.api.nbt.primitive.ShortTag;
+import io.github.shiruka.api.nbt.primitive.StringTag;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine visitors which are dispatched by {@link Tag#accept(TagVisitor)}.
+ * <p>
+ * visitors do not descend into containers by themselves, {@link #visitCompound(CompoundTag)} and
+ * {@link #visitList(ListTag)} decide whether and how to visit the children. use {@link TagWalker} to visit deep trees
+ * without recursion.
+ *
+ * @param <R> type of the result.
+ */
+public interface TagVisitor<R> {
+
+  /**
+   * visits the byte tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitByte(@NotNull ByteTag tag);
+
+  /**
+   * visits the byte array tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitByteArray(@NotNull ByteArrayTag tag);
+
+  /**
+   * visits the compound tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitCompound(@NotNull CompoundTag tag);
+
+  /**
+   * visits the double tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitDouble(@NotNull DoubleTag tag);
+
+  /**
+   * visits the end tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   *
+   * @throws IllegalArgumentException by default, since end tags only mark the end of compounds.
+   */
+  default R visitEnd(@NotNull final EndTag tag) {
+    throw new IllegalArgumentException(String.format("Cannot visit a %s", TagTypes.END));
+  }
+
+  /**
+   * visits the float tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitFloat(@NotNull FloatTag tag);
+
+  /**
+   * visits the int tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitInt(@NotNull IntTag tag);
+
+  /**
+   * visits the int array tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitIntArray(@NotNull IntArrayTag tag);
+
+  /**
+   * visits the list tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitList(@NotNull ListTag tag);
+
+  /**
+   * visits the long tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitLong(@NotNull LongTag tag);
+
+  /**
+   * visits the long array tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitLongArray(@NotNull LongArrayTag tag);
+
+  /**
+   * visits the short tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitShort(@NotNull ShortTag tag);
+
+  /**
+   * visits the string tag.
+   *
+   * @param tag the tag to visit.
+   *
+   * @return the result.
+   */
+  R visitString(@NotNull StringTag tag);
+}
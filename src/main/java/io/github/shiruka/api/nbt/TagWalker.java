@@ -0,0 +1,101 @@
+package io.github.shiruka.api.nbt;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an utility class to walk trees of {@link Tag} in pre-order without recursion.
+ * <p>
+ * the walker keeps an explicit stack of child iterators, so trees of any depth can be walked without overflowing the
+ * thread's stack.
+ */
+public final class TagWalker {
+
+  /**
+   * ctor.
+   */
+  private TagWalker() {
+  }
+
+  /**
+   * walks the tree and calls the visitor for every tag in it, including the root.
+   *
+   * @param root the root to walk.
+   * @param visitor the visitor to call.
+   */
+  public static void walk(@NotNull final Tag root, @NotNull final TagVisitor<?> visitor) {
+    TagWalker.walk(root, (key, tag, depth) -> {
+      tag.accept(visitor);
+      return true;
+    });
+  }
+
+  /**
+   * walks the tree and calls the step for every tag in it, including the root.
+   *
+   * @param root the root to walk.
+   * @param step the step to call.
+   */
+  public static void walk(@NotNull final Tag root, @NotNull final Step step) {
+    if (!step.visit(null, root, 0)) {
+      return;
+    }
+    final var stack = new ObjectArrayList<Iterator<?>>();
+    TagWalker.push(stack, root);
+    while (!stack.isEmpty()) {
+      final var iterator = stack.top();
+      if (!iterator.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      final var next = iterator.next();
+      final String key;
+      final Tag tag;
+      if (next instanceof Map.Entry<?, ?> entry) {
+        key = (String) entry.getKey();
+        tag = (Tag) entry.getValue();
+      } else {
+        key = null;
+        tag = (Tag) next;
+      }
+      if (step.visit(key, tag, stack.size())) {
+        TagWalker.push(stack, tag);
+      }
+    }
+  }
+
+  /**
+   * pushes an iterator over the children of the tag if it is a container.
+   *
+   * @param stack the stack to push.
+   * @param tag the tag to push.
+   */
+  private static void push(@NotNull final ObjectArrayList<Iterator<?>> stack, @NotNull final Tag tag) {
+    if (tag.isCompound()) {
+      stack.push(tag.asCompound().all().entrySet().iterator());
+    } else if (tag.isList()) {
+      stack.push(tag.asList().iterator());
+    }
+  }
+
+  /**
+   * an interface to determine steps of walks.
+   */
+  @FunctionalInterface
+  public interface Step {
+
+    /**
+     * visits the tag.
+     *
+     * @param key the key of the tag in its compound, {@code null} for the root and list elements.
+     * @param tag the tag to visit.
+     * @param depth the depth of the tag, {@code 0} for the root.
+     *
+     * @return {@code true} to walk into the children of the tag if it is a container.
+     */
+    boolean visit(@Nullable String key, @NotNull Tag tag, int depth);
+  }
+}
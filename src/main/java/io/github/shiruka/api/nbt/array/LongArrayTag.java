@@ -2,6 +2,7 @@ package io.github.shiruka.api.nbt.array;
 
 import io.github.shiruka.api.nbt.ArrayTag;
 import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.TagVisitor;
 import java.util.Arrays;
 import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
@@ -32,6 +33,11 @@ public final class LongArrayTag implements ArrayTag<Long> {
     this.original = ArrayUtils.toObject(this.primitiveOriginal);
   }
 
+  @Override
+  public <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitLongArray(this);
+  }
+
   @NotNull
   @Override
   public LongArrayTag asLongArray() {
@@ -0,0 +1,159 @@
+package io.github.shiruka.api.nbt.compound;
+
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.nbt.Tag;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a thread-safe implementation for {@link CompoundTag} which swaps {@link PersistentCompoundTag}s atomically.
+ * <p>
+ * reads never lock and always see a consistent version of the compound, writes are applied with compare-and-set and
+ * retried on contention. {@link #snapshot()} costs a single volatile read, so async readers never have to copy the
+ * compound. compounds and lists are stored in their {@link PersistentCompoundTag#persistent(Tag)} form, so the whole
+ * tree of a snapshot is immutable, edit a nested tag by setting its new version.
+ */
+public final class ConcurrentCompoundTag implements CompoundTag {
+
+  /**
+   * the current version.
+   */
+  @NotNull
+  private final AtomicReference<PersistentCompoundTag> current;
+
+  /**
+   * ctor.
+   *
+   * @param initial the initial.
+   */
+  public ConcurrentCompoundTag(@NotNull final PersistentCompoundTag initial) {
+    this.current = new AtomicReference<>(initial);
+  }
+
+  /**
+   * ctor.
+   */
+  public ConcurrentCompoundTag() {
+    this(PersistentCompoundTag.empty());
+  }
+
+  @NotNull
+  @Override
+  public Map<String, Tag> all() {
+    return this.snapshot().all();
+  }
+
+  /**
+   * computes a new tag for the key atomically.
+   * <p>
+   * the function may be called more than once when other threads write at the same time, so it should be free of
+   * side effects. a compound or a list that the function returns is stored in its persistent form.
+   *
+   * @param key the key to compute.
+   * @param function the function to compute.
+   *
+   * @return the new tag at the key.
+   */
+  @NotNull
+  @Override
+  public Optional<Tag> compute(@NotNull final String key,
+                               @NotNull final BiFunction<String, ? super Tag, ? extends Tag> function) {
+    while (true) {
+      final var current = this.current.get();
+      final Tag computed = function.apply(key, current.get(key).orElse(null));
+      final var value = computed == null ? null : PersistentCompoundTag.persistent(computed);
+      final var next = value == null ? current.without(key) : current.with(key, value);
+      if (next == current || this.current.compareAndSet(current, next)) {
+        return Optional.ofNullable(value);
+      }
+    }
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.snapshot().contains(tag);
+  }
+
+  @Override
+  public boolean containsKey(@NotNull final String key) {
+    return this.snapshot().containsKey(key);
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(@NotNull final String key) {
+    return this.snapshot().get(key);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.snapshot().isEmpty();
+  }
+
+  @Override
+  public void remove(@NotNull final String key) {
+    this.update(compound -> compound.without(key));
+  }
+
+  @Override
+  public void set(@NotNull final String key, @NotNull final Tag tag) {
+    final var value = PersistentCompoundTag.persistent(tag);
+    this.update(compound -> compound.with(key, value));
+  }
+
+  @Override
+  public int size() {
+    return this.snapshot().size();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.snapshot().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj ||
+      obj instanceof CompoundTag compound && this.snapshot().equals(compound);
+  }
+
+  @Override
+  public String toString() {
+    return this.snapshot().toString();
+  }
+
+  /**
+   * obtains the current version of the compound.
+   *
+   * @return an immutable snapshot.
+   */
+  @NotNull
+  public PersistentCompoundTag snapshot() {
+    return this.current.get();
+  }
+
+  /**
+   * applies the function to the current version atomically.
+   * <p>
+   * the function may be called more than once when other threads write at the same time, so it should be free of
+   * side effects.
+   *
+   * @param function the function to apply.
+   *
+   * @return the new version of the compound.
+   */
+  @NotNull
+  public PersistentCompoundTag update(@NotNull final UnaryOperator<PersistentCompoundTag> function) {
+    while (true) {
+      final var current = this.current.get();
+      final var next = function.apply(current);
+      if (next == current || this.current.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+}
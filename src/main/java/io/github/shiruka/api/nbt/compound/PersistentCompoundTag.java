@@ -0,0 +1,936 @@
+package io.github.shiruka.api.nbt.compound;
+
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.list.PersistentListTag;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an immutable implementation for {@link CompoundTag} which is backed by a hash array mapped trie.
+ * <p>
+ * {@link #with(String, Tag)} and {@link #without(String)} run in {@code O(log n)} and share every untouched node
+ * with {@code this}, so keeping a snapshot of a compound costs a single reference. use {@link Builder} to apply many
+ * edits at once without copying the touched nodes for each edit.
+ */
+public final class PersistentCompoundTag implements CompoundTag {
+
+  /**
+   * the bit count that each trie level consumes from the hash.
+   */
+  private static final int BITS = 5;
+
+  /**
+   * the empty compound.
+   */
+  private static final PersistentCompoundTag EMPTY = new PersistentCompoundTag(BitmapNode.EMPTY, 0);
+
+  /**
+   * the mask to get index of a trie level from the hash.
+   */
+  private static final int MASK = 0x1f;
+
+  /**
+   * the root.
+   */
+  @NotNull
+  private final Node root;
+
+  /**
+   * the size.
+   */
+  private final int size;
+
+  /**
+   * ctor.
+   *
+   * @param root the root.
+   * @param size the size.
+   */
+  private PersistentCompoundTag(@NotNull final Node root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * creates a new builder.
+   *
+   * @return a new builder.
+   */
+  @NotNull
+  public static Builder builder() {
+    return PersistentCompoundTag.EMPTY.toBuilder();
+  }
+
+  /**
+   * creates a persistent copy of the given compound, converting nested compounds and lists into persistent ones.
+   *
+   * @param compound the compound to copy.
+   *
+   * @return a persistent compound tag.
+   */
+  @NotNull
+  public static PersistentCompoundTag copyOf(@NotNull final CompoundTag compound) {
+    if (compound instanceof PersistentCompoundTag persistent) {
+      return persistent;
+    }
+    final var builder = PersistentCompoundTag.builder();
+    compound.all().forEach((key, tag) -> builder.set(key, PersistentCompoundTag.persistent(tag)));
+    return builder.build();
+  }
+
+  /**
+   * obtains the empty compound.
+   *
+   * @return empty compound.
+   */
+  @NotNull
+  public static PersistentCompoundTag empty() {
+    return PersistentCompoundTag.EMPTY;
+  }
+
+  /**
+   * converts the given tag into its persistent form if it is a compound or a list.
+   *
+   * @param tag the tag to convert.
+   *
+   * @return persistent tag.
+   */
+  @NotNull
+  public static Tag persistent(@NotNull final Tag tag) {
+    if (tag.isCompound()) {
+      return PersistentCompoundTag.copyOf(tag.asCompound());
+    }
+    if (tag.isList()) {
+      return PersistentListTag.copyOf(tag.asList());
+    }
+    return tag;
+  }
+
+  /**
+   * obtains the index of the trie level from the hash.
+   *
+   * @param hash the hash to obtain.
+   * @param shift the shift of the level.
+   *
+   * @return bit of the level.
+   */
+  private static int bit(final int hash, final int shift) {
+    return 1 << (hash >>> shift & PersistentCompoundTag.MASK);
+  }
+
+  /**
+   * creates a node that contains both of the given entries.
+   *
+   * @param edit the edit token.
+   * @param shift the shift of the level.
+   * @param firstKey the first key.
+   * @param firstValue the first value.
+   * @param secondHash the hash of the second key.
+   * @param secondKey the second key.
+   * @param secondValue the second value.
+   *
+   * @return a new node.
+   */
+  @NotNull
+  private static Node createNode(@Nullable final Object edit, final int shift, @NotNull final String firstKey,
+                                 @NotNull final Tag firstValue, final int secondHash, @NotNull final String secondKey,
+                                 @NotNull final Tag secondValue) {
+    final var firstHash = PersistentCompoundTag.hash(firstKey);
+    if (firstHash == secondHash) {
+      return new CollisionNode(edit, firstHash, new Object[]{firstKey, firstValue, secondKey, secondValue});
+    }
+    final var changed = new boolean[1];
+    return BitmapNode.EMPTY
+      .assoc(edit, shift, firstHash, firstKey, firstValue, changed)
+      .assoc(edit, shift, secondHash, secondKey, secondValue, changed);
+  }
+
+  /**
+   * calculates hash of the key.
+   *
+   * @param key the key to calculate.
+   *
+   * @return hash of the key.
+   */
+  private static int hash(@NotNull final String key) {
+    final var hash = key.hashCode();
+    return hash ^ hash >>> 16;
+  }
+
+  /**
+   * removes the pair at the given index.
+   *
+   * @param array the array to remove.
+   * @param index the pair index to remove.
+   *
+   * @return a new array without the pair.
+   */
+  @NotNull
+  private static Object @NotNull [] removePair(@NotNull final Object @NotNull [] array, final int index) {
+    final var result = new Object[array.length - 2];
+    System.arraycopy(array, 0, result, 0, 2 * index);
+    System.arraycopy(array, 2 * (index + 1), result, 2 * index, result.length - 2 * index);
+    return result;
+  }
+
+  @NotNull
+  @Override
+  public Map<String, Tag> all() {
+    return new MapView(this.root, this.size);
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.all().containsValue(tag);
+  }
+
+  @Override
+  public boolean containsKey(@NotNull final String key) {
+    return this.root.find(0, PersistentCompoundTag.hash(key), key) != null;
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(@NotNull final String key) {
+    return Optional.ofNullable(this.root.find(0, PersistentCompoundTag.hash(key), key));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * does nothing but throws exception since the compound is immutable.
+   *
+   * @param key the key to remove.
+   *
+   * @throws UnsupportedOperationException always.
+   * @see #without(String)
+   */
+  @Override
+  public void remove(@NotNull final String key) {
+    throw new UnsupportedOperationException("Persistent compounds are immutable, use #without instead!");
+  }
+
+  /**
+   * does nothing but throws exception since the compound is immutable.
+   *
+   * @param key the key to set.
+   * @param tag the tag to set.
+   *
+   * @throws UnsupportedOperationException always.
+   * @see #with(String, Tag)
+   */
+  @Override
+  public void set(@NotNull final String key, @NotNull final Tag tag) {
+    throw new UnsupportedOperationException("Persistent compounds are immutable, use #with instead!");
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.all().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj ||
+      obj instanceof CompoundTag compound && this.all().equals(compound.all());
+  }
+
+  @Override
+  public String toString() {
+    return this.all().toString();
+  }
+
+  /**
+   * creates a builder which starts with the entries of {@code this}.
+   *
+   * @return a new builder.
+   */
+  @NotNull
+  public Builder toBuilder() {
+    return new Builder(this.root, this.size);
+  }
+
+  /**
+   * creates a compound that contains the given entry in addition to the entries of {@code this}.
+   *
+   * @param key the key to add.
+   * @param tag the tag to add.
+   *
+   * @return a new compound or {@code this} if the key already has the tag.
+   */
+  @NotNull
+  public PersistentCompoundTag with(@NotNull final String key, @NotNull final Tag tag) {
+    final var added = new boolean[1];
+    final var newRoot = this.root.assoc(null, 0, PersistentCompoundTag.hash(key), key, tag, added);
+    if (newRoot == this.root) {
+      return this;
+    }
+    return new PersistentCompoundTag(newRoot, added[0] ? this.size + 1 : this.size);
+  }
+
+  /**
+   * creates a compound that contains the entries of {@code this} except the key.
+   *
+   * @param key the key to remove.
+   *
+   * @return a new compound or {@code this} if the key does not exist.
+   */
+  @NotNull
+  public PersistentCompoundTag without(@NotNull final String key) {
+    final var removed = new boolean[1];
+    final var newRoot = this.root.without(null, 0, PersistentCompoundTag.hash(key), key, removed);
+    if (!removed[0]) {
+      return this;
+    }
+    if (newRoot == null) {
+      return PersistentCompoundTag.EMPTY;
+    }
+    return new PersistentCompoundTag(newRoot, this.size - 1);
+  }
+
+  /**
+   * an interface to determine trie nodes.
+   */
+  private interface Node {
+
+    /**
+     * obtains the array of key and value pairs, a {@code null} key means that the value is a sub node.
+     *
+     * @return pairs.
+     */
+    @NotNull
+    Object @NotNull [] array();
+
+    /**
+     * associates the key with the value.
+     *
+     * @param edit the edit token which allows editing nodes that are owned by the same token in place.
+     * @param shift the shift of the level.
+     * @param hash the hash of the key.
+     * @param key the key to associate.
+     * @param value the value to associate.
+     * @param added the flag to set if a new key is added.
+     *
+     * @return the node with the key, {@code this} if nothing changed.
+     */
+    @NotNull
+    Node assoc(@Nullable Object edit, int shift, int hash, @NotNull String key, @NotNull Tag value,
+               boolean @NotNull [] added);
+
+    /**
+     * finds the value of the key.
+     *
+     * @param shift the shift of the level.
+     * @param hash the hash of the key.
+     * @param key the key to find.
+     *
+     * @return value of the key.
+     */
+    @Nullable
+    Tag find(int shift, int hash, @NotNull String key);
+
+    /**
+     * removes the key.
+     *
+     * @param edit the edit token which allows editing nodes that are owned by the same token in place.
+     * @param shift the shift of the level.
+     * @param hash the hash of the key.
+     * @param key the key to remove.
+     * @param removed the flag to set if the key is removed.
+     *
+     * @return the node without the key, {@code this} if nothing changed and {@code null} if the node is empty.
+     */
+    @Nullable
+    Node without(@Nullable Object edit, int shift, int hash, @NotNull String key, boolean @NotNull [] removed);
+  }
+
+  /**
+   * a class that represents nodes which index their children with a bitmap.
+   */
+  private static final class BitmapNode implements Node {
+
+    /**
+     * the empty node.
+     */
+    private static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+    /**
+     * the edit token.
+     */
+    @Nullable
+    private final Object edit;
+
+    /**
+     * the pairs.
+     */
+    @NotNull
+    private Object @NotNull [] array;
+
+    /**
+     * the bitmap.
+     */
+    private int bitmap;
+
+    /**
+     * ctor.
+     *
+     * @param edit the edit.
+     * @param bitmap the bitmap.
+     * @param array the array.
+     */
+    private BitmapNode(@Nullable final Object edit, final int bitmap, @NotNull final Object @NotNull [] array) {
+      this.edit = edit;
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    @NotNull
+    @Override
+    public Object @NotNull [] array() {
+      return this.array;
+    }
+
+    @NotNull
+    @Override
+    public Node assoc(@Nullable final Object edit, final int shift, final int hash, @NotNull final String key,
+                      @NotNull final Tag value, final boolean @NotNull [] added) {
+      final var bit = PersistentCompoundTag.bit(hash, shift);
+      final var index = this.index(bit);
+      if ((this.bitmap & bit) == 0) {
+        final var pairs = this.array.length / 2;
+        final var newArray = new Object[2 * (pairs + 1)];
+        System.arraycopy(this.array, 0, newArray, 0, 2 * index);
+        newArray[2 * index] = key;
+        newArray[2 * index + 1] = value;
+        System.arraycopy(this.array, 2 * index, newArray, 2 * (index + 1), 2 * (pairs - index));
+        added[0] = true;
+        return this.edited(edit, this.bitmap | bit, newArray);
+      }
+      final var currentKey = this.array[2 * index];
+      final var currentValue = this.array[2 * index + 1];
+      if (currentKey == null) {
+        final var node = (Node) currentValue;
+        final var newNode = node.assoc(edit, shift + PersistentCompoundTag.BITS, hash, key, value, added);
+        return newNode == node ? this : this.editAndSet(edit, 2 * index + 1, newNode);
+      }
+      if (key.equals(currentKey)) {
+        return value == currentValue ? this : this.editAndSet(edit, 2 * index + 1, value);
+      }
+      added[0] = true;
+      final var node = PersistentCompoundTag.createNode(edit, shift + PersistentCompoundTag.BITS,
+        (String) currentKey, (Tag) currentValue, hash, key, value);
+      final var editable = this.editAndSet(edit, 2 * index, null);
+      editable.array[2 * index + 1] = node;
+      return editable;
+    }
+
+    @Nullable
+    @Override
+    public Tag find(final int shift, final int hash, @NotNull final String key) {
+      final var bit = PersistentCompoundTag.bit(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return null;
+      }
+      final var index = this.index(bit);
+      final var currentKey = this.array[2 * index];
+      final var currentValue = this.array[2 * index + 1];
+      if (currentKey == null) {
+        return ((Node) currentValue).find(shift + PersistentCompoundTag.BITS, hash, key);
+      }
+      return key.equals(currentKey) ? (Tag) currentValue : null;
+    }
+
+    @Nullable
+    @Override
+    public Node without(@Nullable final Object edit, final int shift, final int hash, @NotNull final String key,
+                        final boolean @NotNull [] removed) {
+      final var bit = PersistentCompoundTag.bit(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return this;
+      }
+      final var index = this.index(bit);
+      final var currentKey = this.array[2 * index];
+      final var currentValue = this.array[2 * index + 1];
+      if (currentKey == null) {
+        final var node = (Node) currentValue;
+        final var newNode = node.without(edit, shift + PersistentCompoundTag.BITS, hash, key, removed);
+        if (newNode == node) {
+          return this;
+        }
+        if (newNode != null) {
+          return this.editAndSet(edit, 2 * index + 1, newNode);
+        }
+      } else if (!key.equals(currentKey)) {
+        return this;
+      }
+      removed[0] = true;
+      if (this.bitmap == bit) {
+        return null;
+      }
+      return this.edited(edit, this.bitmap ^ bit, PersistentCompoundTag.removePair(this.array, index));
+    }
+
+    /**
+     * sets the array element on an editable node.
+     *
+     * @param edit the edit token.
+     * @param index the index to set.
+     * @param value the value to set.
+     *
+     * @return an editable node.
+     */
+    @NotNull
+    private BitmapNode editAndSet(@Nullable final Object edit, final int index, @Nullable final Object value) {
+      final var editable = this.editable(edit);
+      editable.array[index] = value;
+      return editable;
+    }
+
+    /**
+     * obtains a node with the given bitmap and pairs.
+     *
+     * @param edit the edit token.
+     * @param bitmap the bitmap to set.
+     * @param array the pairs to set.
+     *
+     * @return {@code this} if the node is owned by the token, otherwise a new node.
+     */
+    @NotNull
+    private BitmapNode edited(@Nullable final Object edit, final int bitmap,
+                              @NotNull final Object @NotNull [] array) {
+      if (edit != null && this.edit == edit) {
+        this.bitmap = bitmap;
+        this.array = array;
+        return this;
+      }
+      return new BitmapNode(edit, bitmap, array);
+    }
+
+    /**
+     * obtains a node which can be edited in place with the edit token.
+     *
+     * @param edit the edit token.
+     *
+     * @return {@code this} if the node is owned by the token, otherwise a copy.
+     */
+    @NotNull
+    private BitmapNode editable(@Nullable final Object edit) {
+      if (edit != null && this.edit == edit) {
+        return this;
+      }
+      return new BitmapNode(edit, this.bitmap, this.array.clone());
+    }
+
+    /**
+     * obtains the pair index of the bit.
+     *
+     * @param bit the bit to obtain.
+     *
+     * @return pair index.
+     */
+    private int index(final int bit) {
+      return Integer.bitCount(this.bitmap & bit - 1);
+    }
+  }
+
+  /**
+   * a class that represents nodes which contain keys whose hashes are the same.
+   */
+  private static final class CollisionNode implements Node {
+
+    /**
+     * the edit token.
+     */
+    @Nullable
+    private final Object edit;
+
+    /**
+     * the hash.
+     */
+    private final int hash;
+
+    /**
+     * the pairs.
+     */
+    @NotNull
+    private Object @NotNull [] array;
+
+    /**
+     * ctor.
+     *
+     * @param edit the edit.
+     * @param hash the hash.
+     * @param array the array.
+     */
+    private CollisionNode(@Nullable final Object edit, final int hash, @NotNull final Object @NotNull [] array) {
+      this.edit = edit;
+      this.hash = hash;
+      this.array = array;
+    }
+
+    @NotNull
+    @Override
+    public Object @NotNull [] array() {
+      return this.array;
+    }
+
+    @NotNull
+    @Override
+    public Node assoc(@Nullable final Object edit, final int shift, final int hash, @NotNull final String key,
+                      @NotNull final Tag value, final boolean @NotNull [] added) {
+      if (hash != this.hash) {
+        return new BitmapNode(edit, PersistentCompoundTag.bit(this.hash, shift), new Object[]{null, this})
+          .assoc(edit, shift, hash, key, value, added);
+      }
+      final var index = this.indexOf(key);
+      if (index != -1) {
+        if (this.array[index + 1] == value) {
+          return this;
+        }
+        final var editable = this.editable(edit);
+        editable.array[index + 1] = value;
+        return editable;
+      }
+      final var newArray = new Object[this.array.length + 2];
+      System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+      newArray[this.array.length] = key;
+      newArray[this.array.length + 1] = value;
+      added[0] = true;
+      return this.edited(edit, newArray);
+    }
+
+    @Nullable
+    @Override
+    public Tag find(final int shift, final int hash, @NotNull final String key) {
+      if (hash != this.hash) {
+        return null;
+      }
+      final var index = this.indexOf(key);
+      return index == -1 ? null : (Tag) this.array[index + 1];
+    }
+
+    @Nullable
+    @Override
+    public Node without(@Nullable final Object edit, final int shift, final int hash, @NotNull final String key,
+                        final boolean @NotNull [] removed) {
+      final var index = hash == this.hash ? this.indexOf(key) : -1;
+      if (index == -1) {
+        return this;
+      }
+      removed[0] = true;
+      if (this.array.length == 2) {
+        return null;
+      }
+      return this.edited(edit, PersistentCompoundTag.removePair(this.array, index / 2));
+    }
+
+    /**
+     * obtains a node with the given pairs.
+     *
+     * @param edit the edit token.
+     * @param array the pairs to set.
+     *
+     * @return {@code this} if the node is owned by the token, otherwise a new node.
+     */
+    @NotNull
+    private CollisionNode edited(@Nullable final Object edit, @NotNull final Object @NotNull [] array) {
+      if (edit != null && this.edit == edit) {
+        this.array = array;
+        return this;
+      }
+      return new CollisionNode(edit, this.hash, array);
+    }
+
+    /**
+     * obtains a node which can be edited in place with the edit token.
+     *
+     * @param edit the edit token.
+     *
+     * @return {@code this} if the node is owned by the token, otherwise a copy.
+     */
+    @NotNull
+    private CollisionNode editable(@Nullable final Object edit) {
+      if (edit != null && this.edit == edit) {
+        return this;
+      }
+      return new CollisionNode(edit, this.hash, this.array.clone());
+    }
+
+    /**
+     * finds the array index of the key.
+     *
+     * @param key the key to find.
+     *
+     * @return array index of the key or {@code -1}.
+     */
+    private int indexOf(@NotNull final String key) {
+      for (var index = 0; index < this.array.length; index += 2) {
+        if (key.equals(this.array[index])) {
+          return index;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * a class that represents transient builders for {@link PersistentCompoundTag}.
+   * <p>
+   * nodes created by a builder are edited in place until {@link #build()} is called, builders are not thread-safe.
+   */
+  public static final class Builder {
+
+    /**
+     * the edit token.
+     */
+    @NotNull
+    private Object edit = new Object();
+
+    /**
+     * the root.
+     */
+    @NotNull
+    private Node root;
+
+    /**
+     * the size.
+     */
+    private int size;
+
+    /**
+     * ctor.
+     *
+     * @param root the root.
+     * @param size the size.
+     */
+    private Builder(@NotNull final Node root, final int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * builds the compound.
+     * <p>
+     * the builder can still be used after building, further edits do not affect the built compound.
+     *
+     * @return a persistent compound tag.
+     */
+    @NotNull
+    public PersistentCompoundTag build() {
+      this.edit = new Object();
+      return this.size == 0 ? PersistentCompoundTag.EMPTY : new PersistentCompoundTag(this.root, this.size);
+    }
+
+    /**
+     * gets the tag at the key.
+     *
+     * @param key the key to get.
+     *
+     * @return tag at the key.
+     */
+    @NotNull
+    public Optional<Tag> get(@NotNull final String key) {
+      return Optional.ofNullable(this.root.find(0, PersistentCompoundTag.hash(key), key));
+    }
+
+    /**
+     * removes the key.
+     *
+     * @param key the key to remove.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    public Builder remove(@NotNull final String key) {
+      final var removed = new boolean[1];
+      final var newRoot = this.root.without(this.edit, 0, PersistentCompoundTag.hash(key), key, removed);
+      this.root = newRoot == null ? BitmapNode.EMPTY : newRoot;
+      if (removed[0]) {
+        this.size--;
+      }
+      return this;
+    }
+
+    /**
+     * sets the tag at the key.
+     *
+     * @param key the key to set.
+     * @param tag the tag to set.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    public Builder set(@NotNull final String key, @NotNull final Tag tag) {
+      final var added = new boolean[1];
+      this.root = this.root.assoc(this.edit, 0, PersistentCompoundTag.hash(key), key, tag, added);
+      if (added[0]) {
+        this.size++;
+      }
+      return this;
+    }
+
+    /**
+     * obtains the size.
+     *
+     * @return size.
+     */
+    public int size() {
+      return this.size;
+    }
+  }
+
+  /**
+   * a class that represents unmodifiable map views of the trie.
+   */
+  private static final class MapView extends AbstractMap<String, Tag> {
+
+    /**
+     * the root.
+     */
+    @NotNull
+    private final Node root;
+
+    /**
+     * the size.
+     */
+    private final int size;
+
+    /**
+     * ctor.
+     *
+     * @param root the root.
+     * @param size the size.
+     */
+    private MapView(@NotNull final Node root, final int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return key instanceof String string &&
+        this.root.find(0, PersistentCompoundTag.hash(string), string) != null;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Tag>> entrySet() {
+      return new AbstractSet<>() {
+        @NotNull
+        @Override
+        public Iterator<Entry<String, Tag>> iterator() {
+          return new EntryIterator(MapView.this.root);
+        }
+
+        @Override
+        public int size() {
+          return MapView.this.size;
+        }
+      };
+    }
+
+    @Override
+    public Tag get(final Object key) {
+      return key instanceof String string
+        ? this.root.find(0, PersistentCompoundTag.hash(string), string)
+        : null;
+    }
+
+    @Override
+    public int size() {
+      return this.size;
+    }
+  }
+
+  /**
+   * a class that represents iterators which walk the trie depth-first.
+   */
+  private static final class EntryIterator implements Iterator<Map.Entry<String, Tag>> {
+
+    /**
+     * the arrays of the nodes on the current path.
+     */
+    private final ObjectArrayList<Object[]> arrays = new ObjectArrayList<>();
+
+    /**
+     * the positions on the arrays of the current path.
+     */
+    private final IntArrayList positions = new IntArrayList();
+
+    /**
+     * the next entry.
+     */
+    @Nullable
+    private Map.Entry<String, Tag> next;
+
+    /**
+     * ctor.
+     *
+     * @param root the root.
+     */
+    private EntryIterator(@NotNull final Node root) {
+      this.arrays.push(root.array());
+      this.positions.push(0);
+      this.advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<String, Tag> next() {
+      final var entry = this.next;
+      if (entry == null) {
+        throw new NoSuchElementException();
+      }
+      this.advance();
+      return entry;
+    }
+
+    /**
+     * finds the next entry.
+     */
+    private void advance() {
+      while (!this.arrays.isEmpty()) {
+        final var array = this.arrays.top();
+        final var top = this.positions.size() - 1;
+        final var position = this.positions.getInt(top);
+        if (position >= array.length) {
+          this.arrays.pop();
+          this.positions.popInt();
+          continue;
+        }
+        this.positions.set(top, position + 2);
+        final var key = array[position];
+        if (key == null) {
+          this.arrays.push(((Node) array[position + 1]).array());
+          this.positions.push(0);
+        } else {
+          this.next = new AbstractMap.SimpleImmutableEntry<>((String) key, (Tag) array[position + 1]);
+          return;
+        }
+      }
+      this.next = null;
+    }
+  }
+}
@@ -0,0 +1,1201 @@
+package io.github.shiruka.api.nbt.list;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.nbt.ListTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.compound.CompoundTagBasic;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an implementation for {@link ListTag} that stores compounds which share the same keys column by column.
+ * <p>
+ * each shared key is kept as a primitive, string or tag array, so scanning a single key over the whole list is a
+ * linear array scan. compounds are materialized on demand as views that read from and write through to the columns.
+ * an edit that breaks the shared schema converts the list into plain row storage.
+ */
+public final class ColumnarListTag implements ListTag {
+
+  /**
+   * the default capacity.
+   */
+  private static final int DEFAULT_CAPACITY = 10;
+
+  /**
+   * the columns.
+   */
+  @Nullable
+  private final Column @NotNull [] columns;
+
+  /**
+   * the column indexes by key.
+   */
+  @NotNull
+  private final Object2IntMap<String> indexes;
+
+  /**
+   * the keys in schema order.
+   */
+  @NotNull
+  private final String @NotNull [] keys;
+
+  /**
+   * the row storage after the schema is broken.
+   */
+  @Nullable
+  private List<Tag> inflated;
+
+  /**
+   * the size.
+   */
+  private int size;
+
+  /**
+   * ctor.
+   *
+   * @param keys the keys.
+   * @param types the types of the keys.
+   * @param capacity the initial capacity.
+   */
+  public ColumnarListTag(@NotNull final String @NotNull [] keys, @NotNull final TagTypes @NotNull [] types,
+                         final int capacity) {
+    Preconditions.checkArgument(keys.length == types.length,
+      "Keys and types must have the same length!");
+    this.keys = keys.clone();
+    this.columns = new Column[keys.length];
+    this.indexes = new Object2IntOpenHashMap<>(keys.length);
+    this.indexes.defaultReturnValue(-1);
+    final var initialCapacity = Math.max(capacity, 1);
+    for (var index = 0; index < keys.length; index++) {
+      Preconditions.checkArgument(this.indexes.put(keys[index], index) == -1,
+        "Duplicate key %s", keys[index]);
+      this.columns[index] = new Column(types[index], initialCapacity);
+    }
+  }
+
+  /**
+   * ctor.
+   *
+   * @param keys the keys.
+   * @param types the types of the keys.
+   */
+  public ColumnarListTag(@NotNull final String @NotNull [] keys, @NotNull final TagTypes @NotNull [] types) {
+    this(keys, types, ColumnarListTag.DEFAULT_CAPACITY);
+  }
+
+  /**
+   * creates a columnar list from the given tags if all of them are compounds that share the same keys and types.
+   *
+   * @param tags the tags to create.
+   *
+   * @return a columnar list tag if the tags share the same schema.
+   */
+  @NotNull
+  public static Optional<ColumnarListTag> of(@NotNull final List<Tag> tags) {
+    if (tags.isEmpty() || !tags.get(0).isCompound()) {
+      return Optional.empty();
+    }
+    final var first = tags.get(0).asCompound().all();
+    final var keys = first.keySet().toArray(String[]::new);
+    final var types = new TagTypes[keys.length];
+    for (var index = 0; index < keys.length; index++) {
+      types[index] = first.get(keys[index]).getType();
+    }
+    final var list = new ColumnarListTag(keys, types, tags.size());
+    for (final var tag : tags) {
+      if (!list.matches(tag)) {
+        return Optional.empty();
+      }
+      list.append(tag.asCompound());
+    }
+    return Optional.of(list);
+  }
+
+  @Override
+  public void add(@NotNull final Tag tag) {
+    Preconditions.checkArgument(tag.getType() == TagTypes.COMPOUND,
+      "Trying to add tag of type %s to list of %s", tag.getType(), TagTypes.COMPOUND);
+    if (this.inflated == null && !this.matches(tag)) {
+      this.inflate();
+    }
+    if (this.inflated != null) {
+      this.inflated.add(tag);
+    } else {
+      this.append(tag.asCompound());
+    }
+  }
+
+  @NotNull
+  @Override
+  public List<Tag> all() {
+    if (this.inflated != null) {
+      return Collections.unmodifiableList(this.inflated);
+    }
+    final var rows = new ObjectArrayList<Tag>(this.size);
+    for (var index = 0; index < this.size; index++) {
+      rows.add(new Row(index));
+    }
+    return Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * creates an appender to fill rows column by column without creating tag instances.
+   *
+   * @return a new appender.
+   *
+   * @throws IllegalStateException if the list is not columnar anymore.
+   */
+  @NotNull
+  public Appender appender() {
+    Preconditions.checkState(this.inflated == null, "The list is not columnar anymore!");
+    return new Appender();
+  }
+
+  /**
+   * obtains type of the column.
+   *
+   * @param key the key to obtain.
+   *
+   * @return type of the column.
+   */
+  @NotNull
+  public Optional<TagTypes> columnType(@NotNull final String key) {
+    return Optional.ofNullable(this.column(key))
+      .map(column -> column.type);
+  }
+
+  /**
+   * collects indexes of the rows whose double value at the key matches the predicate.
+   *
+   * @param key the key to scan.
+   * @param predicate the predicate to test.
+   *
+   * @return matched row indexes.
+   */
+  @NotNull
+  public IntList filterDoubles(@NotNull final String key, @NotNull final DoublePredicate predicate) {
+    final var result = new IntArrayList();
+    final var column = this.column(key);
+    if (column != null && column.type == TagTypes.DOUBLE) {
+      final var values = (double[]) column.values;
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(values[row])) {
+          result.add(row);
+        }
+      }
+    } else if (column != null && column.isNumber()) {
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(column.doubleValue(row))) {
+          result.add(row);
+        }
+      }
+    } else if (this.inflated != null) {
+      this.filterRows(key, Tag::isNumber, tag -> predicate.test(tag.asNumber().doubleValue()), result);
+    }
+    return result;
+  }
+
+  /**
+   * collects indexes of the rows whose integer value at the key matches the predicate.
+   *
+   * @param key the key to scan.
+   * @param predicate the predicate to test.
+   *
+   * @return matched row indexes.
+   */
+  @NotNull
+  public IntList filterInts(@NotNull final String key, @NotNull final IntPredicate predicate) {
+    final var result = new IntArrayList();
+    final var column = this.column(key);
+    if (column != null && column.type == TagTypes.INT) {
+      final var values = (int[]) column.values;
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(values[row])) {
+          result.add(row);
+        }
+      }
+    } else if (column != null && column.isIntegral()) {
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test((int) column.longValue(row))) {
+          result.add(row);
+        }
+      }
+    } else if (this.inflated != null) {
+      this.filterRows(key, Tag::isNumber, tag -> predicate.test(tag.asNumber().intValue()), result);
+    }
+    return result;
+  }
+
+  /**
+   * collects indexes of the rows whose long value at the key matches the predicate.
+   *
+   * @param key the key to scan.
+   * @param predicate the predicate to test.
+   *
+   * @return matched row indexes.
+   */
+  @NotNull
+  public IntList filterLongs(@NotNull final String key, @NotNull final LongPredicate predicate) {
+    final var result = new IntArrayList();
+    final var column = this.column(key);
+    if (column != null && column.type == TagTypes.LONG) {
+      final var values = (long[]) column.values;
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(values[row])) {
+          result.add(row);
+        }
+      }
+    } else if (column != null && column.isIntegral()) {
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(column.longValue(row))) {
+          result.add(row);
+        }
+      }
+    } else if (this.inflated != null) {
+      this.filterRows(key, Tag::isNumber, tag -> predicate.test(tag.asNumber().longValue()), result);
+    }
+    return result;
+  }
+
+  /**
+   * collects indexes of the rows whose string value at the key matches the predicate.
+   *
+   * @param key the key to scan.
+   * @param predicate the predicate to test.
+   *
+   * @return matched row indexes.
+   */
+  @NotNull
+  public IntList filterStrings(@NotNull final String key, @NotNull final Predicate<String> predicate) {
+    final var result = new IntArrayList();
+    final var column = this.column(key);
+    if (column != null && column.type == TagTypes.STRING) {
+      final var values = (String[]) column.values;
+      for (var row = 0; row < this.size; row++) {
+        if (predicate.test(values[row])) {
+          result.add(row);
+        }
+      }
+    } else if (this.inflated != null) {
+      this.filterRows(key, Tag::isString, tag -> predicate.test(tag.asString().value()), result);
+    }
+    return result;
+  }
+
+  /**
+   * gets the double value at the row.
+   *
+   * @param row the row to get.
+   * @param key the key to get.
+   *
+   * @return double value.
+   *
+   * @throws IllegalStateException if the key is not a number column, or not a number in the row once the list is
+   *   converted into row storage.
+   */
+  public double getDouble(final int row, @NotNull final String key) {
+    if (this.inflated != null) {
+      return this.rowValue(row, key, Tag::isNumber, "number").asNumber().doubleValue();
+    }
+    return this.numberColumn(row, key).doubleValue(row);
+  }
+
+  /**
+   * gets the integer value at the row.
+   *
+   * @param row the row to get.
+   * @param key the key to get.
+   *
+   * @return integer value.
+   *
+   * @throws IllegalStateException if the key is not a number column, or not a number in the row once the list is
+   *   converted into row storage.
+   */
+  public int getInt(final int row, @NotNull final String key) {
+    return (int) this.getLong(row, key);
+  }
+
+  /**
+   * gets the long value at the row.
+   *
+   * @param row the row to get.
+   * @param key the key to get.
+   *
+   * @return long value.
+   *
+   * @throws IllegalStateException if the key is not a number column, or not a number in the row once the list is
+   *   converted into row storage.
+   */
+  public long getLong(final int row, @NotNull final String key) {
+    if (this.inflated != null) {
+      return this.rowValue(row, key, Tag::isNumber, "number").asNumber().longValue();
+    }
+    return this.numberColumn(row, key).longValue(row);
+  }
+
+  /**
+   * gets the string value at the row.
+   *
+   * @param row the row to get.
+   * @param key the key to get.
+   *
+   * @return string value.
+   *
+   * @throws IllegalStateException if the key is not a string column, or not a string in the row once the list is
+   *   converted into row storage.
+   */
+  @NotNull
+  public String getString(final int row, @NotNull final String key) {
+    if (this.inflated != null) {
+      return this.rowValue(row, key, Tag::isString, "string").asString().value();
+    }
+    Preconditions.checkElementIndex(row, this.size());
+    final var column = this.column(key);
+    Preconditions.checkState(column != null && column.type == TagTypes.STRING,
+      "%s is not a string column!", key);
+    return ((String[]) column.values)[row];
+  }
+
+  /**
+   * checks if the list still stores its compounds column by column.
+   *
+   * @return {@code true} if the list is columnar.
+   */
+  public boolean isColumnar() {
+    return this.inflated == null;
+  }
+
+  @NotNull
+  @Override
+  public TagTypes getListType() {
+    return TagTypes.COMPOUND;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  @Override
+  public int size() {
+    return this.inflated != null ? this.inflated.size() : this.size;
+  }
+
+  @NotNull
+  @Override
+  public Stream<Tag> stream() {
+    if (this.inflated != null) {
+      return this.inflated.stream();
+    }
+    return IntStream.range(0, this.size).mapToObj(Row::new);
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.all().contains(tag);
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(final int key) {
+    if (this.inflated != null) {
+      return Optional.ofNullable(this.inflated.get(key));
+    }
+    Preconditions.checkElementIndex(key, this.size);
+    return Optional.of(new Row(key));
+  }
+
+  @Override
+  public void remove(final int key) {
+    if (this.inflated != null) {
+      this.inflated.remove(key);
+      return;
+    }
+    Preconditions.checkElementIndex(key, this.size);
+    for (final var column : this.columns) {
+      assert column != null;
+      column.remove(key, this.size);
+    }
+    this.size--;
+  }
+
+  @Override
+  public void set(final int key, @NotNull final Tag tag) {
+    Preconditions.checkArgument(tag.getType() == TagTypes.COMPOUND,
+      "Trying to add tag of type %s to list of %s", tag.getType(), TagTypes.COMPOUND);
+    if (this.inflated == null && !this.matches(tag)) {
+      this.inflate();
+    }
+    if (this.inflated != null) {
+      this.inflated.set(key, tag);
+      return;
+    }
+    Preconditions.checkElementIndex(key, this.size);
+    this.write(key, tag.asCompound());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.all().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj ||
+      obj instanceof ListTag list && this.all().equals(list.all());
+  }
+
+  @Override
+  public String toString() {
+    return this.all().toString();
+  }
+
+  @NotNull
+  @Override
+  public Iterator<Tag> iterator() {
+    if (this.inflated != null) {
+      return Collections.unmodifiableList(this.inflated).iterator();
+    }
+    return new Iterator<>() {
+      /**
+       * the cursor.
+       */
+      private int cursor;
+
+      @Override
+      public boolean hasNext() {
+        return this.cursor < ColumnarListTag.this.size;
+      }
+
+      @Override
+      public Tag next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return new Row(this.cursor++);
+      }
+    };
+  }
+
+  /**
+   * appends the compound to the columns.
+   *
+   * @param compound the compound to append.
+   */
+  private void append(@NotNull final CompoundTag compound) {
+    for (final var column : this.columns) {
+      assert column != null;
+      column.ensureCapacity(this.size + 1, this.size);
+    }
+    this.write(this.size, compound);
+    this.size++;
+  }
+
+  /**
+   * gets the column of the key.
+   *
+   * @param key the key to get.
+   *
+   * @return column of the key.
+   */
+  @Nullable
+  private Column column(@NotNull final String key) {
+    final var index = this.indexes.getInt(key);
+    return index == -1 ? null : this.columns[index];
+  }
+
+  /**
+   * collects indexes of the rows whose tag at the key matches the predicate.
+   *
+   * @param key the key to scan.
+   * @param filter the filter to test tag types.
+   * @param predicate the predicate to test.
+   * @param result the result to fill.
+   */
+  private void filterRows(@NotNull final String key, @NotNull final Predicate<Tag> filter,
+                          @NotNull final Predicate<Tag> predicate, @NotNull final IntList result) {
+    final var rows = this.inflated;
+    assert rows != null;
+    for (var row = 0; row < rows.size(); row++) {
+      final var tag = rows.get(row).asCompound().get(key);
+      if (tag.filter(filter).filter(predicate).isPresent()) {
+        result.add(row);
+      }
+    }
+  }
+
+  /**
+   * converts the columns into row storage.
+   */
+  private void inflate() {
+    if (this.inflated != null) {
+      return;
+    }
+    final var rows = new ObjectArrayList<Tag>(Math.max(this.size, ColumnarListTag.DEFAULT_CAPACITY));
+    for (var row = 0; row < this.size; row++) {
+      rows.add(this.materialize(row, this.keys.length));
+    }
+    this.inflated = rows;
+    this.size = 0;
+    Arrays.fill(this.columns, null);
+    this.indexes.clear();
+  }
+
+  /**
+   * checks if the given tag is a compound that has exactly the keys and types of the columns.
+   *
+   * @param tag the tag to check.
+   *
+   * @return {@code true} if the tag matches the columns.
+   */
+  private boolean matches(@NotNull final Tag tag) {
+    if (!tag.isCompound()) {
+      return false;
+    }
+    final var compound = tag.asCompound();
+    if (compound.size() != this.keys.length) {
+      return false;
+    }
+    for (var index = 0; index < this.keys.length; index++) {
+      final var column = this.columns[index];
+      assert column != null;
+      final var value = compound.get(this.keys[index]);
+      if (value.isEmpty() || value.get().getType() != column.type) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * creates a compound from the first columns of the row.
+   *
+   * @param row the row to create.
+   * @param columns the column count to create.
+   *
+   * @return a new compound tag.
+   */
+  @NotNull
+  private CompoundTag materialize(final int row, final int columns) {
+    final var map = new Object2ObjectOpenHashMap<String, Tag>(columns);
+    for (var index = 0; index < columns; index++) {
+      final var column = this.columns[index];
+      assert column != null;
+      map.put(this.keys[index], column.get(row));
+    }
+    return new CompoundTagBasic(map);
+  }
+
+  /**
+   * gets the number column of the key.
+   *
+   * @param row the row to check.
+   * @param key the key to get.
+   *
+   * @return number column.
+   */
+  @NotNull
+  private Column numberColumn(final int row, @NotNull final String key) {
+    Preconditions.checkElementIndex(row, this.size());
+    final var column = this.column(key);
+    Preconditions.checkState(column != null && column.isNumber(), "%s is not a number column!", key);
+    return column;
+  }
+
+  /**
+   * gets the tag at the key of the row after the list is converted into row storage.
+   *
+   * @param row the row to get.
+   * @param key the key to get.
+   * @param filter the filter to test the tag type.
+   * @param type the name of the expected type for the error message.
+   *
+   * @return tag at the key of the row.
+   */
+  @NotNull
+  private Tag rowValue(final int row, @NotNull final String key, @NotNull final Predicate<Tag> filter,
+                       @NotNull final String type) {
+    final var rows = this.inflated;
+    assert rows != null;
+    Preconditions.checkElementIndex(row, rows.size());
+    final var tag = rows.get(row).asCompound().get(key).filter(filter);
+    Preconditions.checkState(tag.isPresent(), "%s is not a %s at row %s!", key, type, row);
+    return tag.get();
+  }
+
+  /**
+   * writes the compound into the row.
+   *
+   * @param row the row to write.
+   * @param compound the compound to write.
+   */
+  private void write(final int row, @NotNull final CompoundTag compound) {
+    for (var index = 0; index < this.keys.length; index++) {
+      final var column = this.columns[index];
+      assert column != null;
+      column.set(row, compound.get(this.keys[index]).orElseThrow());
+    }
+  }
+
+  /**
+   * a class that represents a single column.
+   */
+  private static final class Column {
+
+    /**
+     * the type.
+     */
+    @NotNull
+    private final TagTypes type;
+
+    /**
+     * the values which is a primitive, string or tag array depending on {@link #type}.
+     */
+    @NotNull
+    private Object values;
+
+    /**
+     * ctor.
+     *
+     * @param type the type.
+     * @param capacity the capacity.
+     */
+    private Column(@NotNull final TagTypes type, final int capacity) {
+      this.type = type;
+      this.values = Column.allocate(type, capacity);
+    }
+
+    /**
+     * allocates an array for the type.
+     *
+     * @param type the type to allocate.
+     * @param capacity the capacity to allocate.
+     *
+     * @return a new array.
+     */
+    @NotNull
+    private static Object allocate(@NotNull final TagTypes type, final int capacity) {
+      switch (type) {
+        case BYTE:
+          return new byte[capacity];
+        case SHORT:
+          return new short[capacity];
+        case INT:
+          return new int[capacity];
+        case LONG:
+          return new long[capacity];
+        case FLOAT:
+          return new float[capacity];
+        case DOUBLE:
+          return new double[capacity];
+        case STRING:
+          return new String[capacity];
+        default:
+          return new Tag[capacity];
+      }
+    }
+
+    /**
+     * obtains the double value at the row.
+     *
+     * @param row the row to obtain.
+     *
+     * @return double value.
+     */
+    private double doubleValue(final int row) {
+      switch (this.type) {
+        case FLOAT:
+          return ((float[]) this.values)[row];
+        case DOUBLE:
+          return ((double[]) this.values)[row];
+        default:
+          return this.longValue(row);
+      }
+    }
+
+    /**
+     * grows the column to fit the capacity.
+     *
+     * @param capacity the capacity to fit.
+     * @param size the used size.
+     */
+    private void ensureCapacity(final int capacity, final int size) {
+      final var length = Array.getLength(this.values);
+      if (capacity <= length) {
+        return;
+      }
+      final var grown = Column.allocate(this.type, Math.max(capacity, length + (length >> 1)));
+      System.arraycopy(this.values, 0, grown, 0, size);
+      this.values = grown;
+    }
+
+    /**
+     * gets the tag at the row.
+     *
+     * @param row the row to get.
+     *
+     * @return tag at the row.
+     */
+    @NotNull
+    private Tag get(final int row) {
+      switch (this.type) {
+        case BYTE:
+          return Tag.createByte(((byte[]) this.values)[row]);
+        case SHORT:
+          return Tag.createShort(((short[]) this.values)[row]);
+        case INT:
+          return Tag.createInt(((int[]) this.values)[row]);
+        case LONG:
+          return Tag.createLong(((long[]) this.values)[row]);
+        case FLOAT:
+          return Tag.createFloat(((float[]) this.values)[row]);
+        case DOUBLE:
+          return Tag.createDouble(((double[]) this.values)[row]);
+        case STRING:
+          return Tag.createString(((String[]) this.values)[row]);
+        default:
+          return ((Tag[]) this.values)[row];
+      }
+    }
+
+    /**
+     * checks if the column stores integral numbers.
+     *
+     * @return {@code true} if the column is integral.
+     */
+    private boolean isIntegral() {
+      return this.type == TagTypes.BYTE ||
+        this.type == TagTypes.SHORT ||
+        this.type == TagTypes.INT ||
+        this.type == TagTypes.LONG;
+    }
+
+    /**
+     * checks if the column stores numbers.
+     *
+     * @return {@code true} if the column is a number column.
+     */
+    private boolean isNumber() {
+      return this.isIntegral() ||
+        this.type == TagTypes.FLOAT ||
+        this.type == TagTypes.DOUBLE;
+    }
+
+    /**
+     * obtains the long value at the row.
+     *
+     * @param row the row to obtain.
+     *
+     * @return long value.
+     */
+    private long longValue(final int row) {
+      switch (this.type) {
+        case BYTE:
+          return ((byte[]) this.values)[row];
+        case SHORT:
+          return ((short[]) this.values)[row];
+        case INT:
+          return ((int[]) this.values)[row];
+        case LONG:
+          return ((long[]) this.values)[row];
+        case FLOAT:
+          return (long) ((float[]) this.values)[row];
+        case DOUBLE:
+          return (long) ((double[]) this.values)[row];
+        default:
+          throw new IllegalStateException(String.format("%s is not a number column!", this.type));
+      }
+    }
+
+    /**
+     * removes the row.
+     *
+     * @param row the row to remove.
+     * @param size the used size.
+     */
+    private void remove(final int row, final int size) {
+      System.arraycopy(this.values, row + 1, this.values, row, size - row - 1);
+      if (this.values instanceof Object[] objects) {
+        objects[size - 1] = null;
+      }
+    }
+
+    /**
+     * sets the tag at the row.
+     *
+     * @param row the row to set.
+     * @param tag the tag to set.
+     */
+    private void set(final int row, @NotNull final Tag tag) {
+      switch (this.type) {
+        case BYTE:
+          ((byte[]) this.values)[row] = tag.asByte().byteValue();
+          break;
+        case SHORT:
+          ((short[]) this.values)[row] = tag.asShort().shortValue();
+          break;
+        case INT:
+          ((int[]) this.values)[row] = tag.asInt().intValue();
+          break;
+        case LONG:
+          ((long[]) this.values)[row] = tag.asLong().longValue();
+          break;
+        case FLOAT:
+          ((float[]) this.values)[row] = tag.asFloat().floatValue();
+          break;
+        case DOUBLE:
+          ((double[]) this.values)[row] = tag.asDouble().doubleValue();
+          break;
+        case STRING:
+          ((String[]) this.values)[row] = tag.asString().value();
+          break;
+        default:
+          ((Tag[]) this.values)[row] = tag;
+      }
+    }
+  }
+
+  /**
+   * a class that represents appenders which fill rows column by column.
+   * <p>
+   * used by readers to fill a row straight from a stream without creating tag instances for primitive values.
+   */
+  public final class Appender {
+
+    /**
+     * the rows that the columns filled last, shifted by one.
+     */
+    private final int @NotNull [] filledRows = new int[ColumnarListTag.this.keys.length];
+
+    /**
+     * the filled column count of the pending row.
+     */
+    private int filled;
+
+    /**
+     * ctor.
+     */
+    private Appender() {
+    }
+
+    /**
+     * discards the pending row and converts the list into row storage.
+     *
+     * @return a compound that contains the values which are filled for the pending row.
+     */
+    @NotNull
+    public CompoundTag abort() {
+      final var list = ColumnarListTag.this;
+      final var row = list.size;
+      final var map = new Object2ObjectOpenHashMap<String, Tag>(list.keys.length);
+      for (var index = 0; index < list.keys.length; index++) {
+        final var column = list.columns[index];
+        if (column != null && this.filledRows[index] == row + 1) {
+          map.put(list.keys[index], column.get(row));
+        }
+      }
+      this.filled = 0;
+      list.inflate();
+      return new CompoundTagBasic(map);
+    }
+
+    /**
+     * finds the column of the key.
+     *
+     * @param key the key to find.
+     * @param hint the expected column index.
+     *
+     * @return column index or {@code -1} if the key has no column.
+     */
+    public int column(@NotNull final String key, final int hint) {
+      final var keys = ColumnarListTag.this.keys;
+      if (hint >= 0 && hint < keys.length && keys[hint].equals(key)) {
+        return hint;
+      }
+      return ColumnarListTag.this.indexes.getInt(key);
+    }
+
+    /**
+     * completes the pending row.
+     *
+     * @return {@code true} if all columns are filled and the row is added, {@code false} if some keys are missing.
+     */
+    public boolean commit() {
+      final var list = ColumnarListTag.this;
+      if (this.filled != list.keys.length) {
+        return false;
+      }
+      this.filled = 0;
+      list.size++;
+      return true;
+    }
+
+    /**
+     * checks if the column is already filled for the pending row.
+     *
+     * @param column the column to check.
+     *
+     * @return {@code true} if the column is filled.
+     */
+    public boolean isFilled(final int column) {
+      return this.filledRows[column] == ColumnarListTag.this.size + 1;
+    }
+
+    /**
+     * puts the byte value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putByte(final int column, final byte value) {
+      ((byte[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the double value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putDouble(final int column, final double value) {
+      ((double[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the float value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putFloat(final int column, final float value) {
+      ((float[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the integer value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putInt(final int column, final int value) {
+      ((int[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the long value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putLong(final int column, final long value) {
+      ((long[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the short value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putShort(final int column, final short value) {
+      ((short[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the string value.
+     *
+     * @param column the column to put.
+     * @param value the value to put.
+     */
+    public void putString(final int column, @NotNull final String value) {
+      ((String[]) this.prepare(column).values)[ColumnarListTag.this.size] = value;
+    }
+
+    /**
+     * puts the tag.
+     *
+     * @param column the column to put.
+     * @param tag the tag to put.
+     */
+    public void putTag(final int column, @NotNull final Tag tag) {
+      this.prepare(column).set(ColumnarListTag.this.size, tag);
+    }
+
+    /**
+     * obtains type of the column.
+     *
+     * @param column the column to obtain.
+     *
+     * @return type of the column.
+     */
+    @NotNull
+    public TagTypes type(final int column) {
+      final var value = ColumnarListTag.this.columns[column];
+      assert value != null;
+      return value.type;
+    }
+
+    /**
+     * prepares the column for the pending row.
+     *
+     * @param index the column index to prepare.
+     *
+     * @return prepared column.
+     */
+    @NotNull
+    private Column prepare(final int index) {
+      final var list = ColumnarListTag.this;
+      Preconditions.checkState(list.inflated == null, "The list is not columnar anymore!");
+      final var column = list.columns[index];
+      assert column != null;
+      column.ensureCapacity(list.size + 1, list.size);
+      if (this.filledRows[index] != list.size + 1) {
+        this.filledRows[index] = list.size + 1;
+        this.filled++;
+      }
+      return column;
+    }
+  }
+
+  /**
+   * a class that represents a compound view over a single row.
+   * <p>
+   * views are positional, removing rows before a view shifts the row it points to.
+   */
+  private final class Row implements CompoundTag {
+
+    /**
+     * the row index.
+     */
+    private final int index;
+
+    /**
+     * ctor.
+     *
+     * @param index the row index.
+     */
+    private Row(final int index) {
+      this.index = index;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, Tag> all() {
+      final var delegate = this.delegate();
+      if (delegate != null) {
+        return delegate.all();
+      }
+      final var list = ColumnarListTag.this;
+      return list.materialize(this.index, list.keys.length).all();
+    }
+
+    @Override
+    public boolean contains(@NotNull final Tag tag) {
+      return this.all().containsValue(tag);
+    }
+
+    @Override
+    public boolean containsKey(@NotNull final String key) {
+      final var delegate = this.delegate();
+      if (delegate != null) {
+        return delegate.containsKey(key);
+      }
+      return ColumnarListTag.this.indexes.containsKey(key);
+    }
+
+    @NotNull
+    @Override
+    public Optional<Tag> get(@NotNull final String key) {
+      final var delegate = this.delegate();
+      if (delegate != null) {
+        return delegate.get(key);
+      }
+      return Optional.ofNullable(ColumnarListTag.this.column(key))
+        .map(column -> column.get(this.index));
+    }
+
+    @Override
+    public void remove(@NotNull final String key) {
+      ColumnarListTag.this.inflate();
+      this.inflated().remove(key);
+    }
+
+    @Override
+    public void set(@NotNull final String key, @NotNull final Tag tag) {
+      final var column = ColumnarListTag.this.column(key);
+      if (column != null && column.type == tag.getType()) {
+        column.set(this.index, tag);
+        return;
+      }
+      ColumnarListTag.this.inflate();
+      this.inflated().set(key, tag);
+    }
+
+    @Override
+    public int size() {
+      final var delegate = this.delegate();
+      return delegate != null ? delegate.size() : ColumnarListTag.this.keys.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.all().hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return this == obj ||
+        obj instanceof CompoundTag compound && this.all().equals(compound.all());
+    }
+
+    @Override
+    public String toString() {
+      return this.all().toString();
+    }
+
+    /**
+     * obtains the inflated compound of the row if the list is not columnar anymore.
+     *
+     * @return inflated compound.
+     */
+    @Nullable
+    private CompoundTag delegate() {
+      final var rows = ColumnarListTag.this.inflated;
+      return rows == null ? null : rows.get(this.index).asCompound();
+    }
+
+    /**
+     * obtains the inflated compound of the row.
+     *
+     * @return inflated compound.
+     */
+    @NotNull
+    private CompoundTag inflated() {
+      final var delegate = this.delegate();
+      assert delegate != null;
+      return delegate;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package io.github.shiruka.api.nbt.list;
+
+import io.github.shiruka.api.nbt.ListTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.compound.PersistentCompoundTag;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a thread-safe implementation for {@link ListTag} which swaps {@link PersistentListTag}s atomically.
+ * <p>
+ * reads never lock and always see a consistent version of the list, the list type and the elements can never be
+ * observed separately. writes are applied with compare-and-set and retried on contention. compounds and lists are
+ * stored in their {@link PersistentCompoundTag#persistent(Tag)} form, so the whole tree of a snapshot is immutable.
+ */
+public final class ConcurrentListTag implements ListTag {
+
+  /**
+   * the current version.
+   */
+  @NotNull
+  private final AtomicReference<PersistentListTag> current;
+
+  /**
+   * ctor.
+   *
+   * @param initial the initial.
+   */
+  public ConcurrentListTag(@NotNull final PersistentListTag initial) {
+    this.current = new AtomicReference<>(initial);
+  }
+
+  /**
+   * ctor.
+   */
+  public ConcurrentListTag() {
+    this(PersistentListTag.empty());
+  }
+
+  @Override
+  public void add(@NotNull final Tag tag) {
+    final var value = PersistentCompoundTag.persistent(tag);
+    this.update(list -> list.append(value));
+  }
+
+  @NotNull
+  @Override
+  public List<Tag> all() {
+    return this.snapshot().all();
+  }
+
+  @NotNull
+  @Override
+  public TagTypes getListType() {
+    return this.snapshot().getListType();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.snapshot().isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return this.snapshot().size();
+  }
+
+  @NotNull
+  @Override
+  public Stream<Tag> stream() {
+    return this.snapshot().stream();
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.snapshot().contains(tag);
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(final int key) {
+    return this.snapshot().get(key);
+  }
+
+  @Override
+  public void remove(final int key) {
+    this.update(list -> list.without(key));
+  }
+
+  @Override
+  public void set(final int key, @NotNull final Tag tag) {
+    final var value = PersistentCompoundTag.persistent(tag);
+    this.update(list -> list.with(key, value));
+  }
+
+  @Override
+  public int hashCode() {
+    return this.snapshot().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj ||
+      obj instanceof ListTag list && this.snapshot().equals(list);
+  }
+
+  @Override
+  public String toString() {
+    return this.snapshot().toString();
+  }
+
+  @NotNull
+  @Override
+  public Iterator<Tag> iterator() {
+    return this.snapshot().iterator();
+  }
+
+  /**
+   * obtains the current version of the list.
+   *
+   * @return an immutable snapshot.
+   */
+  @NotNull
+  public PersistentListTag snapshot() {
+    return this.current.get();
+  }
+
+  /**
+   * applies the function to the current version atomically.
+   * <p>
+   * the function may be called more than once when other threads write at the same time, so it should be free of
+   * side effects.
+   *
+   * @param function the function to apply.
+   *
+   * @return the new version of the list.
+   */
+  @NotNull
+  public PersistentListTag update(@NotNull final UnaryOperator<PersistentListTag> function) {
+    while (true) {
+      final var current = this.current.get();
+      final var next = function.apply(current);
+      if (next == current || this.current.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+}
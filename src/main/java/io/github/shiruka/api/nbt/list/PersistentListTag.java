@@ -0,0 +1,635 @@
+package io.github.shiruka.api.nbt.list;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.nbt.ListTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.compound.PersistentCompoundTag;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an immutable implementation for {@link ListTag} which is backed by a 32-way trie with a tail.
+ * <p>
+ * {@link #with(int, Tag)}, {@link #append(Tag)} and {@link #pop()} run in {@code O(log n)} and share every untouched
+ * node with {@code this}, {@link #without(int)} rebuilds the list unless it removes the last element.
+ */
+public final class PersistentListTag implements ListTag {
+
+  /**
+   * the bit count that each trie level consumes from the index.
+   */
+  private static final int BITS = 5;
+
+  /**
+   * the empty node.
+   */
+  private static final Object[] EMPTY_NODE = new Object[32];
+
+  /**
+   * the empty list.
+   */
+  private static final PersistentListTag EMPTY = new PersistentListTag(TagTypes.END, 0,
+    PersistentListTag.BITS, PersistentListTag.EMPTY_NODE, new Object[0]);
+
+  /**
+   * the mask to get index of a trie level from the index.
+   */
+  private static final int MASK = 0x1f;
+
+  /**
+   * the width of the nodes.
+   */
+  private static final int WIDTH = 32;
+
+  /**
+   * the list type.
+   */
+  @NotNull
+  private final TagTypes listType;
+
+  /**
+   * the root.
+   */
+  @NotNull
+  private final Object @NotNull [] root;
+
+  /**
+   * the shift of the root level.
+   */
+  private final int shift;
+
+  /**
+   * the size.
+   */
+  private final int size;
+
+  /**
+   * the tail.
+   */
+  @NotNull
+  private final Object @NotNull [] tail;
+
+  /**
+   * ctor.
+   *
+   * @param listType the list type.
+   * @param size the size.
+   * @param shift the shift.
+   * @param root the root.
+   * @param tail the tail.
+   */
+  private PersistentListTag(@NotNull final TagTypes listType, final int size, final int shift,
+                            @NotNull final Object @NotNull [] root, @NotNull final Object @NotNull [] tail) {
+    this.listType = listType;
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * creates a new builder.
+   *
+   * @return a new builder.
+   */
+  @NotNull
+  public static Builder builder() {
+    return new Builder(new ObjectArrayList<>());
+  }
+
+  /**
+   * creates a persistent copy of the given list, converting nested compounds and lists into persistent ones.
+   *
+   * @param list the list to copy.
+   *
+   * @return a persistent list tag.
+   */
+  @NotNull
+  public static PersistentListTag copyOf(@NotNull final ListTag list) {
+    if (list instanceof PersistentListTag persistent) {
+      return persistent;
+    }
+    final var builder = PersistentListTag.builder();
+    for (final var tag : list) {
+      builder.add(PersistentCompoundTag.persistent(tag));
+    }
+    return builder.build();
+  }
+
+  /**
+   * obtains the empty list.
+   *
+   * @return empty list.
+   */
+  @NotNull
+  public static PersistentListTag empty() {
+    return PersistentListTag.EMPTY;
+  }
+
+  /**
+   * creates a path of nodes down to the given node.
+   *
+   * @param level the level to create.
+   * @param node the node to create.
+   *
+   * @return the top node of the path.
+   */
+  @NotNull
+  private static Object @NotNull [] newPath(final int level, @NotNull final Object @NotNull [] node) {
+    if (level == 0) {
+      return node;
+    }
+    final var path = new Object[PersistentListTag.WIDTH];
+    path[0] = PersistentListTag.newPath(level - PersistentListTag.BITS, node);
+    return path;
+  }
+
+  /**
+   * sets the value at the index on a copy of the path.
+   *
+   * @param level the level to set.
+   * @param node the node to set.
+   * @param index the index to set.
+   * @param value the value to set.
+   *
+   * @return the copy of the node.
+   */
+  @NotNull
+  private static Object @NotNull [] set(final int level, @NotNull final Object @NotNull [] node, final int index,
+                                        @NotNull final Tag value) {
+    final var copy = node.clone();
+    if (level == 0) {
+      copy[index & PersistentListTag.MASK] = value;
+    } else {
+      final var child = index >>> level & PersistentListTag.MASK;
+      copy[child] = PersistentListTag.set(level - PersistentListTag.BITS, (Object[]) node[child], index, value);
+    }
+    return copy;
+  }
+
+  /**
+   * checks the given tag can be added to a list of the given type.
+   *
+   * @param listType the list type to check.
+   * @param tag the tag to check.
+   */
+  private static void checkType(@NotNull final TagTypes listType, @NotNull final Tag tag) {
+    final var endType = TagTypes.END;
+    Preconditions.checkArgument(tag.getType() != endType,
+      "Cannot add a %s to a %s", endType, TagTypes.LIST);
+    if (listType != endType) {
+      Preconditions.checkArgument(tag.getType() == listType,
+        "Trying to add tag of type %s to list of %s", tag.getType(), listType);
+    }
+  }
+
+  /**
+   * does nothing but throws exception since the list is immutable.
+   *
+   * @param tag the tag to add.
+   *
+   * @throws UnsupportedOperationException always.
+   * @see #append(Tag)
+   */
+  @Override
+  public void add(@NotNull final Tag tag) {
+    throw new UnsupportedOperationException("Persistent lists are immutable, use #append instead!");
+  }
+
+  @NotNull
+  @Override
+  public List<Tag> all() {
+    return new ListView();
+  }
+
+  /**
+   * creates a list that contains the elements of {@code this} and the given tag at the end.
+   *
+   * @param tag the tag to append.
+   *
+   * @return a new list.
+   */
+  @NotNull
+  public PersistentListTag append(@NotNull final Tag tag) {
+    PersistentListTag.checkType(this.listType, tag);
+    final var listType = tag.getType();
+    if (this.size - this.tailOffset() < PersistentListTag.WIDTH) {
+      final var newTail = Arrays.copyOf(this.tail, this.tail.length + 1);
+      newTail[this.tail.length] = tag;
+      return new PersistentListTag(listType, this.size + 1, this.shift, this.root, newTail);
+    }
+    final Object[] newRoot;
+    var newShift = this.shift;
+    if (this.size >>> PersistentListTag.BITS > 1 << this.shift) {
+      newRoot = new Object[PersistentListTag.WIDTH];
+      newRoot[0] = this.root;
+      newRoot[1] = PersistentListTag.newPath(this.shift, this.tail);
+      newShift += PersistentListTag.BITS;
+    } else {
+      newRoot = this.pushTail(this.shift, this.root, this.tail);
+    }
+    return new PersistentListTag(listType, this.size + 1, newShift, newRoot, new Object[]{tag});
+  }
+
+  @NotNull
+  @Override
+  public TagTypes getListType() {
+    return this.listType;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @NotNull
+  @Override
+  public Stream<Tag> stream() {
+    return this.all().stream();
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    for (final var element : this) {
+      if (element.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(final int key) {
+    Preconditions.checkElementIndex(key, this.size);
+    return Optional.of((Tag) this.arrayFor(key)[key & PersistentListTag.MASK]);
+  }
+
+  /**
+   * does nothing but throws exception since the list is immutable.
+   *
+   * @param key the key to remove.
+   *
+   * @throws UnsupportedOperationException always.
+   * @see #without(int)
+   */
+  @Override
+  public void remove(final int key) {
+    throw new UnsupportedOperationException("Persistent lists are immutable, use #without instead!");
+  }
+
+  /**
+   * does nothing but throws exception since the list is immutable.
+   *
+   * @param key the key to set.
+   * @param tag the tag to set.
+   *
+   * @throws UnsupportedOperationException always.
+   * @see #with(int, Tag)
+   */
+  @Override
+  public void set(final int key, @NotNull final Tag tag) {
+    throw new UnsupportedOperationException("Persistent lists are immutable, use #with instead!");
+  }
+
+  @Override
+  public int hashCode() {
+    return this.all().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj ||
+      obj instanceof ListTag list && this.all().equals(list.all());
+  }
+
+  @Override
+  public String toString() {
+    return this.all().toString();
+  }
+
+  @NotNull
+  @Override
+  public Iterator<Tag> iterator() {
+    return new Iterator<>() {
+      /**
+       * the current leaf.
+       */
+      @Nullable
+      private Object[] leaf;
+
+      /**
+       * the next index.
+       */
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < PersistentListTag.this.size;
+      }
+
+      @Override
+      public Tag next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final var offset = this.index & PersistentListTag.MASK;
+        if (offset == 0 || this.leaf == null) {
+          this.leaf = PersistentListTag.this.arrayFor(this.index);
+        }
+        this.index++;
+        return (Tag) this.leaf[offset];
+      }
+    };
+  }
+
+  /**
+   * creates a list that contains the elements of {@code this} except the last one.
+   *
+   * @return a new list.
+   *
+   * @throws IllegalStateException if the list is empty.
+   */
+  @NotNull
+  public PersistentListTag pop() {
+    Preconditions.checkState(this.size != 0, "Cannot pop an empty list!");
+    if (this.size == 1) {
+      return new PersistentListTag(this.listType, 0, PersistentListTag.BITS, PersistentListTag.EMPTY_NODE,
+        new Object[0]);
+    }
+    if (this.size - this.tailOffset() > 1) {
+      return new PersistentListTag(this.listType, this.size - 1, this.shift, this.root,
+        Arrays.copyOf(this.tail, this.tail.length - 1));
+    }
+    final var newTail = this.arrayFor(this.size - 2);
+    var newRoot = this.popTail(this.shift, this.root);
+    var newShift = this.shift;
+    if (newRoot == null) {
+      newRoot = PersistentListTag.EMPTY_NODE;
+    }
+    if (this.shift > PersistentListTag.BITS && newRoot[1] == null) {
+      newRoot = (Object[]) newRoot[0];
+      newShift -= PersistentListTag.BITS;
+    }
+    return new PersistentListTag(this.listType, this.size - 1, newShift, newRoot, newTail);
+  }
+
+  /**
+   * creates a builder which starts with the elements of {@code this}.
+   *
+   * @return a new builder.
+   */
+  @NotNull
+  public Builder toBuilder() {
+    final var tags = new ObjectArrayList<Tag>(this.size);
+    this.forEach(tags::add);
+    return new Builder(tags);
+  }
+
+  /**
+   * creates a list that contains the elements of {@code this} and the given tag at the index.
+   *
+   * @param index the index to set.
+   * @param tag the tag to set.
+   *
+   * @return a new list.
+   */
+  @NotNull
+  public PersistentListTag with(final int index, @NotNull final Tag tag) {
+    Preconditions.checkElementIndex(index, this.size);
+    PersistentListTag.checkType(this.listType, tag);
+    if (index >= this.tailOffset()) {
+      final var newTail = this.tail.clone();
+      newTail[index & PersistentListTag.MASK] = tag;
+      return new PersistentListTag(this.listType, this.size, this.shift, this.root, newTail);
+    }
+    return new PersistentListTag(this.listType, this.size, this.shift,
+      PersistentListTag.set(this.shift, this.root, index, tag), this.tail);
+  }
+
+  /**
+   * creates a list that contains the elements of {@code this} except the element at the index.
+   *
+   * @param index the index to remove.
+   *
+   * @return a new list.
+   */
+  @NotNull
+  public PersistentListTag without(final int index) {
+    Preconditions.checkElementIndex(index, this.size);
+    if (index == this.size - 1) {
+      return this.pop();
+    }
+    final var builder = this.toBuilder();
+    builder.tags.remove(index);
+    return builder.build();
+  }
+
+  /**
+   * obtains the leaf array that contains the index.
+   *
+   * @param index the index to obtain.
+   *
+   * @return leaf array.
+   */
+  @NotNull
+  private Object @NotNull [] arrayFor(final int index) {
+    if (index >= this.tailOffset()) {
+      return this.tail;
+    }
+    var node = this.root;
+    for (var level = this.shift; level > 0; level -= PersistentListTag.BITS) {
+      node = (Object[]) node[index >>> level & PersistentListTag.MASK];
+    }
+    return node;
+  }
+
+  /**
+   * removes the last leaf from a copy of the path.
+   *
+   * @param level the level to remove.
+   * @param node the node to remove.
+   *
+   * @return the copy of the node or {@code null} if it becomes empty.
+   */
+  @Nullable
+  private Object[] popTail(final int level, @NotNull final Object @NotNull [] node) {
+    final var child = this.size - 2 >>> level & PersistentListTag.MASK;
+    if (level > PersistentListTag.BITS) {
+      final var newChild = this.popTail(level - PersistentListTag.BITS, (Object[]) node[child]);
+      if (newChild == null && child == 0) {
+        return null;
+      }
+      final var copy = node.clone();
+      copy[child] = newChild;
+      return copy;
+    }
+    if (child == 0) {
+      return null;
+    }
+    final var copy = node.clone();
+    copy[child] = null;
+    return copy;
+  }
+
+  /**
+   * pushes the full tail into a copy of the path.
+   *
+   * @param level the level to push.
+   * @param parent the parent to push.
+   * @param tailNode the tail node to push.
+   *
+   * @return the copy of the parent.
+   */
+  @NotNull
+  private Object @NotNull [] pushTail(final int level, @NotNull final Object @NotNull [] parent,
+                                      @NotNull final Object @NotNull [] tailNode) {
+    final var child = this.size - 1 >>> level & PersistentListTag.MASK;
+    final var copy = parent.clone();
+    if (level == PersistentListTag.BITS) {
+      copy[child] = tailNode;
+    } else {
+      final var node = (Object[]) parent[child];
+      copy[child] = node == null
+        ? PersistentListTag.newPath(level - PersistentListTag.BITS, tailNode)
+        : this.pushTail(level - PersistentListTag.BITS, node, tailNode);
+    }
+    return copy;
+  }
+
+  /**
+   * obtains the index of the first element in the tail.
+   *
+   * @return tail offset.
+   */
+  private int tailOffset() {
+    if (this.size < PersistentListTag.WIDTH) {
+      return 0;
+    }
+    return this.size - 1 >>> PersistentListTag.BITS << PersistentListTag.BITS;
+  }
+
+  /**
+   * a class that represents builders for {@link PersistentListTag}.
+   * <p>
+   * builders collect the elements in a plain array list and build the trie in a single pass, builders are not
+   * thread-safe.
+   */
+  public static final class Builder {
+
+    /**
+     * the tags.
+     */
+    @NotNull
+    private final List<Tag> tags;
+
+    /**
+     * the list type.
+     */
+    @NotNull
+    private TagTypes listType;
+
+    /**
+     * ctor.
+     *
+     * @param tags the tags.
+     */
+    private Builder(@NotNull final List<Tag> tags) {
+      this.tags = tags;
+      this.listType = tags.isEmpty() ? TagTypes.END : tags.get(0).getType();
+    }
+
+    /**
+     * adds the tag.
+     *
+     * @param tag the tag to add.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    public Builder add(@NotNull final Tag tag) {
+      PersistentListTag.checkType(this.listType, tag);
+      this.listType = tag.getType();
+      this.tags.add(tag);
+      return this;
+    }
+
+    /**
+     * builds the list.
+     *
+     * @return a persistent list tag.
+     */
+    @NotNull
+    public PersistentListTag build() {
+      if (this.tags.isEmpty()) {
+        return PersistentListTag.EMPTY;
+      }
+      var list = PersistentListTag.EMPTY;
+      for (final var tag : this.tags) {
+        list = list.append(tag);
+      }
+      return list;
+    }
+
+    /**
+     * sets the tag at the index.
+     *
+     * @param index the index to set.
+     * @param tag the tag to set.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    public Builder set(final int index, @NotNull final Tag tag) {
+      PersistentListTag.checkType(this.listType, tag);
+      this.tags.set(index, tag);
+      return this;
+    }
+
+    /**
+     * obtains the size.
+     *
+     * @return size.
+     */
+    public int size() {
+      return this.tags.size();
+    }
+  }
+
+  /**
+   * a class that represents unmodifiable list views of the trie.
+   */
+  private final class ListView extends AbstractList<Tag> implements RandomAccess {
+
+    @Override
+    public Tag get(final int index) {
+      return PersistentListTag.this.get(index).orElseThrow();
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Tag> iterator() {
+      return PersistentListTag.this.iterator();
+    }
+
+    @Override
+    public int size() {
+      return PersistentListTag.this.size;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package io.github.shiruka.api.nbt.primitive;
 
 import io.github.shiruka.api.nbt.Tag;
 import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.TagVisitor;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -9,6 +10,11 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class EndTag implements Tag {
 
+  @Override
+  public <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitEnd(this);
+  }
+
   @NotNull
   @Override
   public TagTypes getType() {
@@ -1,6 +1,7 @@
 package io.github.shiruka.api.nbt.primitive;
 
 import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.TagVisitor;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -17,6 +18,11 @@ public final class LongTag extends NumberTagEnvelope {
     super(original);
   }
 
+  @Override
+  public <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitLong(this);
+  }
+
   @NotNull
   @Override
   public LongTag asLong() {
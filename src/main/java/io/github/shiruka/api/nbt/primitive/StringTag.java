@@ -2,6 +2,7 @@ package io.github.shiruka.api.nbt.primitive;
 
 import io.github.shiruka.api.nbt.PrimitiveTag;
 import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.TagVisitor;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -13,6 +14,11 @@ public final record StringTag(
   @NotNull String original
 ) implements PrimitiveTag<String> {
 
+  @Override
+  public <R> R accept(@NotNull final TagVisitor<R> visitor) {
+    return visitor.visitString(this);
+  }
+
   @NotNull
   @Override
   public StringTag asString() {
@@ -8,6 +8,7 @@ import io.github.shiruka.api.nbt.TagTypes;
 import io.github.shiruka.api.nbt.array.ByteArrayTag;
 import io.github.shiruka.api.nbt.array.IntArrayTag;
 import io.github.shiruka.api.nbt.array.LongArrayTag;
+import io.github.shiruka.api.nbt.list.ColumnarListTag;
 import io.github.shiruka.api.nbt.primitive.ByteTag;
 import io.github.shiruka.api.nbt.primitive.DoubleTag;
 import io.github.shiruka.api.nbt.primitive.FloatTag;
@@ -30,6 +31,11 @@ import org.jetbrains.annotations.NotNull;
 @Accessors(fluent = true)
 public final class NBTInputStream implements Closeable {
 
+  /**
+   * the minimum length of compound lists to read as {@link ColumnarListTag}, {@code 0} to disable.
+   */
+  private final int columnarThreshold;
+
   /**
    * the input.
    */
@@ -47,7 +53,20 @@ public final class NBTInputStream implements Closeable {
    * @param input the input.
    */
   public NBTInputStream(@NotNull final DataInput input) {
+    this(input, 0);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   * @param columnarThreshold the minimum length of compound lists to read as {@link ColumnarListTag},
+   *   {@code 0} to disable.
+   */
+  public NBTInputStream(@NotNull final DataInput input, final int columnarThreshold) {
+    Preconditions.checkArgument(columnarThreshold >= 0, "Columnar threshold cannot be negative!");
     this.input = input;
+    this.columnarThreshold = columnarThreshold;
   }
 
   @Override
@@ -140,7 +159,20 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public CompoundTag readCompoundTag() throws IOException {
-    final var compoundTag = Tag.createCompound();
+    return this.readCompoundTag(Tag.createCompound());
+  }
+
+  /**
+   * reads the given input into the given {@link CompoundTag}.
+   *
+   * @param compoundTag the compound tag to fill.
+   *
+   * @return the given compound tag.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  @NotNull
+  private CompoundTag readCompoundTag(@NotNull final CompoundTag compoundTag) throws IOException {
     byte id;
     while ((id = this.input.readByte()) != TagTypes.END.getId()) {
       final var key = this.input.readUTF();
@@ -214,6 +246,9 @@ public final class NBTInputStream implements Closeable {
   public ListTag readListTag() throws IOException {
     final var id = this.input.readByte();
     final var length = this.input.readInt();
+    if (this.columnarThreshold > 0 && id == TagTypes.COMPOUND.getId() && length >= this.columnarThreshold) {
+      return this.readColumnarListTag(length);
+    }
     final var tags = new ObjectArrayList<Tag>(length);
     for (var i = 0; i < length; i++) {
       final var read = this.read(id);
@@ -222,6 +257,128 @@ public final class NBTInputStream implements Closeable {
     return Tag.createList(tags);
   }
 
+  /**
+   * reads the given input and converts it into the {@link ColumnarListTag}.
+   * <p>
+   * the first compound determines the columns, the rest are read straight into the columns as long as they share
+   * the same keys and types, otherwise the list falls back to row storage.
+   *
+   * @param length the length of the list.
+   *
+   * @return an instance of {@link ListTag}.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  @NotNull
+  private ListTag readColumnarListTag(final int length) throws IOException {
+    final var keys = new ObjectArrayList<String>();
+    final var tags = new ObjectArrayList<Tag>();
+    byte id;
+    while ((id = this.input.readByte()) != TagTypes.END.getId()) {
+      final var key = this.input.readUTF();
+      if (keys.contains(key)) {
+        final var compound = Tag.createCompound();
+        for (var index = 0; index < keys.size(); index++) {
+          compound.set(keys.get(index), tags.get(index));
+        }
+        compound.set(key, this.read(id));
+        return this.readRemainingRows(Tag.createList(this.readCompoundTag(compound)), 1, length);
+      }
+      keys.add(key);
+      tags.add(this.read(id));
+    }
+    final var list = new ColumnarListTag(keys.toArray(String[]::new),
+      tags.stream().map(Tag::getType).toArray(TagTypes[]::new), length);
+    final var appender = list.appender();
+    for (var index = 0; index < tags.size(); index++) {
+      appender.putTag(index, tags.get(index));
+    }
+    appender.commit();
+    for (var row = 1; row < length; row++) {
+      if (!this.readColumnarRow(list, appender)) {
+        return this.readRemainingRows(list, row + 1, length);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * reads a compound from the given input into the columns of the list.
+   *
+   * @param list the list to read.
+   * @param appender the appender to fill.
+   *
+   * @return {@code true} if the row is added to the columns, {@code false} if the compound does not match the
+   *   columns and the list falls back to row storage.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private boolean readColumnarRow(@NotNull final ColumnarListTag list, @NotNull final ColumnarListTag.Appender appender)
+    throws IOException {
+    var position = 0;
+    byte id;
+    while ((id = this.input.readByte()) != TagTypes.END.getId()) {
+      final var key = this.input.readUTF();
+      final var column = appender.column(key, position++);
+      if (column == -1 || appender.type(column).getId() != id || appender.isFilled(column)) {
+        final var compound = appender.abort();
+        compound.set(key, this.read(id));
+        list.add(this.readCompoundTag(compound));
+        return false;
+      }
+      switch (id) {
+        case 1:
+          appender.putByte(column, this.input.readByte());
+          break;
+        case 2:
+          appender.putShort(column, this.input.readShort());
+          break;
+        case 3:
+          appender.putInt(column, this.input.readInt());
+          break;
+        case 4:
+          appender.putLong(column, this.input.readLong());
+          break;
+        case 5:
+          appender.putFloat(column, this.input.readFloat());
+          break;
+        case 6:
+          appender.putDouble(column, this.input.readDouble());
+          break;
+        case 8:
+          appender.putString(column, this.input.readUTF());
+          break;
+        default:
+          appender.putTag(column, this.read(id));
+      }
+    }
+    if (appender.commit()) {
+      return true;
+    }
+    list.add(appender.abort());
+    return false;
+  }
+
+  /**
+   * reads the remaining compounds of a list as rows.
+   *
+   * @param list the list to fill.
+   * @param from the index to read from.
+   * @param length the length of the list.
+   *
+   * @return the given list.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  @NotNull
+  private ListTag readRemainingRows(@NotNull final ListTag list, final int from, final int length)
+    throws IOException {
+    for (var row = from; row < length; row++) {
+      list.add(this.readCompoundTag());
+    }
+    return list;
+  }
+
   /**
    * reads the given input and converts it into the {@link LongTag}.
    *
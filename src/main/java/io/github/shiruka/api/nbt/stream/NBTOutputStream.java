@@ -5,6 +5,7 @@ import io.github.shiruka.api.nbt.CompoundTag;
 import io.github.shiruka.api.nbt.ListTag;
 import io.github.shiruka.api.nbt.Tag;
 import io.github.shiruka.api.nbt.TagTypes;
+import io.github.shiruka.api.nbt.TagVisitor;
 import io.github.shiruka.api.nbt.array.ByteArrayTag;
 import io.github.shiruka.api.nbt.array.IntArrayTag;
 import io.github.shiruka.api.nbt.array.LongArrayTag;
@@ -15,12 +16,23 @@ import io.github.shiruka.api.nbt.primitive.IntTag;
 import io.github.shiruka.api.nbt.primitive.LongTag;
 import io.github.shiruka.api.nbt.primitive.ShortTag;
 import io.github.shiruka.api.nbt.primitive.StringTag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
 import java.io.Closeable;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * an output stream to write named binary tags.
@@ -35,6 +47,13 @@ public final class NBTOutputStream implements Closeable {
   @NotNull
   private final DataOutput output;
 
+  /**
+   * the writer that dispatches tags to their write methods.
+   */
+  @NotNull
+  @Getter(AccessLevel.NONE)
+  private final TagVisitor<Void> writer = new Writer();
+
   /**
    * if the stream is closed.
    */
@@ -49,6 +68,31 @@ public final class NBTOutputStream implements Closeable {
     this.output = output;
   }
 
+  /**
+   * creates an output factory that writes into buffers in the same encoding as the given output.
+   *
+   * @param output the output to create.
+   *
+   * @return output factory or {@code null} if the encoding of the output is unknown.
+   */
+  @Nullable
+  private static Function<ByteBuf, DataOutput> forkFactory(@NotNull final DataOutput output) {
+    final var type = output.getClass();
+    if (type == NetworkDataOutputStream.class) {
+      return buffer -> new NetworkDataOutputStream(new ByteBufOutputStream(buffer));
+    }
+    if (type == LittleEndianDataOutputStream.class) {
+      return buffer -> new LittleEndianDataOutputStream(new ByteBufOutputStream(buffer));
+    }
+    if (type == LittleEndianByteBufOutputStream.class) {
+      return LittleEndianByteBufOutputStream::new;
+    }
+    if (type == DataOutputStream.class || type == ByteBufOutputStream.class) {
+      return ByteBufOutputStream::new;
+    }
+    return null;
+  }
+
   @Override
   public void close() throws IOException {
     if (this.closed) {
@@ -69,33 +113,10 @@ public final class NBTOutputStream implements Closeable {
    */
   public void write(@NotNull final Tag value) throws IOException {
     Preconditions.checkState(!this.closed, "Trying to read from a closed reader!");
-    final var id = value.getType();
-    if (value.isByte()) {
-      this.writeByte(value.asByte());
-    } else if (value.isShort()) {
-      this.writeShort(value.asShort());
-    } else if (value.isInt()) {
-      this.writeInt(value.asInt());
-    } else if (value.isLong()) {
-      this.writeLong(value.asLong());
-    } else if (value.isFloat()) {
-      this.writeFloat(value.asFloat());
-    } else if (value.isDouble()) {
-      this.writeDouble(value.asDouble());
-    } else if (value.isByteArray()) {
-      this.writeByteArray(value.asByteArray());
-    } else if (value.isString()) {
-      this.writeString(value.asString());
-    } else if (value.isList()) {
-      this.writeListTag(value.asList());
-    } else if (value.isCompound()) {
-      this.writeCompoundTag(value.asCompound());
-    } else if (value.isIntArray()) {
-      this.writeIntArray(value.asIntArray());
-    } else if (value.isLongArray()) {
-      this.writeLongArray(value.asLongArray());
-    } else {
-      throw new IllegalArgumentException(String.format("Unknown type %s", id));
+    try {
+      value.accept(this.writer);
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
     }
   }
 
@@ -143,6 +164,56 @@ public final class NBTOutputStream implements Closeable {
     this.output.writeByte(TagTypes.END.getId());
   }
 
+  /**
+   * writes the given compound into the {@link #output} and serializes its large subtrees in parallel.
+   * <p>
+   * subtrees are written into separate pooled buffers on the given pool and the buffers are copied into the output
+   * in order, so the result is byte-identical to {@link #writeCompoundTag(CompoundTag)}. outputs whose encoding is
+   * unknown are written serially.
+   *
+   * @param value the value to write.
+   * @param pool the pool to serialize.
+   *
+   * @throws IOException if something went wrong when writing the given value into the output.
+   */
+  public void writeCompoundTag(@NotNull final CompoundTag value, @NotNull final ForkJoinPool pool)
+    throws IOException {
+    Preconditions.checkState(!this.closed, "Trying to write into a closed writer!");
+    final var factory = NBTOutputStream.forkFactory(this.output);
+    if (factory == null) {
+      this.writeCompoundTag(value);
+      return;
+    }
+    final List<ByteBuf> buffers;
+    try {
+      buffers = pool.invoke(ParallelTagWriter.compound(PooledByteBufAllocator.DEFAULT, value, factory));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    try {
+      for (final var buffer : buffers) {
+        this.transfer(buffer);
+      }
+      this.output.writeByte(TagTypes.END.getId());
+    } finally {
+      buffers.forEach(ByteBuf::release);
+    }
+  }
+
+  /**
+   * writes the given compound into the {@link #output} and serializes its large subtrees in parallel on the common
+   * pool.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing the given value into the output.
+   *
+   * @see #writeCompoundTag(CompoundTag, ForkJoinPool)
+   */
+  public void writeCompoundTagParallel(@NotNull final CompoundTag value) throws IOException {
+    this.writeCompoundTag(value, ForkJoinPool.commonPool());
+  }
+
   /**
    * reads the given input and converts it into the {@link DoubleTag}.
    *
@@ -251,4 +322,129 @@ public final class NBTOutputStream implements Closeable {
   public void writeString(@NotNull final StringTag value) throws IOException {
     this.output.writeUTF(value.value());
   }
+
+  /**
+   * copies the readable bytes of the buffer into the {@link #output}.
+   *
+   * @param buffer the buffer to copy.
+   *
+   * @throws IOException if something went wrong when writing the buffer into the output.
+   */
+  private void transfer(@NotNull final ByteBuf buffer) throws IOException {
+    final var length = buffer.readableBytes();
+    if (this.output instanceof OutputStream stream) {
+      buffer.readBytes(stream, length);
+    } else if (buffer.hasArray()) {
+      this.output.write(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+    } else {
+      final var bytes = new byte[length];
+      buffer.readBytes(bytes);
+      this.output.write(bytes);
+    }
+  }
+
+  /**
+   * an interface to determine writers of a tag type that may throw {@link IOException}.
+   *
+   * @param <T> type of the tag.
+   */
+  @FunctionalInterface
+  private interface TagWrite<T extends Tag> {
+
+    /**
+     * writes the tag.
+     *
+     * @param tag the tag to write.
+     *
+     * @throws IOException if something went wrong when writing the tag into the output.
+     */
+    void write(@NotNull T tag) throws IOException;
+  }
+
+  /**
+   * a class that represents visitors which write tags into the {@link #output}.
+   * <p>
+   * {@link IOException}s are thrown as {@link UncheckedIOException}s and unwrapped by {@link #write(Tag)}.
+   */
+  private final class Writer implements TagVisitor<Void> {
+
+    @Override
+    public Void visitByte(@NotNull final ByteTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeByte);
+    }
+
+    @Override
+    public Void visitByteArray(@NotNull final ByteArrayTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeByteArray);
+    }
+
+    @Override
+    public Void visitCompound(@NotNull final CompoundTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeCompoundTag);
+    }
+
+    @Override
+    public Void visitDouble(@NotNull final DoubleTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeDouble);
+    }
+
+    @Override
+    public Void visitFloat(@NotNull final FloatTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeFloat);
+    }
+
+    @Override
+    public Void visitInt(@NotNull final IntTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeInt);
+    }
+
+    @Override
+    public Void visitIntArray(@NotNull final IntArrayTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeIntArray);
+    }
+
+    @Override
+    public Void visitList(@NotNull final ListTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeListTag);
+    }
+
+    @Override
+    public Void visitLong(@NotNull final LongTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeLong);
+    }
+
+    @Override
+    public Void visitLongArray(@NotNull final LongArrayTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeLongArray);
+    }
+
+    @Override
+    public Void visitShort(@NotNull final ShortTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeShort);
+    }
+
+    @Override
+    public Void visitString(@NotNull final StringTag tag) {
+      return Writer.write(tag, NBTOutputStream.this::writeString);
+    }
+
+    /**
+     * writes the tag and rethrows {@link IOException}s as {@link UncheckedIOException}s.
+     *
+     * @param tag the tag to write.
+     * @param write the write to run.
+     * @param <T> type of the tag.
+     *
+     * @return {@code null}.
+     */
+    @Nullable
+    private static <T extends Tag> Void write(@NotNull final T tag, @NotNull final TagWrite<T> write) {
+      try {
+        write.write(tag);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return null;
+    }
+  }
 }
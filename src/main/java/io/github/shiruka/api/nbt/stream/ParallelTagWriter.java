@@ -0,0 +1,293 @@
+package io.github.shiruka.api.nbt.stream;
+
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.nbt.ListTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.TagTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a fork-join task that serializes a range of a compound's entries or a list's elements into pooled buffers.
+ * <p>
+ * nbt only stores element counts and never byte lengths, so the buffers of independent subtrees can be written one
+ * after another and give exactly the same bytes as the serial writer.
+ */
+final class ParallelTagWriter extends RecursiveTask<List<ByteBuf>> {
+
+  /**
+   * the serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the element count of a container to serialize its content in separate tasks.
+   */
+  static final int SPLIT_THRESHOLD = 512;
+
+  /**
+   * the allocator.
+   */
+  @NotNull
+  private final ByteBufAllocator allocator;
+
+  /**
+   * the elements, compound entries or list tags.
+   */
+  @NotNull
+  private final Object @NotNull [] elements;
+
+  /**
+   * the output factory that creates outputs in the same encoding as the target output.
+   */
+  @NotNull
+  private final Function<ByteBuf, DataOutput> factory;
+
+  /**
+   * the start index, inclusive.
+   */
+  private final int from;
+
+  /**
+   * the end index, exclusive.
+   */
+  private final int to;
+
+  /**
+   * the stream that writes into the current buffer of the task.
+   */
+  @Nullable
+  private NBTOutputStream stream;
+
+  /**
+   * ctor.
+   *
+   * @param allocator the allocator.
+   * @param elements the elements.
+   * @param factory the factory.
+   * @param from the from.
+   * @param to the to.
+   */
+  private ParallelTagWriter(@NotNull final ByteBufAllocator allocator, @NotNull final Object @NotNull [] elements,
+                            @NotNull final Function<ByteBuf, DataOutput> factory, final int from, final int to) {
+    this.allocator = allocator;
+    this.elements = elements;
+    this.factory = factory;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * creates a task that writes entries of the compound, excluding the end tag.
+   *
+   * @param allocator the allocator to create.
+   * @param compound the compound to create.
+   * @param factory the factory to create.
+   *
+   * @return a new task.
+   */
+  @NotNull
+  static ParallelTagWriter compound(@NotNull final ByteBufAllocator allocator, @NotNull final CompoundTag compound,
+                                    @NotNull final Function<ByteBuf, DataOutput> factory) {
+    final var entries = compound.all().entrySet().toArray();
+    return new ParallelTagWriter(allocator, entries, factory, 0, entries.length);
+  }
+
+  /**
+   * creates a task that writes elements of the list, excluding the list header.
+   *
+   * @param allocator the allocator to create.
+   * @param list the list to create.
+   * @param factory the factory to create.
+   *
+   * @return a new task.
+   */
+  @NotNull
+  static ParallelTagWriter list(@NotNull final ByteBufAllocator allocator, @NotNull final ListTag list,
+                                @NotNull final Function<ByteBuf, DataOutput> factory) {
+    final var tags = list.all().toArray();
+    return new ParallelTagWriter(allocator, tags, factory, 0, tags.length);
+  }
+
+  /**
+   * releases the given parts.
+   *
+   * @param parts the parts to release.
+   */
+  private static void release(@NotNull final List<Object> parts) {
+    for (final var part : parts) {
+      if (part instanceof ByteBuf buffer) {
+        buffer.release();
+      } else if (part instanceof ParallelTagWriter task) {
+        task.quietlyJoin();
+        if (task.isCompletedNormally()) {
+          task.getRawResult().forEach(ByteBuf::release);
+        }
+      }
+    }
+  }
+
+  @Override
+  protected List<ByteBuf> compute() {
+    final var parts = new ObjectArrayList<Object>();
+    try {
+      if (this.to - this.from > ParallelTagWriter.SPLIT_THRESHOLD) {
+        final var middle = this.from + this.to >>> 1;
+        final var left = new ParallelTagWriter(this.allocator, this.elements, this.factory, this.from, middle);
+        final var right = new ParallelTagWriter(this.allocator, this.elements, this.factory, middle, this.to);
+        right.fork();
+        parts.add(left);
+        parts.add(right);
+        left.invoke();
+      } else {
+        this.writeRange(parts);
+      }
+      return this.collect(parts);
+    } catch (final RuntimeException e) {
+      ParallelTagWriter.release(parts);
+      throw e;
+    }
+  }
+
+  /**
+   * joins the forked parts and collects all buffers in order.
+   *
+   * @param parts the parts to collect.
+   *
+   * @return collected buffers.
+   */
+  @NotNull
+  private List<ByteBuf> collect(@NotNull final List<Object> parts) {
+    final var buffers = new ObjectArrayList<ByteBuf>(parts.size());
+    try {
+      for (var index = 0; index < parts.size(); index++) {
+        final var part = parts.get(index);
+        if (part instanceof ByteBuf buffer) {
+          buffers.add(buffer);
+        } else {
+          buffers.addAll(((ParallelTagWriter) part).join());
+        }
+        parts.set(index, null);
+      }
+    } catch (final RuntimeException e) {
+      buffers.forEach(ByteBuf::release);
+      throw e;
+    }
+    return buffers;
+  }
+
+  /**
+   * creates a new buffer and adds it to the parts.
+   *
+   * @param parts the parts to add.
+   *
+   * @return a new nbt output stream which writes into the buffer.
+   */
+  @NotNull
+  private NBTOutputStream next(@NotNull final List<Object> parts) {
+    final var buffer = this.allocator.buffer();
+    parts.add(buffer);
+    return new NBTOutputStream(this.factory.apply(buffer));
+  }
+
+  /**
+   * writes the elements serially, descending into containers and forking the content of large ones.
+   *
+   * @param elements the elements to write.
+   * @param from the start index, inclusive.
+   * @param to the end index, exclusive.
+   * @param parts the parts to fill.
+   *
+   * @throws IOException if something went wrong when writing the elements.
+   */
+  private void writeElements(@NotNull final Object @NotNull [] elements, final int from, final int to,
+                             @NotNull final List<Object> parts) throws IOException {
+    for (var index = from; index < to; index++) {
+      final var element = elements[index];
+      if (element instanceof Map.Entry<?, ?> entry) {
+        final var tag = (Tag) entry.getValue();
+        this.stream().output().writeByte(tag.getType().getId());
+        if (tag.getType() != TagTypes.END) {
+          this.stream().output().writeUTF((String) entry.getKey());
+          this.writeTag(tag, parts);
+        }
+      } else {
+        this.writeTag((Tag) element, parts);
+      }
+    }
+  }
+
+  /**
+   * writes the range of the task.
+   *
+   * @param parts the parts to fill.
+   */
+  private void writeRange(@NotNull final List<Object> parts) {
+    try {
+      this.stream = this.next(parts);
+      this.writeElements(this.elements, this.from, this.to, parts);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      this.stream = null;
+    }
+  }
+
+  /**
+   * writes the tag's payload, forking the content of large containers.
+   *
+   * @param tag the tag to write.
+   * @param parts the parts to fill.
+   *
+   * @throws IOException if something went wrong when writing the tag.
+   */
+  private void writeTag(@NotNull final Tag tag, @NotNull final List<Object> parts) throws IOException {
+    if (tag.isCompound()) {
+      final var compound = tag.asCompound();
+      if (compound.size() >= ParallelTagWriter.SPLIT_THRESHOLD) {
+        parts.add(ParallelTagWriter.compound(this.allocator, compound, this.factory).fork());
+        this.stream = this.next(parts);
+      } else {
+        final var entries = compound.all().entrySet().toArray();
+        this.writeElements(entries, 0, entries.length, parts);
+      }
+      this.stream().output().writeByte(TagTypes.END.getId());
+    } else if (tag.isList()) {
+      final var list = tag.asList();
+      this.stream().output().writeByte(list.getListType().getId());
+      this.stream().output().writeInt(list.size());
+      if (list.size() >= ParallelTagWriter.SPLIT_THRESHOLD) {
+        parts.add(ParallelTagWriter.list(this.allocator, list, this.factory).fork());
+        this.stream = this.next(parts);
+      } else {
+        for (final var element : list) {
+          this.writeTag(element, parts);
+        }
+      }
+    } else {
+      this.stream().write(tag);
+    }
+  }
+
+  /**
+   * obtains the current stream.
+   *
+   * @return current stream.
+   */
+  @NotNull
+  private NBTOutputStream stream() {
+    final var stream = this.stream;
+    assert stream != null;
+    return stream;
+  }
+}
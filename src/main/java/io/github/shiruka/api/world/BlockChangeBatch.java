@@ -0,0 +1,458 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.vectors.Vector3i;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents reusable batches of block changes which are applied section by section.
+ * <p>
+ * the changes are collected per {@link Chunk.Section} and applied in one pass, which writes the palette of each
+ * section once, updates the heightmaps, queues the changed blocks to {@link World#light()} and notifies the listener
+ * once per changed section instead of once per block. a later change of a position replaces the earlier one, sections
+ * that are completely filled with one id are written as a single palette entry. changes outside the height of their
+ * chunks are skipped when the batch is applied, and so are the changes of chunks that are not loaded unless the batch
+ * is applied with {@link #apply(Listener, boolean)} to load or generate them. the batch is not thread-safe and must be
+ * applied on the world thread.
+ */
+public final class BlockChangeBatch {
+
+  /**
+   * the value of the positions that are not changed.
+   */
+  private static final int UNCHANGED = -1;
+
+  /**
+   * the changed global ids of the current section.
+   */
+  private final int @NotNull [] changedIds = new int[PalettedContainer.SIZE];
+
+  /**
+   * the changed indexes of the current section.
+   */
+  private final short @NotNull [] changedIndexes = new short[PalettedContainer.SIZE];
+
+  /**
+   * the changes by the chunk keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<Column> columns = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the section changes to reuse.
+   */
+  @NotNull
+  private final ObjectArrayList<SectionChanges> pool = new ObjectArrayList<>();
+
+  /**
+   * the previous global ids of a filled section.
+   */
+  private final int @NotNull [] previousIds = new int[PalettedContainer.SIZE];
+
+  /**
+   * the world.
+   */
+  @NotNull
+  private final World world;
+
+  /**
+   * the count of the changed positions.
+   */
+  private int size;
+
+  /**
+   * ctor.
+   *
+   * @param world the world.
+   */
+  public BlockChangeBatch(@NotNull final World world) {
+    this.world = world;
+  }
+
+  /**
+   * applies the changes of the loaded chunks and clears the batch.
+   *
+   * @return count of the blocks whose global id changed.
+   */
+  public int apply() {
+    return this.apply(null);
+  }
+
+  /**
+   * applies the changes of the loaded chunks and clears the batch.
+   *
+   * @param listener the listener to notify once per changed section.
+   *
+   * @return count of the blocks whose global id changed.
+   */
+  public int apply(@Nullable final Listener listener) {
+    return this.apply(listener, false);
+  }
+
+  /**
+   * applies the changes and clears the batch.
+   * <p>
+   * the changes outside the height of their chunks are skipped.
+   *
+   * @param listener the listener to notify once per changed section.
+   * @param generate {@code true} to load or generate the chunks that are not loaded, {@code false} to skip their
+   *   changes so the world thread never waits for a chunk.
+   *
+   * @return count of the blocks whose global id changed.
+   */
+  public int apply(@Nullable final Listener listener, final boolean generate) {
+    final var light = this.world.light();
+    var changed = 0;
+    try {
+      for (final var column : this.columns.values()) {
+        final var chunk = generate
+          ? this.world.chunkAtOrGenerate(column.x, column.z)
+          : this.world.loadedChunkAt(column.x, column.z);
+        if (chunk == null) {
+          continue;
+        }
+        final var types = Heightmap.Type.values();
+        for (final var entry : column.sections.int2ObjectEntrySet()) {
+          final var sectionY = entry.getIntKey();
+          if (sectionY < chunk.minSection() || sectionY >= chunk.minSection() + chunk.sectionCount()) {
+            continue;
+          }
+          final var count = this.applySection(chunk.section(sectionY).blocks(), entry.getValue());
+          if (count == 0) {
+            continue;
+          }
+          changed += count;
+          chunk.encoding().invalidate(sectionY);
+          chunk.dirty(true);
+          final var baseX = chunk.x() << 4;
+          final var baseY = sectionY << 4;
+          final var baseZ = chunk.z() << 4;
+          for (var change = 0; change < count; change++) {
+            final int index = this.changedIndexes[change];
+            final var x = index & 15;
+            final var y = baseY | index >> 8;
+            final var z = index >> 4 & 15;
+            if (!column.filled) {
+              for (final var type : types) {
+                chunk.heightmap(type).update(x, y, z, this.changedIds[change], chunk);
+              }
+            }
+            light.blockChanged(baseX | x, y, baseZ | z);
+          }
+          if (listener != null) {
+            listener.changed(chunk, sectionY, this.changedIndexes, this.changedIds, count);
+          }
+        }
+        if (column.filled) {
+          for (final var type : types) {
+            chunk.heightmap(type).recompute(chunk);
+          }
+        }
+      }
+    } finally {
+      this.clear();
+    }
+    return changed;
+  }
+
+  /**
+   * removes all changes.
+   */
+  public void clear() {
+    for (final var column : this.columns.values()) {
+      for (final var changes : column.sections.values()) {
+        changes.reset();
+        this.pool.add(changes);
+      }
+    }
+    this.columns.clear();
+    this.size = 0;
+  }
+
+  /**
+   * sets the global id of all blocks in the region.
+   * <p>
+   * sections that the region covers completely are recorded as a single fill.
+   *
+   * @param minX the min x to set, inclusive.
+   * @param minY the min y to set, inclusive.
+   * @param minZ the min z to set, inclusive.
+   * @param maxX the max x to set, inclusive.
+   * @param maxY the max y to set, inclusive.
+   * @param maxZ the max z to set, inclusive.
+   * @param id the id to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public BlockChangeBatch fill(final int minX, final int minY, final int minZ, final int maxX, final int maxY,
+                               final int maxZ, final int id) {
+    Preconditions.checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ, "Invalid region!");
+    Preconditions.checkArgument(id >= 0, "Id cannot be negative!");
+    for (var chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+      final var fromZ = Math.max(minZ, chunkZ << 4);
+      final var toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+      for (var chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+        final var fromX = Math.max(minX, chunkX << 4);
+        final var toX = Math.min(maxX, (chunkX << 4) + 15);
+        for (var sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+          final var fromY = Math.max(minY, sectionY << 4);
+          final var toY = Math.min(maxY, (sectionY << 4) + 15);
+          final var changes = this.changes(chunkX, sectionY, chunkZ);
+          this.size -= changes.count;
+          if (toX - fromX == 15 && toY - fromY == 15 && toZ - fromZ == 15) {
+            changes.fill(id);
+            this.columns.get(ChunkMap.key(chunkX, chunkZ)).filled = true;
+          } else {
+            for (var y = fromY; y <= toY; y++) {
+              for (var z = fromZ; z <= toZ; z++) {
+                for (var x = fromX; x <= toX; x++) {
+                  changes.set(PalettedContainer.index(x & 15, y & 15, z & 15), id);
+                }
+              }
+            }
+          }
+          this.size += changes.count;
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * sets the global id of the block at the position.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   * @param id the id to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public BlockChangeBatch set(final int x, final int y, final int z, final int id) {
+    Preconditions.checkArgument(id >= 0, "Id cannot be negative!");
+    final var changes = this.changes(x >> 4, y >> 4, z >> 4);
+    if (changes.set(PalettedContainer.index(x & 15, y & 15, z & 15), id)) {
+      this.size++;
+    }
+    return this;
+  }
+
+  /**
+   * sets the global id of the block at the position.
+   *
+   * @param position the position to set.
+   * @param id the id to set.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public BlockChangeBatch set(@NotNull final Vector3i position, final int id) {
+    return this.set(position.x(), position.y(), position.z(), id);
+  }
+
+  /**
+   * obtains the count of the changed positions.
+   *
+   * @return size.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * writes the changes into the section and collects the positions whose global id changed.
+   *
+   * @param blocks the blocks to write.
+   * @param changes the changes to write.
+   *
+   * @return count of the changed positions.
+   */
+  private int applySection(@NotNull final PalettedContainer blocks, @NotNull final SectionChanges changes) {
+    var count = 0;
+    if (changes.fill != BlockChangeBatch.UNCHANGED) {
+      final var id = changes.fill;
+      if (blocks.isUniform() && blocks.get(0) == id) {
+        return 0;
+      }
+      blocks.unpack(this.previousIds);
+      blocks.fill(id);
+      for (var index = 0; index < PalettedContainer.SIZE; index++) {
+        if (this.previousIds[index] != id) {
+          this.changedIndexes[count] = (short) index;
+          this.changedIds[count++] = id;
+        }
+      }
+      return count;
+    }
+    final var ids = changes.ids;
+    for (var index = 0; index < PalettedContainer.SIZE; index++) {
+      final var id = ids[index];
+      if (id != BlockChangeBatch.UNCHANGED && blocks.set(index, id) != id) {
+        this.changedIndexes[count] = (short) index;
+        this.changedIds[count++] = id;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * obtains the changes of the section, creates them if absent.
+   *
+   * @param chunkX the chunk x to obtain.
+   * @param sectionY the section y to obtain.
+   * @param chunkZ the chunk z to obtain.
+   *
+   * @return changes of the section.
+   */
+  @NotNull
+  private SectionChanges changes(final int chunkX, final int sectionY, final int chunkZ) {
+    final var key = ChunkMap.key(chunkX, chunkZ);
+    var column = this.columns.get(key);
+    if (column == null) {
+      column = new Column(chunkX, chunkZ);
+      this.columns.put(key, column);
+    }
+    var changes = column.sections.get(sectionY);
+    if (changes == null) {
+      changes = this.pool.isEmpty() ? new SectionChanges() : this.pool.pop();
+      column.sections.put(sectionY, changes);
+    }
+    return changes;
+  }
+
+  /**
+   * an interface to determine listeners which are notified once per changed section.
+   */
+  @FunctionalInterface
+  public interface Listener {
+
+    /**
+     * notifies that blocks of the section changed.
+     * <p>
+     * the arrays are reused by the batch, so they must not be kept after the call.
+     *
+     * @param chunk the chunk of the section.
+     * @param sectionY the section y.
+     * @param indexes the {@link PalettedContainer#index(int, int, int)} of the changed blocks.
+     * @param ids the new global ids of the changed blocks.
+     * @param count the count of the changed blocks, the length of the valid part of the arrays.
+     */
+    void changed(@NotNull Chunk chunk, int sectionY, short @NotNull [] indexes, int @NotNull [] ids, int count);
+  }
+
+  /**
+   * a class that represents changes of chunk columns.
+   */
+  private static final class Column {
+
+    /**
+     * the changes by the section y.
+     */
+    @NotNull
+    private final Int2ObjectOpenHashMap<SectionChanges> sections = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * the chunk x.
+     */
+    private final int x;
+
+    /**
+     * the chunk z.
+     */
+    private final int z;
+
+    /**
+     * whether a section of the column is filled, then the heightmaps are recomputed once.
+     */
+    private boolean filled;
+
+    /**
+     * ctor.
+     *
+     * @param x the chunk x.
+     * @param z the chunk z.
+     */
+    private Column(final int x, final int z) {
+      this.x = x;
+      this.z = z;
+    }
+  }
+
+  /**
+   * a class that represents changes of sections.
+   */
+  private static final class SectionChanges {
+
+    /**
+     * the global ids by the indexes, {@link #UNCHANGED} for the positions that are not changed.
+     */
+    private final int @NotNull [] ids = new int[PalettedContainer.SIZE];
+
+    /**
+     * the count of the changed positions.
+     */
+    private int count;
+
+    /**
+     * the global id that fills the section, {@link #UNCHANGED} if the section is not filled.
+     */
+    private int fill = BlockChangeBatch.UNCHANGED;
+
+    /**
+     * ctor.
+     */
+    private SectionChanges() {
+      Arrays.fill(this.ids, BlockChangeBatch.UNCHANGED);
+    }
+
+    /**
+     * fills the section.
+     *
+     * @param id the id to fill.
+     */
+    private void fill(final int id) {
+      Arrays.fill(this.ids, id);
+      this.count = PalettedContainer.SIZE;
+      this.fill = id;
+    }
+
+    /**
+     * resets the changes to reuse them.
+     */
+    private void reset() {
+      if (this.count != 0) {
+        Arrays.fill(this.ids, BlockChangeBatch.UNCHANGED);
+        this.count = 0;
+      }
+      this.fill = BlockChangeBatch.UNCHANGED;
+    }
+
+    /**
+     * sets the global id at the index.
+     *
+     * @param index the index to set.
+     * @param id the id to set.
+     *
+     * @return {@code true} if the position was not changed before.
+     */
+    private boolean set(final int index, final int id) {
+      if (this.fill != id) {
+        this.fill = BlockChangeBatch.UNCHANGED;
+      }
+      final var added = this.ids[index] == BlockChangeBatch.UNCHANGED;
+      this.ids[index] = id;
+      if (added) {
+        this.count++;
+      }
+      return added;
+    }
+  }
+}
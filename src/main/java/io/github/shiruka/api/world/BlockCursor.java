@@ -0,0 +1,348 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents reusable, mutable cursors which iterate the blocks of a region without allocating.
+ * <p>
+ * the cursor visits the region chunk column by chunk column and resolves each chunk and section once, so prefer it
+ * over {@link World#block(int, int, int)} for area operations. the blocks outside the height of the world are not
+ * visited, and neither are the columns of chunks that are not loaded unless the cursor is created to load or
+ * generate them. the cursor is not thread-safe.
+ * <pre>
+ *   final var cursor = new BlockCursor(world);
+ *   cursor.reset(minX, minY, minZ, maxX, maxY, maxZ);
+ *   while (cursor.next()) {
+ *     if (cursor.id() == from) {
+ *       cursor.id(to);
+ *     }
+ *   }
+ * </pre>
+ */
+public final class BlockCursor {
+
+  /**
+   * whether to load or generate the chunks that are not loaded.
+   */
+  private final boolean generate;
+
+  /**
+   * the world.
+   */
+  @NotNull
+  private final World world;
+
+  /**
+   * the current blocks.
+   */
+  @Nullable
+  private PalettedContainer blocks;
+
+  /**
+   * the current chunk.
+   */
+  @Nullable
+  private Chunk chunk;
+
+  /**
+   * the current chunk x.
+   */
+  private int chunkX;
+
+  /**
+   * the current chunk z.
+   */
+  private int chunkZ;
+
+  /**
+   * the max y of the current column, inclusive.
+   */
+  private int columnMaxY;
+
+  /**
+   * the max x, inclusive.
+   */
+  private int maxX;
+
+  /**
+   * the max y, inclusive.
+   */
+  private int maxY;
+
+  /**
+   * the max z, inclusive.
+   */
+  private int maxZ;
+
+  /**
+   * the min x, inclusive.
+   */
+  private int minX;
+
+  /**
+   * the min y, inclusive.
+   */
+  private int minY;
+
+  /**
+   * the min z, inclusive.
+   */
+  private int minZ;
+
+  /**
+   * whether the iteration of the region is started.
+   */
+  private boolean started;
+
+  /**
+   * whether the cursor points to a block.
+   */
+  private boolean valid;
+
+  /**
+   * the current x.
+   */
+  private int x;
+
+  /**
+   * the current y.
+   */
+  private int y;
+
+  /**
+   * the current z.
+   */
+  private int z;
+
+  /**
+   * ctor.
+   *
+   * @param world the world.
+   * @param generate {@code true} to load or generate the chunks that are not loaded, {@code false} to skip their
+   *   columns so the world thread never waits for a chunk.
+   */
+  public BlockCursor(@NotNull final World world, final boolean generate) {
+    this.world = world;
+    this.generate = generate;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param world the world.
+   */
+  public BlockCursor(@NotNull final World world) {
+    this(world, false);
+  }
+
+  /**
+   * gets the global id of the current block.
+   *
+   * @return global id of the current block.
+   */
+  public int id() {
+    return this.blocks().get(this.x & 15, this.y & 15, this.z & 15);
+  }
+
+  /**
+   * sets the global id of the current block.
+   * <p>
+   * the id is written into the section storage directly, the section is invalidated in
+   * {@link Chunk#encoding()}, the heightmaps are updated, the block is queued to {@link World#light()} and the chunk
+   * is marked as dirty if the id changes.
+   *
+   * @param id the id to set.
+   *
+   * @return previous global id of the current block.
+   */
+  public int id(final int id) {
+    final var previous = this.blocks().set(this.x & 15, this.y & 15, this.z & 15, id);
+    if (previous != id) {
+      final var chunk = this.chunk;
+      assert chunk != null;
+      chunk.encoding().invalidate(this.y >> 4);
+      chunk.dirty(true);
+      for (final var type : Heightmap.Type.values()) {
+        chunk.heightmap(type).update(this.x & 15, this.y, this.z & 15, id, chunk);
+      }
+      this.world.light().blockChanged(this.x, this.y, this.z);
+    }
+    return previous;
+  }
+
+  /**
+   * moves the cursor to the next block.
+   *
+   * @return {@code true} if the cursor points to a block, {@code false} if the region is completed.
+   */
+  public boolean next() {
+    if (!this.valid) {
+      if (this.started || this.minX > this.maxX || this.minY > this.maxY || this.minZ > this.maxZ) {
+        return false;
+      }
+      this.started = true;
+      return this.enterFrom(this.minX >> 4, this.minZ >> 4);
+    }
+    final var chunkMaxX = Math.min(this.maxX, (this.chunkX << 4) + 15);
+    final var chunkMaxZ = Math.min(this.maxZ, (this.chunkZ << 4) + 15);
+    if (this.x < chunkMaxX) {
+      this.x++;
+      return true;
+    }
+    this.x = Math.max(this.minX, this.chunkX << 4);
+    if (this.z < chunkMaxZ) {
+      this.z++;
+      return true;
+    }
+    this.z = Math.max(this.minZ, this.chunkZ << 4);
+    if (this.y < this.columnMaxY) {
+      this.y++;
+      if ((this.y & 15) == 0) {
+        this.blocks = null;
+      }
+      return true;
+    }
+    if (this.chunkX < this.maxX >> 4) {
+      return this.enterFrom(this.chunkX + 1, this.chunkZ);
+    }
+    if (this.chunkZ < this.maxZ >> 4) {
+      return this.enterFrom(this.minX >> 4, this.chunkZ + 1);
+    }
+    this.valid = false;
+    return false;
+  }
+
+  /**
+   * resets the cursor to iterate the region, the cursor points to the first block after {@link #next()}.
+   *
+   * @param minX the min x to reset, inclusive.
+   * @param minY the min y to reset, inclusive.
+   * @param minZ the min z to reset, inclusive.
+   * @param maxX the max x to reset, inclusive.
+   * @param maxY the max y to reset, inclusive.
+   * @param maxZ the max z to reset, inclusive.
+   *
+   * @return {@code this} for chain.
+   */
+  @NotNull
+  public BlockCursor reset(final int minX, final int minY, final int minZ, final int maxX, final int maxY,
+                           final int maxZ) {
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+    this.valid = false;
+    this.started = false;
+    this.chunk = null;
+    this.blocks = null;
+    return this;
+  }
+
+  /**
+   * obtains the current x.
+   *
+   * @return current x.
+   */
+  public int x() {
+    return this.x;
+  }
+
+  /**
+   * obtains the current y.
+   *
+   * @return current y.
+   */
+  public int y() {
+    return this.y;
+  }
+
+  /**
+   * obtains the current z.
+   *
+   * @return current z.
+   */
+  public int z() {
+    return this.z;
+  }
+
+  /**
+   * obtains the blocks of the current section.
+   *
+   * @return blocks of the current section.
+   */
+  @NotNull
+  private PalettedContainer blocks() {
+    Preconditions.checkState(this.valid, "The cursor does not point to a block!");
+    var blocks = this.blocks;
+    if (blocks == null) {
+      final var chunk = this.chunk;
+      assert chunk != null;
+      blocks = chunk.section(this.y >> 4).blocks();
+      this.blocks = blocks;
+    }
+    return blocks;
+  }
+
+  /**
+   * moves the cursor to the first block of the chunk column.
+   *
+   * @param chunkX the chunk x to enter.
+   * @param chunkZ the chunk z to enter.
+   *
+   * @return {@code true} if the column has blocks to visit.
+   */
+  private boolean enter(final int chunkX, final int chunkZ) {
+    final var chunk = this.generate
+      ? this.world.chunkAtOrGenerate(chunkX, chunkZ)
+      : this.world.loadedChunkAt(chunkX, chunkZ);
+    if (chunk == null) {
+      return false;
+    }
+    final var fromY = Math.max(this.minY, chunk.minSection() << 4);
+    final var toY = Math.min(this.maxY, (chunk.minSection() + chunk.sectionCount() << 4) - 1);
+    if (fromY > toY) {
+      return false;
+    }
+    this.chunkX = chunkX;
+    this.chunkZ = chunkZ;
+    this.chunk = chunk;
+    this.blocks = null;
+    this.columnMaxY = toY;
+    this.x = Math.max(this.minX, chunkX << 4);
+    this.y = fromY;
+    this.z = Math.max(this.minZ, chunkZ << 4);
+    return true;
+  }
+
+  /**
+   * moves the cursor to the first block of the first column from the chunk column on that has blocks to visit.
+   *
+   * @param chunkX the chunk x to start.
+   * @param chunkZ the chunk z to start.
+   *
+   * @return {@code true} if the cursor points to a block, {@code false} if the region is completed.
+   */
+  private boolean enterFrom(final int chunkX, final int chunkZ) {
+    var x = chunkX;
+    var z = chunkZ;
+    while (z <= this.maxZ >> 4) {
+      if (this.enter(x, z)) {
+        this.valid = true;
+        return true;
+      }
+      if (x < this.maxX >> 4) {
+        x++;
+      } else {
+        x = this.minX >> 4;
+        z++;
+      }
+    }
+    this.valid = false;
+    return false;
+  }
+}
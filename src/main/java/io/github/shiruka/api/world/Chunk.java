@@ -1,14 +1,136 @@
 package io.github.shiruka.api.world;
 
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.world.light.NibbleArray;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import java.util.Collection;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
 /**
  * an interface to determine chunks.
  */
 public interface Chunk {
 
+  /**
+   * obtains the network nbt of the block entities.
+   *
+   * @return block entities.
+   */
+  @NotNull
+  Collection<CompoundTag> blockEntities();
+
+  /**
+   * checks if the chunk is modified since it was last saved.
+   *
+   * @return {@code true} if the chunk is dirty.
+   */
+  boolean dirty();
+
+  /**
+   * sets the dirty flag, which is also set by the save threads if a save fails, so it must be thread-safe.
+   *
+   * @param dirty the dirty to set.
+   *
+   * @see ChunkSavePipeline
+   */
+  void dirty(boolean dirty);
+
+  /**
+   * obtains the cached network encoding, which must be invalidated when a section or a block entity changes.
+   *
+   * @return encoding.
+   */
+  @NotNull
+  ChunkEncoding encoding();
+
+  /**
+   * obtains the heightmap of the type, which is kept up to date on every block change.
+   *
+   * @param type the type to obtain.
+   *
+   * @return heightmap of the type.
+   */
+  @NotNull
+  Heightmap heightmap(@NotNull Heightmap.Type type);
+
+  /**
+   * obtains the lowest section y.
+   *
+   * @return min section.
+   */
+  int minSection();
+
+  /**
+   * gets the section at the section y.
+   *
+   * @param sectionY the section y to get, in [{@link #minSection()}, {@link #minSection()} +
+   *   {@link #sectionCount()}).
+   *
+   * @return section at the y.
+   */
+  @NotNull
+  Section section(int sectionY);
+
+  /**
+   * obtains the section count.
+   *
+   * @return section count.
+   */
+  int sectionCount();
+
+  /**
+   * takes a snapshot of the chunk, must be called on the thread that modifies the chunk.
+   * <p>
+   * the snapshot copies the state of the chunk, for example with copies of the section storages, and the returned
+   * supplier serializes the copy into nbt on another thread.
+   *
+   * @return a supplier that serializes the snapshot.
+   */
+  @NotNull
+  Supplier<CompoundTag> snapshot();
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  int x();
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  int z();
+
   /**
    * an interface to determine chunk sections.
    */
   interface Section {
 
+    /**
+     * obtains the block light.
+     *
+     * @return block light.
+     */
+    @NotNull
+    NibbleArray blockLight();
+
+    /**
+     * obtains the block storage.
+     *
+     * @return block storage.
+     */
+    @NotNull
+    PalettedContainer blocks();
+
+    /**
+     * obtains the sky light.
+     *
+     * @return sky light.
+     */
+    @NotNull
+    NibbleArray skyLight();
   }
 }
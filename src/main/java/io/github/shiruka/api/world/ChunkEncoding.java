@@ -0,0 +1,248 @@
+package io.github.shiruka.api.world;
+
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.VarInts;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents cached network encodings of chunks, which are shared by all viewers of a chunk.
+ * <p>
+ * every section is encoded once into a pooled buffer in the network sub chunk layout and re-encoded only after it is
+ * invalidated by a block change, the network nbt of the block entities is cached the same way. {@link #retain()}
+ * returns the sections from the lowest one followed by the block entities, without copying the cached buffers.
+ */
+public final class ChunkEncoding {
+
+  /**
+   * the bits per block that the network layout supports.
+   */
+  private static final int @NotNull [] BITS = {1, 2, 3, 4, 5, 6, 8, 16};
+
+  /**
+   * the version of the sub chunk layout.
+   */
+  private static final int SUB_CHUNK_VERSION = 8;
+
+  /**
+   * the allocator.
+   */
+  @NotNull
+  private final ByteBufAllocator allocator;
+
+  /**
+   * the chunk.
+   */
+  @NotNull
+  private final Chunk chunk;
+
+  /**
+   * the encoded sections, {@code null} if a section is invalidated.
+   */
+  @Nullable
+  private final ByteBuf @NotNull [] sections;
+
+  /**
+   * the encoded block entities, {@code null} if they are invalidated.
+   */
+  @Nullable
+  private ByteBuf blockEntities;
+
+  /**
+   * the encoded chunk, {@code null} if a part of it is invalidated.
+   */
+  @Nullable
+  private ByteBuf encoded;
+
+  /**
+   * ctor.
+   *
+   * @param chunk the chunk.
+   */
+  public ChunkEncoding(@NotNull final Chunk chunk) {
+    this(chunk, PooledByteBufAllocator.DEFAULT);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param chunk the chunk.
+   * @param allocator the allocator.
+   */
+  public ChunkEncoding(@NotNull final Chunk chunk, @NotNull final ByteBufAllocator allocator) {
+    this.chunk = chunk;
+    this.allocator = allocator;
+    this.sections = new ByteBuf[chunk.sectionCount()];
+  }
+
+  /**
+   * encodes the section in the network sub chunk layout.
+   *
+   * @param blocks the blocks to encode.
+   * @param buffer the buffer to encode into.
+   */
+  public static void encodeSection(@NotNull final PalettedContainer blocks, @NotNull final ByteBuf buffer) {
+    final var locals = new int[PalettedContainer.SIZE];
+    final var palette = new Int2IntOpenHashMap();
+    palette.defaultReturnValue(-1);
+    final var entries = new int[PalettedContainer.SIZE];
+    if (blocks.isUniform()) {
+      entries[0] = blocks.get(0);
+      palette.put(entries[0], 0);
+    } else {
+      final var ids = blocks.unpack();
+      for (var index = 0; index < PalettedContainer.SIZE; index++) {
+        final var id = ids[PalettedContainer.index(index >> 8, index & 15, index >> 4 & 15)];
+        var local = palette.get(id);
+        if (local == -1) {
+          local = palette.size();
+          palette.put(id, local);
+          entries[local] = id;
+        }
+        locals[index] = local;
+      }
+    }
+    final var needed = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(palette.size() - 1));
+    var bits = ChunkEncoding.BITS[ChunkEncoding.BITS.length - 1];
+    for (final var supported : ChunkEncoding.BITS) {
+      if (supported >= needed) {
+        bits = supported;
+        break;
+      }
+    }
+    final var perWord = Integer.SIZE / bits;
+    buffer.writeByte(ChunkEncoding.SUB_CHUNK_VERSION);
+    buffer.writeByte(1);
+    buffer.writeByte(bits << 1 | 1);
+    for (var start = 0; start < PalettedContainer.SIZE; start += perWord) {
+      var word = 0;
+      final var end = Math.min(PalettedContainer.SIZE, start + perWord);
+      for (var index = start; index < end; index++) {
+        word |= locals[index] << (index - start) * bits;
+      }
+      buffer.writeIntLE(word);
+    }
+    try {
+      final var output = new ByteBufOutputStream(buffer);
+      VarInts.writeInt(output, palette.size());
+      for (var local = 0; local < palette.size(); local++) {
+        VarInts.writeInt(output, entries[local]);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * invalidates the encoded section after a block in it changed.
+   *
+   * @param sectionY the section y to invalidate.
+   */
+  public synchronized void invalidate(final int sectionY) {
+    final var index = sectionY - this.chunk.minSection();
+    final var section = this.sections[index];
+    if (section != null) {
+      section.release();
+      this.sections[index] = null;
+    }
+    this.invalidateEncoded();
+  }
+
+  /**
+   * invalidates the encoded block entities after a block entity changed.
+   */
+  public synchronized void invalidateBlockEntities() {
+    if (this.blockEntities != null) {
+      this.blockEntities.release();
+      this.blockEntities = null;
+    }
+    this.invalidateEncoded();
+  }
+
+  /**
+   * releases all cached buffers, call this when the chunk is unloaded.
+   * <p>
+   * buffers that are returned by {@link #retain()} stay valid until their viewers release them.
+   */
+  public synchronized void release() {
+    for (var index = 0; index < this.sections.length; index++) {
+      final var section = this.sections[index];
+      if (section != null) {
+        section.release();
+        this.sections[index] = null;
+      }
+    }
+    this.invalidateBlockEntities();
+  }
+
+  /**
+   * obtains the encoded chunk and encodes the invalidated parts, must be called on the thread that modifies the
+   * chunk.
+   *
+   * @return a retained buffer that shares the cached encoding, the caller must release it, for example by writing
+   *   it to a channel.
+   */
+  @NotNull
+  public synchronized ByteBuf retain() {
+    var encoded = this.encoded;
+    if (encoded == null) {
+      final var composite = this.allocator.compositeBuffer(this.sections.length + 1);
+      for (var index = 0; index < this.sections.length; index++) {
+        var section = this.sections[index];
+        if (section == null) {
+          section = this.allocator.buffer();
+          ChunkEncoding.encodeSection(this.chunk.section(this.chunk.minSection() + index).blocks(), section);
+          this.sections[index] = section;
+        }
+        composite.addComponent(true, section.retainedDuplicate());
+      }
+      var blockEntities = this.blockEntities;
+      if (blockEntities == null) {
+        blockEntities = this.encodeBlockEntities();
+        this.blockEntities = blockEntities;
+      }
+      composite.addComponent(true, blockEntities.retainedDuplicate());
+      encoded = composite;
+      this.encoded = encoded;
+    }
+    return encoded.retainedDuplicate();
+  }
+
+  /**
+   * encodes the network nbt of the block entities.
+   *
+   * @return a new buffer.
+   */
+  @NotNull
+  private ByteBuf encodeBlockEntities() {
+    final var buffer = this.allocator.buffer();
+    try {
+      final var writer = Tag.createNetworkWriter(new ByteBufOutputStream(buffer));
+      for (final var blockEntity : this.chunk.blockEntities()) {
+        writer.write(blockEntity);
+      }
+    } catch (final IOException e) {
+      buffer.release();
+      throw new UncheckedIOException(e);
+    }
+    return buffer;
+  }
+
+  /**
+   * releases the encoded chunk.
+   */
+  private void invalidateEncoded() {
+    if (this.encoded != null) {
+      this.encoded.release();
+      this.encoded = null;
+    }
+  }
+}
@@ -0,0 +1,324 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectRBTreeSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents prioritized queues of asynchronous chunk loads.
+ * <p>
+ * requests are ordered by their priority, lower priorities are loaded first. requests for the same chunk are
+ * coalesced into a single load and the most urgent priority wins. cancelling the future of a request withdraws it,
+ * a load that nobody waits for anymore is dropped before it starts. loads run on the worker executor and their
+ * futures are completed on the sync executor, which is usually backed by the main thread.
+ *
+ * @param <C> type of the chunks.
+ */
+public final class ChunkLoadQueue<C extends Chunk> {
+
+  /**
+   * the comparator of the requests.
+   */
+  private static final Comparator<Request<?>> ORDER = Comparator.<Request<?>>comparingInt(request -> request.priority)
+    .thenComparingLong(request -> request.sequence);
+
+  /**
+   * the loader.
+   */
+  @NotNull
+  private final LongFunction<? extends C> loader;
+
+  /**
+   * the maximum count of loads that run at the same time.
+   */
+  private final int parallelism;
+
+  /**
+   * the requests by their keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<Request<C>> pending = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the requests which are not started yet, in load order.
+   */
+  @NotNull
+  private final ObjectRBTreeSet<Request<C>> queue = new ObjectRBTreeSet<>(ChunkLoadQueue.ORDER);
+
+  /**
+   * the sync executor.
+   */
+  @NotNull
+  private final Executor sync;
+
+  /**
+   * the worker executor.
+   */
+  @NotNull
+  private final Executor workers;
+
+  /**
+   * the count of running loads.
+   */
+  private int running;
+
+  /**
+   * the sequence of the next request.
+   */
+  private long sequence;
+
+  /**
+   * ctor.
+   *
+   * @param loader the loader which loads or generates the chunk of the key, called on the worker executor.
+   * @param workers the workers.
+   * @param sync the sync.
+   * @param parallelism the parallelism.
+   */
+  public ChunkLoadQueue(@NotNull final LongFunction<? extends C> loader, @NotNull final Executor workers,
+                        @NotNull final Executor sync, final int parallelism) {
+    Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive!");
+    this.loader = loader;
+    this.workers = workers;
+    this.sync = sync;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * calculates the priority of a chunk from its distance to an interested player.
+   *
+   * @param x the x of the chunk.
+   * @param z the z of the chunk.
+   * @param playerX the chunk x of the player.
+   * @param playerZ the chunk z of the player.
+   *
+   * @return squared chunk distance as priority, capped at {@link Integer#MAX_VALUE}.
+   */
+  public static int distancePriority(final int x, final int z, final int playerX, final int playerZ) {
+    final var dx = (long) x - playerX;
+    final var dz = (long) z - playerZ;
+    return (int) Math.min(dx * dx + dz * dz, Integer.MAX_VALUE);
+  }
+
+  /**
+   * completes the futures.
+   *
+   * @param futures the futures to complete.
+   * @param chunk the chunk to complete.
+   * @param error the error to complete.
+   * @param <C> type of the chunk.
+   */
+  private static <C> void complete(@NotNull final List<CompletableFuture<C>> futures, @Nullable final C chunk,
+                                   @Nullable final Throwable error) {
+    for (final var future : futures) {
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        future.complete(chunk);
+      }
+    }
+  }
+
+  /**
+   * obtains the count of chunks which are requested and not loaded yet.
+   *
+   * @return pending chunk count.
+   */
+  public synchronized int pending() {
+    return this.pending.size();
+  }
+
+  /**
+   * changes the priority of the chunk's request if it has not started yet.
+   *
+   * @param x the x of the chunk.
+   * @param z the z of the chunk.
+   * @param priority the priority to set.
+   */
+  public synchronized void reprioritize(final int x, final int z, final int priority) {
+    final var request = this.pending.get(ChunkMap.key(x, z));
+    if (request != null && !request.started && request.priority != priority) {
+      this.queue.remove(request);
+      request.priority = priority;
+      this.queue.add(request);
+    }
+  }
+
+  /**
+   * requests the chunk at the position.
+   *
+   * @param x the x to request.
+   * @param z the z to request.
+   * @param priority the priority to request, lower priorities are loaded first.
+   *
+   * @return a future that completes on the sync executor, cancel it to withdraw the request.
+   */
+  @NotNull
+  public CompletableFuture<C> request(final int x, final int z, final int priority) {
+    final var key = ChunkMap.key(x, z);
+    final var future = new CompletableFuture<C>();
+    final Request<C> request;
+    final List<Request<C>> started;
+    synchronized (this) {
+      var current = this.pending.get(key);
+      if (current == null) {
+        current = new Request<>(key, priority, this.sequence++);
+        this.pending.put(key, current);
+        this.queue.add(current);
+      } else if (!current.started && priority < current.priority) {
+        this.queue.remove(current);
+        current.priority = priority;
+        this.queue.add(current);
+      }
+      current.futures.add(future);
+      request = current;
+      started = this.poll();
+    }
+    this.start(started);
+    future.whenComplete((chunk, throwable) -> {
+      if (future.isCancelled()) {
+        this.withdraw(request, future);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * marks the queued requests as started while the parallelism allows it, the caller must hold the lock.
+   *
+   * @return started requests.
+   */
+  @NotNull
+  private List<Request<C>> poll() {
+    final var started = new ObjectArrayList<Request<C>>();
+    while (this.running < this.parallelism && !this.queue.isEmpty()) {
+      final var request = this.queue.first();
+      this.queue.remove(request);
+      request.started = true;
+      this.running++;
+      started.add(request);
+    }
+    return started;
+  }
+
+  /**
+   * submits the loads of the started requests to the worker executor.
+   * <p>
+   * a request that the executor rejects releases its slot and fails its futures with the rejection.
+   *
+   * @param started the started requests to submit.
+   */
+  private void start(@NotNull final List<Request<C>> started) {
+    for (final var request : started) {
+      try {
+        this.workers.execute(() -> this.load(request));
+      } catch (final RejectedExecutionException e) {
+        final List<CompletableFuture<C>> futures;
+        synchronized (this) {
+          this.pending.remove(request.key);
+          this.running--;
+          futures = new ObjectArrayList<>(request.futures);
+        }
+        ChunkLoadQueue.complete(futures, null, e);
+      }
+    }
+  }
+
+  /**
+   * loads the chunk of the request and completes its futures on the sync executor.
+   *
+   * @param request the request to load.
+   */
+  private void load(@NotNull final Request<C> request) {
+    C chunk = null;
+    Throwable error = null;
+    try {
+      chunk = this.loader.apply(request.key);
+    } catch (final Throwable throwable) {
+      error = throwable;
+    }
+    final List<CompletableFuture<C>> futures;
+    final List<Request<C>> started;
+    synchronized (this) {
+      this.pending.remove(request.key);
+      this.running--;
+      futures = new ObjectArrayList<>(request.futures);
+      started = this.poll();
+    }
+    final var result = chunk;
+    final var failure = error;
+    this.sync.execute(() -> ChunkLoadQueue.complete(futures, result, failure));
+    this.start(started);
+  }
+
+  /**
+   * withdraws the cancelled future from the request and drops the request if nobody waits for it.
+   *
+   * @param request the request to withdraw.
+   * @param future the future to withdraw.
+   */
+  private synchronized void withdraw(@NotNull final Request<C> request,
+                                     @NotNull final CompletableFuture<C> future) {
+    request.futures.remove(future);
+    if (request.futures.isEmpty() && !request.started) {
+      this.queue.remove(request);
+      this.pending.remove(request.key);
+    }
+  }
+
+  /**
+   * a class that represents coalesced chunk load requests.
+   *
+   * @param <C> type of the chunk.
+   */
+  private static final class Request<C> {
+
+    /**
+     * the futures which wait for the chunk.
+     */
+    @NotNull
+    private final List<CompletableFuture<C>> futures = new ObjectArrayList<>();
+
+    /**
+     * the key.
+     */
+    private final long key;
+
+    /**
+     * the sequence, keeps requests with the same priority in request order.
+     */
+    private final long sequence;
+
+    /**
+     * the priority.
+     */
+    private int priority;
+
+    /**
+     * whether the load is started.
+     */
+    private boolean started;
+
+    /**
+     * ctor.
+     *
+     * @param key the key.
+     * @param priority the priority.
+     * @param sequence the sequence.
+     */
+    private Request(final long key, final int priority, final long sequence) {
+      this.key = key;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package io.github.shiruka.api.world;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents thread-safe maps of chunks which are keyed by their packed coordinates.
+ * <p>
+ * the map is split into stripes, each stripe publishes an immutable {@link Long2ObjectOpenHashMap} through a volatile
+ * field. reads never lock and never box a coordinate, writes copy the stripe they touch under the stripe's lock, which
+ * suits chunk maps where lookups vastly outnumber loads and unloads. every thread also caches the chunk it looked up
+ * last in a reused holder, together with the stripe snapshot it was found in, so consecutive block accesses in the
+ * same chunk compare references instead of probing the stripe map and never allocate. a write only invalidates the
+ * caches of its own stripe, since it replaces the snapshot of that stripe alone.
+ *
+ * @param <C> type of the chunks.
+ */
+public final class ChunkMap<C extends Chunk> {
+
+  /**
+   * the mask to get stripe index of a key.
+   */
+  private static final int STRIPE_MASK = 15;
+
+  /**
+   * the last looked up chunk of each thread.
+   */
+  @NotNull
+  private final ThreadLocal<LastChunk<C>> lastChunk = ThreadLocal.withInitial(LastChunk::new);
+
+  /**
+   * the stripes.
+   */
+  @NotNull
+  private final Stripe<C> @NotNull [] stripes;
+
+  /**
+   * ctor.
+   */
+  @SuppressWarnings("unchecked")
+  public ChunkMap() {
+    this.stripes = (Stripe<C>[]) new Stripe<?>[ChunkMap.STRIPE_MASK + 1];
+    for (var index = 0; index < this.stripes.length; index++) {
+      this.stripes[index] = new Stripe<>();
+    }
+  }
+
+  /**
+   * packs the chunk coordinates into a key.
+   *
+   * @param x the x to pack.
+   * @param z the z to pack.
+   *
+   * @return packed key.
+   */
+  public static long key(final int x, final int z) {
+    return (long) x << 32 | z & 0xFFFFFFFFL;
+  }
+
+  /**
+   * obtains the x coordinate of the key.
+   *
+   * @param key the key to obtain.
+   *
+   * @return x coordinate.
+   */
+  public static int x(final long key) {
+    return (int) (key >> 32);
+  }
+
+  /**
+   * obtains the z coordinate of the key.
+   *
+   * @param key the key to obtain.
+   *
+   * @return z coordinate.
+   */
+  public static int z(final long key) {
+    return (int) key;
+  }
+
+  /**
+   * gets the chunk at the key or puts the chunk that the function creates.
+   * <p>
+   * the function is called under the stripe's lock, so it is called at most once per key and should be fast.
+   *
+   * @param key the key to get.
+   * @param function the function to create.
+   *
+   * @return the existing or the created chunk.
+   */
+  @NotNull
+  public C computeIfAbsent(final long key, @NotNull final LongFunction<? extends C> function) {
+    final var current = this.get(key);
+    if (current != null) {
+      return current;
+    }
+    final var stripe = this.stripe(key);
+    synchronized (stripe) {
+      final var existing = stripe.map.get(key);
+      if (existing != null) {
+        return existing;
+      }
+      final C chunk = function.apply(key);
+      final var copy = new Long2ObjectOpenHashMap<>(stripe.map);
+      copy.put(key, chunk);
+      stripe.map = copy;
+      return chunk;
+    }
+  }
+
+  /**
+   * runs the consumer for each chunk.
+   * <p>
+   * each stripe is iterated over a snapshot, so chunks that are added or removed during the iteration may or may not
+   * be visited.
+   *
+   * @param consumer the consumer to run.
+   */
+  public void forEach(@NotNull final Consumer<? super C> consumer) {
+    for (final var stripe : this.stripes) {
+      for (final var entry : Long2ObjectMaps.fastIterable(stripe.map)) {
+        consumer.accept(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * gets the chunk at the key.
+   *
+   * @param key the key to get.
+   *
+   * @return chunk at the key.
+   */
+  @Nullable
+  public C get(final long key) {
+    final var map = this.stripe(key).map;
+    final var last = this.lastChunk.get();
+    if (last.map == map && last.key == key) {
+      return last.chunk;
+    }
+    final var chunk = map.get(key);
+    if (chunk != null) {
+      last.chunk = chunk;
+      last.key = key;
+      last.map = map;
+    }
+    return chunk;
+  }
+
+  /**
+   * gets the chunk at the position.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return chunk at the position.
+   */
+  @Nullable
+  public C get(final int x, final int z) {
+    return this.get(ChunkMap.key(x, z));
+  }
+
+  /**
+   * puts the chunk at the key.
+   *
+   * @param key the key to put.
+   * @param chunk the chunk to put.
+   *
+   * @return previous chunk at the key.
+   */
+  @Nullable
+  public C put(final long key, @NotNull final C chunk) {
+    final var stripe = this.stripe(key);
+    synchronized (stripe) {
+      final var copy = new Long2ObjectOpenHashMap<>(stripe.map);
+      final var previous = copy.put(key, chunk);
+      stripe.map = copy;
+      return previous;
+    }
+  }
+
+  /**
+   * removes the chunk at the key.
+   *
+   * @param key the key to remove.
+   *
+   * @return removed chunk.
+   */
+  @Nullable
+  public C remove(final long key) {
+    final var stripe = this.stripe(key);
+    synchronized (stripe) {
+      if (!stripe.map.containsKey(key)) {
+        return null;
+      }
+      final var copy = new Long2ObjectOpenHashMap<>(stripe.map);
+      final var removed = copy.remove(key);
+      stripe.map = copy;
+      return removed;
+    }
+  }
+
+  /**
+   * obtains the chunk count.
+   *
+   * @return chunk count.
+   */
+  public int size() {
+    var size = 0;
+    for (final var stripe : this.stripes) {
+      size += stripe.map.size();
+    }
+    return size;
+  }
+
+  /**
+   * obtains the stripe of the key.
+   *
+   * @param key the key to obtain.
+   *
+   * @return stripe of the key.
+   */
+  @NotNull
+  private Stripe<C> stripe(final long key) {
+    return this.stripes[(int) HashCommon.mix(key) & ChunkMap.STRIPE_MASK];
+  }
+
+  /**
+   * a class that represents the last looked up chunk of a thread.
+   *
+   * @param <C> type of the chunk.
+   */
+  private static final class LastChunk<C> {
+
+    /**
+     * the chunk.
+     */
+    @Nullable
+    private C chunk;
+
+    /**
+     * the key.
+     */
+    private long key;
+
+    /**
+     * the stripe snapshot that the chunk is found in, the chunk is valid as long as the stripe publishes it.
+     */
+    @Nullable
+    private Long2ObjectOpenHashMap<C> map;
+  }
+
+  /**
+   * a class that represents stripes of the map.
+   *
+   * @param <C> type of the chunks.
+   */
+  private static final class Stripe<C> {
+
+    /**
+     * the current immutable snapshot of the stripe.
+     */
+    @NotNull
+    private volatile Long2ObjectOpenHashMap<C> map = new Long2ObjectOpenHashMap<>();
+  }
+}
@@ -0,0 +1,350 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.nbt.CompoundTag;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents pipelines which save dirty chunks asynchronously.
+ * <p>
+ * a save takes a {@link Chunk#snapshot()} of the chunk on the calling thread, which is usually the main thread, then
+ * serializes the snapshot on the worker executor and writes it on the writer executor. the writer writes up to the
+ * batch size of chunks and flushes the storage once per batch. a chunk that is saved again before its previous save
+ * is written is only written once, with its latest snapshot.
+ * <p>
+ * the autosave mode saves the chunks that are dirty at the start of an interval spread evenly across the ticks of the
+ * interval, so an autosave never stops the world for a full save.
+ *
+ * @param <C> type of the chunks.
+ */
+public final class ChunkSavePipeline<C extends Chunk> {
+
+  /**
+   * the keys of the chunks to save by the autosave.
+   */
+  @NotNull
+  private final LongArrayFIFOQueue autosaveQueue = new LongArrayFIFOQueue();
+
+  /**
+   * the max count of chunks to write before flushing.
+   */
+  private final int batchSize;
+
+  /**
+   * the keys of the chunks whose latest snapshot is serialized, in serialization order.
+   */
+  @NotNull
+  private final LongLinkedOpenHashSet ready = new LongLinkedOpenHashSet();
+
+  /**
+   * the pending saves by their keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<Save<C>> saves = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the storage.
+   */
+  @NotNull
+  private final ChunkStorage storage;
+
+  /**
+   * the worker executor.
+   */
+  @NotNull
+  private final Executor workers;
+
+  /**
+   * the writer executor.
+   */
+  @NotNull
+  private final Executor writer;
+
+  /**
+   * the saves that the writer removed from {@link #saves} and has not written and flushed yet.
+   */
+  @NotNull
+  private final List<Save<C>> writing = new ObjectArrayList<>();
+
+  /**
+   * the ticks between autosaves, {@code 0} if the autosave is disabled.
+   */
+  private int autosaveInterval;
+
+  /**
+   * the count of chunks to save per tick in the current autosave.
+   */
+  private int autosavePerTick;
+
+  /**
+   * the ticks since the last autosave started.
+   */
+  private int autosaveTicks;
+
+  /**
+   * whether a drain is running on the writer executor.
+   */
+  private boolean draining;
+
+  /**
+   * the sequence of the next save.
+   */
+  private long sequence;
+
+  /**
+   * ctor.
+   *
+   * @param storage the storage.
+   * @param workers the workers.
+   * @param writer the writer.
+   * @param batchSize the batch size.
+   */
+  public ChunkSavePipeline(@NotNull final ChunkStorage storage, @NotNull final Executor workers,
+                           @NotNull final Executor writer, final int batchSize) {
+    Preconditions.checkArgument(batchSize > 0, "Batch size must be positive!");
+    this.storage = storage;
+    this.workers = workers;
+    this.writer = writer;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * completes the futures.
+   *
+   * @param futures the futures to complete.
+   * @param error the error to complete.
+   */
+  private static void complete(@NotNull final List<CompletableFuture<Void>> futures, @Nullable final Throwable error) {
+    for (final var future : futures) {
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        future.complete(null);
+      }
+    }
+  }
+
+  /**
+   * sets the autosave interval.
+   *
+   * @param interval the interval to set in ticks, {@code 0} to disable the autosave.
+   */
+  public void autosave(final int interval) {
+    Preconditions.checkArgument(interval >= 0, "Autosave interval cannot be negative!");
+    this.autosaveInterval = interval;
+    this.autosaveTicks = 0;
+    this.autosaveQueue.clear();
+  }
+
+  /**
+   * obtains the count of saves which are not written and flushed yet.
+   *
+   * @return pending save count.
+   */
+  public synchronized int pending() {
+    return this.saves.size() + this.writing.size();
+  }
+
+  /**
+   * saves the chunk if it is dirty, must be called on the thread that modifies the chunk.
+   *
+   * @param chunk the chunk to save.
+   *
+   * @return a future that completes when the chunk is written and flushed.
+   */
+  @NotNull
+  public CompletableFuture<Void> save(@NotNull final C chunk) {
+    if (!chunk.dirty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final var snapshot = chunk.snapshot();
+    chunk.dirty(false);
+    final var key = ChunkMap.key(chunk.x(), chunk.z());
+    final var future = new CompletableFuture<Void>();
+    final long sequence;
+    synchronized (this) {
+      sequence = this.sequence++;
+      final var save = this.saves.computeIfAbsent(key, k -> new Save<>(chunk));
+      save.sequence = sequence;
+      save.futures.add(future);
+      this.ready.remove(key);
+    }
+    CompletableFuture.supplyAsync(snapshot, this.workers)
+      .whenComplete((tag, throwable) -> this.serialized(key, sequence, tag, throwable));
+    return future;
+  }
+
+  /**
+   * saves all dirty chunks of the map, must be called on the thread that modifies the chunks.
+   * <p>
+   * the chunks that are saved before and not written yet are not dirty anymore, so the returned future waits for their
+   * pending saves as well.
+   *
+   * @param chunks the chunks to save.
+   *
+   * @return a future that completes when all chunks and all pending saves are written and flushed.
+   */
+  @NotNull
+  public CompletableFuture<Void> saveAll(@NotNull final ChunkMap<C> chunks) {
+    final var futures = new ObjectArrayList<CompletableFuture<Void>>();
+    synchronized (this) {
+      for (final var save : this.saves.values()) {
+        futures.addAll(save.futures);
+      }
+      for (final var save : this.writing) {
+        futures.addAll(save.futures);
+      }
+    }
+    chunks.forEach(chunk -> {
+      if (chunk.dirty()) {
+        futures.add(this.save(chunk));
+      }
+    });
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * advances the autosave by one tick, must be called on the thread that modifies the chunks.
+   *
+   * @param chunks the chunks to autosave.
+   */
+  public void tick(@NotNull final ChunkMap<C> chunks) {
+    if (this.autosaveInterval == 0) {
+      return;
+    }
+    if (++this.autosaveTicks >= this.autosaveInterval) {
+      this.autosaveTicks = 0;
+      this.autosaveQueue.clear();
+      chunks.forEach(chunk -> {
+        if (chunk.dirty()) {
+          this.autosaveQueue.enqueue(ChunkMap.key(chunk.x(), chunk.z()));
+        }
+      });
+      this.autosavePerTick = (this.autosaveQueue.size() + this.autosaveInterval - 1) / this.autosaveInterval;
+    }
+    for (var count = 0; count < this.autosavePerTick && !this.autosaveQueue.isEmpty(); count++) {
+      final var chunk = chunks.get(this.autosaveQueue.dequeueLong());
+      if (chunk != null) {
+        this.save(chunk);
+      }
+    }
+  }
+
+  /**
+   * writes the ready chunks batch by batch until nothing is ready.
+   */
+  private void drain() {
+    while (true) {
+      final var batch = new ObjectArrayList<Save<C>>(this.batchSize);
+      synchronized (this) {
+        while (batch.size() < this.batchSize && !this.ready.isEmpty()) {
+          batch.add(this.saves.remove(this.ready.removeFirstLong()));
+        }
+        if (batch.isEmpty()) {
+          this.draining = false;
+          return;
+        }
+        this.writing.addAll(batch);
+      }
+      final var futures = new ObjectArrayList<CompletableFuture<Void>>();
+      Throwable error = null;
+      try {
+        for (final var save : batch) {
+          futures.addAll(save.futures);
+          assert save.tag != null;
+          this.storage.write(ChunkMap.key(save.chunk.x(), save.chunk.z()), save.tag);
+        }
+        this.storage.flush();
+      } catch (final Throwable throwable) {
+        error = throwable;
+        for (final var save : batch) {
+          save.chunk.dirty(true);
+        }
+      }
+      synchronized (this) {
+        this.writing.clear();
+      }
+      ChunkSavePipeline.complete(futures, error);
+    }
+  }
+
+  /**
+   * queues the serialized snapshot to write if it is the latest snapshot of the chunk.
+   *
+   * @param key the key of the chunk.
+   * @param sequence the sequence of the save.
+   * @param tag the serialized snapshot.
+   * @param error the error of the serialization.
+   */
+  private void serialized(final long key, final long sequence, @Nullable final CompoundTag tag,
+                          @Nullable final Throwable error) {
+    final List<CompletableFuture<Void>> failed;
+    synchronized (this) {
+      final var save = this.saves.get(key);
+      if (save == null || sequence != save.sequence) {
+        return;
+      }
+      if (error == null) {
+        save.tag = tag;
+        this.ready.add(key);
+        if (!this.draining) {
+          this.draining = true;
+          this.writer.execute(this::drain);
+        }
+        return;
+      }
+      this.saves.remove(key);
+      save.chunk.dirty(true);
+      failed = save.futures;
+    }
+    ChunkSavePipeline.complete(failed, error);
+  }
+
+  /**
+   * a class that represents pending saves of chunks.
+   *
+   * @param <C> type of the chunk.
+   */
+  private static final class Save<C extends Chunk> {
+
+    /**
+     * the chunk.
+     */
+    @NotNull
+    private final C chunk;
+
+    /**
+     * the futures that wait for the save.
+     */
+    @NotNull
+    private final List<CompletableFuture<Void>> futures = new ObjectArrayList<>();
+
+    /**
+     * the sequence of the latest snapshot.
+     */
+    private long sequence;
+
+    /**
+     * the serialized latest snapshot.
+     */
+    @Nullable
+    private CompoundTag tag;
+
+    /**
+     * ctor.
+     *
+     * @param chunk the chunk.
+     */
+    private Save(@NotNull final C chunk) {
+      this.chunk = chunk;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package io.github.shiruka.api.world;
+
+import io.github.shiruka.api.nbt.CompoundTag;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine storages that chunks are written into, such as region files.
+ * <p>
+ * the methods are called by a single thread at a time, {@link ChunkSavePipeline} writes a batch of chunks and then
+ * flushes once, so implementations should not force the data to disk on every write.
+ */
+public interface ChunkStorage {
+
+  /**
+   * forces the written chunks to the disk, for example with {@link java.nio.channels.FileChannel#force(boolean)}.
+   *
+   * @throws IOException if something went wrong when flushing.
+   */
+  void flush() throws IOException;
+
+  /**
+   * writes the chunk.
+   *
+   * @param key the key of the chunk to write.
+   * @param tag the serialized chunk to write.
+   *
+   * @throws IOException if something went wrong when writing.
+   * @see ChunkMap#key(int, int)
+   */
+  void write(long key, @NotNull CompoundTag tag) throws IOException;
+}
@@ -0,0 +1,55 @@
+package io.github.shiruka.api.world;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents tickets which keep chunks loaded.
+ * <p>
+ * a ticket with level {@code n} keeps its chunk and every chunk within {@code n} chunks loaded, each ring of
+ * neighbours gets one level less than the ring inside of it.
+ *
+ * @param type the type.
+ * @param x the chunk x.
+ * @param z the chunk z.
+ * @param level the level.
+ * @param expiry the tick that the ticket expires at, {@link Long#MAX_VALUE} if the ticket does not expire.
+ */
+public record ChunkTicket(
+  @NotNull Type type,
+  int x,
+  int z,
+  int level,
+  long expiry
+) {
+
+  /**
+   * checks if the ticket expires.
+   *
+   * @return {@code true} if the ticket expires.
+   */
+  public boolean expires() {
+    return this.expiry != Long.MAX_VALUE;
+  }
+
+  /**
+   * an enum class that contains types of chunk tickets.
+   */
+  public enum Type {
+    /**
+     * the tickets that keep chunks loaded regardless of players, such as spawn chunks.
+     */
+    FORCED,
+    /**
+     * the tickets that are added around players by the view distance.
+     */
+    PLAYER,
+    /**
+     * the tickets that are added by plugins.
+     */
+    PLUGIN,
+    /**
+     * the tickets that are removed automatically after their time to live, such as the chunks of a teleport target.
+     */
+    TEMPORARY
+  }
+}
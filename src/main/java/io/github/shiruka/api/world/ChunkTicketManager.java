@@ -0,0 +1,422 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongConsumer;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import java.util.Comparator;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents managers which decide the lifetime of loaded chunks by {@link ChunkTicket}s.
+ * <p>
+ * the level of a chunk is the highest level that a ticket propagates to it, a chunk is retained while its level is
+ * not negative. loaded chunks that are not retained are queued to unload in least recently used order, and at most
+ * the unload budget of them are unloaded per {@link #tick()} once they waited for the unload delay, so unloads never
+ * spike a tick and chunks that are used again are not unloaded to be loaded moments later.
+ * <p>
+ * the manager is not thread-safe, it should be used from the world thread.
+ */
+public final class ChunkTicketManager {
+
+  /**
+   * the max level of tickets.
+   */
+  public static final int MAX_LEVEL = 32;
+
+  /**
+   * the count of the levels that are propagated to chunks, indexed by level, by the chunk keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<int[]> contributions = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the temporary tickets by their expiry.
+   */
+  @NotNull
+  private final ObjectHeapPriorityQueue<ChunkTicket> expiring =
+    new ObjectHeapPriorityQueue<>(Comparator.comparingLong(ChunkTicket::expiry));
+
+  /**
+   * the loaded chunk keys.
+   */
+  @NotNull
+  private final LongOpenHashSet loaded = new LongOpenHashSet();
+
+  /**
+   * the levels that the chunks that have tickets propagate.
+   */
+  @NotNull
+  private final Long2IntOpenHashMap sources = new Long2IntOpenHashMap();
+
+  /**
+   * the tickets by the chunk keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<ObjectArrayList<ChunkTicket>> tickets = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the chunk keys to unload and the ticks that they are queued at, least recently used first.
+   */
+  @NotNull
+  private final Long2LongLinkedOpenHashMap unloadQueue = new Long2LongLinkedOpenHashMap();
+
+  /**
+   * the max count of chunks to unload per tick.
+   */
+  private final int unloadBudget;
+
+  /**
+   * the min ticks that chunks wait in the unload queue.
+   */
+  private final int unloadDelay;
+
+  /**
+   * the unloader which unloads the chunks by their keys.
+   */
+  @NotNull
+  private final LongConsumer unloader;
+
+  /**
+   * the current tick.
+   */
+  private long currentTick;
+
+  /**
+   * ctor.
+   *
+   * @param unloader the unloader.
+   * @param unloadBudget the unload budget.
+   * @param unloadDelay the unload delay.
+   */
+  public ChunkTicketManager(@NotNull final LongConsumer unloader, final int unloadBudget, final int unloadDelay) {
+    Preconditions.checkArgument(unloadBudget > 0, "Unload budget must be positive!");
+    Preconditions.checkArgument(unloadDelay >= 0, "Unload delay cannot be negative!");
+    this.unloader = unloader;
+    this.unloadBudget = unloadBudget;
+    this.unloadDelay = unloadDelay;
+    this.sources.defaultReturnValue(-1);
+  }
+
+  /**
+   * checks if the counts are all zero.
+   *
+   * @param counts the counts to check.
+   *
+   * @return {@code true} if the counts are all zero.
+   */
+  private static boolean isEmpty(final int @NotNull [] counts) {
+    for (final var count : counts) {
+      if (count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * adds a ticket that does not expire.
+   *
+   * @param x the chunk x to add.
+   * @param z the chunk z to add.
+   * @param type the type to add.
+   * @param level the level to add, in [0, {@link #MAX_LEVEL}].
+   *
+   * @return added ticket.
+   */
+  @NotNull
+  public ChunkTicket addTicket(final int x, final int z, @NotNull final ChunkTicket.Type type, final int level) {
+    Preconditions.checkArgument(type != ChunkTicket.Type.TEMPORARY, "Temporary tickets need a time to live!");
+    return this.addTicket(new ChunkTicket(type, x, z, level, Long.MAX_VALUE));
+  }
+
+  /**
+   * adds a {@link ChunkTicket.Type#TEMPORARY} ticket that is removed after the time to live.
+   *
+   * @param x the chunk x to add.
+   * @param z the chunk z to add.
+   * @param level the level to add, in [0, {@link #MAX_LEVEL}].
+   * @param ttl the time to live in ticks.
+   *
+   * @return added ticket.
+   */
+  @NotNull
+  public ChunkTicket addTemporaryTicket(final int x, final int z, final int level, final int ttl) {
+    Preconditions.checkArgument(ttl > 0, "Time to live must be positive!");
+    final var ticket = new ChunkTicket(ChunkTicket.Type.TEMPORARY, x, z, level, this.currentTick + ttl);
+    this.expiring.enqueue(ticket);
+    return this.addTicket(ticket);
+  }
+
+  /**
+   * obtains the current tick.
+   *
+   * @return current tick.
+   */
+  public long currentTick() {
+    return this.currentTick;
+  }
+
+  /**
+   * gets the level of the chunk.
+   *
+   * @param x the chunk x to get.
+   * @param z the chunk z to get.
+   *
+   * @return level of the chunk, {@code -1} if the chunk is not retained.
+   */
+  public int level(final int x, final int z) {
+    final var counts = this.contributions.get(ChunkMap.key(x, z));
+    if (counts == null) {
+      return -1;
+    }
+    for (var level = ChunkTicketManager.MAX_LEVEL; level > 0; level--) {
+      if (counts[level] != 0) {
+        return level;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * marks the chunk as loaded, the chunk is queued to unload if no ticket retains it.
+   *
+   * @param x the chunk x to mark.
+   * @param z the chunk z to mark.
+   */
+  public void loaded(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    if (this.loaded.add(key) && !this.contributions.containsKey(key)) {
+      this.unloadQueue.putAndMoveToLast(key, this.currentTick);
+    }
+  }
+
+  /**
+   * obtains the count of chunks that are queued to unload.
+   *
+   * @return pending unload count.
+   */
+  public int pendingUnloads() {
+    return this.unloadQueue.size();
+  }
+
+  /**
+   * removes the ticket.
+   *
+   * @param ticket the ticket to remove.
+   *
+   * @return {@code true} if the ticket was added and removed.
+   */
+  public boolean removeTicket(@NotNull final ChunkTicket ticket) {
+    final var key = ChunkMap.key(ticket.x(), ticket.z());
+    final var list = this.tickets.get(key);
+    if (list == null || !list.remove(ticket)) {
+      return false;
+    }
+    if (list.isEmpty()) {
+      this.tickets.remove(key);
+    }
+    this.updateSource(key, list);
+    return true;
+  }
+
+  /**
+   * removes all tickets of the type from the chunk.
+   *
+   * @param x the chunk x to remove.
+   * @param z the chunk z to remove.
+   * @param type the type to remove.
+   *
+   * @return removed ticket count.
+   */
+  public int removeTickets(final int x, final int z, @NotNull final ChunkTicket.Type type) {
+    final var key = ChunkMap.key(x, z);
+    final var list = this.tickets.get(key);
+    if (list == null) {
+      return 0;
+    }
+    final var size = list.size();
+    list.removeIf(ticket -> ticket.type() == type);
+    final var removed = size - list.size();
+    if (removed == 0) {
+      return 0;
+    }
+    if (list.isEmpty()) {
+      this.tickets.remove(key);
+    }
+    this.updateSource(key, list);
+    return removed;
+  }
+
+  /**
+   * requests to unload the chunk.
+   * <p>
+   * the chunk is queued to unload only if no ticket retains it, so plugins cannot unload chunks that are still in use.
+   *
+   * @param x the chunk x to request.
+   * @param z the chunk z to request.
+   *
+   * @return {@code true} if the chunk is queued to unload.
+   */
+  public boolean requestUnload(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    if (!this.loaded.contains(key) || this.contributions.containsKey(key)) {
+      return false;
+    }
+    if (!this.unloadQueue.containsKey(key)) {
+      this.unloadQueue.put(key, this.currentTick);
+    }
+    return true;
+  }
+
+  /**
+   * checks if the chunk is retained by a ticket.
+   *
+   * @param x the chunk x to check.
+   * @param z the chunk z to check.
+   *
+   * @return {@code true} if the chunk is retained.
+   */
+  public boolean retained(final int x, final int z) {
+    return this.contributions.containsKey(ChunkMap.key(x, z));
+  }
+
+  /**
+   * advances the manager by one tick, removes the expired tickets and unloads the least recently used chunks within
+   * the unload budget.
+   */
+  public void tick() {
+    this.currentTick++;
+    while (!this.expiring.isEmpty() && this.expiring.first().expiry() <= this.currentTick) {
+      this.removeTicket(this.expiring.dequeue());
+    }
+    for (var budget = this.unloadBudget; budget > 0 && !this.unloadQueue.isEmpty(); budget--) {
+      final var key = this.unloadQueue.firstLongKey();
+      if (this.currentTick - this.unloadQueue.get(key) < this.unloadDelay) {
+        break;
+      }
+      this.unloadQueue.removeFirstLong();
+      this.loaded.remove(key);
+      this.unloader.accept(key);
+    }
+  }
+
+  /**
+   * obtains the tickets of the chunk.
+   *
+   * @param x the chunk x to obtain.
+   * @param z the chunk z to obtain.
+   *
+   * @return tickets of the chunk.
+   */
+  @NotNull
+  public List<ChunkTicket> tickets(final int x, final int z) {
+    final var list = this.tickets.get(ChunkMap.key(x, z));
+    return list == null ? List.of() : List.copyOf(list);
+  }
+
+  /**
+   * marks the chunk as used, which moves the chunk to the end of the unload queue if it is queued.
+   *
+   * @param x the chunk x to mark.
+   * @param z the chunk z to mark.
+   */
+  public void touch(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    if (this.unloadQueue.containsKey(key)) {
+      this.unloadQueue.putAndMoveToLast(key, this.currentTick);
+    }
+  }
+
+  /**
+   * marks the chunk as unloaded by the world, without calling the unloader.
+   *
+   * @param x the chunk x to mark.
+   * @param z the chunk z to mark.
+   */
+  public void unloaded(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    this.loaded.remove(key);
+    this.unloadQueue.remove(key);
+  }
+
+  /**
+   * adds the ticket.
+   *
+   * @param ticket the ticket to add.
+   *
+   * @return added ticket.
+   */
+  @NotNull
+  private ChunkTicket addTicket(@NotNull final ChunkTicket ticket) {
+    Preconditions.checkArgument(ticket.level() >= 0 && ticket.level() <= ChunkTicketManager.MAX_LEVEL,
+      "Level must be in [0, %s] but got %s", ChunkTicketManager.MAX_LEVEL, ticket.level());
+    final var key = ChunkMap.key(ticket.x(), ticket.z());
+    final var list = this.tickets.computeIfAbsent(key, k -> new ObjectArrayList<>(1));
+    list.add(ticket);
+    this.updateSource(key, list);
+    return ticket;
+  }
+
+  /**
+   * adds or removes the level of a source to the chunks within the level.
+   *
+   * @param key the key of the source.
+   * @param level the level of the source.
+   * @param delta the delta, {@code 1} to add and {@code -1} to remove.
+   */
+  private void propagate(final long key, final int level, final int delta) {
+    final var sourceX = ChunkMap.x(key);
+    final var sourceZ = ChunkMap.z(key);
+    for (var dz = -level; dz <= level; dz++) {
+      for (var dx = -level; dx <= level; dx++) {
+        final var target = ChunkMap.key(sourceX + dx, sourceZ + dz);
+        final var propagated = level - Math.max(Math.abs(dx), Math.abs(dz));
+        var counts = this.contributions.get(target);
+        if (counts == null) {
+          counts = new int[ChunkTicketManager.MAX_LEVEL + 1];
+          this.contributions.put(target, counts);
+          this.unloadQueue.remove(target);
+        }
+        counts[propagated] += delta;
+        if (delta < 0 && counts[propagated] == 0 && ChunkTicketManager.isEmpty(counts)) {
+          this.contributions.remove(target);
+          if (this.loaded.contains(target)) {
+            this.unloadQueue.putAndMoveToLast(target, this.currentTick);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * updates the level that the chunk propagates after its tickets changed.
+   *
+   * @param key the key of the chunk.
+   * @param list the tickets of the chunk.
+   */
+  private void updateSource(final long key, @NotNull final List<ChunkTicket> list) {
+    var level = -1;
+    for (final var ticket : list) {
+      level = Math.max(level, ticket.level());
+    }
+    final var previous = this.sources.get(key);
+    if (level == previous) {
+      return;
+    }
+    if (level >= 0) {
+      this.sources.put(key, level);
+      this.propagate(key, level, 1);
+    } else {
+      this.sources.remove(key);
+    }
+    if (previous >= 0) {
+      this.propagate(key, previous, -1);
+    }
+  }
+}
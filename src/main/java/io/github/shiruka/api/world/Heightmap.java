@@ -0,0 +1,228 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.array.LongArrayTag;
+import io.github.shiruka.api.world.palette.BitStorage;
+import java.util.function.IntPredicate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents heightmaps of chunks, which store the height of the highest matching block of each column.
+ * <p>
+ * the heights are packed into a {@link BitStorage} and kept up to date by {@link #update(int, int, int, int, Chunk)}
+ * on every block change, a change only scans the column if it removes the highest matching block. the heightmap is
+ * not thread-safe.
+ */
+public final class Heightmap {
+
+  /**
+   * the column count of a chunk.
+   */
+  private static final int SIZE = 16 * 16;
+
+  /**
+   * the height of the world.
+   */
+  private final int height;
+
+  /**
+   * the min y of the world.
+   */
+  private final int minY;
+
+  /**
+   * the predicate which tests if a global id counts as a block for the heightmap.
+   */
+  @NotNull
+  private final IntPredicate predicate;
+
+  /**
+   * the heights relative to {@link #minY}.
+   */
+  @NotNull
+  private final BitStorage storage;
+
+  /**
+   * the type.
+   */
+  @NotNull
+  private final Type type;
+
+  /**
+   * ctor.
+   *
+   * @param type the type.
+   * @param predicate the predicate.
+   * @param minY the min y.
+   * @param height the height.
+   */
+  public Heightmap(@NotNull final Type type, @NotNull final IntPredicate predicate, final int minY,
+                   final int height) {
+    Preconditions.checkArgument(height > 0, "Height must be positive!");
+    this.type = type;
+    this.predicate = predicate;
+    this.minY = minY;
+    this.height = height;
+    this.storage = new BitStorage(Integer.SIZE - Integer.numberOfLeadingZeros(height), Heightmap.SIZE);
+  }
+
+  /**
+   * obtains the index of the column.
+   *
+   * @param x the x in the chunk.
+   * @param z the z in the chunk.
+   *
+   * @return index of the column.
+   */
+  private static int index(final int x, final int z) {
+    return z << 4 | x;
+  }
+
+  /**
+   * gets the height of the column, which is the y above its highest matching block.
+   *
+   * @param x the x in the chunk, in [0, 16).
+   * @param z the z in the chunk, in [0, 16).
+   *
+   * @return height of the column, the min y of the world if the column has no matching block.
+   */
+  public int get(final int x, final int z) {
+    return this.minY + this.storage.get(Heightmap.index(x, z));
+  }
+
+  /**
+   * loads the heights from the given tag.
+   *
+   * @param tag the tag to load.
+   *
+   * @throws IllegalArgumentException if the length of the tag does not match.
+   * @see #serialize()
+   */
+  public void load(@NotNull final LongArrayTag tag) {
+    final var data = tag.primitiveValue();
+    final var target = this.storage.data();
+    Preconditions.checkArgument(data.length == target.length,
+      "Invalid heightmap length, expected %s but got %s", target.length, data.length);
+    System.arraycopy(data, 0, target, 0, data.length);
+  }
+
+  /**
+   * recomputes all columns from the blocks of the chunk.
+   *
+   * @param chunk the chunk to recompute.
+   */
+  public void recompute(@NotNull final Chunk chunk) {
+    for (var z = 0; z < 16; z++) {
+      for (var x = 0; x < 16; x++) {
+        this.set(x, z, this.scan(chunk, x, this.minY + this.height - 1, z));
+      }
+    }
+  }
+
+  /**
+   * creates a tag that contains the packed heights.
+   *
+   * @return a new long array tag.
+   *
+   * @see #load(LongArrayTag)
+   */
+  @NotNull
+  public LongArrayTag serialize() {
+    return Tag.createLongArray(this.storage.data());
+  }
+
+  /**
+   * obtains the type.
+   *
+   * @return type.
+   */
+  @NotNull
+  public Type type() {
+    return this.type;
+  }
+
+  /**
+   * updates the column after the block at the position changed.
+   *
+   * @param x the x in the chunk, in [0, 16).
+   * @param y the world y.
+   * @param z the z in the chunk, in [0, 16).
+   * @param id the new global id of the block.
+   * @param chunk the chunk to scan the column if the highest matching block is removed.
+   *
+   * @return {@code true} if the height of the column changed.
+   */
+  public boolean update(final int x, final int y, final int z, final int id, @NotNull final Chunk chunk) {
+    final var current = this.get(x, z);
+    if (this.predicate.test(id)) {
+      if (y < current) {
+        return false;
+      }
+      this.set(x, z, y + 1);
+      return true;
+    }
+    if (y != current - 1) {
+      return false;
+    }
+    this.set(x, z, this.scan(chunk, x, y - 1, z));
+    return true;
+  }
+
+  /**
+   * scans the column downwards for the highest matching block, skipping uniform sections that do not match.
+   *
+   * @param chunk the chunk to scan.
+   * @param x the x in the chunk.
+   * @param fromY the world y to start.
+   * @param z the z in the chunk.
+   *
+   * @return the height of the column.
+   */
+  private int scan(@NotNull final Chunk chunk, final int x, final int fromY, final int z) {
+    var y = fromY;
+    while (y >= this.minY) {
+      final var blocks = chunk.section(y >> 4).blocks();
+      if (blocks.isUniform() && !this.predicate.test(blocks.get(0))) {
+        y = (y >> 4 << 4) - 1;
+        continue;
+      }
+      final var bottom = Math.max(this.minY, y >> 4 << 4);
+      for (; y >= bottom; y--) {
+        if (this.predicate.test(blocks.get(x, y & 15, z))) {
+          return y + 1;
+        }
+      }
+    }
+    return this.minY;
+  }
+
+  /**
+   * sets the height of the column.
+   *
+   * @param x the x in the chunk.
+   * @param z the z in the chunk.
+   * @param height the height to set.
+   */
+  private void set(final int x, final int z, final int height) {
+    this.storage.set(Heightmap.index(x, z), height - this.minY);
+  }
+
+  /**
+   * an enum class that contains types of heightmaps.
+   */
+  public enum Type {
+    /**
+     * the highest block that blocks motion or contains a fluid, used by weather and mob spawning.
+     */
+    MOTION_BLOCKING,
+    /**
+     * the highest solid block, ignoring fluids.
+     */
+    OCEAN_FLOOR,
+    /**
+     * the highest block that is not air, used to find spawn positions.
+     */
+    WORLD_SURFACE
+  }
+}
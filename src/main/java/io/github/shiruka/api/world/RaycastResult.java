@@ -0,0 +1,256 @@
+package io.github.shiruka.api.world;
+
+import io.github.shiruka.api.common.vectors.Vector3d;
+import io.github.shiruka.api.common.vectors.Vector3i;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents reusable results of {@link World#raycast(double, double, double, double, double, double,
+ * double, java.util.function.IntPredicate, RaycastResult)}.
+ * <p>
+ * a raycast overwrites all values of the result, so one instance can serve any number of raycasts on a thread.
+ */
+public final class RaycastResult {
+
+  /**
+   * the x of the hit block.
+   */
+  private int blockX;
+
+  /**
+   * the y of the hit block.
+   */
+  private int blockY;
+
+  /**
+   * the z of the hit block.
+   */
+  private int blockZ;
+
+  /**
+   * the distance from the origin to the hit, the travelled distance if nothing is hit.
+   */
+  private double distance;
+
+  /**
+   * the x of the normal of the hit face.
+   */
+  private int faceX;
+
+  /**
+   * the y of the normal of the hit face.
+   */
+  private int faceY;
+
+  /**
+   * the z of the normal of the hit face.
+   */
+  private int faceZ;
+
+  /**
+   * whether a block is hit.
+   */
+  private boolean hit;
+
+  /**
+   * the x of the hit point.
+   */
+  private double hitX;
+
+  /**
+   * the y of the hit point.
+   */
+  private double hitY;
+
+  /**
+   * the z of the hit point.
+   */
+  private double hitZ;
+
+  /**
+   * the global id of the hit block.
+   */
+  private int id;
+
+  /**
+   * obtains the x of the hit block.
+   *
+   * @return block x.
+   */
+  public int blockX() {
+    return this.blockX;
+  }
+
+  /**
+   * obtains the y of the hit block.
+   *
+   * @return block y.
+   */
+  public int blockY() {
+    return this.blockY;
+  }
+
+  /**
+   * obtains the z of the hit block.
+   *
+   * @return block z.
+   */
+  public int blockZ() {
+    return this.blockZ;
+  }
+
+  /**
+   * obtains the distance from the origin to the hit point.
+   *
+   * @return distance, the travelled distance if nothing is hit.
+   */
+  public double distance() {
+    return this.distance;
+  }
+
+  /**
+   * obtains the x of the normal of the hit face.
+   *
+   * @return face x, {@code 0} if the ray starts inside the hit block.
+   */
+  public int faceX() {
+    return this.faceX;
+  }
+
+  /**
+   * obtains the y of the normal of the hit face.
+   *
+   * @return face y, {@code 0} if the ray starts inside the hit block.
+   */
+  public int faceY() {
+    return this.faceY;
+  }
+
+  /**
+   * obtains the z of the normal of the hit face.
+   *
+   * @return face z, {@code 0} if the ray starts inside the hit block.
+   */
+  public int faceZ() {
+    return this.faceZ;
+  }
+
+  /**
+   * checks if a block is hit.
+   *
+   * @return {@code true} if a block is hit.
+   */
+  public boolean hit() {
+    return this.hit;
+  }
+
+  /**
+   * creates a vector of the hit point.
+   *
+   * @return a new vector of the hit point.
+   */
+  @NotNull
+  public Vector3d hitPosition() {
+    return Vector3d.of(this.hitX, this.hitY, this.hitZ);
+  }
+
+  /**
+   * obtains the x of the hit point.
+   *
+   * @return hit x.
+   */
+  public double hitX() {
+    return this.hitX;
+  }
+
+  /**
+   * obtains the y of the hit point.
+   *
+   * @return hit y.
+   */
+  public double hitY() {
+    return this.hitY;
+  }
+
+  /**
+   * obtains the z of the hit point.
+   *
+   * @return hit z.
+   */
+  public double hitZ() {
+    return this.hitZ;
+  }
+
+  /**
+   * obtains the global id of the hit block.
+   *
+   * @return id.
+   */
+  public int id() {
+    return this.id;
+  }
+
+  /**
+   * creates a vector of the hit block.
+   *
+   * @return a new vector of the hit block.
+   */
+  @NotNull
+  public Vector3i position() {
+    return Vector3i.of(this.blockX, this.blockY, this.blockZ);
+  }
+
+  /**
+   * sets the result to a hit.
+   *
+   * @param x the x of the block.
+   * @param y the y of the block.
+   * @param z the z of the block.
+   * @param id the id of the block.
+   * @param distance the distance to the hit.
+   * @param faceX the x of the face normal.
+   * @param faceY the y of the face normal.
+   * @param faceZ the z of the face normal.
+   * @param hitX the x of the hit point.
+   * @param hitY the y of the hit point.
+   * @param hitZ the z of the hit point.
+   */
+  void hit(final int x, final int y, final int z, final int id, final double distance, final int faceX,
+           final int faceY, final int faceZ, final double hitX, final double hitY, final double hitZ) {
+    this.hit = true;
+    this.blockX = x;
+    this.blockY = y;
+    this.blockZ = z;
+    this.id = id;
+    this.distance = distance;
+    this.faceX = faceX;
+    this.faceY = faceY;
+    this.faceZ = faceZ;
+    this.hitX = hitX;
+    this.hitY = hitY;
+    this.hitZ = hitZ;
+  }
+
+  /**
+   * sets the result to a miss.
+   *
+   * @param distance the travelled distance.
+   * @param x the x of the end point.
+   * @param y the y of the end point.
+   * @param z the z of the end point.
+   */
+  void miss(final double distance, final double x, final double y, final double z) {
+    this.hit = false;
+    this.blockX = 0;
+    this.blockY = 0;
+    this.blockZ = 0;
+    this.id = 0;
+    this.distance = distance;
+    this.faceX = 0;
+    this.faceY = 0;
+    this.faceZ = 0;
+    this.hitX = x;
+    this.hitY = y;
+    this.hitZ = z;
+  }
+}
@@ -2,13 +2,20 @@ package io.github.shiruka.api.world;
 
 import io.github.shiruka.api.base.Location;
 import io.github.shiruka.api.block.Block;
+import io.github.shiruka.api.common.collision.AABB;
+import io.github.shiruka.api.common.collision.MutableAABB;
+import io.github.shiruka.api.common.vectors.MutableVector3d;
 import io.github.shiruka.api.common.vectors.Vector3d;
 import io.github.shiruka.api.common.vectors.Vector3i;
+import io.github.shiruka.api.world.light.LightEngine;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntPredicate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * an interface to determine Minecraft worlds.
@@ -62,6 +69,23 @@ public interface World {
   @NotNull
   Optional<Chunk> chunkAt(int x, int z);
 
+  /**
+   * gets chunk at the position asynchronously, loads or generates it off the main thread if needed.
+   * <p>
+   * requests for the same chunk are coalesced, cancelling the returned future withdraws the request.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   * @param priority the priority to get, lower priorities are loaded first, such as the squared chunk distance to
+   *   the closest interested player.
+   *
+   * @return a future that completes on the sync scheduler.
+   *
+   * @see ChunkLoadQueue
+   */
+  @NotNull
+  CompletableFuture<Chunk> chunkAtAsync(int x, int z, int priority);
+
   /**
    * gets chunk at the position or generates it.
    *
@@ -73,6 +97,28 @@ public interface World {
   @NotNull
   Chunk chunkAtOrGenerate(int x, int z);
 
+  /**
+   * moves the box by the movement as far as the solid blocks let it.
+   * <p>
+   * the movement is clipped axis by axis like the client does, y first, then the larger one of x and z, so the
+   * result matches the position that the client calculates for the same movement. every block counts as a full
+   * cube, blocks in chunks that are not loaded are solid and blocks above or below the world are not. nothing is
+   * allocated, so it is suitable for validating each movement packet.
+   *
+   * @param box the box to move, moved by the allowed movement.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param solid the predicate to test the global ids of the blocks that the box cannot pass.
+   * @param movement the output to write the allowed movement.
+   *
+   * @return {@code true} if the movement is clipped on any axis.
+   */
+  default boolean collide(@NotNull final MutableAABB box, final double dx, final double dy, final double dz,
+                          @NotNull final IntPredicate solid, @NotNull final MutableVector3d movement) {
+    return WorldQueries.collide(this, box, dx, dy, dz, solid, movement);
+  }
+
   /**
    * obtains the difficulty.
    *
@@ -149,14 +195,153 @@ public interface World {
    * @param z the z to get.
    *
    * @return highest block at the position
+   *
+   * @see #highestBlockYAt(int, int)
    */
   @NotNull
   Block highestBlockAt(int x, int z);
 
   /**
-   * saves the world.
+   * gets the y of the highest non-air block at the position from the {@link Heightmap.Type#WORLD_SURFACE} heightmap,
+   * without scanning the column.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return y of the highest block at the position, the y below the lowest section if the column is empty.
+   */
+  default int highestBlockYAt(final int x, final int z) {
+    return this.chunkAtOrGenerate(x >> 4, z >> 4)
+      .heightmap(Heightmap.Type.WORLD_SURFACE)
+      .get(x & 15, z & 15) - 1;
+  }
+
+  /**
+   * obtains the light engine which keeps the block light and the sky light of the loaded chunks.
+   *
+   * @return light engine.
+   */
+  @NotNull
+  LightEngine light();
+
+  /**
+   * gets the chunk at the position if it is loaded, without loading, generating or allocating.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return chunk at the position, {@code null} if it is not loaded.
+   */
+  @Nullable
+  Chunk loadedChunkAt(int x, int z);
+
+  /**
+   * casts a ray through the blocks and stops at the first block whose global id matches the predicate.
+   *
+   * @param origin the origin to cast.
+   * @param direction the direction to cast, does not need to be normalized.
+   * @param maxDistance the max distance to cast.
+   * @param predicate the predicate to test the global ids of the blocks that the ray passes.
+   * @param result the result to write into, reusable.
+   *
+   * @return {@code true} if a block is hit.
+   *
+   * @see #raycast(double, double, double, double, double, double, double, IntPredicate, RaycastResult)
+   */
+  default boolean raycast(@NotNull final Vector3d origin, @NotNull final Vector3d direction, final double maxDistance,
+                          @NotNull final IntPredicate predicate, @NotNull final RaycastResult result) {
+    return this.raycast(origin.x(), origin.y(), origin.z(), direction.x(), direction.y(), direction.z(),
+      maxDistance, predicate, result);
+  }
+
+  /**
+   * casts a ray through the blocks and stops at the first block whose global id matches the predicate.
+   * <p>
+   * the ray visits every block that it passes in order with the amanatides and woo traversal, the chunk and the
+   * section of the previous step are reused and nothing is allocated. the ray stops without a hit when it reaches
+   * the max distance, enters a chunk that is not loaded or leaves the height of the world.
+   *
+   * @param originX the origin x to cast.
+   * @param originY the origin y to cast.
+   * @param originZ the origin z to cast.
+   * @param directionX the direction x to cast.
+   * @param directionY the direction y to cast.
+   * @param directionZ the direction z to cast.
+   * @param maxDistance the max distance to cast.
+   * @param predicate the predicate to test the global ids of the blocks that the ray passes.
+   * @param result the result to write into, reusable.
+   *
+   * @return {@code true} if a block is hit.
    */
-  void save();
+  default boolean raycast(final double originX, final double originY, final double originZ, final double directionX,
+                          final double directionY, final double directionZ, final double maxDistance,
+                          @NotNull final IntPredicate predicate, @NotNull final RaycastResult result) {
+    return WorldQueries.raycast(this, originX, originY, originZ, directionX, directionY, directionZ, maxDistance,
+      predicate, result);
+  }
+
+  /**
+   * reads the global ids of the blocks in the region into the array without creating block objects.
+   * <p>
+   * the array is ordered y first, then z, then x, so the id of a position is at
+   * {@code ((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX)}. chunks are not loaded for the read, the blocks of
+   * chunks that are not loaded and the blocks outside the height of the world are read as {@code -1}.
+   *
+   * @param minX the min x to read, inclusive.
+   * @param minY the min y to read, inclusive.
+   * @param minZ the min z to read, inclusive.
+   * @param maxX the max x to read, inclusive.
+   * @param maxY the max y to read, inclusive.
+   * @param maxZ the max z to read, inclusive.
+   * @param output the output to read into.
+   *
+   * @see BlockCursor
+   */
+  default void readBlocks(final int minX, final int minY, final int minZ, final int maxX, final int maxY,
+                          final int maxZ, final int @NotNull [] output) {
+    WorldQueries.copyBlocks(this, minX, minY, minZ, maxX, maxY, maxZ, output, false);
+  }
+
+  /**
+   * saves the world and waits until it is written.
+   *
+   * @see #saveAsync()
+   */
+  default void save() {
+    this.saveAsync().join();
+  }
+
+  /**
+   * saves the dirty chunks and the world data asynchronously, must be called on the world thread.
+   *
+   * @return a future that completes when everything is written and flushed.
+   *
+   * @see ChunkSavePipeline#saveAll(ChunkMap)
+   */
+  @NotNull
+  CompletableFuture<Void> saveAsync();
+
+  /**
+   * creates an immutable view of the blocks of the region, must be called on the world thread.
+   * <p>
+   * the snapshot shares the section storages with the world and a section is only copied when the world writes it
+   * next, so the snapshot is cheap to take and can be read from any thread. chunks that are not loaded are not
+   * loaded or generated.
+   *
+   * @param minX the min x to snapshot, inclusive.
+   * @param minY the min y to snapshot, inclusive.
+   * @param minZ the min z to snapshot, inclusive.
+   * @param maxX the max x to snapshot, inclusive.
+   * @param maxY the max y to snapshot, inclusive.
+   * @param maxZ the max z to snapshot, inclusive.
+   *
+   * @return a new snapshot of the region.
+   */
+  @NotNull
+  default WorldSnapshot snapshot(final int minX, final int minY, final int minZ, final int maxX, final int maxY,
+                                 final int maxZ) {
+    return new WorldSnapshot(this, minX, minY, minZ, maxX, maxY, maxZ);
+  }
 
   /**
    * obtains the spawn location.
@@ -173,6 +358,59 @@ public interface World {
    */
   void spawnLocation(@NotNull Location location);
 
+  /**
+   * calculates the time of impact of the box moving through the solid blocks.
+   *
+   * @param box the box to sweep.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param solid the predicate to test the global ids of the blocks that the box cannot pass.
+   *
+   * @return the fraction of the movement before the box touches a solid block, {@code 1} if it does not.
+   *
+   * @see #sweep(double, double, double, double, double, double, double, double, double, IntPredicate)
+   */
+  default double sweep(@NotNull final AABB box, final double dx, final double dy, final double dz,
+                       @NotNull final IntPredicate solid) {
+    return this.sweep(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ(), dx, dy, dz, solid);
+  }
+
+  /**
+   * calculates the time of impact of the box moving through the solid blocks.
+   * <p>
+   * unlike {@link #collide(MutableAABB, double, double, double, IntPredicate, MutableVector3d)} the movement is not
+   * split into axes, so it fits fast moving boxes such as projectiles. the cells that the box passes are tested the
+   * same way as {@link io.github.shiruka.api.common.collision.CellCursor} enumerates them, every block counts as a
+   * full cube, blocks in chunks that are not loaded are solid and blocks above or below the world are not.
+   *
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param solid the predicate to test the global ids of the blocks that the box cannot pass.
+   *
+   * @return the fraction of the movement before the box touches a solid block, {@code 1} if it does not.
+   */
+  default double sweep(final double minX, final double minY, final double minZ, final double maxX, final double maxY,
+                       final double maxZ, final double dx, final double dy, final double dz,
+                       @NotNull final IntPredicate solid) {
+    return WorldQueries.sweep(this, minX, minY, minZ, maxX, maxY, maxZ, dx, dy, dz, solid);
+  }
+
+  /**
+   * obtains the ticket manager which decides the lifetime of the loaded chunks.
+   *
+   * @return ticket manager.
+   */
+  @NotNull
+  ChunkTicketManager tickets();
+
   /**
    * obtains the time.
    *
@@ -189,10 +427,38 @@ public interface World {
   void time(@NotNull Duration duration);
 
   /**
-   * unloads the chunk at the position.
+   * requests to unload the chunk at the position.
+   * <p>
+   * the chunk is unloaded by {@link #tickets()} within its unload budget once no ticket retains it and it is not used
+   * for the unload delay.
    *
    * @param x the x to unload.
    * @param z the z to unload.
+   *
+   * @see ChunkTicketManager#requestUnload(int, int)
    */
-  void unloadChunk(int x, int z);
+  default void unloadChunk(final int x, final int z) {
+    this.tickets().requestUnload(x, z);
+  }
+
+  /**
+   * writes the global ids of the array into the blocks of the region without creating block objects.
+   * <p>
+   * the array has the layout of {@link #readBlocks(int, int, int, int, int, int, int[])}, negative ids leave their
+   * blocks unchanged and blocks outside the height of the world are skipped. the default implementation loads or
+   * generates the chunks and writes into the section storages directly, keeping the heightmaps of the chunks up to
+   * date.
+   *
+   * @param minX the min x to write, inclusive.
+   * @param minY the min y to write, inclusive.
+   * @param minZ the min z to write, inclusive.
+   * @param maxX the max x to write, inclusive.
+   * @param maxY the max y to write, inclusive.
+   * @param maxZ the max z to write, inclusive.
+   * @param input the input to write.
+   */
+  default void writeBlocks(final int minX, final int minY, final int minZ, final int maxX, final int maxY,
+                           final int maxZ, final int @NotNull [] input) {
+    WorldQueries.copyBlocks(this, minX, minY, minZ, maxX, maxY, maxZ, input, true);
+  }
 }
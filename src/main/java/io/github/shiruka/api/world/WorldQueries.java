@@ -0,0 +1,409 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.Floors;
+import io.github.shiruka.api.common.collision.Collisions;
+import io.github.shiruka.api.common.collision.MutableAABB;
+import io.github.shiruka.api.common.vectors.MutableVector3d;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that contains the block queries of {@link World} which only need the public methods of the world.
+ */
+final class WorldQueries {
+
+  /**
+   * ctor.
+   */
+  private WorldQueries() {
+  }
+
+  /**
+   * moves the box by the movement as far as the solid blocks let it.
+   *
+   * @param world the world to collide.
+   * @param box the box to move, moved by the allowed movement.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param solid the predicate to test the global ids of the blocks that the box cannot pass.
+   * @param movement the output to write the allowed movement.
+   *
+   * @return {@code true} if the movement is clipped on any axis.
+   *
+   * @see World#collide(MutableAABB, double, double, double, IntPredicate, MutableVector3d)
+   */
+  static boolean collide(@NotNull final World world, @NotNull final MutableAABB box, final double dx,
+                         final double dy, final double dz, @NotNull final IntPredicate solid,
+                         @NotNull final MutableVector3d movement) {
+    final var y = WorldQueries.collideAxis(world, 1, dy, box.minY(), box.maxY(), box.minX(), box.maxX(), box.minZ(),
+      box.maxZ(), solid);
+    box.offset(0.0d, y, 0.0d);
+    final double x;
+    final double z;
+    if (Math.abs(dx) < Math.abs(dz)) {
+      z = WorldQueries.collideAxis(world, 2, dz, box.minZ(), box.maxZ(), box.minX(), box.maxX(),
+        box.minY(), box.maxY(), solid);
+      box.offset(0.0d, 0.0d, z);
+      x = WorldQueries.collideAxis(world, 0, dx, box.minX(), box.maxX(), box.minY(), box.maxY(),
+        box.minZ(), box.maxZ(), solid);
+      box.offset(x, 0.0d, 0.0d);
+    } else {
+      x = WorldQueries.collideAxis(world, 0, dx, box.minX(), box.maxX(), box.minY(), box.maxY(),
+        box.minZ(), box.maxZ(), solid);
+      box.offset(x, 0.0d, 0.0d);
+      z = WorldQueries.collideAxis(world, 2, dz, box.minZ(), box.maxZ(), box.minX(), box.maxX(),
+        box.minY(), box.maxY(), solid);
+      box.offset(0.0d, 0.0d, z);
+    }
+    movement.set(x, y, z);
+    return x != dx || y != dy || z != dz;
+  }
+
+  /**
+   * copies the global ids between the region and the array section by section.
+   * <p>
+   * reads only visit loaded chunks and read {@code -1} for the blocks of chunks that are not loaded and outside the
+   * height of the world. writes load or generate the chunks and skip the blocks outside the height of the world, a
+   * section is invalidated and its chunk marked as dirty only if an id changes, and the changed blocks are queued to
+   * {@link World#light()}. the heightmaps are updated block by block, unless a section of the chunk is written by at
+   * least a layer of blocks, then they are recomputed once after the chunk is written.
+   *
+   * @param world the world to copy.
+   * @param minX the min x to copy, inclusive.
+   * @param minY the min y to copy, inclusive.
+   * @param minZ the min z to copy, inclusive.
+   * @param maxX the max x to copy, inclusive.
+   * @param maxY the max y to copy, inclusive.
+   * @param maxZ the max z to copy, inclusive.
+   * @param ids the ids to copy.
+   * @param write {@code true} to copy from the array into the region.
+   */
+  static void copyBlocks(@NotNull final World world, final int minX, final int minY, final int minZ, final int maxX,
+                         final int maxY, final int maxZ, final int @NotNull [] ids, final boolean write) {
+    final var sizeX = maxX - minX + 1;
+    final var sizeY = maxY - minY + 1;
+    final var sizeZ = maxZ - minZ + 1;
+    Preconditions.checkArgument(sizeX > 0 && sizeY > 0 && sizeZ > 0, "Invalid region!");
+    Preconditions.checkArgument((long) sizeX * sizeY * sizeZ <= ids.length,
+      "The array of %s ids is too small for the region!", ids.length);
+    final var light = world.light();
+    for (var chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+      final var fromZ = Math.max(minZ, chunkZ << 4);
+      final var toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+      for (var chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+        final var fromX = Math.max(minX, chunkX << 4);
+        final var toX = Math.min(maxX, (chunkX << 4) + 15);
+        final var chunk = write ? world.chunkAtOrGenerate(chunkX, chunkZ) : world.loadedChunkAt(chunkX, chunkZ);
+        var recompute = false;
+        var columnChanged = false;
+        for (var sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+          final var fromY = Math.max(minY, sectionY << 4);
+          final var toY = Math.min(maxY, (sectionY << 4) + 15);
+          if (chunk == null || sectionY < chunk.minSection() ||
+            sectionY >= chunk.minSection() + chunk.sectionCount()) {
+            if (!write) {
+              for (var y = fromY; y <= toY; y++) {
+                for (var z = fromZ; z <= toZ; z++) {
+                  final var row = ((y - minY) * sizeZ + z - minZ) * sizeX - minX;
+                  Arrays.fill(ids, row + fromX, row + toX + 1, -1);
+                }
+              }
+            }
+            continue;
+          }
+          final var blocks = chunk.section(sectionY).blocks();
+          if (write && (toX - fromX + 1) * (toY - fromY + 1) * (toZ - fromZ + 1) >= PalettedContainer.SIZE >> 4) {
+            recompute = true;
+          }
+          var changed = false;
+          for (var y = fromY; y <= toY; y++) {
+            for (var z = fromZ; z <= toZ; z++) {
+              final var row = ((y - minY) * sizeZ + z - minZ) * sizeX - minX;
+              if (write) {
+                for (var x = fromX; x <= toX; x++) {
+                  final var id = ids[row + x];
+                  if (id < 0 || blocks.set(x & 15, y & 15, z & 15, id) == id) {
+                    continue;
+                  }
+                  changed = true;
+                  light.blockChanged(x, y, z);
+                  if (!recompute) {
+                    for (final var type : Heightmap.Type.values()) {
+                      chunk.heightmap(type).update(x & 15, y, z & 15, id, chunk);
+                    }
+                  }
+                }
+              } else if (blocks.isUniform()) {
+                Arrays.fill(ids, row + fromX, row + toX + 1, blocks.get(0));
+              } else {
+                for (var x = fromX; x <= toX; x++) {
+                  ids[row + x] = blocks.get(x & 15, y & 15, z & 15);
+                }
+              }
+            }
+          }
+          if (changed) {
+            columnChanged = true;
+            chunk.encoding().invalidate(sectionY);
+            chunk.dirty(true);
+          }
+        }
+        if (recompute && columnChanged) {
+          for (final var type : Heightmap.Type.values()) {
+            chunk.heightmap(type).recompute(chunk);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * casts a ray through the blocks and stops at the first block whose global id matches the predicate.
+   *
+   * @param world the world to cast.
+   * @param originX the origin x to cast.
+   * @param originY the origin y to cast.
+   * @param originZ the origin z to cast.
+   * @param directionX the direction x to cast.
+   * @param directionY the direction y to cast.
+   * @param directionZ the direction z to cast.
+   * @param maxDistance the max distance to cast.
+   * @param predicate the predicate to test the global ids of the blocks that the ray passes.
+   * @param result the result to write into, reusable.
+   *
+   * @return {@code true} if a block is hit.
+   *
+   * @see World#raycast(double, double, double, double, double, double, double, IntPredicate, RaycastResult)
+   */
+  static boolean raycast(@NotNull final World world, final double originX, final double originY,
+                         final double originZ, final double directionX, final double directionY,
+                         final double directionZ, final double maxDistance, @NotNull final IntPredicate predicate,
+                         @NotNull final RaycastResult result) {
+    final var length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+    Preconditions.checkArgument(length > 0.0d, "Direction cannot be zero!");
+    final var dx = directionX / length;
+    final var dy = directionY / length;
+    final var dz = directionZ / length;
+    var x = Floors.floor(originX);
+    var y = Floors.floor(originY);
+    var z = Floors.floor(originZ);
+    final var stepX = (int) Math.signum(dx);
+    final var stepY = (int) Math.signum(dy);
+    final var stepZ = (int) Math.signum(dz);
+    final var deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0d / dx);
+    final var deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0d / dy);
+    final var deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0d / dz);
+    var maxX = stepX == 0 ? Double.POSITIVE_INFINITY : (stepX > 0 ? x + 1 - originX : originX - x) * deltaX;
+    var maxY = stepY == 0 ? Double.POSITIVE_INFINITY : (stepY > 0 ? y + 1 - originY : originY - y) * deltaY;
+    var maxZ = stepZ == 0 ? Double.POSITIVE_INFINITY : (stepZ > 0 ? z + 1 - originZ : originZ - z) * deltaZ;
+    var distance = 0.0d;
+    var faceX = 0;
+    var faceY = 0;
+    var faceZ = 0;
+    Chunk chunk = null;
+    PalettedContainer blocks = null;
+    var sectionY = Integer.MIN_VALUE;
+    while (distance <= maxDistance) {
+      if (chunk == null || chunk.x() != x >> 4 || chunk.z() != z >> 4) {
+        chunk = world.loadedChunkAt(x >> 4, z >> 4);
+        if (chunk == null) {
+          break;
+        }
+        blocks = null;
+      }
+      final var minSection = chunk.minSection();
+      if (y >> 4 < minSection && stepY <= 0 || y >> 4 >= minSection + chunk.sectionCount() && stepY >= 0) {
+        break;
+      }
+      if (y >> 4 >= minSection && y >> 4 < minSection + chunk.sectionCount()) {
+        if (blocks == null || sectionY != y >> 4) {
+          sectionY = y >> 4;
+          blocks = chunk.section(sectionY).blocks();
+        }
+        final var id = blocks.get(x & 15, y & 15, z & 15);
+        if (predicate.test(id)) {
+          result.hit(x, y, z, id, distance, faceX, faceY, faceZ, originX + dx * distance, originY + dy * distance,
+            originZ + dz * distance);
+          return true;
+        }
+      }
+      if (maxX < maxY && maxX < maxZ) {
+        x += stepX;
+        distance = maxX;
+        maxX += deltaX;
+        faceX = -stepX;
+        faceY = 0;
+        faceZ = 0;
+      } else if (maxY < maxZ) {
+        y += stepY;
+        distance = maxY;
+        maxY += deltaY;
+        faceX = 0;
+        faceY = -stepY;
+        faceZ = 0;
+      } else {
+        z += stepZ;
+        distance = maxZ;
+        maxZ += deltaZ;
+        faceX = 0;
+        faceY = 0;
+        faceZ = -stepZ;
+      }
+    }
+    final var travelled = Math.min(distance, maxDistance);
+    result.miss(travelled, originX + dx * travelled, originY + dy * travelled, originZ + dz * travelled);
+    return false;
+  }
+
+  /**
+   * calculates the time of impact of the box moving through the solid blocks.
+   *
+   * @param world the world to sweep.
+   * @param minX the min x of the box.
+   * @param minY the min y of the box.
+   * @param minZ the min z of the box.
+   * @param maxX the max x of the box.
+   * @param maxY the max y of the box.
+   * @param maxZ the max z of the box.
+   * @param dx the x of the movement.
+   * @param dy the y of the movement.
+   * @param dz the z of the movement.
+   * @param solid the predicate to test the global ids of the blocks that the box cannot pass.
+   *
+   * @return the fraction of the movement before the box touches a solid block, {@code 1} if it does not.
+   *
+   * @see World#sweep(double, double, double, double, double, double, double, double, double, IntPredicate)
+   */
+  static double sweep(@NotNull final World world, final double minX, final double minY, final double minZ,
+                      final double maxX, final double maxY, final double maxZ, final double dx, final double dy,
+                      final double dz, @NotNull final IntPredicate solid) {
+    final var fromX = Collisions.firstCell(Math.min(minX, minX + dx));
+    final var fromY = Collisions.firstCell(Math.min(minY, minY + dy));
+    final var fromZ = Collisions.firstCell(Math.min(minZ, minZ + dz));
+    final var toX = Collisions.lastCell(Math.min(minX, minX + dx), Math.max(maxX, maxX + dx));
+    final var toY = Collisions.lastCell(Math.min(minY, minY + dy), Math.max(maxY, maxY + dy));
+    final var toZ = Collisions.lastCell(Math.min(minZ, minZ + dz), Math.max(maxZ, maxZ + dz));
+    var time = 1.0d;
+    for (var x = fromX; x <= toX; x++) {
+      for (var z = fromZ; z <= toZ; z++) {
+        final var chunk = world.loadedChunkAt(x >> 4, z >> 4);
+        for (var y = fromY; y <= toY; y++) {
+          if (WorldQueries.solid(chunk, x, y, z, solid)) {
+            time = Math.min(time, Collisions.sweep(minX, minY, minZ, maxX, maxY, maxZ, dx, dy, dz, x, y, z, x + 1,
+              y + 1, z + 1));
+            if (time == 0.0d) {
+              return 0.0d;
+            }
+          }
+        }
+      }
+    }
+    return time;
+  }
+
+  /**
+   * clips the movement on an axis against the solid blocks.
+   *
+   * @param world the world to clip.
+   * @param axis the axis to clip, {@code 0} for x, {@code 1} for y and {@code 2} for z.
+   * @param delta the movement on the axis.
+   * @param minA the min of the box on the axis.
+   * @param maxA the max of the box on the axis.
+   * @param minB the min of the box on the first other axis, y for x and x otherwise.
+   * @param maxB the max of the box on the first other axis.
+   * @param minC the min of the box on the second other axis, y for z and z otherwise.
+   * @param maxC the max of the box on the second other axis.
+   * @param solid the predicate to test the global ids of the solid blocks.
+   *
+   * @return allowed movement on the axis.
+   */
+  private static double collideAxis(@NotNull final World world, final int axis, final double delta,
+                                    final double minA, final double maxA, final double minB, final double maxB,
+                                    final double minC, final double maxC, @NotNull final IntPredicate solid) {
+    if (delta == 0.0d) {
+      return 0.0d;
+    }
+    final var fromB = Collisions.firstCell(minB);
+    final var toB = Collisions.lastCell(minB, maxB);
+    final var fromC = Collisions.firstCell(minC);
+    final var toC = Collisions.lastCell(minC, maxC);
+    if (delta > 0.0d) {
+      final var to = Floors.floor(maxA + delta);
+      for (var a = Floors.ceil(maxA - Collisions.EPSILON); a <= to; a++) {
+        if (WorldQueries.solidLayer(world, axis, a, fromB, toB, fromC, toC, solid)) {
+          return Math.min(delta, a - maxA);
+        }
+      }
+    } else {
+      final var to = Floors.floor(minA + delta);
+      for (var a = Floors.floor(minA + Collisions.EPSILON) - 1; a >= to; a--) {
+        if (WorldQueries.solidLayer(world, axis, a, fromB, toB, fromC, toC, solid)) {
+          return Math.max(delta, a + 1 - minA);
+        }
+      }
+    }
+    return delta;
+  }
+
+  /**
+   * checks if the block is solid.
+   *
+   * @param chunk the chunk of the block, {@code null} if it is not loaded.
+   * @param x the x to check.
+   * @param y the y to check.
+   * @param z the z to check.
+   * @param solid the predicate to test the global ids of the solid blocks.
+   *
+   * @return {@code true} if the chunk is not loaded or the global id of the block matches the predicate.
+   */
+  private static boolean solid(@Nullable final Chunk chunk, final int x, final int y, final int z,
+                               @NotNull final IntPredicate solid) {
+    if (chunk == null) {
+      return true;
+    }
+    final var sectionY = y >> 4;
+    if (sectionY < chunk.minSection() || sectionY >= chunk.minSection() + chunk.sectionCount()) {
+      return false;
+    }
+    return solid.test(chunk.section(sectionY).blocks().get(x & 15, y & 15, z & 15));
+  }
+
+  /**
+   * checks if the layer of cells across an axis contains a solid block.
+   *
+   * @param world the world to check.
+   * @param axis the axis of the layer, {@code 0} for x, {@code 1} for y and {@code 2} for z.
+   * @param a the position of the layer on the axis.
+   * @param fromB the first cell on the first other axis, inclusive.
+   * @param toB the last cell on the first other axis, inclusive.
+   * @param fromC the first cell on the second other axis, inclusive.
+   * @param toC the last cell on the second other axis, inclusive.
+   * @param solid the predicate to test the global ids of the solid blocks.
+   *
+   * @return {@code true} if any cell of the layer is solid.
+   */
+  private static boolean solidLayer(@NotNull final World world, final int axis, final int a, final int fromB,
+                                    final int toB, final int fromC, final int toC,
+                                    @NotNull final IntPredicate solid) {
+    Chunk chunk = null;
+    for (var b = fromB; b <= toB; b++) {
+      for (var c = fromC; c <= toC; c++) {
+        final var x = axis == 0 ? a : b;
+        final var y = axis == 0 ? b : axis == 1 ? a : c;
+        final var z = axis == 2 ? a : c;
+        if (chunk == null || chunk.x() != x >> 4 || chunk.z() != z >> 4) {
+          chunk = world.loadedChunkAt(x >> 4, z >> 4);
+        }
+        if (WorldQueries.solid(chunk, x, y, z, solid)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
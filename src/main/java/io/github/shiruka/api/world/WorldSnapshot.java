@@ -0,0 +1,258 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents immutable, read-only views of the blocks of a region at a point in time.
+ * <p>
+ * a snapshot shares the section storages with the live world through {@link PalettedContainer#snapshot()}, so taking
+ * it does not copy any block, and a section is only copied when the live world writes it next. the snapshot can be
+ * read from any thread that it is handed to, the readers never block the world thread and never see torn data.
+ *
+ * @see World#snapshot(int, int, int, int, int, int)
+ */
+public final class WorldSnapshot {
+
+  /**
+   * the max x, inclusive.
+   */
+  private final int maxX;
+
+  /**
+   * the max y, inclusive.
+   */
+  private final int maxY;
+
+  /**
+   * the max z, inclusive.
+   */
+  private final int maxZ;
+
+  /**
+   * the min x, inclusive.
+   */
+  private final int minX;
+
+  /**
+   * the min y, inclusive.
+   */
+  private final int minY;
+
+  /**
+   * the min z, inclusive.
+   */
+  private final int minZ;
+
+  /**
+   * the sections by the chunk indexes and the section indexes, {@code null} for the chunks that are not loaded and
+   * the sections that are out of the world.
+   */
+  @Nullable
+  private final PalettedContainer @Nullable [] @NotNull [] sections;
+
+  /**
+   * ctor.
+   *
+   * @param world the world to snapshot, must be called on the world thread.
+   * @param minX the min x.
+   * @param minY the min y.
+   * @param minZ the min z.
+   * @param maxX the max x.
+   * @param maxY the max y.
+   * @param maxZ the max z.
+   */
+  WorldSnapshot(@NotNull final World world, final int minX, final int minY, final int minZ, final int maxX,
+                final int maxY, final int maxZ) {
+    Preconditions.checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ, "Invalid region!");
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+    final var chunkCountX = (maxX >> 4) - (minX >> 4) + 1;
+    final var chunkCountZ = (maxZ >> 4) - (minZ >> 4) + 1;
+    final var sectionCount = (maxY >> 4) - (minY >> 4) + 1;
+    this.sections = new PalettedContainer[chunkCountX * chunkCountZ][];
+    for (var chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+      for (var chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+        final var chunk = world.loadedChunkAt(chunkX, chunkZ);
+        if (chunk == null) {
+          continue;
+        }
+        final var sections = new PalettedContainer[sectionCount];
+        for (var index = 0; index < sectionCount; index++) {
+          final var sectionY = (minY >> 4) + index;
+          if (sectionY >= chunk.minSection() && sectionY < chunk.minSection() + chunk.sectionCount()) {
+            sections[index] = chunk.section(sectionY).blocks().snapshot();
+          }
+        }
+        this.sections[this.chunkIndex(chunkX, chunkZ)] = sections;
+      }
+    }
+  }
+
+  /**
+   * checks if the position is in the region of the snapshot.
+   *
+   * @param x the x to check.
+   * @param y the y to check.
+   * @param z the z to check.
+   *
+   * @return {@code true} if the position is in the region.
+   */
+  public boolean contains(final int x, final int y, final int z) {
+    return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+  }
+
+  /**
+   * gets the global id of the block at the position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return global id of the block, {@code -1} if the position is out of the region, out of the world or its chunk
+   *   was not loaded.
+   */
+  public int id(final int x, final int y, final int z) {
+    if (!this.contains(x, y, z)) {
+      return -1;
+    }
+    final var blocks = this.blocks(x >> 4, y >> 4, z >> 4);
+    return blocks == null ? -1 : blocks.get(x & 15, y & 15, z & 15);
+  }
+
+  /**
+   * checks if the chunk was loaded when the snapshot was taken.
+   *
+   * @param chunkX the chunk x to check.
+   * @param chunkZ the chunk z to check.
+   *
+   * @return {@code true} if the chunk is in the region and it was loaded.
+   */
+  public boolean loaded(final int chunkX, final int chunkZ) {
+    return chunkX >= this.minX >> 4 && chunkX <= this.maxX >> 4 && chunkZ >= this.minZ >> 4 &&
+      chunkZ <= this.maxZ >> 4 && this.sections[this.chunkIndex(chunkX, chunkZ)] != null;
+  }
+
+  /**
+   * obtains the max x.
+   *
+   * @return max x, inclusive.
+   */
+  public int maxX() {
+    return this.maxX;
+  }
+
+  /**
+   * obtains the max y.
+   *
+   * @return max y, inclusive.
+   */
+  public int maxY() {
+    return this.maxY;
+  }
+
+  /**
+   * obtains the max z.
+   *
+   * @return max z, inclusive.
+   */
+  public int maxZ() {
+    return this.maxZ;
+  }
+
+  /**
+   * obtains the min x.
+   *
+   * @return min x, inclusive.
+   */
+  public int minX() {
+    return this.minX;
+  }
+
+  /**
+   * obtains the min y.
+   *
+   * @return min y, inclusive.
+   */
+  public int minY() {
+    return this.minY;
+  }
+
+  /**
+   * obtains the min z.
+   *
+   * @return min z, inclusive.
+   */
+  public int minZ() {
+    return this.minZ;
+  }
+
+  /**
+   * reads the global ids of the blocks of the whole region into the array section by section.
+   * <p>
+   * the array has the layout of {@link World#readBlocks(int, int, int, int, int, int, int[])}, the blocks that are
+   * out of the world or whose chunk was not loaded are {@code -1}.
+   *
+   * @param output the output to read into.
+   */
+  public void readBlocks(final int @NotNull [] output) {
+    final var sizeX = this.maxX - this.minX + 1;
+    final var sizeZ = this.maxZ - this.minZ + 1;
+    Preconditions.checkArgument((long) sizeX * (this.maxY - this.minY + 1) * sizeZ <= output.length,
+      "The array of %s ids is too small for the region!", output.length);
+    for (var chunkZ = this.minZ >> 4; chunkZ <= this.maxZ >> 4; chunkZ++) {
+      final var fromZ = Math.max(this.minZ, chunkZ << 4);
+      final var toZ = Math.min(this.maxZ, (chunkZ << 4) + 15);
+      for (var chunkX = this.minX >> 4; chunkX <= this.maxX >> 4; chunkX++) {
+        final var fromX = Math.max(this.minX, chunkX << 4);
+        final var toX = Math.min(this.maxX, (chunkX << 4) + 15);
+        for (var sectionY = this.minY >> 4; sectionY <= this.maxY >> 4; sectionY++) {
+          final var blocks = this.blocks(chunkX, sectionY, chunkZ);
+          final var fromY = Math.max(this.minY, sectionY << 4);
+          final var toY = Math.min(this.maxY, (sectionY << 4) + 15);
+          for (var y = fromY; y <= toY; y++) {
+            for (var z = fromZ; z <= toZ; z++) {
+              final var offset = ((y - this.minY) * sizeZ + z - this.minZ) * sizeX - this.minX;
+              for (var x = fromX; x <= toX; x++) {
+                output[offset + x] = blocks == null ? -1 : blocks.get(x & 15, y & 15, z & 15);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * obtains the blocks of the section.
+   *
+   * @param chunkX the chunk x to obtain.
+   * @param sectionY the section y to obtain.
+   * @param chunkZ the chunk z to obtain.
+   *
+   * @return blocks of the section, {@code null} if the section is out of the world or its chunk was not loaded.
+   */
+  @Nullable
+  private PalettedContainer blocks(final int chunkX, final int sectionY, final int chunkZ) {
+    final var sections = this.sections[this.chunkIndex(chunkX, chunkZ)];
+    return sections == null ? null : sections[sectionY - (this.minY >> 4)];
+  }
+
+  /**
+   * obtains the index of the chunk in {@link #sections}.
+   *
+   * @param chunkX the chunk x to obtain.
+   * @param chunkZ the chunk z to obtain.
+   *
+   * @return index of the chunk.
+   */
+  private int chunkIndex(final int chunkX, final int chunkZ) {
+    return (chunkZ - (this.minZ >> 4)) * ((this.maxX >> 4) - (this.minX >> 4) + 1) + chunkX - (this.minX >> 4);
+  }
+}
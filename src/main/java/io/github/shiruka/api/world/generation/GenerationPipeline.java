@@ -0,0 +1,367 @@
+package io.github.shiruka.api.world.generation;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.world.ChunkMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents pipelines which generate chunks in stages.
+ * <p>
+ * each (chunk, stage) pair has a single future. a stage of a chunk starts once the previous stage of the chunk and of
+ * every neighbour in the stage's {@link GenerationStage#radius()} is completed, so independent chunks run in
+ * parallel on the executor and proto chunks are shared by all chunks whose stages need them. proto chunks that are
+ * only generated as neighbours become idle once no pending stage needs them, and only a bounded count of idle proto
+ * chunks is kept for the neighbours that are requested soon after.
+ */
+public final class GenerationPipeline {
+
+  /**
+   * the default count of idle proto chunks to keep cached.
+   */
+  public static final int DEFAULT_IDLE_CAPACITY = 1024;
+
+  /**
+   * the proto chunks and their stage futures by their keys.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the executor.
+   */
+  @NotNull
+  private final Executor executor;
+
+  /**
+   * the keys of the proto chunks which are neither requested nor needed as neighbours, least recently used first.
+   */
+  @NotNull
+  private final LongLinkedOpenHashSet idle = new LongLinkedOpenHashSet();
+
+  /**
+   * the max count of idle proto chunks.
+   */
+  private final int idleCapacity;
+
+  /**
+   * the index of the lowest section.
+   */
+  private final int minSection;
+
+  /**
+   * the section count.
+   */
+  private final int sectionCount;
+
+  /**
+   * the stages.
+   */
+  @NotNull
+  private final GenerationStage @NotNull [] stages;
+
+  /**
+   * ctor.
+   *
+   * @param stages the stages.
+   * @param executor the executor, a work-stealing pool such as {@link ForkJoinPool}.
+   * @param minSection the min section.
+   * @param sectionCount the section count.
+   * @param idleCapacity the max count of proto chunks to keep cached while they are neither requested nor needed
+   *   as neighbours, so neighbours that are requested soon after are not generated again.
+   */
+  public GenerationPipeline(@NotNull final List<GenerationStage> stages, @NotNull final Executor executor,
+                            final int minSection, final int sectionCount, final int idleCapacity) {
+    Preconditions.checkArgument(!stages.isEmpty(), "Pipeline needs at least one stage!");
+    Preconditions.checkArgument(idleCapacity >= 0, "Idle capacity cannot be negative!");
+    Preconditions.checkArgument(stages.get(0).radius() == 0, "The first stage cannot need neighbours!");
+    for (final var stage : stages) {
+      Preconditions.checkArgument(stage.radius() >= 0, "Radius of %s cannot be negative!", stage.name());
+    }
+    this.stages = stages.toArray(GenerationStage[]::new);
+    this.executor = executor;
+    this.minSection = minSection;
+    this.sectionCount = sectionCount;
+    this.idleCapacity = idleCapacity;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param stages the stages.
+   * @param executor the executor, a work-stealing pool such as {@link ForkJoinPool}.
+   * @param minSection the min section.
+   * @param sectionCount the section count.
+   */
+  public GenerationPipeline(@NotNull final List<GenerationStage> stages, @NotNull final Executor executor,
+                            final int minSection, final int sectionCount) {
+    this(stages, executor, minSection, sectionCount, GenerationPipeline.DEFAULT_IDLE_CAPACITY);
+  }
+
+  /**
+   * obtains the count of cached proto chunks.
+   *
+   * @return cached proto chunk count.
+   */
+  public synchronized int cached() {
+    return this.entries.size();
+  }
+
+  /**
+   * generates all stages of the chunk.
+   *
+   * @param x the x to generate.
+   * @param z the z to generate.
+   *
+   * @return a future that completes when the last stage of the chunk is completed.
+   */
+  @NotNull
+  public CompletableFuture<ProtoChunk> generate(final int x, final int z) {
+    return this.generate(x, z, this.stages.length - 1);
+  }
+
+  /**
+   * generates the chunk up to the stage.
+   * <p>
+   * the proto chunk stays cached until {@link #remove(int, int)} is called for it. a stage that fails is not cached,
+   * so generating the chunk again retries it.
+   *
+   * @param x the x to generate.
+   * @param z the z to generate.
+   * @param stage the index of the stage to generate.
+   *
+   * @return a future that completes when the stage of the chunk is completed.
+   */
+  @NotNull
+  public CompletableFuture<ProtoChunk> generate(final int x, final int z, final int stage) {
+    Preconditions.checkElementIndex(stage, this.stages.length, "stage");
+    return this.generate(x, z, stage, true);
+  }
+
+  /**
+   * removes the proto chunk from the cache.
+   * <p>
+   * call this after the generated chunk is stored in the world. if neighbours are still generating with the chunk,
+   * it is evicted once the last of them is completed.
+   *
+   * @param x the x to remove.
+   * @param z the z to remove.
+   */
+  public synchronized void remove(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    final var entry = this.entries.get(key);
+    if (entry == null) {
+      return;
+    }
+    entry.requested = false;
+    if (entry.dependants == 0) {
+      this.entries.remove(key);
+      this.idle.remove(key);
+    }
+  }
+
+  /**
+   * obtains the stages.
+   *
+   * @return stages.
+   */
+  @NotNull
+  public List<GenerationStage> stages() {
+    return List.of(this.stages);
+  }
+
+  /**
+   * drops the failed future from the cache and completes it.
+   *
+   * @param entry the entry of the future.
+   * @param stage the stage of the future.
+   * @param future the future to fail.
+   * @param throwable the error of the stage.
+   */
+  private void fail(@NotNull final Entry entry, final int stage, @NotNull final CompletableFuture<ProtoChunk> future,
+                    @NotNull final Throwable throwable) {
+    synchronized (this) {
+      if (entry.futures[stage] == future) {
+        entry.futures[stage] = null;
+      }
+    }
+    future.completeExceptionally(throwable);
+  }
+
+  /**
+   * generates the chunk up to the stage.
+   *
+   * @param x the x to generate.
+   * @param z the z to generate.
+   * @param stage the index of the stage to generate.
+   * @param requested {@code true} if the chunk is requested by a caller, {@code false} if it is requested as a
+   *   neighbour, which must be released by {@link #release(int, int, int)} after the stage of the neighbour is run.
+   *
+   * @return a future that completes when the stage of the chunk is completed.
+   */
+  @NotNull
+  private CompletableFuture<ProtoChunk> generate(final int x, final int z, final int stage, final boolean requested) {
+    final var key = ChunkMap.key(x, z);
+    final Entry entry;
+    final CompletableFuture<ProtoChunk> future;
+    synchronized (this) {
+      entry = this.entries.computeIfAbsent(key, k ->
+        new Entry(new ProtoChunk(x, z, this.minSection, this.sectionCount), this.stages.length));
+      if (requested) {
+        entry.requested = true;
+      } else {
+        entry.dependants++;
+      }
+      this.idle.remove(key);
+      final var existing = entry.futures[stage];
+      if (existing != null) {
+        return existing;
+      }
+      future = new CompletableFuture<>();
+      entry.futures[stage] = future;
+    }
+    final var radius = stage == 0 ? 0 : this.stages[stage].radius();
+    final CompletableFuture<?>[] dependencies;
+    if (stage == 0) {
+      dependencies = new CompletableFuture<?>[0];
+    } else {
+      final var width = 2 * radius + 1;
+      dependencies = new CompletableFuture<?>[width * width];
+      for (var dz = 0; dz < width; dz++) {
+        for (var dx = 0; dx < width; dx++) {
+          dependencies[dz * width + dx] = this.generate(x + dx - radius, z + dz - radius, stage - 1, false);
+        }
+      }
+    }
+    CompletableFuture.allOf(dependencies).whenCompleteAsync((ignored, throwable) -> {
+      try {
+        if (throwable != null) {
+          this.fail(entry, stage, future, throwable);
+          return;
+        }
+        this.run(stage, entry.chunk, dependencies);
+        future.complete(entry.chunk);
+      } catch (final Throwable e) {
+        this.fail(entry, stage, future, e);
+      } finally {
+        if (stage != 0) {
+          this.release(x, z, radius);
+        }
+      }
+    }, this.executor);
+    return future;
+  }
+
+  /**
+   * releases the neighbours that a stage of the chunk is run with, the ones that are neither requested nor needed
+   * anymore become idle and the least recently used idle ones over the idle capacity are evicted.
+   *
+   * @param x the x of the chunk.
+   * @param z the z of the chunk.
+   * @param radius the radius of the stage.
+   */
+  private synchronized void release(final int x, final int z, final int radius) {
+    for (var dz = -radius; dz <= radius; dz++) {
+      for (var dx = -radius; dx <= radius; dx++) {
+        final var key = ChunkMap.key(x + dx, z + dz);
+        final var entry = this.entries.get(key);
+        if (entry != null && --entry.dependants == 0 && !entry.requested) {
+          this.idle.addAndMoveToLast(key);
+        }
+      }
+    }
+    while (this.idle.size() > this.idleCapacity) {
+      this.entries.remove(this.idle.removeFirstLong());
+    }
+  }
+
+  /**
+   * runs the stage on the chunk while holding the locks of the region.
+   *
+   * @param stage the stage to run.
+   * @param chunk the chunk to run.
+   * @param dependencies the completed dependencies, which form the region row by row.
+   */
+  private void run(final int stage, @NotNull final ProtoChunk chunk,
+                   @NotNull final CompletableFuture<?> @NotNull [] dependencies) {
+    final var generator = this.stages[stage];
+    final var radius = stage == 0 ? 0 : generator.radius();
+    final ProtoChunk[] chunks;
+    if (dependencies.length == 0) {
+      chunks = new ProtoChunk[]{chunk};
+    } else {
+      chunks = new ProtoChunk[dependencies.length];
+      for (var index = 0; index < dependencies.length; index++) {
+        chunks[index] = (ProtoChunk) dependencies[index].join();
+      }
+    }
+    final var ordered = chunks.clone();
+    Arrays.sort(ordered, Comparator.comparingLong(ProtoChunk::key));
+    for (final var locked : ordered) {
+      if (locked == chunk) {
+        locked.lock().writeLock().lock();
+      } else {
+        locked.lock().readLock().lock();
+      }
+    }
+    try {
+      generator.generate(chunk, new GenerationRegion(chunk.x(), chunk.z(), radius, chunks));
+      chunk.stage(stage);
+    } finally {
+      for (final var locked : ordered) {
+        if (locked == chunk) {
+          locked.lock().writeLock().unlock();
+        } else {
+          locked.lock().readLock().unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * a class that represents cache entries of proto chunks.
+   */
+  private static final class Entry {
+
+    /**
+     * the chunk.
+     */
+    @NotNull
+    private final ProtoChunk chunk;
+
+    /**
+     * the futures of the stages.
+     */
+    @NotNull
+    private final CompletableFuture<ProtoChunk> @NotNull [] futures;
+
+    /**
+     * the count of the stages of other chunks which are not run yet and need the chunk as a neighbour.
+     */
+    private int dependants;
+
+    /**
+     * whether the chunk is requested by a caller and not removed yet.
+     */
+    private boolean requested;
+
+    /**
+     * ctor.
+     *
+     * @param chunk the chunk.
+     * @param stages the stages.
+     */
+    @SuppressWarnings("unchecked")
+    private Entry(@NotNull final ProtoChunk chunk, final int stages) {
+      this.chunk = chunk;
+      this.futures = (CompletableFuture<ProtoChunk>[]) new CompletableFuture<?>[stages];
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.github.shiruka.api.world.generation;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents square regions of proto chunks around the chunk that a stage generates.
+ */
+public final class GenerationRegion {
+
+  /**
+   * the center x.
+   */
+  private final int centerX;
+
+  /**
+   * the center z.
+   */
+  private final int centerZ;
+
+  /**
+   * the chunks, row by row along the z axis.
+   */
+  @NotNull
+  private final ProtoChunk @NotNull [] chunks;
+
+  /**
+   * the radius.
+   */
+  private final int radius;
+
+  /**
+   * ctor.
+   *
+   * @param centerX the center x.
+   * @param centerZ the center z.
+   * @param radius the radius.
+   * @param chunks the chunks.
+   */
+  GenerationRegion(final int centerX, final int centerZ, final int radius,
+                   @NotNull final ProtoChunk @NotNull [] chunks) {
+    this.centerX = centerX;
+    this.centerZ = centerZ;
+    this.radius = radius;
+    this.chunks = chunks;
+  }
+
+  /**
+   * gets the global id of the block at the world position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return global id of the block.
+   */
+  public int block(final int x, final int y, final int z) {
+    return this.chunk(x >> 4, z >> 4).block(x & 15, y, z & 15);
+  }
+
+  /**
+   * gets the chunk at the chunk position.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return chunk at the position.
+   *
+   * @throws IllegalArgumentException if the position is outside of the region.
+   */
+  @NotNull
+  public ProtoChunk chunk(final int x, final int z) {
+    final var dx = x - this.centerX + this.radius;
+    final var dz = z - this.centerZ + this.radius;
+    final var width = 2 * this.radius + 1;
+    Preconditions.checkArgument(dx >= 0 && dx < width && dz >= 0 && dz < width,
+      "Chunk %s, %s is outside of the region of %s, %s with radius %s", x, z, this.centerX, this.centerZ,
+      this.radius);
+    return this.chunks[dz * width + dx];
+  }
+
+  /**
+   * obtains the radius.
+   *
+   * @return radius.
+   */
+  public int radius() {
+    return this.radius;
+  }
+}
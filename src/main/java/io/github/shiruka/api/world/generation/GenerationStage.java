@@ -0,0 +1,35 @@
+package io.github.shiruka.api.world.generation;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine stages of chunk generation, such as noise, surface, features and light.
+ */
+public interface GenerationStage {
+
+  /**
+   * generates the stage of the chunk.
+   * <p>
+   * the chunk is locked for writing and the other chunks of the region are locked for reading while the stage runs.
+   * stages must only write into their own chunk.
+   *
+   * @param chunk the chunk to generate.
+   * @param region the region that contains the chunk and its neighbours.
+   */
+  void generate(@NotNull ProtoChunk chunk, @NotNull GenerationRegion region);
+
+  /**
+   * obtains the name.
+   *
+   * @return name.
+   */
+  @NotNull
+  String name();
+
+  /**
+   * obtains the radius of the neighbour chunks that must have completed the previous stage before this stage runs.
+   *
+   * @return neighbour radius in chunks, {@code 0} if the stage only needs its own chunk.
+   */
+  int radius();
+}
@@ -0,0 +1,180 @@
+package io.github.shiruka.api.world.generation;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.world.ChunkMap;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents partially generated chunks.
+ * <p>
+ * proto chunks are kept by {@link GenerationPipeline} between stages, the lock of the chunk is held by the pipeline
+ * while a stage reads or writes the chunk.
+ */
+public final class ProtoChunk {
+
+  /**
+   * the lock.
+   */
+  @NotNull
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * the index of the lowest section.
+   */
+  private final int minSection;
+
+  /**
+   * the sections.
+   */
+  @NotNull
+  private final PalettedContainer @NotNull [] sections;
+
+  /**
+   * the x.
+   */
+  private final int x;
+
+  /**
+   * the z.
+   */
+  private final int z;
+
+  /**
+   * the index of the last completed stage.
+   */
+  private volatile int stage = -1;
+
+  /**
+   * ctor.
+   *
+   * @param x the x.
+   * @param z the z.
+   * @param minSection the min section.
+   * @param sectionCount the section count.
+   */
+  public ProtoChunk(final int x, final int z, final int minSection, final int sectionCount) {
+    Preconditions.checkArgument(sectionCount > 0, "Section count must be positive!");
+    this.x = x;
+    this.z = z;
+    this.minSection = minSection;
+    this.sections = new PalettedContainer[sectionCount];
+    for (var index = 0; index < sectionCount; index++) {
+      this.sections[index] = new PalettedContainer();
+    }
+  }
+
+  /**
+   * gets the global id of the block.
+   *
+   * @param x the x in the chunk, in [0, 16).
+   * @param y the world y.
+   * @param z the z in the chunk, in [0, 16).
+   *
+   * @return global id of the block.
+   */
+  public int block(final int x, final int y, final int z) {
+    return this.section(y >> 4).get(x, y & 15, z);
+  }
+
+  /**
+   * sets the global id of the block.
+   *
+   * @param x the x in the chunk, in [0, 16).
+   * @param y the world y.
+   * @param z the z in the chunk, in [0, 16).
+   * @param id the id to set.
+   */
+  public void block(final int x, final int y, final int z, final int id) {
+    this.section(y >> 4).set(x, y & 15, z, id);
+  }
+
+  /**
+   * obtains the packed coordinates.
+   *
+   * @return packed coordinates.
+   *
+   * @see ChunkMap#key(int, int)
+   */
+  public long key() {
+    return ChunkMap.key(this.x, this.z);
+  }
+
+  /**
+   * obtains the lowest section y.
+   *
+   * @return min section.
+   */
+  public int minSection() {
+    return this.minSection;
+  }
+
+  /**
+   * gets the section at the section y.
+   *
+   * @param sectionY the section y to get.
+   *
+   * @return section at the y.
+   */
+  @NotNull
+  public PalettedContainer section(final int sectionY) {
+    return this.sections[sectionY - this.minSection];
+  }
+
+  /**
+   * obtains the section count.
+   *
+   * @return section count.
+   */
+  public int sectionCount() {
+    return this.sections.length;
+  }
+
+  /**
+   * obtains the index of the last completed stage.
+   *
+   * @return last completed stage, {@code -1} if no stage is completed.
+   */
+  public int stage() {
+    return this.stage;
+  }
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  public int x() {
+    return this.x;
+  }
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  public int z() {
+    return this.z;
+  }
+
+  /**
+   * obtains the lock.
+   *
+   * @return lock.
+   */
+  @NotNull
+  ReadWriteLock lock() {
+    return this.lock;
+  }
+
+  /**
+   * sets the index of the last completed stage.
+   *
+   * @param stage the stage to set.
+   */
+  void stage(final int stage) {
+    this.stage = stage;
+  }
+}
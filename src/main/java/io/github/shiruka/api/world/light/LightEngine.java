@@ -0,0 +1,735 @@
+package io.github.shiruka.api.world.light;
+
+import io.github.shiruka.api.common.vectors.BlockPositions;
+import io.github.shiruka.api.world.Chunk;
+import io.github.shiruka.api.world.ChunkMap;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents engines which propagate block light and sky light through the sections of chunks.
+ * <p>
+ * block changes and newly loaded chunks are collected on the world thread and processed as one batch per
+ * {@link #tick()} on the executor, batches run one after another so the propagation never blocks the world thread and
+ * crosses chunk borders freely. the propagation is a breadth-first search over {@link LongArrayFIFOQueue}s whose
+ * entries pack the position and the light level into a single long, removing light runs first and re-spreads the
+ * light from the border of the darkened area afterwards.
+ * <p>
+ * block ids are read from {@link PalettedContainer#snapshot()}s of the sections around the batch, which
+ * {@link #tick()} takes on the world thread, so the executor never reads a section that the world thread writes. a
+ * batch that fails is logged and its positions and chunks are queued again for the next tick. positions are packed
+ * into 24 bits for x and z, so worlds must stay within 8388608 blocks.
+ */
+@Log4j2
+public final class LightEngine {
+
+  /**
+   * the index of the downwards direction.
+   */
+  private static final int DOWN = 0;
+
+  /**
+   * the max light level.
+   */
+  private static final int MAX_LEVEL = 15;
+
+  /**
+   * the x offsets of the directions.
+   */
+  private static final int @NotNull [] OFFSET_X = {0, 0, 0, 0, -1, 1};
+
+  /**
+   * the y offsets of the directions.
+   */
+  private static final int @NotNull [] OFFSET_Y = {-1, 1, 0, 0, 0, 0};
+
+  /**
+   * the z offsets of the directions.
+   */
+  private static final int @NotNull [] OFFSET_Z = {0, 0, -1, 1, 0, 0};
+
+  /**
+   * the changed positions which are not processed yet.
+   */
+  @NotNull
+  private final LongLinkedOpenHashSet changes = new LongLinkedOpenHashSet();
+
+  /**
+   * the chunk lookup by the chunk keys.
+   */
+  @NotNull
+  private final LongFunction<? extends Chunk> chunks;
+
+  /**
+   * the queue of the positions to darken, packed with their previous level.
+   */
+  @NotNull
+  private final LongArrayFIFOQueue decrease = new LongArrayFIFOQueue();
+
+  /**
+   * the light emission of the global ids.
+   */
+  @NotNull
+  private final IntUnaryOperator emission;
+
+  /**
+   * the executor.
+   */
+  @NotNull
+  private final Executor executor;
+
+  /**
+   * the batches that failed and are queued again in the next tick.
+   */
+  @NotNull
+  private final Queue<Batch> failed = new ConcurrentLinkedQueue<>();
+
+  /**
+   * the queue of the positions to spread light from, packed with their level.
+   */
+  @NotNull
+  private final LongArrayFIFOQueue increase = new LongArrayFIFOQueue();
+
+  /**
+   * the chunks to light which are not processed yet.
+   */
+  @NotNull
+  private final ObjectArrayList<Chunk> loaded = new ObjectArrayList<>();
+
+  /**
+   * the light opacity of the global ids.
+   */
+  @NotNull
+  private final IntUnaryOperator opacity;
+
+  /**
+   * the chunks of the batch that is processed.
+   */
+  @Nullable
+  private Long2ObjectOpenHashMap<BatchChunk> batchChunks;
+
+  /**
+   * the last chunk that the propagation looked up.
+   */
+  @Nullable
+  private BatchChunk cachedChunk;
+
+  /**
+   * the key of the last chunk that the propagation looked up.
+   */
+  private long cachedKey;
+
+  /**
+   * the last batch.
+   */
+  @NotNull
+  private CompletableFuture<Void> running = CompletableFuture.completedFuture(null);
+
+  /**
+   * ctor.
+   *
+   * @param chunks the chunks, for example {@link ChunkMap#get(long)}.
+   * @param emission the emission, the light level in [0, 16) that the block of a global id emits.
+   * @param opacity the opacity, the light levels in [0, 16) that the block of a global id absorbs.
+   * @param executor the executor.
+   */
+  public LightEngine(@NotNull final LongFunction<? extends Chunk> chunks, @NotNull final IntUnaryOperator emission,
+                     @NotNull final IntUnaryOperator opacity, @NotNull final Executor executor) {
+    this.chunks = chunks;
+    this.emission = emission;
+    this.opacity = opacity;
+    this.executor = executor;
+  }
+
+  /**
+   * obtains the light array of the section.
+   *
+   * @param chunk the chunk to obtain.
+   * @param sky whether to obtain the sky light.
+   * @param y the world y to obtain.
+   *
+   * @return light array of the section.
+   */
+  @NotNull
+  private static NibbleArray light(@NotNull final Chunk chunk, final boolean sky, final int y) {
+    final var section = chunk.section(y >> 4);
+    return sky ? section.skyLight() : section.blockLight();
+  }
+
+  /**
+   * obtains the max y of the chunk.
+   *
+   * @param chunk the chunk to obtain.
+   *
+   * @return max y of the chunk, inclusive.
+   */
+  private static int maxY(@NotNull final Chunk chunk) {
+    return (chunk.minSection() + chunk.sectionCount() << 4) - 1;
+  }
+
+  /**
+   * obtains the min y of the chunk.
+   *
+   * @param chunk the chunk to obtain.
+   *
+   * @return min y of the chunk, inclusive.
+   */
+  private static int minY(@NotNull final Chunk chunk) {
+    return chunk.minSection() << 4;
+  }
+
+  /**
+   * packs the position and the level into a long.
+   *
+   * @param x the x to pack.
+   * @param y the y to pack.
+   * @param z the z to pack.
+   * @param level the level to pack.
+   *
+   * @return packed position and level.
+   */
+  private static long pack(final int x, final int y, final int z, final int level) {
+    return ((long) x & 0xFFFFFFL) << 40 | ((long) z & 0xFFFFFFL) << 16 | (y & 0xFFFL) << 4 | level;
+  }
+
+  /**
+   * unpacks the level.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return level.
+   */
+  private static int unpackLevel(final long packed) {
+    return (int) packed & 15;
+  }
+
+  /**
+   * unpacks the x.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return x.
+   */
+  private static int unpackX(final long packed) {
+    return (int) (packed >> 40);
+  }
+
+  /**
+   * unpacks the y.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return y.
+   */
+  private static int unpackY(final long packed) {
+    return (int) (packed << 48 >> 52);
+  }
+
+  /**
+   * unpacks the z.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return z.
+   */
+  private static int unpackZ(final long packed) {
+    return (int) (packed << 24 >> 40);
+  }
+
+  /**
+   * queues the position to update its light in the next batch, must be called on the world thread after the block
+   * at the position changed.
+   *
+   * @param x the x to queue.
+   * @param y the y to queue.
+   * @param z the z to queue.
+   */
+  public void blockChanged(final int x, final int y, final int z) {
+    this.changes.add(BlockPositions.pack(x, y, z));
+  }
+
+  /**
+   * gets the block light at the position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return block light at the position, {@code 0} if the chunk is not loaded.
+   */
+  public int blockLight(final int x, final int y, final int z) {
+    return this.lightAt(false, x, y, z);
+  }
+
+  /**
+   * queues the chunk to compute its initial light in the next batch, must be called on the world thread after the
+   * chunk is loaded or generated without light.
+   *
+   * @param chunk the chunk to queue.
+   */
+  public void lightChunk(@NotNull final Chunk chunk) {
+    this.loaded.add(chunk);
+  }
+
+  /**
+   * gets the sky light at the position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return sky light at the position, {@code 15} above the chunk and {@code 0} if the chunk is not loaded.
+   */
+  public int skyLight(final int x, final int y, final int z) {
+    return this.lightAt(true, x, y, z);
+  }
+
+  /**
+   * processes the queued changes and chunks as one batch on the executor, must be called on the world thread once
+   * per tick.
+   * <p>
+   * the sections of the loaded chunks around the batch are snapshotted before the batch is submitted, and the batches
+   * that failed since the last tick are queued again first.
+   *
+   * @return a future that completes when the batch is processed, exceptionally if the batch failed.
+   */
+  @NotNull
+  public CompletableFuture<Void> tick() {
+    for (var batch = this.failed.poll(); batch != null; batch = this.failed.poll()) {
+      for (final var position : batch.positions) {
+        this.changes.add(position);
+      }
+      this.loaded.addElements(this.loaded.size(), batch.chunks);
+    }
+    if (this.changes.isEmpty() && this.loaded.isEmpty()) {
+      return this.running;
+    }
+    final var batch = new Batch(this.changes.toLongArray(), this.loaded.toArray(Chunk[]::new));
+    this.changes.clear();
+    this.loaded.clear();
+    for (final var position : batch.positions) {
+      this.snapshot(batch, BlockPositions.x(position) >> 4, BlockPositions.z(position) >> 4);
+    }
+    for (final var chunk : batch.chunks) {
+      this.snapshot(batch, chunk.x(), chunk.z());
+    }
+    final var future = this.running.thenRunAsync(() -> this.process(batch), this.executor);
+    this.running = future.handle((result, throwable) -> {
+      if (throwable != null) {
+        LightEngine.log.error("Couldn't process the light of {} changes and {} chunks, queueing them again!",
+          batch.positions.length, batch.chunks.length, throwable);
+        this.failed.add(batch);
+      }
+      return null;
+    });
+    return future;
+  }
+
+  /**
+   * queues the position to update its light.
+   *
+   * @param sky whether to update the sky light.
+   * @param packed the packed position.
+   */
+  private void change(final boolean sky, final long packed) {
+    final var x = BlockPositions.x(packed);
+    final var y = BlockPositions.y(packed);
+    final var z = BlockPositions.z(packed);
+    final var chunk = this.chunk(x >> 4, z >> 4);
+    if (chunk == null || y < LightEngine.minY(chunk.chunk) || y > LightEngine.maxY(chunk.chunk)) {
+      return;
+    }
+    final var light = LightEngine.light(chunk.chunk, sky, y);
+    final var index = (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    final var previous = light.get(index);
+    if (previous != 0) {
+      light.set(index, 0);
+    }
+    this.decrease.enqueue(LightEngine.pack(x, y, z, previous));
+    final var source = this.source(sky, chunk, x, y, z);
+    if (source != 0) {
+      light.set(index, source);
+      this.increase.enqueue(LightEngine.pack(x, y, z, source));
+    }
+  }
+
+  /**
+   * obtains the chunk at the chunk position, caching the last chunk.
+   *
+   * @param x the chunk x to obtain.
+   * @param z the chunk z to obtain.
+   *
+   * @return chunk at the position, {@code null} if it is not a chunk of the batch.
+   */
+  @Nullable
+  private BatchChunk chunk(final int x, final int z) {
+    final var key = ChunkMap.key(x, z);
+    if (this.cachedChunk != null && this.cachedKey == key) {
+      return this.cachedChunk;
+    }
+    final var batchChunks = this.batchChunks;
+    assert batchChunks != null;
+    final var chunk = batchChunks.get(key);
+    if (chunk != null) {
+      this.cachedChunk = chunk;
+      this.cachedKey = key;
+    }
+    return chunk;
+  }
+
+  /**
+   * darkens the queued positions and queues the lit border of the darkened area.
+   *
+   * @param sky whether to darken the sky light.
+   */
+  private void darken(final boolean sky) {
+    while (!this.decrease.isEmpty()) {
+      final var packed = this.decrease.dequeueLong();
+      final var x = LightEngine.unpackX(packed);
+      final var y = LightEngine.unpackY(packed);
+      final var z = LightEngine.unpackZ(packed);
+      final var level = LightEngine.unpackLevel(packed);
+      for (var direction = 0; direction < 6; direction++) {
+        final var nx = x + LightEngine.OFFSET_X[direction];
+        final var ny = y + LightEngine.OFFSET_Y[direction];
+        final var nz = z + LightEngine.OFFSET_Z[direction];
+        final var chunk = this.chunk(nx >> 4, nz >> 4);
+        if (chunk == null || ny < LightEngine.minY(chunk.chunk) || ny > LightEngine.maxY(chunk.chunk)) {
+          continue;
+        }
+        final var light = LightEngine.light(chunk.chunk, sky, ny);
+        final var index = (ny & 15) << 8 | (nz & 15) << 4 | nx & 15;
+        final var current = light.get(index);
+        if (current == 0) {
+          continue;
+        }
+        final var skyColumn = sky && direction == LightEngine.DOWN && level == LightEngine.MAX_LEVEL &&
+          current == LightEngine.MAX_LEVEL;
+        if (current >= level && !skyColumn) {
+          this.increase.enqueue(LightEngine.pack(nx, ny, nz, current));
+          continue;
+        }
+        light.set(index, 0);
+        this.decrease.enqueue(LightEngine.pack(nx, ny, nz, current));
+        final var source = this.source(sky, chunk, nx, ny, nz);
+        if (source != 0) {
+          light.set(index, source);
+          this.increase.enqueue(LightEngine.pack(nx, ny, nz, source));
+        }
+      }
+    }
+  }
+
+  /**
+   * computes the initial light of the chunk and queues the light of its loaded neighbours to spread into it.
+   *
+   * @param sky whether to compute the sky light.
+   * @param batchChunk the chunk to compute.
+   */
+  private void initialize(final boolean sky, @NotNull final BatchChunk batchChunk) {
+    final var chunk = batchChunk.chunk;
+    final var minY = LightEngine.minY(chunk);
+    final var maxY = LightEngine.maxY(chunk);
+    final var baseX = chunk.x() << 4;
+    final var baseZ = chunk.z() << 4;
+    if (sky) {
+      final var tops = new int[16 * 16];
+      for (var z = 0; z < 16; z++) {
+        for (var x = 0; x < 16; x++) {
+          var y = maxY;
+          while (y >= minY && this.opacity.applyAsInt(batchChunk.id(x, y, z)) == 0) {
+            LightEngine.light(chunk, true, y).set(x, y & 15, z, LightEngine.MAX_LEVEL);
+            y--;
+          }
+          tops[z << 4 | x] = y + 1;
+        }
+      }
+      for (var z = 0; z < 16; z++) {
+        for (var x = 0; x < 16; x++) {
+          final var top = tops[z << 4 | x];
+          var highest = top;
+          for (var direction = 2; direction < 6; direction++) {
+            final var nx = x + LightEngine.OFFSET_X[direction];
+            final var nz = z + LightEngine.OFFSET_Z[direction];
+            highest = Math.max(highest, nx < 0 || nx > 15 || nz < 0 || nz > 15 ? maxY : tops[nz << 4 | nx]);
+          }
+          for (var y = top; y <= Math.min(highest, maxY); y++) {
+            this.increase.enqueue(LightEngine.pack(baseX + x, y, baseZ + z, LightEngine.MAX_LEVEL));
+          }
+        }
+      }
+    } else {
+      for (var sectionY = chunk.minSection(); sectionY < chunk.minSection() + chunk.sectionCount(); sectionY++) {
+        final var blocks = batchChunk.blocks[sectionY - chunk.minSection()];
+        if (blocks.isUniform() && this.emission.applyAsInt(blocks.get(0)) == 0) {
+          continue;
+        }
+        final var light = chunk.section(sectionY).blockLight();
+        for (var index = 0; index < 4096; index++) {
+          final var emitted = this.emission.applyAsInt(blocks.get(index));
+          if (emitted != 0) {
+            light.set(index, emitted);
+            this.increase.enqueue(LightEngine.pack(baseX + (index & 15), sectionY << 4 | index >> 8,
+              baseZ + (index >> 4 & 15), emitted));
+          }
+        }
+      }
+    }
+    for (var direction = 2; direction < 6; direction++) {
+      final var batchNeighbour = this.chunk(chunk.x() + LightEngine.OFFSET_X[direction],
+        chunk.z() + LightEngine.OFFSET_Z[direction]);
+      if (batchNeighbour == null) {
+        continue;
+      }
+      final var neighbour = batchNeighbour.chunk;
+      for (var offset = 0; offset < 16; offset++) {
+        final var x = switch (direction) {
+          case 4 -> baseX - 1;
+          case 5 -> baseX + 16;
+          default -> baseX + offset;
+        };
+        final var z = switch (direction) {
+          case 2 -> baseZ - 1;
+          case 3 -> baseZ + 16;
+          default -> baseZ + offset;
+        };
+        for (var y = Math.max(minY, LightEngine.minY(neighbour)); y <= Math.min(maxY, LightEngine.maxY(neighbour));
+             y++) {
+          final var level = LightEngine.light(neighbour, sky, y).get(x & 15, y & 15, z & 15);
+          if (level > 1) {
+            this.increase.enqueue(LightEngine.pack(x, y, z, level));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * gets the light at the position.
+   *
+   * @param sky whether to get the sky light.
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return light at the position.
+   */
+  private int lightAt(final boolean sky, final int x, final int y, final int z) {
+    final var chunk = this.chunks.apply(ChunkMap.key(x >> 4, z >> 4));
+    if (chunk == null || y < LightEngine.minY(chunk)) {
+      return 0;
+    }
+    if (y > LightEngine.maxY(chunk)) {
+      return sky ? LightEngine.MAX_LEVEL : 0;
+    }
+    return LightEngine.light(chunk, sky, y).get(x & 15, y & 15, z & 15);
+  }
+
+  /**
+   * processes a batch.
+   *
+   * @param batch the batch to process.
+   */
+  private void process(@NotNull final Batch batch) {
+    this.batchChunks = batch.batchChunks;
+    try {
+      for (final var sky : new boolean[]{false, true}) {
+        for (final var chunk : batch.chunks) {
+          final var batchChunk = batch.batchChunks.get(ChunkMap.key(chunk.x(), chunk.z()));
+          assert batchChunk != null;
+          this.initialize(sky, batchChunk);
+        }
+        for (final var position : batch.positions) {
+          this.change(sky, position);
+        }
+        this.darken(sky);
+        this.spread(sky);
+      }
+    } finally {
+      this.decrease.clear();
+      this.increase.clear();
+      this.batchChunks = null;
+      this.cachedChunk = null;
+    }
+  }
+
+  /**
+   * snapshots the sections of the loaded chunks around the chunk position for the batch, must be called on the world
+   * thread.
+   * <p>
+   * light spreads at most 15 blocks from where it changes, so the batch only reads the blocks of the chunk and its
+   * eight neighbours.
+   *
+   * @param batch the batch to snapshot.
+   * @param chunkX the chunk x to snapshot around.
+   * @param chunkZ the chunk z to snapshot around.
+   */
+  private void snapshot(@NotNull final Batch batch, final int chunkX, final int chunkZ) {
+    for (var z = chunkZ - 1; z <= chunkZ + 1; z++) {
+      for (var x = chunkX - 1; x <= chunkX + 1; x++) {
+        final var key = ChunkMap.key(x, z);
+        if (batch.batchChunks.containsKey(key)) {
+          continue;
+        }
+        final var chunk = this.chunks.apply(key);
+        if (chunk != null) {
+          batch.batchChunks.put(key, new BatchChunk(chunk));
+        }
+      }
+    }
+  }
+
+  /**
+   * obtains the light level that the position emits by itself.
+   *
+   * @param sky whether to obtain the sky light.
+   * @param chunk the chunk of the position.
+   * @param x the x to obtain.
+   * @param y the y to obtain.
+   * @param z the z to obtain.
+   *
+   * @return emitted light level, the sky light that enters the top of the chunk for sky light.
+   */
+  private int source(final boolean sky, @NotNull final BatchChunk chunk, final int x, final int y, final int z) {
+    final var id = chunk.id(x, y, z);
+    if (!sky) {
+      return this.emission.applyAsInt(id);
+    }
+    if (y != LightEngine.maxY(chunk.chunk)) {
+      return 0;
+    }
+    return Math.max(0, LightEngine.MAX_LEVEL - this.opacity.applyAsInt(id));
+  }
+
+  /**
+   * spreads the light from the queued positions.
+   *
+   * @param sky whether to spread the sky light.
+   */
+  private void spread(final boolean sky) {
+    while (!this.increase.isEmpty()) {
+      final var packed = this.increase.dequeueLong();
+      final var x = LightEngine.unpackX(packed);
+      final var y = LightEngine.unpackY(packed);
+      final var z = LightEngine.unpackZ(packed);
+      final var level = LightEngine.unpackLevel(packed);
+      final var own = this.chunk(x >> 4, z >> 4);
+      if (own == null || LightEngine.light(own.chunk, sky, y).get(x & 15, y & 15, z & 15) != level) {
+        continue;
+      }
+      for (var direction = 0; direction < 6; direction++) {
+        final var nx = x + LightEngine.OFFSET_X[direction];
+        final var ny = y + LightEngine.OFFSET_Y[direction];
+        final var nz = z + LightEngine.OFFSET_Z[direction];
+        final var chunk = this.chunk(nx >> 4, nz >> 4);
+        if (chunk == null || ny < LightEngine.minY(chunk.chunk) || ny > LightEngine.maxY(chunk.chunk)) {
+          continue;
+        }
+        final var opacity = this.opacity.applyAsInt(chunk.id(nx, ny, nz));
+        final var spread = sky && direction == LightEngine.DOWN && level == LightEngine.MAX_LEVEL && opacity == 0
+          ? LightEngine.MAX_LEVEL
+          : level - Math.max(1, opacity);
+        if (spread <= 0) {
+          continue;
+        }
+        final var light = LightEngine.light(chunk.chunk, sky, ny);
+        final var index = (ny & 15) << 8 | (nz & 15) << 4 | nx & 15;
+        if (light.get(index) < spread) {
+          light.set(index, spread);
+          this.increase.enqueue(LightEngine.pack(nx, ny, nz, spread));
+        }
+      }
+    }
+  }
+
+  /**
+   * a class that represents batches of changes and chunks to process.
+   */
+  private static final class Batch {
+
+    /**
+     * the chunks of the batch by their keys.
+     */
+    @NotNull
+    private final Long2ObjectOpenHashMap<BatchChunk> batchChunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * the loaded chunks to light.
+     */
+    @NotNull
+    private final Chunk @NotNull [] chunks;
+
+    /**
+     * the changed positions.
+     */
+    private final long @NotNull [] positions;
+
+    /**
+     * ctor.
+     *
+     * @param positions the changed positions.
+     * @param chunks the loaded chunks to light.
+     */
+    private Batch(final long @NotNull [] positions, @NotNull final Chunk @NotNull [] chunks) {
+      this.positions = positions;
+      this.chunks = chunks;
+    }
+  }
+
+  /**
+   * a class that represents chunks as a batch sees them, the light is read and written in the chunk itself while the
+   * blocks are snapshots of the sections.
+   */
+  private static final class BatchChunk {
+
+    /**
+     * the snapshots of the blocks by the section index.
+     */
+    @NotNull
+    private final PalettedContainer @NotNull [] blocks;
+
+    /**
+     * the chunk.
+     */
+    @NotNull
+    private final Chunk chunk;
+
+    /**
+     * ctor.
+     *
+     * @param chunk the chunk to snapshot.
+     */
+    private BatchChunk(@NotNull final Chunk chunk) {
+      this.chunk = chunk;
+      this.blocks = new PalettedContainer[chunk.sectionCount()];
+      for (var index = 0; index < this.blocks.length; index++) {
+        this.blocks[index] = chunk.section(chunk.minSection() + index).blocks().snapshot();
+      }
+    }
+
+    /**
+     * gets the global id of the block at the position.
+     *
+     * @param x the x to get.
+     * @param y the y to get.
+     * @param z the z to get.
+     *
+     * @return global id of the block.
+     */
+    private int id(final int x, final int y, final int z) {
+      return this.blocks[(y >> 4) - this.chunk.minSection()].get(x & 15, y & 15, z & 15);
+    }
+  }
+}
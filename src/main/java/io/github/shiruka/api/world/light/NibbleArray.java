@@ -0,0 +1,109 @@
+package io.github.shiruka.api.world.light;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.world.palette.PalettedContainer;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents arrays of 4-bit values, which store the light levels of a section.
+ * <p>
+ * the values are indexed like {@link PalettedContainer#index(int, int, int)}, two values share a byte and the value
+ * with the even index is stored in the low bits.
+ */
+public final class NibbleArray {
+
+  /**
+   * the byte count of a section.
+   */
+  public static final int LENGTH = PalettedContainer.SIZE / 2;
+
+  /**
+   * the data.
+   */
+  private final byte @NotNull [] data;
+
+  /**
+   * ctor.
+   *
+   * @param data the data.
+   */
+  public NibbleArray(final byte @NotNull [] data) {
+    Preconditions.checkArgument(data.length == NibbleArray.LENGTH,
+      "Invalid nibble array length, expected %s but got %s", NibbleArray.LENGTH, data.length);
+    this.data = data;
+  }
+
+  /**
+   * ctor.
+   */
+  public NibbleArray() {
+    this(new byte[NibbleArray.LENGTH]);
+  }
+
+  /**
+   * obtains the data.
+   *
+   * @return data.
+   */
+  public byte @NotNull [] data() {
+    return this.data;
+  }
+
+  /**
+   * fills the array with the value.
+   *
+   * @param value the value to fill, in [0, 16).
+   */
+  public void fill(final int value) {
+    Arrays.fill(this.data, (byte) (value << 4 | value));
+  }
+
+  /**
+   * gets the value at the index.
+   *
+   * @param index the index to get.
+   *
+   * @return value at the index.
+   */
+  public int get(final int index) {
+    return this.data[index >> 1] >> ((index & 1) << 2) & 15;
+  }
+
+  /**
+   * gets the value at the position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return value at the position.
+   */
+  public int get(final int x, final int y, final int z) {
+    return this.get(PalettedContainer.index(x, y, z));
+  }
+
+  /**
+   * sets the value at the index.
+   *
+   * @param index the index to set.
+   * @param value the value to set, in [0, 16).
+   */
+  public void set(final int index, final int value) {
+    final var shift = (index & 1) << 2;
+    final var slot = index >> 1;
+    this.data[slot] = (byte) (this.data[slot] & ~(15 << shift) | (value & 15) << shift);
+  }
+
+  /**
+   * sets the value at the position.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   * @param value the value to set, in [0, 16).
+   */
+  public void set(final int x, final int y, final int z, final int value) {
+    this.set(PalettedContainer.index(x, y, z), value);
+  }
+}
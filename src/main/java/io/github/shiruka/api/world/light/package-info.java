@@ -0,0 +1,4 @@
+/**
+ * the package that contains block light and sky light classes.
+ */
+package io.github.shiruka.api.world.light;
@@ -0,0 +1,184 @@
+package io.github.shiruka.api.world.palette;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents fixed size arrays of unsigned integers which are packed into longs.
+ * <p>
+ * values never straddle two longs, every long holds {@code 64 / bits} values and the remaining high bits are unused.
+ * the storage is not thread-safe.
+ */
+public final class BitStorage {
+
+  /**
+   * the bits per value.
+   */
+  private final int bits;
+
+  /**
+   * the packed values.
+   */
+  private final long @NotNull [] data;
+
+  /**
+   * the mask of a value.
+   */
+  private final long mask;
+
+  /**
+   * the size.
+   */
+  private final int size;
+
+  /**
+   * the value count per long.
+   */
+  private final int valuesPerLong;
+
+  /**
+   * ctor.
+   *
+   * @param bits the bits.
+   * @param size the size.
+   * @param data the data.
+   */
+  public BitStorage(final int bits, final int size, final long @NotNull [] data) {
+    Preconditions.checkArgument(bits >= 1 && bits <= 32, "Bits per value must be in [1, 32], got %s", bits);
+    this.bits = bits;
+    this.size = size;
+    this.mask = (1L << bits) - 1L;
+    this.valuesPerLong = Long.SIZE / bits;
+    final var length = BitStorage.length(bits, size);
+    Preconditions.checkArgument(data.length == length,
+      "Invalid data length for %s values of %s bits, expected %s but got %s", size, bits, length, data.length);
+    this.data = data;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param bits the bits.
+   * @param size the size.
+   */
+  public BitStorage(final int bits, final int size) {
+    this(bits, size, new long[BitStorage.length(bits, size)]);
+  }
+
+  /**
+   * calculates the long count that is needed to store the values.
+   *
+   * @param bits the bits per value.
+   * @param size the value count.
+   *
+   * @return long count.
+   */
+  public static int length(final int bits, final int size) {
+    final var valuesPerLong = Long.SIZE / bits;
+    return (size + valuesPerLong - 1) / valuesPerLong;
+  }
+
+  /**
+   * obtains the bits per value.
+   *
+   * @return bits per value.
+   */
+  public int bits() {
+    return this.bits;
+  }
+
+  /**
+   * obtains the packed values.
+   * <p>
+   * the returned array is the backing array of the storage, it is not copied.
+   *
+   * @return packed values.
+   */
+  public long @NotNull [] data() {
+    return this.data;
+  }
+
+  /**
+   * gets the value at the index.
+   *
+   * @param index the index to get.
+   *
+   * @return value at the index.
+   */
+  public int get(final int index) {
+    final var cell = index / this.valuesPerLong;
+    final var shift = (index - cell * this.valuesPerLong) * this.bits;
+    return (int) (this.data[cell] >>> shift & this.mask);
+  }
+
+  /**
+   * sets the value at the index and returns the previous value.
+   *
+   * @param index the index to set.
+   * @param value the value to set.
+   *
+   * @return previous value at the index.
+   */
+  public int getAndSet(final int index, final int value) {
+    final var cell = index / this.valuesPerLong;
+    final var shift = (index - cell * this.valuesPerLong) * this.bits;
+    final var current = this.data[cell];
+    this.data[cell] = current & ~(this.mask << shift) | (value & this.mask) << shift;
+    return (int) (current >>> shift & this.mask);
+  }
+
+  /**
+   * packs all values of the given array into the storage.
+   *
+   * @param input the input to pack.
+   */
+  public void pack(final int @NotNull [] input) {
+    var index = 0;
+    for (var cell = 0; cell < this.data.length; cell++) {
+      var value = 0L;
+      final var end = Math.min(index + this.valuesPerLong, this.size);
+      for (var shift = 0; index < end; index++, shift += this.bits) {
+        value |= (input[index] & this.mask) << shift;
+      }
+      this.data[cell] = value;
+    }
+  }
+
+  /**
+   * sets the value at the index.
+   *
+   * @param index the index to set.
+   * @param value the value to set.
+   */
+  public void set(final int index, final int value) {
+    final var cell = index / this.valuesPerLong;
+    final var shift = (index - cell * this.valuesPerLong) * this.bits;
+    this.data[cell] = this.data[cell] & ~(this.mask << shift) | (value & this.mask) << shift;
+  }
+
+  /**
+   * obtains the size.
+   *
+   * @return size.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * unpacks all values into the given array.
+   *
+   * @param output the output to unpack.
+   */
+  public void unpack(final int @NotNull [] output) {
+    var index = 0;
+    for (final var cell : this.data) {
+      var value = cell;
+      final var end = Math.min(index + this.valuesPerLong, this.size);
+      for (; index < end; index++) {
+        output[index] = (int) (value & this.mask);
+        value >>>= this.bits;
+      }
+    }
+  }
+}
@@ -0,0 +1,523 @@
+package io.github.shiruka.api.world.palette;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.Int2ObjectBiMap;
+import io.github.shiruka.api.nbt.CompoundTag;
+import io.github.shiruka.api.nbt.Tag;
+import io.github.shiruka.api.nbt.array.IntArrayTag;
+import io.github.shiruka.api.nbt.array.LongArrayTag;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents paletted storages of the global ids of a 16x16x16 chunk section.
+ * <p>
+ * the container has three modes:
+ * <ul>
+ *   <li>single value, uniform sections such as air only store the value and no array at all.</li>
+ *   <li>indirect, each entry stores an index into a local palette, the bits per entry grow and shrink with the
+ *   palette up to {@value #MAX_INDIRECT_BITS} bits.</li>
+ *   <li>direct, sections with more distinct values store the global ids themselves.</li>
+ * </ul>
+ * the container is not thread-safe, {@link #snapshot()} creates copies that other threads can read while this
+ * container is written.
+ */
+public final class PalettedContainer {
+
+  /**
+   * the entry count of a section.
+   */
+  public static final int SIZE = 16 * 16 * 16;
+
+  /**
+   * the key of the bits per entry.
+   */
+  private static final String BITS_KEY = "bits";
+
+  /**
+   * the key of the packed entries.
+   */
+  private static final String DATA_KEY = "data";
+
+  /**
+   * the maximum bits per entry that uses a local palette.
+   */
+  private static final int MAX_INDIRECT_BITS = 8;
+
+  /**
+   * the maximum palette size that is scanned linearly instead of looking up the boxed bimap.
+   */
+  private static final int MAX_LINEAR_SCAN = 16;
+
+  /**
+   * the key of the palette.
+   */
+  private static final String PALETTE_KEY = "palette";
+
+  /**
+   * the global ids of the local palette, mirrors {@link #palette} to look up entries without boxing.
+   */
+  private int @NotNull [] entries = new int[0];
+
+  /**
+   * the local palette which maps local indexes to global ids, {@code null} in single value and direct modes.
+   */
+  @Nullable
+  private Int2ObjectBiMap<Integer> palette;
+
+  /**
+   * the size of the local palette.
+   */
+  private int paletteSize;
+
+  /**
+   * whether the storage, the palette and the entries are shared with a snapshot and must be copied before a write.
+   */
+  private boolean shared;
+
+  /**
+   * the value of the single value mode.
+   */
+  private int singleValue;
+
+  /**
+   * the packed entries, {@code null} in single value mode.
+   */
+  @Nullable
+  private BitStorage storage;
+
+  /**
+   * ctor.
+   *
+   * @param value the value to fill.
+   */
+  public PalettedContainer(final int value) {
+    this.singleValue = value;
+  }
+
+  /**
+   * ctor.
+   */
+  public PalettedContainer() {
+    this(0);
+  }
+
+  /**
+   * creates a container from the given compound tag.
+   *
+   * @param tag the tag to create.
+   *
+   * @return a new container.
+   *
+   * @throws IllegalArgumentException if the tag is not a valid container.
+   * @see #serialize()
+   */
+  @NotNull
+  public static PalettedContainer deserialize(@NotNull final CompoundTag tag) {
+    final var palette = tag.get(PalettedContainer.PALETTE_KEY)
+      .filter(Tag::isIntArray)
+      .map(Tag::asIntArray)
+      .map(IntArrayTag::primitiveValue)
+      .orElseThrow(() -> new IllegalArgumentException("Palette not found!"));
+    final var data = tag.get(PalettedContainer.DATA_KEY)
+      .filter(Tag::isLongArray)
+      .map(Tag::asLongArray)
+      .map(LongArrayTag::primitiveValue)
+      .orElseThrow(() -> new IllegalArgumentException("Data not found!"));
+    final int bits = tag.getByte(PalettedContainer.BITS_KEY).orElse((byte) 0);
+    if (bits == 0) {
+      Preconditions.checkArgument(palette.length == 1, "Single value containers need one palette entry!");
+      return new PalettedContainer(palette[0]);
+    }
+    final var container = new PalettedContainer();
+    final var storage = new BitStorage(bits, PalettedContainer.SIZE, data);
+    container.storage = storage;
+    if (bits > PalettedContainer.MAX_INDIRECT_BITS) {
+      Preconditions.checkArgument(palette.length == 0, "Direct containers must not have a palette!");
+      return container;
+    }
+    Preconditions.checkArgument(palette.length > 0 && palette.length <= 1 << bits,
+      "Palette of %s entries does not fit in %s bits!", palette.length, bits);
+    final var map = new Int2ObjectBiMap<Integer>(palette.length);
+    for (var index = 0; index < palette.length; index++) {
+      map.put(index, palette[index]);
+    }
+    container.palette = map;
+    container.entries = Arrays.copyOf(palette, 1 << bits);
+    container.paletteSize = palette.length;
+    for (var index = 0; index < PalettedContainer.SIZE; index++) {
+      Preconditions.checkArgument(storage.get(index) < palette.length,
+        "Entry %s points outside of the palette!", index);
+    }
+    return container;
+  }
+
+  /**
+   * obtains the index of the position in a section.
+   *
+   * @param x the x to obtain, in [0, 16).
+   * @param y the y to obtain, in [0, 16).
+   * @param z the z to obtain, in [0, 16).
+   *
+   * @return index of the position.
+   */
+  public static int index(final int x, final int y, final int z) {
+    return y << 8 | z << 4 | x;
+  }
+
+  /**
+   * calculates the bits that are needed to store the value.
+   *
+   * @param value the value to calculate.
+   *
+   * @return bits to store the value, at least {@code 1}.
+   */
+  private static int bitsFor(final int value) {
+    return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(value));
+  }
+
+  /**
+   * finds the local index of the global id, scans the entries of small palettes to avoid boxing the id.
+   *
+   * @param palette the palette to find.
+   * @param entries the entries of the palette.
+   * @param size the size of the palette.
+   * @param value the value to find.
+   *
+   * @return local index of the value, {@code -1} if the palette does not contain it.
+   */
+  private static int localOf(@NotNull final Int2ObjectBiMap<Integer> palette, final int @NotNull [] entries,
+                             final int size, final int value) {
+    if (size > PalettedContainer.MAX_LINEAR_SCAN) {
+      return palette.get(Integer.valueOf(value));
+    }
+    for (var local = 0; local < size; local++) {
+      if (entries[local] == value) {
+        return local;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * obtains the bits per entry.
+   *
+   * @return bits per entry, {@code 0} in single value mode.
+   */
+  public int bits() {
+    final var storage = this.storage;
+    return storage == null ? 0 : storage.bits();
+  }
+
+  /**
+   * removes the unused palette entries and shrinks the bits per entry if possible.
+   * <p>
+   * uniform containers switch to single value mode and direct containers switch back to a local palette when they
+   * have few enough distinct values.
+   */
+  public void compact() {
+    if (this.storage != null) {
+      this.load(this.unpack(), false);
+    }
+  }
+
+  /**
+   * fills the container with the value.
+   *
+   * @param value the value to fill.
+   */
+  public void fill(final int value) {
+    this.single(value);
+  }
+
+  /**
+   * gets the global id at the index.
+   *
+   * @param index the index to get.
+   *
+   * @return global id at the index.
+   */
+  public int get(final int index) {
+    final var storage = this.storage;
+    if (storage == null) {
+      return this.singleValue;
+    }
+    final var value = storage.get(index);
+    return this.palette == null ? value : this.entries[value];
+  }
+
+  /**
+   * gets the global id at the position.
+   *
+   * @param x the x to get.
+   * @param y the y to get.
+   * @param z the z to get.
+   *
+   * @return global id at the position.
+   */
+  public int get(final int x, final int y, final int z) {
+    return this.get(PalettedContainer.index(x, y, z));
+  }
+
+  /**
+   * checks if all entries have the same value without scanning them.
+   *
+   * @return {@code true} if the container is in single value mode.
+   */
+  public boolean isUniform() {
+    return this.storage == null;
+  }
+
+  /**
+   * obtains the global ids in the local palette.
+   *
+   * @return a copy of the palette, the single value in single value mode and empty in direct mode.
+   */
+  public int @NotNull [] palette() {
+    if (this.storage == null) {
+      return new int[]{this.singleValue};
+    }
+    return Arrays.copyOf(this.entries, this.paletteSize);
+  }
+
+  /**
+   * creates a compound tag that contains the palette as {@link IntArrayTag} and the packed entries as
+   * {@link LongArrayTag}.
+   *
+   * @return a new compound tag.
+   *
+   * @see #deserialize(CompoundTag)
+   */
+  @NotNull
+  public CompoundTag serialize() {
+    final var tag = Tag.createCompound();
+    final var storage = this.storage;
+    tag.setByte(PalettedContainer.BITS_KEY, (byte) this.bits());
+    tag.setIntArray(PalettedContainer.PALETTE_KEY, this.palette());
+    tag.setLongArray(PalettedContainer.DATA_KEY, storage == null ? new long[0] : storage.data());
+    return tag;
+  }
+
+  /**
+   * sets the global id at the index.
+   *
+   * @param index the index to set.
+   * @param value the value to set.
+   *
+   * @return previous global id at the index.
+   */
+  public int set(final int index, final int value) {
+    if (this.storage == null) {
+      if (value == this.singleValue) {
+        return value;
+      }
+      this.split();
+    } else if (this.shared) {
+      this.unshare();
+    }
+    final var local = this.localOf(value);
+    final var storage = this.storage;
+    assert storage != null;
+    final var previous = storage.getAndSet(index, local);
+    return this.palette == null ? previous : this.entries[previous];
+  }
+
+  /**
+   * sets the global id at the position.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   * @param value the value to set.
+   *
+   * @return previous global id at the position.
+   */
+  public int set(final int x, final int y, final int z, final int value) {
+    return this.set(PalettedContainer.index(x, y, z), value);
+  }
+
+  /**
+   * creates a copy of the container in constant time.
+   * <p>
+   * the copy shares the storage with this container until one of them is written, the written one copies the
+   * storage first. so a snapshot that is created on the thread that writes this container can be read by any thread
+   * that it is safely published to, as long as the snapshot itself is not written.
+   *
+   * @return a new container that has the same global ids.
+   */
+  @NotNull
+  public PalettedContainer snapshot() {
+    final var copy = new PalettedContainer(this.singleValue);
+    if (this.storage != null) {
+      copy.storage = this.storage;
+      copy.palette = this.palette;
+      copy.entries = this.entries;
+      copy.paletteSize = this.paletteSize;
+      copy.shared = true;
+      this.shared = true;
+    }
+    return copy;
+  }
+
+  /**
+   * unpacks the global ids of all entries into the given array.
+   *
+   * @param output the output to unpack, at least {@link #SIZE} long.
+   */
+  public void unpack(final int @NotNull [] output) {
+    final var storage = this.storage;
+    if (storage == null) {
+      Arrays.fill(output, 0, PalettedContainer.SIZE, this.singleValue);
+      return;
+    }
+    storage.unpack(output);
+    if (this.palette != null) {
+      for (var index = 0; index < PalettedContainer.SIZE; index++) {
+        output[index] = this.entries[output[index]];
+      }
+    }
+  }
+
+  /**
+   * unpacks the global ids of all entries.
+   *
+   * @return a new array of global ids.
+   */
+  public int @NotNull [] unpack() {
+    final var output = new int[PalettedContainer.SIZE];
+    this.unpack(output);
+    return output;
+  }
+
+  /**
+   * rebuilds the container from the given global ids.
+   *
+   * @param values the values to load.
+   * @param growing whether the palette should have room for new values.
+   */
+  private void load(final int @NotNull [] values, final boolean growing) {
+    final var palette = new Int2ObjectBiMap<Integer>(16);
+    final var locals = new int[PalettedContainer.SIZE];
+    var entries = new int[16];
+    var count = 0;
+    var max = 0;
+    for (var index = 0; index < PalettedContainer.SIZE; index++) {
+      final var value = values[index];
+      var local = PalettedContainer.localOf(palette, entries, count, value);
+      if (local == -1) {
+        local = count++;
+        palette.put(local, value);
+        if (local == entries.length) {
+          entries = Arrays.copyOf(entries, local << 1);
+        }
+        entries[local] = value;
+        max = Math.max(max, value);
+      }
+      locals[index] = local;
+    }
+    if (count == 1 && !growing) {
+      this.single(values[0]);
+      return;
+    }
+    var bits = PalettedContainer.bitsFor(growing ? count + Math.max(1, count >>> 2) - 1 : count - 1);
+    if (bits > PalettedContainer.MAX_INDIRECT_BITS && count < 1 << PalettedContainer.MAX_INDIRECT_BITS) {
+      bits = PalettedContainer.MAX_INDIRECT_BITS;
+    }
+    this.shared = false;
+    if (bits > PalettedContainer.MAX_INDIRECT_BITS) {
+      this.palette = null;
+      this.entries = new int[0];
+      this.paletteSize = 0;
+      this.storage = new BitStorage(Math.max(PalettedContainer.MAX_INDIRECT_BITS + 1,
+        PalettedContainer.bitsFor(max)), PalettedContainer.SIZE);
+      this.storage.pack(values);
+      return;
+    }
+    this.palette = palette;
+    this.entries = Arrays.copyOf(entries, 1 << bits);
+    this.paletteSize = count;
+    this.storage = new BitStorage(bits, PalettedContainer.SIZE);
+    this.storage.pack(locals);
+  }
+
+  /**
+   * obtains the value that is stored for the global id, adds it to the palette or grows the storage if needed.
+   *
+   * @param value the value to obtain.
+   *
+   * @return local index in indirect mode, the value itself in direct mode.
+   */
+  private int localOf(final int value) {
+    var palette = this.palette;
+    if (palette != null) {
+      final var local = PalettedContainer.localOf(palette, this.entries, this.paletteSize, value);
+      if (local != -1) {
+        return local;
+      }
+      if (this.paletteSize == this.entries.length) {
+        this.load(this.unpack(), true);
+        palette = this.palette;
+      }
+    }
+    if (palette == null) {
+      final var storage = this.storage;
+      assert storage != null;
+      if (value >>> storage.bits() != 0) {
+        final var values = this.unpack();
+        this.storage = new BitStorage(PalettedContainer.bitsFor(value), PalettedContainer.SIZE);
+        this.storage.pack(values);
+      }
+      return value;
+    }
+    final var local = this.paletteSize++;
+    palette.put(local, value);
+    this.entries[local] = value;
+    return local;
+  }
+
+  /**
+   * switches to single value mode.
+   *
+   * @param value the value to switch.
+   */
+  private void single(final int value) {
+    this.shared = false;
+    this.singleValue = value;
+    this.storage = null;
+    this.palette = null;
+    this.entries = new int[0];
+    this.paletteSize = 0;
+  }
+
+  /**
+   * switches from single value mode to a 1-bit local palette that only contains the single value.
+   */
+  private void split() {
+    final var palette = new Int2ObjectBiMap<Integer>(2);
+    palette.put(0, this.singleValue);
+    this.palette = palette;
+    this.entries = new int[2];
+    this.entries[0] = this.singleValue;
+    this.paletteSize = 1;
+    this.storage = new BitStorage(1, PalettedContainer.SIZE);
+  }
+
+  /**
+   * copies the storage, the palette and the entries that are shared with a snapshot.
+   */
+  private void unshare() {
+    final var storage = this.storage;
+    assert storage != null;
+    this.storage = new BitStorage(storage.bits(), PalettedContainer.SIZE, storage.data().clone());
+    if (this.palette != null) {
+      final var palette = new Int2ObjectBiMap<Integer>(this.entries.length);
+      for (var local = 0; local < this.paletteSize; local++) {
+        palette.put(local, this.entries[local]);
+      }
+      this.palette = palette;
+      this.entries = this.entries.clone();
+    }
+    this.shared = false;
+  }
+}
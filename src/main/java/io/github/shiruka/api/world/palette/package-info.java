@@ -0,0 +1,4 @@
+/**
+ * the package that contains paletted block storage classes.
+ */
+package io.github.shiruka.api.world.palette;
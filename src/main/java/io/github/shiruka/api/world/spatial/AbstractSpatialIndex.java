@@ -0,0 +1,155 @@
+package io.github.shiruka.api.world.spatial;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an abstract class that implements the value bookkeeping of spatial indexes.
+ *
+ * @param <T> type of the values.
+ */
+abstract class AbstractSpatialIndex<T> implements SpatialIndex<T> {
+
+  /**
+   * the entries by their values.
+   */
+  @NotNull
+  private final Reference2ObjectOpenHashMap<T, SpatialEntry<T>> entries = new Reference2ObjectOpenHashMap<>();
+
+  /**
+   * the radius of the first search of {@link #nearest(double, double, double, int)}.
+   */
+  private final double initialRadius;
+
+  /**
+   * ctor.
+   *
+   * @param initialRadius the initial radius.
+   */
+  AbstractSpatialIndex(final double initialRadius) {
+    Preconditions.checkArgument(initialRadius > 0.0d, "Initial radius must be positive!");
+    this.initialRadius = initialRadius;
+  }
+
+  /**
+   * checks if the position is finite.
+   *
+   * @param x the x to check.
+   * @param y the y to check.
+   * @param z the z to check.
+   */
+  private static void checkFinite(final double x, final double y, final double z) {
+    Preconditions.checkArgument(Double.isFinite(x) && Double.isFinite(y) && Double.isFinite(z),
+      "Position %s, %s, %s must be finite!", x, y, z);
+  }
+
+  @Override
+  public final void add(@NotNull final T value, final double x, final double y, final double z) {
+    AbstractSpatialIndex.checkFinite(x, y, z);
+    final var existing = this.entries.get(value);
+    if (existing != null) {
+      this.relocate(existing, x, y, z);
+      return;
+    }
+    final var entry = new SpatialEntry<>(value);
+    entry.x = x;
+    entry.y = y;
+    entry.z = z;
+    this.entries.put(value, entry);
+    this.insert(entry);
+  }
+
+  @Override
+  public final boolean contains(@NotNull final T value) {
+    return this.entries.containsKey(value);
+  }
+
+  @Override
+  public final boolean move(@NotNull final T value, final double x, final double y, final double z) {
+    AbstractSpatialIndex.checkFinite(x, y, z);
+    final var entry = this.entries.get(value);
+    if (entry == null) {
+      return false;
+    }
+    this.relocate(entry, x, y, z);
+    return true;
+  }
+
+  @NotNull
+  @Override
+  public final List<T> nearest(final double x, final double y, final double z, final int count) {
+    Preconditions.checkArgument(count >= 0, "Count cannot be negative!");
+    AbstractSpatialIndex.checkFinite(x, y, z);
+    final var result = new ObjectArrayList<T>(Math.min(count, this.entries.size()));
+    if (count == 0 || this.entries.isEmpty()) {
+      return result;
+    }
+    final var candidates = new ObjectArrayList<SpatialEntry<T>>();
+    for (var radius = this.initialRadius; Double.isFinite(radius); radius *= 2.0d) {
+      candidates.clear();
+      this.collect(x, y, z, radius, candidates);
+      if (candidates.size() >= count || candidates.size() == this.entries.size()) {
+        break;
+      }
+    }
+    candidates.unstableSort((first, second) ->
+      Double.compare(first.distanceSquared(x, y, z), second.distanceSquared(x, y, z)));
+    for (var index = 0; index < Math.min(count, candidates.size()); index++) {
+      result.add(candidates.get(index).value);
+    }
+    return result;
+  }
+
+  @Override
+  public final boolean remove(@NotNull final T value) {
+    final var entry = this.entries.remove(value);
+    if (entry == null) {
+      return false;
+    }
+    this.delete(entry);
+    return true;
+  }
+
+  @Override
+  public final int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * collects the entries within the radius of the position.
+   *
+   * @param x the x to collect.
+   * @param y the y to collect.
+   * @param z the z to collect.
+   * @param radius the radius to collect.
+   * @param output the output to collect into.
+   */
+  abstract void collect(double x, double y, double z, double radius, @NotNull List<SpatialEntry<T>> output);
+
+  /**
+   * removes the entry from its container.
+   *
+   * @param entry the entry to delete.
+   */
+  abstract void delete(@NotNull SpatialEntry<T> entry);
+
+  /**
+   * inserts the entry into the container of its position.
+   *
+   * @param entry the entry to insert.
+   */
+  abstract void insert(@NotNull SpatialEntry<T> entry);
+
+  /**
+   * moves the entry to the position, without allocating if the entry stays in its container.
+   *
+   * @param entry the entry to relocate.
+   * @param x the x to relocate.
+   * @param y the y to relocate.
+   * @param z the z to relocate.
+   */
+  abstract void relocate(@NotNull SpatialEntry<T> entry, double x, double y, double z);
+}
@@ -0,0 +1,315 @@
+package io.github.shiruka.api.world.spatial;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.Floors;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents spatial indexes which hash values into a grid of cubic cells, such as chunk sections.
+ * <p>
+ * the grid suits dense areas, a query only visits the cells that overlap it and a value that moves inside its cell
+ * only updates its position. cells are hashed by their coordinates packed into 21 bits each, the cells that are
+ * {@code 2^21} cells apart share a key and are chained, so they never mix their values.
+ *
+ * @param <T> type of the values.
+ */
+public final class GridSpatialIndex<T> extends AbstractSpatialIndex<T> {
+
+  /**
+   * the default cell size, which matches chunk sections.
+   */
+  public static final double DEFAULT_CELL_SIZE = 16.0d;
+
+  /**
+   * the mask of a packed cell coordinate.
+   */
+  private static final long MASK = (1L << 21) - 1L;
+
+  /**
+   * the cell size.
+   */
+  private final double cellSize;
+
+  /**
+   * the cells by their keys, the first cell of each chain.
+   */
+  @NotNull
+  private final Long2ObjectOpenHashMap<Cell<T>> cells = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * ctor.
+   *
+   * @param cellSize the cell size.
+   */
+  public GridSpatialIndex(final double cellSize) {
+    super(cellSize);
+    Preconditions.checkArgument(cellSize > 0.0d, "Cell size must be positive!");
+    this.cellSize = cellSize;
+  }
+
+  /**
+   * ctor.
+   */
+  public GridSpatialIndex() {
+    this(GridSpatialIndex.DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * packs the cell coordinates into a key.
+   *
+   * @param x the cell x to pack.
+   * @param y the cell y to pack.
+   * @param z the cell z to pack.
+   *
+   * @return packed key.
+   */
+  private static long key(final int x, final int y, final int z) {
+    return (x & GridSpatialIndex.MASK) << 42 | (y & GridSpatialIndex.MASK) << 21 | z & GridSpatialIndex.MASK;
+  }
+
+  /**
+   * visits the entries of the cell.
+   *
+   * @param cell the cell to visit.
+   * @param minX the min x to visit.
+   * @param minY the min y to visit.
+   * @param minZ the min z to visit.
+   * @param maxX the max x to visit.
+   * @param maxY the max y to visit.
+   * @param maxZ the max z to visit.
+   * @param x the center x of the range.
+   * @param y the center y of the range.
+   * @param z the center z of the range.
+   * @param radiusSquared the squared radius of the range, negative to visit the box.
+   * @param consumer the consumer to visit the values.
+   * @param output the output to collect the entries.
+   * @param <T> type of the values.
+   */
+  private static <T> void visit(@NotNull final SpatialBucket<T> cell, final double minX, final double minY,
+                                final double minZ, final double maxX, final double maxY, final double maxZ,
+                                final double x, final double y, final double z, final double radiusSquared,
+                                @Nullable final Consumer<? super T> consumer,
+                                @Nullable final List<SpatialEntry<T>> output) {
+    if (output != null) {
+      cell.collect(x, y, z, radiusSquared, output);
+    } else if (consumer != null && radiusSquared < 0.0d) {
+      cell.forEachInBox(minX, minY, minZ, maxX, maxY, maxZ, consumer);
+    } else if (consumer != null) {
+      cell.forEachInRange(x, y, z, radiusSquared, consumer);
+    }
+  }
+
+  @Override
+  public void forEachInBox(final double minX, final double minY, final double minZ, final double maxX,
+                           final double maxY, final double maxZ, @NotNull final Consumer<? super T> consumer) {
+    this.visit(minX, minY, minZ, maxX, maxY, maxZ, 0.0d, 0.0d, 0.0d, -1.0d, consumer, null);
+  }
+
+  @Override
+  public void forEachInRange(final double x, final double y, final double z, final double radius,
+                             @NotNull final Consumer<? super T> consumer) {
+    this.visit(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x, y, z, radius * radius,
+      consumer, null);
+  }
+
+  @Override
+  void collect(final double x, final double y, final double z, final double radius,
+               @NotNull final List<SpatialEntry<T>> output) {
+    this.visit(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x, y, z, radius * radius,
+      null, output);
+  }
+
+  @Override
+  void delete(@NotNull final SpatialEntry<T> entry) {
+    final var cell = (Cell<T>) entry.owner;
+    assert cell != null;
+    cell.remove(entry);
+    if (cell.size != 0) {
+      return;
+    }
+    final var first = this.cells.get(cell.key);
+    if (first == cell) {
+      if (cell.next == null) {
+        this.cells.remove(cell.key);
+      } else {
+        this.cells.put(cell.key, cell.next);
+      }
+      return;
+    }
+    var previous = first;
+    while (previous != null && previous.next != cell) {
+      previous = previous.next;
+    }
+    assert previous != null;
+    previous.next = cell.next;
+  }
+
+  @Override
+  void insert(@NotNull final SpatialEntry<T> entry) {
+    final var x = this.cell(entry.x);
+    final var y = this.cell(entry.y);
+    final var z = this.cell(entry.z);
+    final var key = GridSpatialIndex.key(x, y, z);
+    var cell = this.find(key, x, y, z);
+    if (cell == null) {
+      cell = new Cell<>(key, x, y, z);
+      cell.next = this.cells.get(key);
+      this.cells.put(key, cell);
+    }
+    cell.add(entry);
+  }
+
+  @Override
+  void relocate(@NotNull final SpatialEntry<T> entry, final double x, final double y, final double z) {
+    final var cell = (Cell<T>) entry.owner;
+    assert cell != null;
+    if (cell.x == this.cell(x) && cell.y == this.cell(y) && cell.z == this.cell(z)) {
+      entry.x = x;
+      entry.y = y;
+      entry.z = z;
+      return;
+    }
+    this.delete(entry);
+    entry.x = x;
+    entry.y = y;
+    entry.z = z;
+    this.insert(entry);
+  }
+
+  /**
+   * obtains the cell coordinate of the coordinate.
+   *
+   * @param value the value to obtain.
+   *
+   * @return cell coordinate, clamped to the int range.
+   */
+  private int cell(final double value) {
+    return Floors.floor(Math.max(value / this.cellSize, Integer.MIN_VALUE));
+  }
+
+  /**
+   * finds the cell at the cell coordinates.
+   *
+   * @param key the key of the cell coordinates.
+   * @param x the cell x to find.
+   * @param y the cell y to find.
+   * @param z the cell z to find.
+   *
+   * @return cell at the coordinates, {@code null} if it is empty.
+   */
+  @Nullable
+  private Cell<T> find(final long key, final int x, final int y, final int z) {
+    for (var cell = this.cells.get(key); cell != null; cell = cell.next) {
+      if (cell.x == x && cell.y == y && cell.z == z) {
+        return cell;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * visits the cells that overlap the box, scanning the occupied cells instead if they are fewer.
+   *
+   * @param minX the min x to visit.
+   * @param minY the min y to visit.
+   * @param minZ the min z to visit.
+   * @param maxX the max x to visit.
+   * @param maxY the max y to visit.
+   * @param maxZ the max z to visit.
+   * @param x the center x of the range.
+   * @param y the center y of the range.
+   * @param z the center z of the range.
+   * @param radiusSquared the squared radius of the range, negative to visit the box.
+   * @param consumer the consumer to visit the values.
+   * @param output the output to collect the entries.
+   */
+  private void visit(final double minX, final double minY, final double minZ, final double maxX, final double maxY,
+                     final double maxZ, final double x, final double y, final double z, final double radiusSquared,
+                     @Nullable final Consumer<? super T> consumer, @Nullable final List<SpatialEntry<T>> output) {
+    final var minCellX = this.cell(minX);
+    final var minCellY = this.cell(minY);
+    final var minCellZ = this.cell(minZ);
+    final var maxCellX = this.cell(maxX);
+    final var maxCellY = this.cell(maxY);
+    final var maxCellZ = this.cell(maxZ);
+    final var volume = ((double) maxCellX - minCellX + 1.0d) * ((double) maxCellY - minCellY + 1.0d) *
+      ((double) maxCellZ - minCellZ + 1.0d);
+    if (volume > this.cells.size()) {
+      for (final var first : this.cells.values()) {
+        for (var cell = first; cell != null; cell = cell.next) {
+          if (cell.x >= minCellX && cell.x <= maxCellX && cell.y >= minCellY && cell.y <= maxCellY &&
+            cell.z >= minCellZ && cell.z <= maxCellZ) {
+            GridSpatialIndex.visit(cell, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radiusSquared, consumer,
+              output);
+          }
+        }
+      }
+      return;
+    }
+    for (var cellY = (long) minCellY; cellY <= maxCellY; cellY++) {
+      for (var cellZ = (long) minCellZ; cellZ <= maxCellZ; cellZ++) {
+        for (var cellX = (long) minCellX; cellX <= maxCellX; cellX++) {
+          final var cell = this.find(GridSpatialIndex.key((int) cellX, (int) cellY, (int) cellZ), (int) cellX,
+            (int) cellY, (int) cellZ);
+          if (cell != null) {
+            GridSpatialIndex.visit(cell, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radiusSquared, consumer,
+              output);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * a class that represents cells of the grid.
+   *
+   * @param <T> type of the values.
+   */
+  private static final class Cell<T> extends SpatialBucket<T> {
+
+    /**
+     * the key.
+     */
+    private final long key;
+
+    /**
+     * the cell x.
+     */
+    private final int x;
+
+    /**
+     * the cell y.
+     */
+    private final int y;
+
+    /**
+     * the cell z.
+     */
+    private final int z;
+
+    /**
+     * the next cell that shares the key.
+     */
+    @Nullable
+    private Cell<T> next;
+
+    /**
+     * ctor.
+     *
+     * @param key the key.
+     * @param x the x.
+     * @param y the y.
+     * @param z the z.
+     */
+    private Cell(final long key, final int x, final int y, final int z) {
+      this.key = key;
+      this.x = x;
+      this.y = y;
+      this.z = z;
+    }
+  }
+}
@@ -0,0 +1,306 @@
+package io.github.shiruka.api.world.spatial;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents spatial indexes which store values in a loose octree.
+ * <p>
+ * the octree suits sparse areas, it splits a node once it holds more than {@link #CAPACITY} values. the loose bounds
+ * of a node are twice as large as its cell, so a value stays in its node and only updates its position while it
+ * moves inside the loose bounds. values outside of the root cell are kept in the root.
+ *
+ * @param <T> type of the values.
+ */
+public final class OctreeSpatialIndex<T> extends AbstractSpatialIndex<T> {
+
+  /**
+   * the count of values that a node holds before it splits.
+   */
+  public static final int CAPACITY = 8;
+
+  /**
+   * the max depth of the nodes.
+   */
+  private final int maxDepth;
+
+  /**
+   * the root.
+   */
+  @NotNull
+  private final Node<T> root;
+
+  /**
+   * ctor.
+   *
+   * @param centerX the center x of the root.
+   * @param centerY the center y of the root.
+   * @param centerZ the center z of the root.
+   * @param halfSize the half size of the root.
+   * @param maxDepth the max depth.
+   */
+  public OctreeSpatialIndex(final double centerX, final double centerY, final double centerZ, final double halfSize,
+                            final int maxDepth) {
+    super(Math.max(1.0d, halfSize / (1 << Math.min(maxDepth, 30))));
+    Preconditions.checkArgument(halfSize > 0.0d, "Half size must be positive!");
+    Preconditions.checkArgument(maxDepth >= 0, "Max depth cannot be negative!");
+    this.root = new Node<>(centerX, centerY, centerZ, halfSize, 0);
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * visits the entries of the node and its children that may overlap the box.
+   *
+   * @param node the node to visit.
+   * @param minX the min x to visit.
+   * @param minY the min y to visit.
+   * @param minZ the min z to visit.
+   * @param maxX the max x to visit.
+   * @param maxY the max y to visit.
+   * @param maxZ the max z to visit.
+   * @param x the center x of the range.
+   * @param y the center y of the range.
+   * @param z the center z of the range.
+   * @param radiusSquared the squared radius of the range, negative to visit the box.
+   * @param consumer the consumer to visit the values.
+   * @param output the output to collect the entries.
+   * @param <T> type of the values.
+   */
+  private static <T> void visit(@NotNull final Node<T> node, final double minX, final double minY,
+                                final double minZ, final double maxX, final double maxY, final double maxZ,
+                                final double x, final double y, final double z, final double radiusSquared,
+                                @Nullable final Consumer<? super T> consumer,
+                                @Nullable final List<SpatialEntry<T>> output) {
+    if (node.depth != 0 && !node.looseIntersects(minX, minY, minZ, maxX, maxY, maxZ)) {
+      return;
+    }
+    if (output != null) {
+      node.collect(x, y, z, radiusSquared, output);
+    } else if (consumer != null && radiusSquared < 0.0d) {
+      node.forEachInBox(minX, minY, minZ, maxX, maxY, maxZ, consumer);
+    } else if (consumer != null) {
+      node.forEachInRange(x, y, z, radiusSquared, consumer);
+    }
+    final var children = node.children;
+    if (children != null) {
+      for (final var child : children) {
+        OctreeSpatialIndex.visit(child, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radiusSquared, consumer,
+          output);
+      }
+    }
+  }
+
+  @Override
+  public void forEachInBox(final double minX, final double minY, final double minZ, final double maxX,
+                           final double maxY, final double maxZ, @NotNull final Consumer<? super T> consumer) {
+    OctreeSpatialIndex.visit(this.root, minX, minY, minZ, maxX, maxY, maxZ, 0.0d, 0.0d, 0.0d, -1.0d, consumer,
+      null);
+  }
+
+  @Override
+  public void forEachInRange(final double x, final double y, final double z, final double radius,
+                             @NotNull final Consumer<? super T> consumer) {
+    OctreeSpatialIndex.visit(this.root, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x,
+      y, z, radius * radius, consumer, null);
+  }
+
+  @Override
+  void collect(final double x, final double y, final double z, final double radius,
+               @NotNull final List<SpatialEntry<T>> output) {
+    OctreeSpatialIndex.visit(this.root, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x,
+      y, z, radius * radius, null, output);
+  }
+
+  @Override
+  void delete(@NotNull final SpatialEntry<T> entry) {
+    final var node = (Node<T>) entry.owner;
+    assert node != null;
+    node.remove(entry);
+  }
+
+  @Override
+  void insert(@NotNull final SpatialEntry<T> entry) {
+    var node = this.root;
+    while (node.children != null) {
+      final var child = node.children[node.octant(entry.x, entry.y, entry.z)];
+      if (!child.contains(entry.x, entry.y, entry.z)) {
+        break;
+      }
+      node = child;
+    }
+    node.add(entry);
+    this.split(node);
+  }
+
+  @Override
+  void relocate(@NotNull final SpatialEntry<T> entry, final double x, final double y, final double z) {
+    final var node = (Node<T>) entry.owner;
+    assert node != null;
+    if (node.depth != 0 && node.looseContains(x, y, z) ||
+      node.depth == 0 && node.children == null) {
+      entry.x = x;
+      entry.y = y;
+      entry.z = z;
+      return;
+    }
+    node.remove(entry);
+    entry.x = x;
+    entry.y = y;
+    entry.z = z;
+    this.insert(entry);
+  }
+
+  /**
+   * splits the leaf if it holds more than {@link #CAPACITY} values and moves its values into the children.
+   *
+   * @param node the node to split.
+   */
+  private void split(@NotNull final Node<T> node) {
+    if (node.children != null || node.size <= OctreeSpatialIndex.CAPACITY || node.depth >= this.maxDepth) {
+      return;
+    }
+    final var half = node.half / 2.0d;
+    @SuppressWarnings("unchecked") final Node<T>[] children = (Node<T>[]) new Node<?>[8];
+    for (var octant = 0; octant < 8; octant++) {
+      children[octant] = new Node<>(
+        node.centerX + ((octant & 1) == 0 ? -half : half),
+        node.centerY + ((octant & 2) == 0 ? -half : half),
+        node.centerZ + ((octant & 4) == 0 ? -half : half),
+        half, node.depth + 1);
+    }
+    node.children = children;
+    for (var index = node.size - 1; index >= 0; index--) {
+      final var entry = node.entries[index];
+      final var child = children[node.octant(entry.x, entry.y, entry.z)];
+      if (child.contains(entry.x, entry.y, entry.z)) {
+        node.remove(entry);
+        child.add(entry);
+      }
+    }
+    for (final var child : children) {
+      this.split(child);
+    }
+  }
+
+  /**
+   * a class that represents nodes of the octree.
+   *
+   * @param <T> type of the values.
+   */
+  private static final class Node<T> extends SpatialBucket<T> {
+
+    /**
+     * the center x.
+     */
+    private final double centerX;
+
+    /**
+     * the center y.
+     */
+    private final double centerY;
+
+    /**
+     * the center z.
+     */
+    private final double centerZ;
+
+    /**
+     * the depth.
+     */
+    private final int depth;
+
+    /**
+     * the half size of the cell.
+     */
+    private final double half;
+
+    /**
+     * the children, {@code null} for leaves.
+     */
+    @Nullable
+    private Node<T> @Nullable [] children;
+
+    /**
+     * ctor.
+     *
+     * @param centerX the center x.
+     * @param centerY the center y.
+     * @param centerZ the center z.
+     * @param half the half.
+     * @param depth the depth.
+     */
+    private Node(final double centerX, final double centerY, final double centerZ, final double half,
+                 final int depth) {
+      this.centerX = centerX;
+      this.centerY = centerY;
+      this.centerZ = centerZ;
+      this.half = half;
+      this.depth = depth;
+    }
+
+    /**
+     * checks if the position is inside the cell.
+     *
+     * @param x the x to check.
+     * @param y the y to check.
+     * @param z the z to check.
+     *
+     * @return {@code true} if the position is inside the cell.
+     */
+    private boolean contains(final double x, final double y, final double z) {
+      return Math.abs(x - this.centerX) <= this.half && Math.abs(y - this.centerY) <= this.half &&
+        Math.abs(z - this.centerZ) <= this.half;
+    }
+
+    /**
+     * checks if the position is inside the loose bounds.
+     *
+     * @param x the x to check.
+     * @param y the y to check.
+     * @param z the z to check.
+     *
+     * @return {@code true} if the position is inside the loose bounds.
+     */
+    private boolean looseContains(final double x, final double y, final double z) {
+      final var loose = this.half * 2.0d;
+      return Math.abs(x - this.centerX) <= loose && Math.abs(y - this.centerY) <= loose &&
+        Math.abs(z - this.centerZ) <= loose;
+    }
+
+    /**
+     * checks if the loose bounds overlap the box.
+     *
+     * @param minX the min x to check.
+     * @param minY the min y to check.
+     * @param minZ the min z to check.
+     * @param maxX the max x to check.
+     * @param maxY the max y to check.
+     * @param maxZ the max z to check.
+     *
+     * @return {@code true} if the loose bounds overlap the box.
+     */
+    private boolean looseIntersects(final double minX, final double minY, final double minZ, final double maxX,
+                                    final double maxY, final double maxZ) {
+      final var loose = this.half * 2.0d;
+      return maxX >= this.centerX - loose && minX <= this.centerX + loose &&
+        maxY >= this.centerY - loose && minY <= this.centerY + loose &&
+        maxZ >= this.centerZ - loose && minZ <= this.centerZ + loose;
+    }
+
+    /**
+     * obtains the octant of the position.
+     *
+     * @param x the x to obtain.
+     * @param y the y to obtain.
+     * @param z the z to obtain.
+     *
+     * @return octant of the position.
+     */
+    private int octant(final double x, final double y, final double z) {
+      return (x >= this.centerX ? 1 : 0) | (y >= this.centerY ? 2 : 0) | (z >= this.centerZ ? 4 : 0);
+    }
+  }
+}
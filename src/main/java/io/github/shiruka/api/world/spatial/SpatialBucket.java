@@ -0,0 +1,112 @@
+package io.github.shiruka.api.world.spatial;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents containers of spatial entries, which remove entries by swapping them with the last one.
+ *
+ * @param <T> type of the values.
+ */
+class SpatialBucket<T> {
+
+  /**
+   * the entries.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  SpatialEntry<T> @NotNull [] entries = (SpatialEntry<T>[]) new SpatialEntry<?>[4];
+
+  /**
+   * the entry count.
+   */
+  int size;
+
+  /**
+   * adds the entry.
+   *
+   * @param entry the entry to add.
+   */
+  final void add(@NotNull final SpatialEntry<T> entry) {
+    if (this.size == this.entries.length) {
+      this.entries = Arrays.copyOf(this.entries, this.size << 1);
+    }
+    entry.owner = this;
+    entry.index = this.size;
+    this.entries[this.size++] = entry;
+  }
+
+  /**
+   * collects the entries within the radius of the position.
+   *
+   * @param x the x to collect.
+   * @param y the y to collect.
+   * @param z the z to collect.
+   * @param radiusSquared the squared radius to collect.
+   * @param output the output to collect into.
+   */
+  final void collect(final double x, final double y, final double z, final double radiusSquared,
+                     @NotNull final List<SpatialEntry<T>> output) {
+    for (var index = 0; index < this.size; index++) {
+      final var entry = this.entries[index];
+      if (entry.distanceSquared(x, y, z) <= radiusSquared) {
+        output.add(entry);
+      }
+    }
+  }
+
+  /**
+   * visits the entries inside the box.
+   *
+   * @param minX the min x to visit.
+   * @param minY the min y to visit.
+   * @param minZ the min z to visit.
+   * @param maxX the max x to visit.
+   * @param maxY the max y to visit.
+   * @param maxZ the max z to visit.
+   * @param consumer the consumer to visit.
+   */
+  final void forEachInBox(final double minX, final double minY, final double minZ, final double maxX,
+                          final double maxY, final double maxZ, @NotNull final Consumer<? super T> consumer) {
+    for (var index = 0; index < this.size; index++) {
+      final var entry = this.entries[index];
+      if (entry.inside(minX, minY, minZ, maxX, maxY, maxZ)) {
+        consumer.accept(entry.value);
+      }
+    }
+  }
+
+  /**
+   * visits the entries within the radius of the position.
+   *
+   * @param x the x to visit.
+   * @param y the y to visit.
+   * @param z the z to visit.
+   * @param radiusSquared the squared radius to visit.
+   * @param consumer the consumer to visit.
+   */
+  final void forEachInRange(final double x, final double y, final double z, final double radiusSquared,
+                            @NotNull final Consumer<? super T> consumer) {
+    for (var index = 0; index < this.size; index++) {
+      final var entry = this.entries[index];
+      if (entry.distanceSquared(x, y, z) <= radiusSquared) {
+        consumer.accept(entry.value);
+      }
+    }
+  }
+
+  /**
+   * removes the entry.
+   *
+   * @param entry the entry to remove.
+   */
+  final void remove(@NotNull final SpatialEntry<T> entry) {
+    final var last = this.entries[--this.size];
+    this.entries[entry.index] = last;
+    last.index = entry.index;
+    this.entries[this.size] = null;
+    entry.owner = null;
+  }
+}
@@ -0,0 +1,87 @@
+package io.github.shiruka.api.world.spatial;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents mutable entries of spatial indexes.
+ *
+ * @param <T> type of the value.
+ */
+final class SpatialEntry<T> {
+
+  /**
+   * the value.
+   */
+  @NotNull
+  final T value;
+
+  /**
+   * the index of the entry in its container.
+   */
+  int index;
+
+  /**
+   * the container of the entry.
+   */
+  @Nullable
+  SpatialBucket<T> owner;
+
+  /**
+   * the x.
+   */
+  double x;
+
+  /**
+   * the y.
+   */
+  double y;
+
+  /**
+   * the z.
+   */
+  double z;
+
+  /**
+   * ctor.
+   *
+   * @param value the value.
+   */
+  SpatialEntry(@NotNull final T value) {
+    this.value = value;
+  }
+
+  /**
+   * calculates the squared distance to the position.
+   *
+   * @param x the x to calculate.
+   * @param y the y to calculate.
+   * @param z the z to calculate.
+   *
+   * @return squared distance.
+   */
+  double distanceSquared(final double x, final double y, final double z) {
+    final var dx = this.x - x;
+    final var dy = this.y - y;
+    final var dz = this.z - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * checks if the entry is inside the box.
+   *
+   * @param minX the min x to check.
+   * @param minY the min y to check.
+   * @param minZ the min z to check.
+   * @param maxX the max x to check.
+   * @param maxY the max y to check.
+   * @param maxZ the max z to check.
+   *
+   * @return {@code true} if the entry is inside the box.
+   */
+  boolean inside(final double minX, final double minY, final double minZ, final double maxX, final double maxY,
+                 final double maxZ) {
+    return this.x >= minX && this.x <= maxX && this.y >= minY && this.y <= maxY && this.z >= minZ &&
+      this.z <= maxZ;
+  }
+}
@@ -0,0 +1,199 @@
+package io.github.shiruka.api.world.spatial;
+
+import io.github.shiruka.api.base.Location;
+import io.github.shiruka.api.common.vectors.Vector3d;
+import io.github.shiruka.api.common.vectors.Vector3i;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine spatial indexes which answer proximity queries without scanning every value.
+ * <p>
+ * values are compared by identity, each value has a single position, which must be finite. the {@code forEach}
+ * queries visit the values without allocating, the list queries are conveniences on top of them. implementations are
+ * not thread-safe.
+ *
+ * @param <T> type of the values.
+ */
+public interface SpatialIndex<T> {
+
+  /**
+   * adds the value at the position, moves it if it is already added.
+   *
+   * @param value the value to add.
+   * @param x the x to add.
+   * @param y the y to add.
+   * @param z the z to add.
+   */
+  void add(@NotNull T value, double x, double y, double z);
+
+  /**
+   * adds the value at the position, moves it if it is already added.
+   *
+   * @param value the value to add.
+   * @param position the position to add.
+   */
+  default void add(@NotNull final T value, @NotNull final Vector3d position) {
+    this.add(value, position.x(), position.y(), position.z());
+  }
+
+  /**
+   * adds the value at the block position, moves it if it is already added.
+   *
+   * @param value the value to add.
+   * @param position the position to add.
+   */
+  default void add(@NotNull final T value, @NotNull final Vector3i position) {
+    this.add(value, position.x(), position.y(), position.z());
+  }
+
+  /**
+   * finds the values inside the box.
+   *
+   * @param minX the min x to find, inclusive.
+   * @param minY the min y to find, inclusive.
+   * @param minZ the min z to find, inclusive.
+   * @param maxX the max x to find, inclusive.
+   * @param maxY the max y to find, inclusive.
+   * @param maxZ the max z to find, inclusive.
+   *
+   * @return a new list of the values inside the box.
+   */
+  @NotNull
+  default List<T> box(final double minX, final double minY, final double minZ, final double maxX, final double maxY,
+                      final double maxZ) {
+    final var result = new ObjectArrayList<T>();
+    this.forEachInBox(minX, minY, minZ, maxX, maxY, maxZ, result::add);
+    return result;
+  }
+
+  /**
+   * checks if the value is added.
+   *
+   * @param value the value to check.
+   *
+   * @return {@code true} if the value is added.
+   */
+  boolean contains(@NotNull T value);
+
+  /**
+   * visits the values inside the box.
+   *
+   * @param minX the min x to visit, inclusive.
+   * @param minY the min y to visit, inclusive.
+   * @param minZ the min z to visit, inclusive.
+   * @param maxX the max x to visit, inclusive.
+   * @param maxY the max y to visit, inclusive.
+   * @param maxZ the max z to visit, inclusive.
+   * @param consumer the consumer to visit, must not modify the index.
+   */
+  void forEachInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                    @NotNull Consumer<? super T> consumer);
+
+  /**
+   * visits the values within the radius of the position.
+   *
+   * @param x the x to visit.
+   * @param y the y to visit.
+   * @param z the z to visit.
+   * @param radius the radius to visit, inclusive.
+   * @param consumer the consumer to visit, must not modify the index.
+   */
+  void forEachInRange(double x, double y, double z, double radius, @NotNull Consumer<? super T> consumer);
+
+  /**
+   * moves the value to the position.
+   *
+   * @param value the value to move.
+   * @param x the x to move.
+   * @param y the y to move.
+   * @param z the z to move.
+   *
+   * @return {@code true} if the value is added and moved.
+   */
+  boolean move(@NotNull T value, double x, double y, double z);
+
+  /**
+   * moves the value to the position.
+   *
+   * @param value the value to move.
+   * @param position the position to move.
+   *
+   * @return {@code true} if the value is added and moved.
+   */
+  default boolean move(@NotNull final T value, @NotNull final Vector3d position) {
+    return this.move(value, position.x(), position.y(), position.z());
+  }
+
+  /**
+   * finds the nearest values to the position.
+   *
+   * @param x the x to find.
+   * @param y the y to find.
+   * @param z the z to find.
+   * @param count the max count of values to find.
+   *
+   * @return a new list of the nearest values, nearest first.
+   */
+  @NotNull
+  List<T> nearest(double x, double y, double z, int count);
+
+  /**
+   * finds the nearest values to the position.
+   *
+   * @param position the position to find.
+   * @param count the max count of values to find.
+   *
+   * @return a new list of the nearest values, nearest first.
+   */
+  @NotNull
+  default List<T> nearest(@NotNull final Vector3d position, final int count) {
+    return this.nearest(position.x(), position.y(), position.z(), count);
+  }
+
+  /**
+   * finds the values within the radius of the position.
+   *
+   * @param position the position to find.
+   * @param radius the radius to find, inclusive.
+   *
+   * @return a new list of the values within the radius.
+   */
+  @NotNull
+  default List<T> range(@NotNull final Vector3d position, final double radius) {
+    final var result = new ObjectArrayList<T>();
+    this.forEachInRange(position.x(), position.y(), position.z(), radius, result::add);
+    return result;
+  }
+
+  /**
+   * finds the values within the radius of the location, the world of the location is ignored.
+   *
+   * @param location the location to find.
+   * @param radius the radius to find, inclusive.
+   *
+   * @return a new list of the values within the radius.
+   */
+  @NotNull
+  default List<T> range(@NotNull final Location location, final double radius) {
+    return this.range(location.position(), radius);
+  }
+
+  /**
+   * removes the value.
+   *
+   * @param value the value to remove.
+   *
+   * @return {@code true} if the value was added and removed.
+   */
+  boolean remove(@NotNull T value);
+
+  /**
+   * obtains the count of values.
+   *
+   * @return value count.
+   */
+  int size();
+}
@@ -0,0 +1,4 @@
+/**
+ * the package that contains spatial index classes.
+ */
+package io.github.shiruka.api.world.spatial;